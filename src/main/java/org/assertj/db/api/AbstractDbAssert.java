@@ -118,40 +118,35 @@ public abstract class AbstractDbAssert<D extends AbstractDbData<D>, A extends Ab
   /** {@inheritDoc} */
   @Override
   public A hasNumberOfRows(int expected) {
-    List<Row> rowsList = actual.getRowsList();
-    int size = rowsList.size();
+    int size = actual.getRowsNumber();
     return AssertionsOnNumberOfRows.hasNumberOfRows(myself, info, size, expected);
   }
 
   /** {@inheritDoc} */
   @Override
   public A hasNumberOfRowsGreaterThan(int expected) {
-    List<Row> rowsList = actual.getRowsList();
-    int size = rowsList.size();
+    int size = actual.getRowsNumber();
     return AssertionsOnNumberOfRows.hasNumberOfRowsGreaterThan(myself, info, size, expected);
   }
 
   /** {@inheritDoc} */
   @Override
   public A hasNumberOfRowsLessThan(int expected) {
-    List<Row> rowsList = actual.getRowsList();
-    int size = rowsList.size();
+    int size = actual.getRowsNumber();
     return AssertionsOnNumberOfRows.hasNumberOfRowsLessThan(myself, info, size, expected);
   }
 
   /** {@inheritDoc} */
   @Override
   public A hasNumberOfRowsGreaterThanOrEqualTo(int expected) {
-    List<Row> rowsList = actual.getRowsList();
-    int size = rowsList.size();
+    int size = actual.getRowsNumber();
     return AssertionsOnNumberOfRows.hasNumberOfRowsGreaterThanOrEqualTo(myself, info, size, expected);
   }
 
   /** {@inheritDoc} */
   @Override
   public A hasNumberOfRowsLessThanOrEqualTo(int expected) {
-    List<Row> rowsList = actual.getRowsList();
-    int size = rowsList.size();
+    int size = actual.getRowsNumber();
     return AssertionsOnNumberOfRows.hasNumberOfRowsLessThanOrEqualTo(myself, info, size, expected);
   }
 
@@ -59,28 +59,13 @@ public class AssertionsOnColumnContent {
   public static <A extends AbstractAssert> A containsValues(A assertion, WritableAssertionInfo info,
                                                        List<Value> valuesList, Object... expected) {
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (Object val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.OBJECT);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, Object.class));
       }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, Object.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
-      }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
@@ -100,28 +85,13 @@ public class AssertionsOnColumnContent {
                                                        List<Value> valuesList, Boolean... expected) {
     AssertionsOnColumnType.isBoolean(assertion, info, valuesList, true);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (Boolean val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
-      }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, Boolean.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.BOOLEAN);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, Boolean.class));
       }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
@@ -141,28 +111,13 @@ public class AssertionsOnColumnContent {
                                                        List<Value> valuesList, Number... expected) {
     AssertionsOnColumnType.isNumber(assertion, info, valuesList, true);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (Number val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
-      }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, Number.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.NUMBER);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, Number.class));
       }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
@@ -182,28 +137,9 @@ public class AssertionsOnColumnContent {
                                                        List<Value> valuesList, byte[]... expected) {
     AssertionsOnColumnType.isBytes(assertion, info, valuesList, true);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (byte[] val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
-      }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, byte[].class));
-        }
-        throw failures.failure(info, shouldContainsValue(index));
-      }
-      list = newList;
-      index++;
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.BYTES);
+    if (index != -1) {
+      throw failures.failure(info, shouldContainsValue(index));
     }
     return assertion;
   }
@@ -224,28 +160,13 @@ public class AssertionsOnColumnContent {
     AssertionsOnColumnType.isOfAnyTypeIn(assertion, info, valuesList, ValueType.TEXT, ValueType.NUMBER, ValueType.DATE,
                                          ValueType.TIME, ValueType.DATE_TIME, ValueType.UUID, ValueType.NOT_IDENTIFIED);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (String val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.TEXT);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, String.class));
       }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, String.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
-      }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
@@ -265,28 +186,13 @@ public class AssertionsOnColumnContent {
                                                        List<Value> valuesList, UUID... expected) {
     AssertionsOnColumnType.isOfAnyTypeIn(assertion, info, valuesList, ValueType.UUID, ValueType.NOT_IDENTIFIED);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (UUID val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
-      }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, UUID.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.UUID);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, UUID.class));
       }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
@@ -307,28 +213,13 @@ public class AssertionsOnColumnContent {
     AssertionsOnColumnType
             .isOfAnyTypeIn(assertion, info, valuesList, ValueType.DATE, ValueType.DATE_TIME, ValueType.NOT_IDENTIFIED);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (DateValue val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
-      }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, DateValue.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.DATE);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, DateValue.class));
       }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
@@ -348,28 +239,13 @@ public class AssertionsOnColumnContent {
                                                        List<Value> valuesList, TimeValue... expected) {
     AssertionsOnColumnType.isOfAnyTypeIn(assertion, info, valuesList, ValueType.TIME, ValueType.NOT_IDENTIFIED);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (TimeValue val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.TIME);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, TimeValue.class));
       }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, TimeValue.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
-      }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
@@ -390,28 +266,13 @@ public class AssertionsOnColumnContent {
     AssertionsOnColumnType.isOfAnyTypeIn(assertion, info, valuesList, ValueType.DATE, ValueType.DATE_TIME,
                                          ValueType.NOT_IDENTIFIED);
     AssertionsOnNumberOfRows.hasNumberOfRows(assertion, info, valuesList.size(), expected.length);
-    List<Value> list = new ArrayList<>(valuesList);
-    int index = 0;
-    for (DateTimeValue val : expected) {
-      boolean found = false;
-      List<Value> newList = new ArrayList<>();
-      for (Value obj : list) {
-        if (found || !Values.areEqual(obj, val)) {
-          newList.add(obj);
-        }
-        else {
-          found = true;
-        }
-      }
-      if (!found) {
-        List<Object> listForError = new ArrayList<>();
-        for (Value obj : valuesList) {
-          listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, DateTimeValue.class));
-        }
-        throw failures.failure(info, shouldContainsValue(listForError, expected, val, index));
+    int index = ValuesMultiset.getIndexOfMissingValue(valuesList, expected, ValuesMultiset.Equality.DATE_TIME);
+    if (index != -1) {
+      List<Object> listForError = new ArrayList<>();
+      for (Value obj : valuesList) {
+        listForError.add(Values.getRepresentationFromValueInFrontOfExpected(obj, DateTimeValue.class));
       }
-      list = newList;
-      index++;
+      throw failures.failure(info, shouldContainsValue(listForError, expected, expected[index], index));
     }
     return assertion;
   }
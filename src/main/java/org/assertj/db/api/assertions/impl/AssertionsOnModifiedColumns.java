@@ -62,10 +62,10 @@ public class AssertionsOnModifiedColumns {
    */
   public static <A extends AbstractAssert> A hasNumberOfModifiedColumns(A assertion, WritableAssertionInfo info,
                                                                         Change change, int number) {
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int numberOfModifiedColumns = change.getNumberOfModifiedColumns();
 
-    if (number != indexesOfModifiedColumns.length) {
-      throw failures.failure(info, shouldHaveNumberOfModifications(indexesOfModifiedColumns.length, number));
+    if (number != numberOfModifiedColumns) {
+      throw failures.failure(info, shouldHaveNumberOfModifications(numberOfModifiedColumns, number));
     }
     return assertion;
   }
@@ -84,10 +84,10 @@ public class AssertionsOnModifiedColumns {
    */
   public static <A extends AbstractAssert> A hasNumberOfModifiedColumnsGreaterThan(A assertion, WritableAssertionInfo info,
                                                                                    Change change, int number) {
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int numberOfModifiedColumns = change.getNumberOfModifiedColumns();
 
-    if (number >= indexesOfModifiedColumns.length) {
-      throw failures.failure(info, shouldHaveNumberOfModificationsGreater(indexesOfModifiedColumns.length, number));
+    if (number >= numberOfModifiedColumns) {
+      throw failures.failure(info, shouldHaveNumberOfModificationsGreater(numberOfModifiedColumns, number));
     }
     return assertion;
   }
@@ -106,10 +106,10 @@ public class AssertionsOnModifiedColumns {
    */
   public static <A extends AbstractAssert> A hasNumberOfModifiedColumnsLessThan(A assertion, WritableAssertionInfo info,
                                                                                 Change change, int number) {
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int numberOfModifiedColumns = change.getNumberOfModifiedColumns();
 
-    if (number <= indexesOfModifiedColumns.length) {
-      throw failures.failure(info, shouldHaveNumberOfModificationsLess(indexesOfModifiedColumns.length, number));
+    if (number <= numberOfModifiedColumns) {
+      throw failures.failure(info, shouldHaveNumberOfModificationsLess(numberOfModifiedColumns, number));
     }
     return assertion;
   }
@@ -128,10 +128,10 @@ public class AssertionsOnModifiedColumns {
    */
   public static <A extends AbstractAssert> A hasNumberOfModifiedColumnsGreaterThanOrEqualTo(A assertion, WritableAssertionInfo info,
                                                                         Change change, int number) {
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int numberOfModifiedColumns = change.getNumberOfModifiedColumns();
 
-    if (number > indexesOfModifiedColumns.length) {
-      throw failures.failure(info, shouldHaveNumberOfModificationsGreaterOrEqual(indexesOfModifiedColumns.length,
+    if (number > numberOfModifiedColumns) {
+      throw failures.failure(info, shouldHaveNumberOfModificationsGreaterOrEqual(numberOfModifiedColumns,
                                                                                  number));
     }
     return assertion;
@@ -151,10 +151,10 @@ public class AssertionsOnModifiedColumns {
    */
   public static <A extends AbstractAssert> A hasNumberOfModifiedColumnsLessThanOrEqualTo(A assertion, WritableAssertionInfo info,
                                                                                    Change change, int number) {
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int numberOfModifiedColumns = change.getNumberOfModifiedColumns();
 
-    if (number < indexesOfModifiedColumns.length) {
-      throw failures.failure(info, shouldHaveNumberOfModificationsLessOrEqual(indexesOfModifiedColumns.length, number));
+    if (number < numberOfModifiedColumns) {
+      throw failures.failure(info, shouldHaveNumberOfModificationsLessOrEqual(numberOfModifiedColumns, number));
     }
     return assertion;
   }
@@ -177,10 +177,9 @@ public class AssertionsOnModifiedColumns {
       throw new NullPointerException("Columns indexes must be not null");
     }
 
-    // Create a sorted list from the modified columns
+    // Create a list from the modified columns (already sorted)
     Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
     List<Integer> indexesOfModifiedList = Arrays.asList(indexesOfModifiedColumns);
-    Collections.sort(indexesOfModifiedList);
 
     // Create a sorted list from the parameters
     List<Integer> indexesList = new ArrayList<>();
@@ -230,7 +229,7 @@ public class AssertionsOnModifiedColumns {
     Collections.sort(namesList, columnLetterCase);
 
     // Create a sorted list from the modified columns
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int[] indexesOfModifiedColumns = change.getIndexesOfModifiedColumns();
     String[] namesOfModifiedColumns = new String[indexesOfModifiedColumns.length];
     List<String> columnsNameList = change.getColumnsNameList();
     for (int i = 0; i < indexesOfModifiedColumns.length; i++) {
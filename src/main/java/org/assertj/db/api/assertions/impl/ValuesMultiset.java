@@ -0,0 +1,461 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.api.assertions.impl;
+
+import org.assertj.db.type.DateTimeValue;
+import org.assertj.db.type.DateValue;
+import org.assertj.db.type.TimeValue;
+import org.assertj.db.type.Value;
+import org.assertj.db.util.Values;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Multiset of the values of a column used to verify that the column contains expected values.
+ * <p>
+ * The values are put in buckets by a semantic key which is the same for all the values equal in the sense of
+ * {@link Values#areEqual(Value, Object)} (for example the integral numbers are keyed by their {@code long} value and
+ * the timestamps by their date).<br>
+ * Removing an expected value only looks in the bucket of its key and in the values which can not be keyed for the
+ * kind of the expected value (for example a number compared to a text), so the first remaining value equal to the
+ * expected value is the same than with a scan of all the remaining values.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class ValuesMultiset {
+
+  /**
+   * The values.
+   */
+  private final List<Value> valuesList;
+  /**
+   * Indicates for each value if it is already removed.
+   */
+  private final boolean[] removed;
+  /**
+   * The indexes of the values in buckets by key, for each kind of expected value (built when needed).
+   */
+  private final Map<Kind, Map<Integer, LinkedList<Integer>>> bucketsMap = new EnumMap<>(Kind.class);
+  /**
+   * The indexes of the values which can not be keyed, for each kind of expected value (built when needed).
+   */
+  private final Map<Kind, LinkedList<Integer>> notKeyedMap = new EnumMap<>(Kind.class);
+
+  /**
+   * Equality used to compare a value with an expected value.
+   */
+  enum Equality {
+
+    /**
+     * Equality with an {@code Object}.
+     */
+    OBJECT {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, expected);
+      }
+    },
+    /**
+     * Equality with a {@code Boolean}.
+     */
+    BOOLEAN {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (Boolean) expected);
+      }
+    },
+    /**
+     * Equality with a {@code Number}.
+     */
+    NUMBER {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (Number) expected);
+      }
+    },
+    /**
+     * Equality with an array of {@code byte}.
+     */
+    BYTES {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (byte[]) expected);
+      }
+    },
+    /**
+     * Equality with a {@code String}.
+     */
+    TEXT {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (String) expected);
+      }
+    },
+    /**
+     * Equality with an {@code UUID}.
+     */
+    UUID {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (java.util.UUID) expected);
+      }
+    },
+    /**
+     * Equality with a {@link DateValue}.
+     */
+    DATE {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (DateValue) expected);
+      }
+    },
+    /**
+     * Equality with a {@link TimeValue}.
+     */
+    TIME {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (TimeValue) expected);
+      }
+    },
+    /**
+     * Equality with a {@link DateTimeValue}.
+     */
+    DATE_TIME {
+      @Override
+      boolean areEqual(Value value, Object expected) {
+        return Values.areEqual(value, (DateTimeValue) expected);
+      }
+    };
+
+    /**
+     * Returns if the value is equal to the expected value.
+     *
+     * @param value    The value.
+     * @param expected The expected value.
+     * @return {@code true} if the value is equal to the expected value, {@code false} otherwise.
+     */
+    abstract boolean areEqual(Value value, Object expected);
+  }
+
+  /**
+   * Kind of the expected values which determines how the values are keyed.
+   */
+  private enum Kind {
+
+    /**
+     * The {@code null} expected value : only a {@code null} value can be equal.
+     */
+    NULL {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        return 1;
+      }
+    },
+    /**
+     * The {@code Boolean} expected values.
+     */
+    BOOLEAN {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        return object instanceof Boolean ? object.hashCode() : null;
+      }
+    },
+    /**
+     * The integral {@code Number} expected values.
+     */
+    NUMBER {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        return isIntegral(object) ? getKey(((Number) object).longValue()) : null;
+      }
+    },
+    /**
+     * The array of {@code byte} expected values.
+     */
+    BYTES {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        return object instanceof byte[] ? Arrays.hashCode((byte[]) object) : null;
+      }
+    },
+    /**
+     * The {@code String} expected values (a text can be equal to a number, a date, a time or an UUID after parsing,
+     * so only the texts are keyed).
+     */
+    TEXT {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        return object instanceof String ? object.hashCode() : null;
+      }
+    },
+    /**
+     * The {@code UUID} expected values.
+     */
+    UUID {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        return object instanceof java.util.UUID ? object.hashCode() : null;
+      }
+    },
+    /**
+     * The date and date/time expected values (keyed by the date because a date can be equal to a date/time).
+     */
+    DATE {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        if (object instanceof Date) {
+          return DateValue.from((Date) object).hashCode();
+        } else if (object instanceof Timestamp) {
+          return DateTimeValue.from((Timestamp) object).getDate().hashCode();
+        }
+        return null;
+      }
+    },
+    /**
+     * The time expected values.
+     */
+    TIME {
+      @Override
+      Integer getKeyOfObject(Object object) {
+        return object instanceof Time ? TimeValue.from((Time) object).hashCode() : null;
+      }
+    };
+
+    /**
+     * Returns the key of a non {@code null} object of a value.
+     *
+     * @param object The object of the value.
+     * @return The key or {@code null} if the object can not be keyed for this kind.
+     */
+    abstract Integer getKeyOfObject(Object object);
+
+    /**
+     * Returns the key of a value.
+     *
+     * @param value The value.
+     * @return The key or {@code null} if the value can not be keyed for this kind.
+     */
+    Integer getKeyOfValue(Value value) {
+      Object object = value.getValue();
+      if (object == null) {
+        return 0;
+      }
+      return getKeyOfObject(object);
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param valuesList The values.
+   */
+  ValuesMultiset(List<Value> valuesList) {
+    this.valuesList = new ArrayList<>(valuesList);
+    removed = new boolean[valuesList.size()];
+  }
+
+  /**
+   * Returns the index of the first expected value which is not in the values (each value can only match one expected
+   * value, in the order of the expected values).
+   *
+   * @param valuesList The values.
+   * @param expected   The expected values.
+   * @param equality   The equality used to compare a value with an expected value.
+   * @return The index of the first expected value not found or {@code -1} if all the expected values are found.
+   */
+  static int getIndexOfMissingValue(List<Value> valuesList, Object[] expected, Equality equality) {
+    ValuesMultiset multiset = new ValuesMultiset(valuesList);
+    for (int index = 0; index < expected.length; index++) {
+      if (!multiset.remove(expected[index], equality)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Removes the first remaining value equal to the expected value.
+   *
+   * @param expected The expected value.
+   * @param equality The equality used to compare a value with the expected value.
+   * @return {@code true} if a value is removed, {@code false} if there is no remaining value equal to the expected
+   * value.
+   */
+  boolean remove(Object expected, Equality equality) {
+    Kind kind = getKind(expected);
+    if (kind == null) {
+      for (int index = 0; index < removed.length; index++) {
+        if (!removed[index] && equality.areEqual(valuesList.get(index), expected)) {
+          removed[index] = true;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    Map<Integer, LinkedList<Integer>> buckets = getBuckets(kind);
+    LinkedList<Integer> bucket = buckets.get(getKeyOfExpected(kind, expected));
+    int indexInBucket = getIndexOfFirstEqual(bucket, expected, equality, removed.length);
+    int indexNotKeyed = getIndexOfFirstEqual(notKeyedMap.get(kind), expected, equality, indexInBucket);
+    int index = Math.min(indexInBucket, indexNotKeyed);
+    if (index == removed.length) {
+      return false;
+    }
+    removed[index] = true;
+    return true;
+  }
+
+  /**
+   * Returns the index of the first value equal to the expected value in the indexes (the values already removed are
+   * taken off the indexes when they are encountered).
+   *
+   * @param indexes  The indexes of the values in ascending order (can be {@code null}).
+   * @param expected The expected value.
+   * @param equality The equality used to compare a value with the expected value.
+   * @param limit    The index from which the search is useless.
+   * @return The index of the value or {@code limit} if there is no value equal before this index.
+   */
+  private int getIndexOfFirstEqual(LinkedList<Integer> indexes, Object expected, Equality equality, int limit) {
+    if (indexes != null) {
+      Iterator<Integer> iterator = indexes.iterator();
+      while (iterator.hasNext()) {
+        int index = iterator.next();
+        if (index >= limit) {
+          break;
+        }
+        if (removed[index]) {
+          iterator.remove();
+        } else if (equality.areEqual(valuesList.get(index), expected)) {
+          return index;
+        }
+      }
+    }
+    return limit;
+  }
+
+  /**
+   * Returns the buckets of the indexes of the values for a kind (the buckets are built at the first call).
+   *
+   * @param kind The kind.
+   * @return The buckets by key.
+   */
+  private Map<Integer, LinkedList<Integer>> getBuckets(Kind kind) {
+    Map<Integer, LinkedList<Integer>> buckets = bucketsMap.get(kind);
+    if (buckets == null) {
+      buckets = new HashMap<>();
+      LinkedList<Integer> notKeyed = new LinkedList<>();
+      for (int index = 0; index < removed.length; index++) {
+        if (removed[index]) {
+          continue;
+        }
+        Integer key = kind.getKeyOfValue(valuesList.get(index));
+        if (key == null) {
+          notKeyed.add(index);
+        } else {
+          LinkedList<Integer> bucket = buckets.get(key);
+          if (bucket == null) {
+            bucket = new LinkedList<>();
+            buckets.put(key, bucket);
+          }
+          bucket.add(index);
+        }
+      }
+      bucketsMap.put(kind, buckets);
+      notKeyedMap.put(kind, notKeyed);
+    }
+    return buckets;
+  }
+
+  /**
+   * Returns the kind of the expected value.
+   *
+   * @param expected The expected value.
+   * @return The kind or {@code null} if the expected value can not be keyed (all the remaining values must be
+   * compared).
+   */
+  private static Kind getKind(Object expected) {
+    if (expected == null) {
+      return Kind.NULL;
+    } else if (expected instanceof Boolean) {
+      return Kind.BOOLEAN;
+    } else if (isIntegral(expected)) {
+      return Kind.NUMBER;
+    } else if (expected instanceof byte[]) {
+      return Kind.BYTES;
+    } else if (expected instanceof String) {
+      return Kind.TEXT;
+    } else if (expected instanceof UUID) {
+      return Kind.UUID;
+    } else if (expected instanceof DateValue || expected instanceof DateTimeValue || expected instanceof Date
+               || expected instanceof Timestamp) {
+      return Kind.DATE;
+    } else if (expected instanceof TimeValue || expected instanceof Time) {
+      return Kind.TIME;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the key of the expected value (the same than the key of the values equal to it).
+   *
+   * @param kind     The kind of the expected value.
+   * @param expected The expected value.
+   * @return The key.
+   */
+  private static Integer getKeyOfExpected(Kind kind, Object expected) {
+    if (expected instanceof DateValue) {
+      return expected.hashCode();
+    } else if (expected instanceof DateTimeValue) {
+      return ((DateTimeValue) expected).getDate().hashCode();
+    } else if (expected instanceof TimeValue) {
+      return expected.hashCode();
+    } else if (expected == null) {
+      return 0;
+    }
+    return kind.getKeyOfObject(expected);
+  }
+
+  /**
+   * Returns if the object is an integral number which can be compared exactly with its {@code long} value.
+   *
+   * @param object The object.
+   * @return {@code true} if the object is a {@code Byte}, a {@code Short}, an {@code Integer} or a {@code Long}.
+   */
+  private static boolean isIntegral(Object object) {
+    return object instanceof Byte || object instanceof Short || object instanceof Integer || object instanceof Long;
+  }
+
+  /**
+   * Returns the key of a {@code long}.
+   *
+   * @param value The {@code long}.
+   * @return The key.
+   */
+  private static int getKey(long value) {
+    return (int) (value ^ (value >>> 32));
+  }
+}
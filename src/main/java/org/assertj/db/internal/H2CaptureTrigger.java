@@ -0,0 +1,129 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.internal;
+
+import org.assertj.db.type.Changes;
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Trigger for H2 which journals the changes of a table in a capture table (see
+ * {@link Changes#setTriggerCapture(boolean)}).
+ * <p>
+ * This class is only instantiated by H2 from its name (so it is public, but in a package which is not exported) : the
+ * capture table and the sequence are found from the name of the trigger. The capture table contains the columns of the
+ * table, then the {@code ADB_SEQ} and {@code ADB_OP} columns.
+ * </p>
+ * <p>
+ * It is the only class which depends on H2 : it is only loaded when the changes are captured on a H2 database.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+public class H2CaptureTrigger implements Trigger {
+
+  /**
+   * The suffix of the name of the trigger (the names are the same than the names given by the snapshot of the table).
+   */
+  private static final String TRIGGER_SUFFIX = "_TRG";
+  /**
+   * The suffix of the name of the capture table.
+   */
+  private static final String CAPTURE_SUFFIX = "_CAPT";
+  /**
+   * The suffix of the name of the sequence of the capture table.
+   */
+  private static final String SEQUENCE_SUFFIX = "_SEQ";
+
+  /**
+   * The statement to insert a row in the capture table.
+   */
+  private String insertStatement;
+  /**
+   * The name of the capture table.
+   */
+  private String captureName;
+  /**
+   * The name of the sequence.
+   */
+  private String sequenceName;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void init(Connection connection, String schemaName, String triggerName, String tableName, boolean before,
+                   int type) {
+
+    String name = triggerName.substring(0, triggerName.length() - TRIGGER_SUFFIX.length());
+    captureName = name + CAPTURE_SUFFIX;
+    sequenceName = name + SEQUENCE_SUFFIX;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+    if (oldRow != null) {
+      insert(connection, "O", oldRow);
+    }
+    if (newRow != null) {
+      insert(connection, "N", newRow);
+    }
+  }
+
+  /**
+   * Inserts a row in the capture table.
+   *
+   * @param connection The connection to the database.
+   * @param operation The operation ({@code O} for the row before the change and {@code N} for the row after).
+   * @param row The values of the row.
+   * @throws SQLException SQL Exception.
+   */
+  private void insert(Connection connection, String operation, Object[] row) throws SQLException {
+    if (insertStatement == null) {
+      StringBuilder stringBuilder = new StringBuilder("INSERT INTO ").append(captureName).append(" VALUES (");
+      for (int index = 0; index < row.length; index++) {
+        stringBuilder.append("?, ");
+      }
+      stringBuilder.append("NEXT VALUE FOR ").append(sequenceName).append(", ?)");
+      insertStatement = stringBuilder.toString();
+    }
+    try (PreparedStatement statement = connection.prepareStatement(insertStatement)) {
+      for (int index = 0; index < row.length; index++) {
+        statement.setObject(index + 1, row[index]);
+      }
+      statement.setString(row.length + 1, operation);
+      statement.executeUpdate();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() {
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove() {
+  }
+}
@@ -0,0 +1,24 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+/**
+ * This package contains the classes which are only instantiated by a database from their name and are not part of the
+ * API (the package is not exported by the bundle).
+ * <p>
+ * It is the only package which depends on a database : the H2 trigger of the capture of the changes (see
+ * {@link org.assertj.db.type.Changes#setTriggerCapture(boolean)}). The H2 dependency is optional : it is only needed
+ * at runtime to capture the changes on a H2 database, which has it on its classpath.
+ * </p>
+ *
+ * @author Régis Pouiller
+ */
+package org.assertj.db.internal;
@@ -18,7 +18,6 @@ import org.assertj.db.type.Change;
 import org.assertj.db.type.Row;
 import org.assertj.db.type.Value;
 import org.assertj.db.type.lettercase.CaseComparison;
-import org.assertj.db.util.Changes;
 import org.assertj.db.util.NameComparator;
 
 import java.lang.reflect.Constructor;
@@ -166,11 +165,9 @@ public abstract class PositionWithColumnsChange<E extends AbstractElement & Navi
    * @throws org.assertj.db.exception.AssertJDBException If the {@code index} is out of the bounds.
    */
   public N getModifiedChangeColumnInstance(Change change) {
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
-    for (Integer indexModified : indexesOfModifiedColumns) {
-      if (indexModified >= nextIndex) {
-        return getChangeColumnInstance(change, indexModified);
-      }
+    int indexModified = change.getIndexOfNextModifiedColumn(nextIndex);
+    if (indexModified >= 0) {
+      return getChangeColumnInstance(change, indexModified);
     }
     throw new AssertJDBException("No more modified columns");
   }
@@ -185,7 +182,7 @@ public abstract class PositionWithColumnsChange<E extends AbstractElement & Navi
    * @throws org.assertj.db.exception.AssertJDBException If the {@code index} is out of the bounds.
    */
   public N getModifiedChangeColumnInstance(Change change, int index) {
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int[] indexesOfModifiedColumns = change.getIndexesOfModifiedColumns();
     int size = indexesOfModifiedColumns.length;
     if (index < 0 || index >= size) {
       throw new AssertJDBException("Index %s out of the limits of the modified columns [0, %s[", index, size);
@@ -208,10 +205,10 @@ public abstract class PositionWithColumnsChange<E extends AbstractElement & Navi
     if (columnName == null) {
       throw new NullPointerException("Column name must be not null");
     }
-    Integer[] indexesOfModifiedColumns = Changes.getIndexesOfModifiedColumns(change);
+    int[] indexesOfModifiedColumns = change.getIndexesOfModifiedColumns();
     List<String> modifiedColumnsNameList = new ArrayList<>();
     List<String> columnsNameList = change.getColumnsNameList();
-    for (Integer indexModified : indexesOfModifiedColumns) {
+    for (int indexModified : indexesOfModifiedColumns) {
       String modifiedColumnName = columnsNameList.get(indexModified);
       modifiedColumnsNameList.add(modifiedColumnName);
       if (comparison.isEqual(modifiedColumnName, columnName)) {
@@ -16,12 +16,18 @@ import org.assertj.db.exception.AssertJDBException;
 import org.assertj.db.type.lettercase.LetterCase;
 import org.assertj.db.util.NameComparator;
 import org.assertj.db.util.RowComparator;
+import org.assertj.db.util.Values;
 
 import javax.sql.DataSource;
+import java.io.File;
 import java.sql.*;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
 /**
  * This class represents data from the database (either a {@link Table} or a {@link Request}).
@@ -60,6 +66,30 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
    * List of the columns.
    */
   private List<Column> columnsList;
+  /**
+   * Index of the rows by the hash code of their primary keys values.
+   * @see #getRowFromPksValues(Value...)
+   * @since 1.2.0
+   */
+  private RowsHashIndex rowsByPksIndex;
+  /**
+   * If the values are stored by column.
+   * @see #setColumnarStorage(boolean)
+   * @since 1.2.0
+   */
+  private boolean columnarStorage;
+  /**
+   * The options to load the data ({@code null} if the options are inherited from the source or the data source).
+   * @see #setLoadOptions(LoadOptions)
+   * @since 1.2.0
+   */
+  private LoadOptions loadOptions;
+  /**
+   * If the number of rows is counted by the database when the data are not loaded.
+   * @see #setCountPushDown(boolean)
+   * @since 1.2.0
+   */
+  private boolean countPushDown;
 
   /**
    * Default constructor.
@@ -107,6 +137,114 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
     return dataType;
   }
 
+  /**
+   * Returns if the number of rows is counted by the database when the data are not loaded.
+   *
+   * @return {@code true} if the number of rows is counted by the database, {@code false} otherwise.
+   * @see #setCountPushDown(boolean)
+   * @since 1.2.0
+   */
+  public boolean isCountPushDown() {
+    return countPushDown;
+  }
+
+  /**
+   * Sets if the number of rows is counted by the database when the data are not loaded.
+   * <p>
+   * With the push-down of the count, {@link #getRowsNumber()} executes a {@code SELECT COUNT(*)} request instead of
+   * loading all the rows if they are not already loaded. The data are still loaded at the first call to the other
+   * methods (like {@link #getRowsList()}), so they can be different of the number of rows counted before if the
+   * database changed between these calls.
+   * </p>
+   *
+   * @param countPushDown {@code true} to count the number of rows with the database.
+   * @return The actual instance.
+   * @see #isCountPushDown()
+   * @see #getRowsNumber()
+   * @since 1.2.0
+   */
+  public D setCountPushDown(boolean countPushDown) {
+    this.countPushDown = countPushDown;
+    return myself;
+  }
+
+  /**
+   * Returns the options to load the data.
+   * <p>
+   * If no options are set with {@link #setLoadOptions(LoadOptions)}, the options are inherited from the
+   * {@link Source} or the {@link DataSource} if they implement {@link WithLoadOptions} (like
+   * {@link SourceWithLetterCase} and {@link DataSourceWithLetterCase}), otherwise the options are
+   * {@link LoadOptions#DEFAULT}.
+   * </p>
+   *
+   * @return The options to load the data.
+   * @see #setLoadOptions(LoadOptions)
+   * @since 1.2.0
+   */
+  public LoadOptions getLoadOptions() {
+    if (loadOptions != null) {
+      return loadOptions;
+    }
+    if (getDataSource() instanceof WithLoadOptions) {
+      return ((WithLoadOptions) getDataSource()).getLoadOptions();
+    }
+    if (getSource() instanceof WithLoadOptions) {
+      return ((WithLoadOptions) getSource()).getLoadOptions();
+    }
+    return LoadOptions.DEFAULT;
+  }
+
+  /**
+   * Sets the options to load the data.
+   * <p>
+   * This must be set before the loading of the data.
+   * </p>
+   *
+   * @param loadOptions The options to load the data.
+   * @return The actual instance.
+   * @throws NullPointerException If {@code loadOptions} is {@code null}.
+   * @see #getLoadOptions()
+   * @since 1.2.0
+   */
+  public D setLoadOptions(LoadOptions loadOptions) {
+    if (loadOptions == null) {
+      throw new NullPointerException("loadOptions must be not null");
+    }
+    this.loadOptions = loadOptions;
+    return myself;
+  }
+
+  /**
+   * Returns if the values are stored by column.
+   *
+   * @return {@code true} if the values are stored by column, {@code false} otherwise.
+   * @see #setColumnarStorage(boolean)
+   * @since 1.2.0
+   */
+  public boolean isColumnarStorage() {
+    return columnarStorage;
+  }
+
+  /**
+   * Sets if the values are stored by column.
+   * <p>
+   * With the columnar storage, the values loaded from the database are kept in arrays of primitives by column (with a
+   * dictionary for the texts and a bitmap for the {@code null} values) instead of a {@link Value} for each cell. The
+   * {@link Value}s are created when they are read from a {@link Row} or a {@link Column}, so the memory used by a large
+   * data is reduced.<br>
+   * This must be set before the loading of the data.
+   * </p>
+   *
+   * @param columnarStorage {@code true} to store the values by column.
+   * @return The actual instance.
+   * @see #isColumnarStorage()
+   * @since 1.2.0
+   */
+  public D setColumnarStorage(boolean columnarStorage) {
+    this.columnarStorage = columnarStorage;
+    return myself;
+  }
+
   /**
    * Returns the SQL request.
    * 
@@ -128,21 +266,120 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
    */
   private void load() {
     try (Connection connection = getConnection()) {
+      load(connection);
+    } catch (SQLException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Loads the informations of the data from the database with the {@link Connection} in parameter.
+   * <p>
+   * This method is used by {@link Changes} to load several data in the same transaction.
+   * </p>
+   *
+   * @param connection The {@link Connection} to the database (it is not closed by this method).
+   * @throws SQLException SQL Exception.
+   * @since 1.2.0
+   */
+  void load(Connection connection) throws SQLException {
+    boolean readOnlyConnection = getLoadOptions().isReadOnlyConnection() && !connection.isReadOnly();
+    if (readOnlyConnection) {
+      connection.setReadOnly(true);
+    }
+    try {
       // Call the specific loading depending of Table or Request.
       loadImpl(connection);
-      if (pksNameList == null) {
-        pksNameList = new ArrayList<>();
+    } finally {
+      if (readOnlyConnection) {
+        // The connection can come back to a pool : so it is restored
+        connection.setReadOnly(false);
+      }
+    }
+    if (pksNameList == null) {
+      pksNameList = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Creates a {@link Statement} to read the data with the options to load (see {@link #getLoadOptions()}).
+   *
+   * @param connection The {@link Connection} to the database.
+   * @return The {@link Statement} ({@link ResultSet#TYPE_FORWARD_ONLY} and {@link ResultSet#CONCUR_READ_ONLY}).
+   * @throws SQLException SQL Exception.
+   * @since 1.2.0
+   */
+  protected Statement createStatement(Connection connection) throws SQLException {
+    Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    applyLoadOptions(statement);
+    return statement;
+  }
+
+  /**
+   * Creates a {@link PreparedStatement} to read the data with the options to load (see {@link #getLoadOptions()}).
+   *
+   * @param connection The {@link Connection} to the database.
+   * @param sql The SQL request.
+   * @return The {@link PreparedStatement} ({@link ResultSet#TYPE_FORWARD_ONLY} and
+   *         {@link ResultSet#CONCUR_READ_ONLY}).
+   * @throws SQLException SQL Exception.
+   * @since 1.2.0
+   */
+  protected PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+    PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                                                              ResultSet.CONCUR_READ_ONLY);
+    applyLoadOptions(statement);
+    return statement;
+  }
+
+  /**
+   * Applies the fetch size and the query timeout of the options to load on the {@link Statement}.
+   *
+   * @param statement The {@link Statement}.
+   * @throws SQLException SQL Exception.
+   */
+  private void applyLoadOptions(Statement statement) throws SQLException {
+    LoadOptions loadOptions = getLoadOptions();
+    try {
+      if (loadOptions.getFetchSize() > 0) {
+        statement.setFetchSize(loadOptions.getFetchSize());
+      }
+      if (loadOptions.getQueryTimeout() > 0) {
+        statement.setQueryTimeout(loadOptions.getQueryTimeout());
       }
     } catch (SQLException e) {
-      throw new AssertJDBException(e);
+      statement.close();
+      throw e;
     }
   }
 
   /**
-   * Sorts the list of rows.
+   * Sorts the list of rows (see {@link RowComparator#sort(List)}).
    */
   protected void sortRows() {
-    Collections.sort(rowsList, RowComparator.INSTANCE);
+    RowComparator.sort(rowsList);
+  }
+
+  /**
+   * Implementation of the count of the rows that depends of the kind of data.
+   * <p>
+   * This method is called by {@link #getRowsNumber()} when the count is pushed down to the database (see
+   * {@link #setCountPushDown(boolean)}) and the data are not loaded.
+   * </p>
+   * <p>
+   * This implementation returns {@code null} : the rows are loaded to be counted. It is overridden by the kinds of data
+   * which can be counted by the database.
+   * </p>
+   *
+   * @see Table#countImpl(Connection)
+   * @see Request#countImpl(Connection)
+   * @param connection {@link Connection} to the database provided by {@link #getRowsNumber()} method.
+   * @return The number of rows or {@code null} if the rows can not be counted by the database.
+   * @throws SQLException SQL Exception.
+   * @since 1.2.0
+   */
+  protected Integer countImpl(Connection connection) throws SQLException {
+    return null;
   }
 
   /**
@@ -164,52 +401,54 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
    * Collects rows from a {@link ResultSet}.
    * <p>
    * This method browse the {@link ResultSet} in parameter to get the data and fill the list of {@link Row} (
-   * {@link #rowsList}) with these data.
+   * {@link #rowsList}) with these data.<br>
+   * The values are read with a {@link RowReaderPlan} which resolves the index and the type of the columns only once.
+   * With the columnar storage (see {@link #setColumnarStorage(boolean)}), the values are kept in a
+   * {@link ColumnarStorage} and the rows only contain a view on it.
    * </p>
    * 
    * @param resultSet The {@link ResultSet}.
    * @throws SQLException A SQL Exception.
    */
   protected void collectRowsFromResultSet(ResultSet resultSet) throws SQLException {
-    ResultSetMetaData metaData = resultSet.getMetaData();
+    collectRowsFromResultSet(resultSet, true);
+  }
+
+  /**
+   * Collects rows from a {@link ResultSet} with a plan from the cache or not.
+   *
+   * @param resultSet The {@link ResultSet}.
+   * @param withCachedPlan {@code true} to use the cache of the {@link RowReaderPlan}s, {@code false} for a
+   *                       {@link ResultSet} of a SQL request which is only executed once.
+   * @throws SQLException A SQL Exception.
+   * @see #collectRowsFromResultSet(ResultSet)
+   * @since 1.2.0
+   */
+  void collectRowsFromResultSet(ResultSet resultSet, boolean withCachedPlan) throws SQLException {
+    RowReaderPlan plan;
+    if (withCachedPlan) {
+      plan = RowReaderPlan.getPlan(getRequest(), resultSet.getMetaData(), columnsNameList, getColumnLetterCase());
+    } else {
+      plan = RowReaderPlan.newPlan(resultSet.getMetaData(), columnsNameList, getColumnLetterCase());
+    }
     rowsList = new ArrayList<>();
-    while (resultSet.next()) {
-      List<Value> valuesList = new ArrayList<>();
-      for (String columnName : columnsNameList) {
-        // TODO Improve the check of the type
-        int index = -1;
-        for (int i = 1; i <= metaData.getColumnCount(); i++) {
-          if (getColumnLetterCase().isEqual(columnName, metaData.getColumnLabel(i))) {
-            index = i;
-            break;
-          }
-        }
-        Object object;
-        int type = metaData.getColumnType(index);
-        switch (type) {
-          case Types.DATE:
-            object = resultSet.getDate(columnName);
-            break;
-          case Types.TIME:
-            object = resultSet.getTime(columnName);
-            break;
-          case Types.TIMESTAMP:
-            object = resultSet.getTimestamp(columnName);
-            break;
-          case Types.BLOB:
-            object = resultSet.getBytes(columnName);
-            break;
-          case Types.CLOB:
-            object = resultSet.getString(columnName);
-            break;
-
-          default:
-            object = resultSet.getObject(columnName);
-            break;
-        }
-        valuesList.add(new Value(columnName, object, getColumnLetterCase()));
+    rowsByPksIndex = null;
+    RowSchema schema = new RowSchema(pksNameList, columnsNameList, getColumnLetterCase(), getPrimaryKeyLetterCase());
+    if (columnarStorage) {
+      ColumnarStorage storage = new ColumnarStorage(columnsNameList, getColumnLetterCase());
+      Object[] objects = new Object[columnsNameList.size()];
+      while (resultSet.next()) {
+        plan.readObjects(resultSet, objects);
+        int index = storage.addRow(objects);
+        List<Value> valuesList = storage.getRowValuesList(index);
+        rowsList.add(new Row(schema, valuesList));
+      }
+      storage.trimToSize();
+    } else {
+      while (resultSet.next()) {
+        List<Value> valuesList = plan.readValues(resultSet);
+        rowsList.add(new Row(schema, valuesList));
       }
-      rowsList.add(new Row(pksNameList, columnsNameList, valuesList, getColumnLetterCase(), getPrimaryKeyLetterCase()));
     }
   }
 
@@ -287,10 +526,18 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
       this.pksNameList.add(pkName);
     }
     if (rowsList != null) {
+      // The rows which share a schema keep sharing the new one
+      Map<RowSchema, RowSchema> schemasMap = new IdentityHashMap<>();
       for (Row row : rowsList) {
-        row.setPksNameList(this.pksNameList);
+        RowSchema schema = schemasMap.get(row.getSchema());
+        if (schema == null) {
+          schema = row.getSchema().withPksNameList(this.pksNameList);
+          schemasMap.put(row.getSchema(), schema);
+        }
+        row.setSchema(schema);
       }
     }
+    rowsByPksIndex = null;
     controlIfAllThePksNameExistInTheColumns();
   }
 
@@ -312,13 +559,105 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
     return rowsList;
   }
 
+  /**
+   * Sets the list of the rows (without loading from the database).
+   * <p>
+   * This method is used by {@link Changes} to rebuild data from a {@link TableDigest}.
+   * </p>
+   *
+   * @param rowsList The list of the rows.
+   * @since 1.2.0
+   */
+  void setRowsList(List<Row> rowsList) {
+    this.rowsList = rowsList;
+    rowsByPksIndex = null;
+    columnsList = null;
+  }
+
+  /**
+   * Writes the data in a snapshot file.
+   * <p>
+   * The data are loaded from the database if they are not loaded yet. The file is compact (the columns are written
+   * once and the values are written column by column with their type) and can be read later, even by another JVM,
+   * with {@link #readSnapshot(File)}.
+   * </p>
+   *
+   * @param file The file.
+   * @return {@code this} actual instance.
+   * @throws NullPointerException If {@code file} is {@code null}.
+   * @throws AssertJDBException If a value can not be written or if triggered, this exception wrap a possible
+   *                            exception during the loading or the writing.
+   * @see #readSnapshot(File)
+   * @since 1.2.0
+   */
+  public D writeSnapshot(File file) {
+    SnapshotFile.write(file, Collections.singletonList(this));
+    return myself;
+  }
+
+  /**
+   * Reads the data from a snapshot file (written by {@link #writeSnapshot(File)}) instead of loading them from the
+   * database.
+   * <p>
+   * The file must contain a data with the same type and the same name (the name of the table or the SQL request).
+   * The columns, the primary keys and the rows are read from the file (the values are kept by column, like with
+   * {@link #setColumnarStorage(boolean)}).
+   * </p>
+   *
+   * @param file The file.
+   * @return {@code this} actual instance.
+   * @throws NullPointerException If {@code file} is {@code null}.
+   * @throws AssertJDBException If the file does not contain the data or if triggered, this exception wrap a possible
+   *                            exception during the reading.
+   * @see #writeSnapshot(File)
+   * @since 1.2.0
+   */
+  public D readSnapshot(File file) {
+    SnapshotFile snapshotFile = SnapshotFile.open(file);
+    int index = snapshotFile.indexOf(this);
+    if (index == -1) {
+      throw new AssertJDBException("The snapshot file %s does not contain the data", file);
+    }
+    snapshotFile.read(index, this);
+    return myself;
+  }
+
+  /**
+   * Returns the number of rows of the data from database.
+   * <p>
+   * If the data are not loaded and the count is pushed down (see {@link #setCountPushDown(boolean)}), the number of
+   * rows is counted by the database without loading the data. Otherwise this method calls {@link #getRowsList()}.
+   * </p>
+   *
+   * @return The number of rows.
+   * @throws NullPointerException If the {@link #dataSource} and {@link #source} fields are {@code null}.
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the count or
+   *                            the loading.
+   * @since 1.2.0
+   */
+  public int getRowsNumber() {
+    if (rowsList == null && countPushDown) {
+      try (Connection connection = getConnection()) {
+        Integer rowsNumber = countImpl(connection);
+        if (rowsNumber != null) {
+          return rowsNumber;
+        }
+      } catch (SQLException e) {
+        throw new AssertJDBException(e);
+      }
+    }
+    return getRowsList().size();
+  }
+
   /**
    * Returns the list of the values in columns for the data from database.
    * <p>
    * This method calls {@link #getColumnsNameList()} and {@link #getValuesList(int)} which calls {@link #getRowsList()}.
    * <br>
    * If it is the first call to {@link #getColumnsNameList()} or {@link #getRowsList()}, the data are loaded from
-   * database by calling the {@link #load()} private method.
+   * database by calling the {@link #load()} private method.<br>
+   * A {@link Column} is only created when it is got from the list and its values are a view on the rows (the values
+   * are not copied).
    * </p>
    *
    * @return The list of the values in columns.
@@ -327,15 +666,7 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
    */
   public List<Column> getColumnsList() {
     if (columnsList == null) {
-      columnsList = new ArrayList<>();
-      List<String> columnsNameList = getColumnsNameList();
-      int index = 0;
-      for (String name : columnsNameList) {
-        List<Value> valuesList = getValuesList(index);
-        Column column = new Column(name, valuesList, getColumnLetterCase());
-        columnsList.add(column);
-        index++;
-      }
+      columnsList = new ColumnsList(getColumnsNameList());
     }
     return columnsList;
   }
@@ -378,37 +709,124 @@ public abstract class AbstractDbData<D extends AbstractDbData<D>> extends Abstra
   /**
    * Returns the values of the column corresponding to the column name.
    * <p>
-   * This method calls {@link #getColumnsNameList()} and {@link #getRowsList()}.<br>
-   * If it is the first call to {@link #getColumnsNameList()} or {@link #getRowsList()}, the data are loaded from
-   * database by calling the {@link #load()} private method.
+   * This method calls {@link #getRowsList()}.<br>
+   * If it is the first call to {@link #getRowsList()}, the data are loaded from database by calling the
+   * {@link #load()} private method.
+   * The list is a view on the rows (the values are not copied).
    * </p>
-   * 
+   *
    * @param index The column index
    * @return The values
    * @throws NullPointerException If the {@link #dataSource} and {@link #source} fields are {@code null}.
    * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the loading.
    */
   private List<Value> getValuesList(int index) {
-    List<Value> valuesList = new ArrayList<>();
-    for (Row row : getRowsList()) {
-      valuesList.add(row.getColumnValue(index));
-    }
-
-    return valuesList;
+    return new ColumnValuesList(getRowsList(), index);
   }
 
   /**
    * Returns the {@link Row} with the primary keys values in parameter.
+   * <p>
+   * The first call builds an index of the rows on the hash code of the primary keys values (see
+   * {@link Values#getHashCode(Value[])}), so the next calls do not browse all the rows when the primary keys values
+   * are of the same types than the values in the rows.
+   * </p>
    * 
    * @param pksValues The primary keys values.
    * @return The {@link Row} with the same primary keys values.
    */
   public Row getRowFromPksValues(Value... pksValues) {
-    for (Row row : getRowsList()) {
+    RowsHashIndex rowsByPksIndex = this.rowsByPksIndex;
+    if (rowsByPksIndex == null) {
+      rowsByPksIndex = new RowsHashIndex(getRowsList(), RowsHashIndex.Key.PRIMARY_KEYS);
+      this.rowsByPksIndex = rowsByPksIndex;
+    }
+
+    for (Row row : rowsByPksIndex.getCandidateRows(pksValues)) {
       if (row.hasPksValuesEqualTo(pksValues)) {
         return row;
       }
     }
     return null;
   }
+
+  /**
+   * List of the columns which creates each {@link Column} at the first time it is got.
+   */
+  private class ColumnsList extends AbstractList<Column> implements RandomAccess {
+
+    /**
+     * The list of the columns name.
+     */
+    private final List<String> columnsNameList;
+    /**
+     * The columns already created.
+     */
+    private final Column[] columns;
+
+    /**
+     * Constructor.
+     *
+     * @param columnsNameList The list of the columns name.
+     */
+    private ColumnsList(List<String> columnsNameList) {
+      this.columnsNameList = columnsNameList;
+      columns = new Column[columnsNameList.size()];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Column get(int index) {
+      Column column = columns[index];
+      if (column == null) {
+        column = new Column(columnsNameList.get(index), getValuesList(index), getColumnLetterCase());
+        columns[index] = column;
+      }
+      return column;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+      return columns.length;
+    }
+  }
+
+  /**
+   * List of the values of a column which is a view on the rows.
+   */
+  private static class ColumnValuesList extends AbstractList<Value> implements RandomAccess {
+
+    /**
+     * The list of the rows.
+     */
+    private final List<Row> rowsList;
+    /**
+     * The index of the column.
+     */
+    private final int columnIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param rowsList The list of the rows.
+     * @param columnIndex The index of the column.
+     */
+    private ColumnValuesList(List<Row> rowsList, int columnIndex) {
+      this.rowsList = rowsList;
+      this.columnIndex = columnIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Value get(int index) {
+      return rowsList.get(index).getColumnValue(columnIndex);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+      return rowsList.size();
+    }
+  }
 }
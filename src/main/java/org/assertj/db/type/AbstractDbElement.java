@@ -212,7 +212,10 @@ public abstract class AbstractDbElement<D extends AbstractDbElement<D>> implemen
 
   /**
    * Returns a {@link Connection} from a {@link DataSource} or from a {@link Source}.
-   * 
+   * <p>
+   * With a {@link PooledSource}, the {@link Connection} comes from its pool.
+   * </p>
+   *
    * @return A {@link Connection} differently, depending if it is a {@link DataSource} or a {@link Source}.
    * @throws SQLException SQL Exception
    */
@@ -224,6 +227,8 @@ public abstract class AbstractDbElement<D extends AbstractDbElement<D>> implemen
     // Get a Connection differently, depending if it is a DataSource or a Source.
     if (dataSource != null) {
       return dataSource.getConnection();
+    } else if (source instanceof PooledSource) {
+      return ((PooledSource) source).getConnection();
     } else {
       return DriverManager.getConnection(source.getUrl(), source.getUser(), source.getPassword());
     }
@@ -0,0 +1,222 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dialect of the database to capture the changes of a table with triggers (see
+ * {@link TableSnapshot#createWithTriggers(Table)}) and to know if a table is changed (see {@link TableChecksum}).
+ * <p>
+ * The triggers insert in the capture table the next value of the sequence (in the {@code ADB_SEQ} column), the
+ * operation ({@code O} for the row before the change and {@code N} for the row after the change, in the
+ * {@code ADB_OP} column) and the values of all the columns of the row.
+ * </p>
+ * <p>
+ * The checksum is only computed by H2 : HSQLDB has no hash function (so its checksum request is {@code null}) and
+ * there is no dialect for the other databases (e.g. SQLite which has no hash function and no sequence). For these
+ * databases, the tables are always loaded again.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+enum CaptureDialect {
+
+  /**
+   * Dialect for H2 : one trigger implemented by {@code org.assertj.db.internal.H2CaptureTrigger} (the class is only
+   * named, so it is not loaded, with its dependency on H2, out of a H2 database).
+   */
+  H2("H2") {
+    @Override
+    String getCreateCaptureTableStatement(String captureName, String tableName) {
+      return "CREATE TABLE " + captureName + " AS SELECT * FROM " + tableName + " WHERE 1 = 0";
+    }
+
+    @Override
+    List<String> getTriggersNameList(String triggerName) {
+      return Collections.singletonList(triggerName);
+    }
+
+    @Override
+    List<String> getCreateTriggersStatementsList(List<String> triggersNameList, String tableName, String captureName,
+                                                 String sequenceName, List<String> columnsNameList) {
+
+      return Collections.singletonList("CREATE TRIGGER " + triggersNameList.get(0)
+                                       + " AFTER INSERT, UPDATE, DELETE ON " + tableName
+                                       + " FOR EACH ROW CALL \"" + H2_TRIGGER_CLASS_NAME + "\"");
+    }
+
+    @Override
+    String getChecksumRequest(String tableName, List<String> columnsNameList) {
+      // Each value is prefixed by its length (N for null) : so the text of a row is unambiguous.
+      // Each row is hashed on its own (the first 64 bits of a SHA-256) and the hashes are summed : so the size of the
+      // request does not depend on the number of rows and the order of the rows does not matter
+      StringBuilder row = new StringBuilder();
+      for (String columnName : columnsNameList) {
+        String value = "CAST(" + columnName + " AS VARCHAR)";
+        row.append(row.length() == 0 ? "" : " || ")
+           .append("COALESCE(LENGTH(").append(value).append(") || ':' || ").append(value).append(", 'N')");
+      }
+      return "SELECT COUNT(*), SUM(CAST(CAST(HASH('SHA256', STRINGTOUTF8(" + row + "), 1) AS BINARY(8)) AS BIGINT))"
+             + " FROM " + tableName;
+    }
+  },
+
+  /**
+   * Dialect for HSQLDB : one SQL trigger for each operation.
+   */
+  HSQLDB("HSQL Database Engine") {
+    @Override
+    String getCreateCaptureTableStatement(String captureName, String tableName) {
+      return "CREATE TABLE " + captureName + " AS (SELECT * FROM " + tableName + ") WITH NO DATA";
+    }
+
+    @Override
+    List<String> getTriggersNameList(String triggerName) {
+      return Arrays.asList(triggerName + "_I", triggerName + "_U", triggerName + "_D");
+    }
+
+    @Override
+    List<String> getCreateTriggersStatementsList(List<String> triggersNameList, String tableName, String captureName,
+                                                 String sequenceName, List<String> columnsNameList) {
+
+      String insertOld = getInsertStatement(captureName, sequenceName, columnsNameList, "'O'", "OLDROW.");
+      String insertNew = getInsertStatement(captureName, sequenceName, columnsNameList, "'N'", "NEWROW.");
+      List<String> statementsList = new ArrayList<>();
+      statementsList.add("CREATE TRIGGER " + triggersNameList.get(0) + " AFTER INSERT ON " + tableName
+                         + " REFERENCING NEW ROW AS NEWROW FOR EACH ROW " + insertNew);
+      statementsList.add("CREATE TRIGGER " + triggersNameList.get(1) + " AFTER UPDATE ON " + tableName
+                         + " REFERENCING OLD ROW AS OLDROW NEW ROW AS NEWROW FOR EACH ROW"
+                         + " BEGIN ATOMIC " + insertOld + "; " + insertNew + "; END");
+      statementsList.add("CREATE TRIGGER " + triggersNameList.get(2) + " AFTER DELETE ON " + tableName
+                         + " REFERENCING OLD ROW AS OLDROW FOR EACH ROW " + insertOld);
+      return statementsList;
+    }
+
+    @Override
+    String getChecksumRequest(String tableName, List<String> columnsNameList) {
+      // There is no hash function in HSQLDB (and an aggregation of the text of the rows would depend on the size of the
+      // table) : so there is no checksum
+      return null;
+    }
+  };
+
+  /**
+   * The name of the class of the trigger for H2.
+   */
+  static final String H2_TRIGGER_CLASS_NAME = "org.assertj.db.internal.H2CaptureTrigger";
+
+  /**
+   * The name of the database product (as returned by {@link DatabaseMetaData#getDatabaseProductName()}).
+   */
+  private final String productName;
+
+  /**
+   * Constructor.
+   *
+   * @param productName The name of the database product.
+   */
+  CaptureDialect(String productName) {
+    this.productName = productName;
+  }
+
+  /**
+   * Returns the dialect of the database.
+   *
+   * @param metaData The meta data of the database.
+   * @return The dialect or {@code null} if there is no dialect for the database.
+   * @throws SQLException SQL Exception.
+   */
+  static CaptureDialect of(DatabaseMetaData metaData) throws SQLException {
+    String productName = metaData.getDatabaseProductName();
+    for (CaptureDialect dialect : values()) {
+      if (dialect.productName.equals(productName)) {
+        return dialect;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the statement to insert a row in the capture table.
+   *
+   * @param captureName The name of the capture table.
+   * @param sequenceName The name of the sequence.
+   * @param columnsNameList The list of all the columns name of the table.
+   * @param operation The value of the operation.
+   * @param prefix The prefix of the values of the columns.
+   * @return The statement.
+   */
+  private static String getInsertStatement(String captureName, String sequenceName, List<String> columnsNameList,
+                                           String operation, String prefix) {
+
+    StringBuilder columns = new StringBuilder("ADB_SEQ, ADB_OP");
+    StringBuilder values = new StringBuilder("NEXT VALUE FOR ").append(sequenceName).append(", ").append(operation);
+    for (String columnName : columnsNameList) {
+      columns.append(", ").append(columnName);
+      values.append(", ").append(prefix).append(columnName);
+    }
+    return "INSERT INTO " + captureName + " (" + columns + ") VALUES (" + values + ")";
+  }
+
+  /**
+   * Returns the statement to create the capture table (with the same columns than the table and without rows).
+   *
+   * @param captureName The name of the capture table.
+   * @param tableName The name of the table.
+   * @return The statement.
+   */
+  abstract String getCreateCaptureTableStatement(String captureName, String tableName);
+
+  /**
+   * Returns the names of the triggers to create.
+   *
+   * @param triggerName The base of the name of the triggers.
+   * @return The names of the triggers.
+   */
+  abstract List<String> getTriggersNameList(String triggerName);
+
+  /**
+   * Returns the statements to create the triggers which journal the changes in the capture table.
+   *
+   * @param triggersNameList The names of the triggers.
+   * @param tableName The name of the table.
+   * @param captureName The name of the capture table.
+   * @param sequenceName The name of the sequence.
+   * @param columnsNameList The list of all the columns name of the table (in the order of the table).
+   * @return The statements.
+   */
+  abstract List<String> getCreateTriggersStatementsList(List<String> triggersNameList, String tableName,
+                                                        String captureName, String sequenceName,
+                                                        List<String> columnsNameList);
+
+  /**
+   * Returns the SQL request which computes a checksum of the values of the columns of the table.
+   * <p>
+   * The request returns the number of rows then the hash of the values (which does not depend of the order of the
+   * rows). The request must only aggregate a fixed size hash of each row : it must not build a value which depends of
+   * the size of the table.
+   * </p>
+   *
+   * @param tableName The name of the table (quoted).
+   * @param columnsNameList The list of the columns name (quoted).
+   * @return The request or {@code null} if the database can not compute a checksum.
+   */
+  abstract String getChecksumRequest(String tableName, List<String> columnsNameList);
+}
@@ -17,6 +17,7 @@ import org.assertj.db.type.lettercase.WithColumnLetterCase;
 import org.assertj.db.type.lettercase.WithPrimaryKeyLetterCase;
 import org.assertj.db.type.lettercase.WithTableLetterCase;
 
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -79,6 +80,11 @@ public class Change implements DbElement, WithTableLetterCase, WithColumnLetterC
    * @since 1.1.0
    */
   private final LetterCase primaryKeyLetterCase;
+  /**
+   * The indexes of the modified columns ({@code null} while they are not computed).
+   * @since 1.2.0
+   */
+  private volatile BitSet modifiedColumns;
 
   /**
    * Returns a new instance of a creation change.
@@ -117,6 +123,31 @@ public class Change implements DbElement, WithTableLetterCase, WithColumnLetterC
                       tableLetterCase, columnLetterCase, primaryKeyLetterCase);
   }
 
+  /**
+   * Returns a new instance of a modification change with the indexes of the modified columns (computed during the
+   * detection of the modification).
+   *
+   * @param dataType The type of the data on which is the change.
+   * @param dataName The name of the data.
+   * @param rowAtStartPoint The row at start point.
+   * @param rowAtEndPoint The row at end point.
+   * @param modifiedColumns The indexes of the modified columns.
+   * @param tableLetterCase Letter case of the tables.
+   * @param columnLetterCase Letter case of the columns.
+   * @param primaryKeyLetterCase Letter case of the primary keys.
+   * @return The new instance of a modification change.
+   * @throws NullPointerException If the name of the date is {@code null}.
+   * @since 1.2.0
+   */
+  static Change createModificationChange(DataType dataType, String dataName, Row rowAtStartPoint, Row rowAtEndPoint,
+                                         BitSet modifiedColumns, LetterCase tableLetterCase,
+                                         LetterCase columnLetterCase, LetterCase primaryKeyLetterCase) {
+    Change change = new Change(dataType, dataName, ChangeType.MODIFICATION, rowAtStartPoint, rowAtEndPoint,
+                               tableLetterCase, columnLetterCase, primaryKeyLetterCase);
+    change.modifiedColumns = modifiedColumns;
+    return change;
+  }
+
   /**
    * Returns a new instance of a deletion change.
    * 
@@ -272,4 +303,73 @@ public class Change implements DbElement, WithTableLetterCase, WithColumnLetterC
   public Row getRowAtEndPoint() {
     return rowAtEndPoint;
   }
+
+  /**
+   * Returns the indexes of the modified columns.
+   * <p>
+   * For a modification, the modified columns are the columns with a different value (compared with
+   * {@link org.assertj.db.util.Values#areEqual(Value, Object)}) between the start point and the end point. For a
+   * creation or a deletion, they are the columns with a non {@code null} value.<br>
+   * The indexes are computed once (during the detection of the modification when the change comes from
+   * {@link Changes}).
+   * </p>
+   *
+   * @return The set of the indexes of the modified columns.
+   */
+  private BitSet getModifiedColumns() {
+    BitSet bitSet = modifiedColumns;
+    if (bitSet == null) {
+      if (rowAtStartPoint != null && rowAtEndPoint != null) {
+        bitSet = rowAtStartPoint.getIndexesOfDifferentValues(rowAtEndPoint);
+      } else if (rowAtStartPoint != null) {
+        bitSet = rowAtStartPoint.getIndexesOfNotNullValues();
+      } else {
+        bitSet = rowAtEndPoint.getIndexesOfNotNullValues();
+      }
+      modifiedColumns = bitSet;
+    }
+    return bitSet;
+  }
+
+  /**
+   * Returns the number of modified columns.
+   *
+   * @return The number of modified columns.
+   * @see #getIndexesOfModifiedColumns()
+   * @since 1.2.0
+   */
+  public int getNumberOfModifiedColumns() {
+    return getModifiedColumns().cardinality();
+  }
+
+  /**
+   * Returns the indexes of the modified columns in ascending order.
+   * <p>
+   * For a modification, the modified columns are the columns with a different value between the start point and the
+   * end point. For a creation or a deletion, they are the columns with a non {@code null} value.
+   * </p>
+   *
+   * @return The indexes of the modified columns.
+   * @since 1.2.0
+   */
+  public int[] getIndexesOfModifiedColumns() {
+    BitSet bitSet = getModifiedColumns();
+    int[] indexes = new int[bitSet.cardinality()];
+    int i = 0;
+    for (int index = bitSet.nextSetBit(0); index >= 0; index = bitSet.nextSetBit(index + 1)) {
+      indexes[i++] = index;
+    }
+    return indexes;
+  }
+
+  /**
+   * Returns the index of the first modified column from the index in parameter.
+   *
+   * @param fromIndex The index from which to search (inclusive).
+   * @return The index of the modified column or {@code -1} if there is no more modified column.
+   * @since 1.2.0
+   */
+  public int getIndexOfNextModifiedColumn(int fromIndex) {
+    return getModifiedColumns().nextSetBit(fromIndex);
+  }
 }
@@ -16,16 +16,28 @@ import org.assertj.db.exception.AssertJDBException;
 import org.assertj.db.util.ChangeComparator;
 
 import javax.sql.DataSource;
+import java.io.File;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import static org.assertj.db.type.Change.*;
 
 /**
  * Changes in the database.
+ * <p>
+ * Since 1.2.0, the list returned by {@link #getChangesList()} is computed and sorted once and is unmodifiable : it is
+ * shared with the {@code Changes} returned by {@link #getChangesOfTable(String)} and
+ * {@link #getChangesOfType(ChangeType)}. Copy it to modify it.
+ * </p>
  * 
  * @author Régis Pouiller
  * 
@@ -40,6 +52,28 @@ public class Changes extends AbstractDbElement<Changes> {
    * The list of the tables at start point.
    */
   private List<Table> tablesAtStartPointList;
+  /**
+   * The list of the digests of the tables at start point.
+   * @see #setDigestSnapshot(boolean)
+   * @since 1.2.0
+   */
+  private List<TableDigest> tablesDigestAtStartPointList;
+  /**
+   * The list of the snapshots in the database of the tables at start point (in the same order than
+   * {@link #tablesList}, with {@code null} for the tables loaded in memory).
+   * @see #setDatabaseSnapshot(boolean)
+   * @see #setTriggerCapture(boolean)
+   * @see #setStreamingDiff(boolean)
+   * @since 1.2.0
+   */
+  private List<ExternalSnapshot> tablesSnapshotAtStartPointList;
+  /**
+   * The list of the checksums of the tables loaded in memory at start point ({@code null} for the tables without
+   * checksum).
+   * @see #setChecksumPreCheck(boolean)
+   * @since 1.2.0
+   */
+  private List<String> tablesChecksumAtStartPointList;
   /**
    * The list of the tables at end point.
    */
@@ -60,6 +94,54 @@ public class Changes extends AbstractDbElement<Changes> {
    * The list of the changes.
    */
   private List<Change> changesList;
+  /**
+   * The index of the sorted list of the changes.
+   * @see #getChangesList()
+   * @since 1.2.0
+   */
+  private ChangesIndex changesIndex;
+  /**
+   * The number of tables loaded concurrently for a snapshot ({@code 1} to load them sequentially).
+   * @see #setParallelism(int)
+   * @since 1.2.0
+   */
+  private int parallelism = 1;
+  /**
+   * If the tables of a snapshot are loaded with one connection in one transaction.
+   * @see #setConsistentSnapshot(boolean)
+   * @since 1.2.0
+   */
+  private boolean consistentSnapshot;
+  /**
+   * If only a digest of the tables is kept at start point.
+   * @see #setDigestSnapshot(boolean)
+   * @since 1.2.0
+   */
+  private boolean digestSnapshot;
+  /**
+   * If the tables at start point are kept in the database.
+   * @see #setDatabaseSnapshot(boolean)
+   * @since 1.2.0
+   */
+  private boolean databaseSnapshot;
+  /**
+   * If the changes of the tables are captured by triggers in the database.
+   * @see #setTriggerCapture(boolean)
+   * @since 1.2.0
+   */
+  private boolean triggerCapture;
+  /**
+   * If a checksum is compared before loading again a table at end point.
+   * @see #setChecksumPreCheck(boolean)
+   * @since 1.2.0
+   */
+  private boolean checksumPreCheck;
+  /**
+   * If the tables are compared by a merge on the primary keys with the tables at start point written in files.
+   * @see #setStreamingDiff(boolean)
+   * @since 1.2.0
+   */
+  private boolean streamingDiff;
 
   /**
    * Constructor.
@@ -120,8 +202,12 @@ public class Changes extends AbstractDbElement<Changes> {
     requestAtEndPoint = null;
     tablesList = new ArrayList<>();
     tablesAtStartPointList = null;
+    tablesDigestAtStartPointList = null;
+    tablesChecksumAtStartPointList = null;
+    dropTablesSnapshot();
     tablesAtEndPointList = null;
     changesList = null;
+    changesIndex = null;
     for (Table table : tables) {
       if (table == null) {
         throw new NullPointerException("The tables must be not null");
@@ -143,6 +229,254 @@ public class Changes extends AbstractDbElement<Changes> {
     return tablesList;
   }
 
+  /**
+   * Returns the number of tables loaded concurrently for a snapshot.
+   *
+   * @return The number of tables loaded concurrently ({@code 1} if they are loaded sequentially).
+   * @see #setParallelism(int)
+   * @since 1.2.0
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Sets the number of tables loaded concurrently for a snapshot (by {@link #setStartPointNow()} and
+   * {@link #setEndPointNow()}).
+   * <p>
+   * With a parallelism greater than {@code 1}, the tables are loaded by a bounded pool of threads (each table with its
+   * own connection), so the snapshot of many tables takes about the time of the slowest table. The result is the same
+   * than with the sequential loading.
+   * </p>
+   *
+   * @param parallelism The number of tables loaded concurrently ({@code 1} to load them sequentially).
+   * @return {@code this} actual instance.
+   * @throws IllegalArgumentException If {@code parallelism} is less than {@code 1}.
+   * @since 1.2.0
+   */
+  public Changes setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be greater than or equal to 1");
+    }
+    this.parallelism = parallelism;
+    return myself;
+  }
+
+  /**
+   * Returns if the tables of a snapshot are loaded with one connection in one transaction.
+   *
+   * @return {@code true} if the snapshots are consistent, {@code false} otherwise.
+   * @see #setConsistentSnapshot(boolean)
+   * @since 1.2.0
+   */
+  public boolean isConsistentSnapshot() {
+    return consistentSnapshot;
+  }
+
+  /**
+   * Sets if the tables of a snapshot (by {@link #setStartPointNow()} and {@link #setEndPointNow()}) are loaded with
+   * one connection in one read-only transaction.
+   * <p>
+   * The transaction uses the {@link Connection#TRANSACTION_REPEATABLE_READ} isolation level (or
+   * {@link Connection#TRANSACTION_SERIALIZABLE} if the first is not supported by the driver), so the snapshot of the
+   * tables is consistent at a point in time when the database supports it. Only the tables with the same
+   * {@link Source} or {@link DataSource} than this {@code Changes} are loaded with the shared connection, the other
+   * tables are loaded with their own connection. The tables are loaded sequentially in this mode (the parallelism is
+   * not used).
+   * </p>
+   *
+   * @param consistentSnapshot {@code true} to load the tables of a snapshot in one transaction.
+   * @return {@code this} actual instance.
+   * @since 1.2.0
+   */
+  public Changes setConsistentSnapshot(boolean consistentSnapshot) {
+    this.consistentSnapshot = consistentSnapshot;
+    return myself;
+  }
+
+  /**
+   * Returns if only a digest of the tables is kept at start point.
+   *
+   * @return {@code true} if only a digest is kept, {@code false} otherwise.
+   * @see #setDigestSnapshot(boolean)
+   * @since 1.2.0
+   */
+  public boolean isDigestSnapshot() {
+    return digestSnapshot;
+  }
+
+  /**
+   * Sets if only a digest of the tables is kept at start point.
+   * <p>
+   * With the digest, the start point only keeps the values of the primary keys and the hash code of each value of
+   * the rows, so the memory used between the start point and the end point does not depend of the size of the values.
+   * At the end point, the tables at start point are rebuilt from the digest : the values with the same hash code are
+   * the values at end point and the other values are unknown.
+   * </p>
+   * <p>
+   * <b>So the values at start point of a modified column and of a deleted row are {@code null}</b> (except for the
+   * primary keys) : this mode is for the assertions on the number and the type of the changes and on the values at
+   * end point. The tables without primary key and the {@link Request} are still kept entirely. Between the start point
+   * and the end point, {@link #getTablesAtStartPointList()} returns {@code null}.
+   * </p>
+   *
+   * @param digestSnapshot {@code true} to keep only a digest of the tables at start point.
+   * @return {@code this} actual instance.
+   * @since 1.2.0
+   */
+  public Changes setDigestSnapshot(boolean digestSnapshot) {
+    this.digestSnapshot = digestSnapshot;
+    return myself;
+  }
+
+  /**
+   * Returns if the tables at start point are kept in the database.
+   *
+   * @return {@code true} if the tables are kept in the database, {@code false} otherwise.
+   * @see #setDatabaseSnapshot(boolean)
+   * @since 1.2.0
+   */
+  public boolean isDatabaseSnapshot() {
+    return databaseSnapshot;
+  }
+
+  /**
+   * Sets if the tables at start point are kept in the database.
+   * <p>
+   * At start point, each table is copied in a snapshot table of the database (called {@code ADB_SNAP_...}) instead of
+   * being loaded in memory. At end point, only the rows which are different are read (with {@code EXCEPT}
+   * requests) and the snapshot tables are dropped. So {@link #getTablesAtStartPointList()} and
+   * {@link #getTablesAtEndPointList()} only contain the rows which are different for these tables.
+   * </p>
+   * <p>
+   * The snapshot tables need the rights to create tables. The tables without primary key, or on which the database
+   * does not accept the requests, are loaded in memory. The start point must be set again before each end point.
+   * </p>
+   * <p>
+   * The snapshot tables are dropped at end point, when the start point or the end point fails, when the start point is
+   * set again and when the tables or the request are changed. A {@code Changes} which is abandoned after its start
+   * point (for example when a test fails before the end point) leaves its snapshot tables in the database : to avoid
+   * this, set the end point in a {@code finally} block. The remaining snapshot tables can be dropped by hand (their names
+   * start with {@code ADB_SNAP_}) and they are ignored by the {@code Changes} on all the tables of the database.
+   * </p>
+   *
+   * @param databaseSnapshot {@code true} to keep the tables at start point in the database.
+   * @return {@code this} actual instance.
+   * @since 1.2.0
+   */
+  public Changes setDatabaseSnapshot(boolean databaseSnapshot) {
+    this.databaseSnapshot = databaseSnapshot;
+    return myself;
+  }
+
+  /**
+   * Returns if the changes of the tables are captured by triggers in the database.
+   *
+   * @return {@code true} if the changes are captured by triggers, {@code false} otherwise.
+   * @see #setTriggerCapture(boolean)
+   * @since 1.2.0
+   */
+  public boolean isTriggerCapture() {
+    return triggerCapture;
+  }
+
+  /**
+   * Sets if the changes of the tables are captured by triggers in the database.
+   * <p>
+   * At start point, triggers are created on each table instead of loading it : they journal the rows before and after
+   * each change in a capture table (called {@code ADB_SNAP_...}). At end point, only the journaled rows are read and
+   * the triggers, the capture table and its sequence are dropped. So {@link #getTablesAtStartPointList()} and
+   * {@link #getTablesAtEndPointList()} only contain the changed rows for these tables.
+   * </p>
+   * <p>
+   * The capture is available for H2 and HSQLDB, and needs the rights to create tables, sequences and triggers. The
+   * tables without primary key, or on a database without capture, are kept in the database like with
+   * {@link #setDatabaseSnapshot(boolean)} if it is set, or loaded in memory otherwise. The start point must be set again
+   * before each end point.
+   * </p>
+   * <p>
+   * As for the snapshot tables, the triggers, the capture table and its sequence are also dropped when the start point
+   * or the end point fails. They stay in the database if the {@code Changes} is abandoned between its start point and
+   * its end point : the triggers keep journaling the changes until they are dropped by hand (all the objects are named
+   * {@code ADB_SNAP_...}, the triggers must be dropped first).
+   * </p>
+   *
+   * @param triggerCapture {@code true} to capture the changes of the tables by triggers.
+   * @return {@code this} actual instance.
+   * @since 1.2.0
+   */
+  public Changes setTriggerCapture(boolean triggerCapture) {
+    this.triggerCapture = triggerCapture;
+    return myself;
+  }
+
+  /**
+   * Returns if a checksum is compared before loading again a table at end point.
+   *
+   * @return {@code true} if a checksum is compared, {@code false} otherwise.
+   * @see #setChecksumPreCheck(boolean)
+   * @since 1.2.0
+   */
+  public boolean isChecksumPreCheck() {
+    return checksumPreCheck;
+  }
+
+  /**
+   * Sets if a checksum is compared before loading again a table at end point.
+   * <p>
+   * The database computes a checksum of each table (the number of rows and a hash of the values) before loading it at
+   * start point. At end point, if the checksum of a table is the same, nothing changed in the table : so it is not
+   * loaded again and the table at end point is the table at start point.
+   * </p>
+   * <p>
+   * The checksum is only available for H2 (on the columns which can be converted in text) : with the other databases
+   * (HSQLDB, SQLite, ...), the tables are always loaded again. It is not used with the digest of the tables (see
+   * {@link #setDigestSnapshot(boolean)}) which needs the tables at end point.
+   * </p>
+   *
+   * @param checksumPreCheck {@code true} to compare a checksum before loading again a table.
+   * @return {@code this} actual instance.
+   * @since 1.2.0
+   */
+  public Changes setChecksumPreCheck(boolean checksumPreCheck) {
+    this.checksumPreCheck = checksumPreCheck;
+    return myself;
+  }
+
+  /**
+   * Returns if the tables are compared by a merge on the primary keys with the tables at start point written in files.
+   *
+   * @return {@code true} if the tables are compared by a merge, {@code false} otherwise.
+   * @see #setStreamingDiff(boolean)
+   * @since 1.2.0
+   */
+  public boolean isStreamingDiff() {
+    return streamingDiff;
+  }
+
+  /**
+   * Sets if the tables are compared by a merge on the primary keys with the tables at start point written in files.
+   * <p>
+   * At start point, the rows of each table are read in the order of the primary keys and written in a temporary file
+   * instead of being kept in memory. At end point, the rows are read again in the same order and merged with the rows
+   * of the file : only the rows which are different are kept, so {@link #getTablesAtStartPointList()} and
+   * {@link #getTablesAtEndPointList()} only contain these rows. The files are deleted at end point.
+   * </p>
+   * <p>
+   * The tables without primary key, or with values which can not be written in a file, are loaded in memory. The
+   * tables kept in the database (see {@link #setTriggerCapture(boolean)} and {@link #setDatabaseSnapshot(boolean)}) are
+   * not written in files. The start point must be set again before each end point.
+   * </p>
+   *
+   * @param streamingDiff {@code true} to compare the tables by a merge.
+   * @return {@code this} actual instance.
+   * @since 1.2.0
+   */
+  public Changes setStreamingDiff(boolean streamingDiff) {
+    this.streamingDiff = streamingDiff;
+    return myself;
+  }
+
   /**
    * Sets the {@link Request}.
    * 
@@ -155,12 +489,16 @@ public class Changes extends AbstractDbElement<Changes> {
     }
     tablesList = null;
     tablesAtStartPointList = null;
+    tablesDigestAtStartPointList = null;
+    tablesChecksumAtStartPointList = null;
+    dropTablesSnapshot();
     tablesAtEndPointList = null;
     this.request = getDuplicatedRequest(request);
     copyElement(request, this);
     requestAtStartPoint = null;
     requestAtEndPoint = null;
     changesList = null;
+    changesIndex = null;
     return myself;
   }
 
@@ -241,7 +579,9 @@ public class Changes extends AbstractDbElement<Changes> {
                             request.getPrimaryKeyLetterCase())
             .setRequest(request.getRequest())
             .setParameters(request.getParameters())
-            .setPksName(request.getPksNameList().toArray(new String[request.getPksNameList().size()]));
+            .setPksName(request.getPksNameList().toArray(new String[request.getPksNameList().size()]))
+            .setColumnarStorage(request.isColumnarStorage())
+            .setLoadOptions(request.getLoadOptions());
   }
 
   /**
@@ -258,11 +598,287 @@ public class Changes extends AbstractDbElement<Changes> {
                             table.getPrimaryKeyLetterCase())
             .setName(table.getName())
             .setColumnsToCheck(table.getColumnsToCheck())
-            .setColumnsToExclude(table.getColumnsToExclude());
+            .setColumnsToExclude(table.getColumnsToExclude())
+            .setColumnarStorage(table.isColumnarStorage())
+            .setLoadOptions(table.getLoadOptions());
+  }
+
+  /**
+   * Returns the list of the duplicated tables with their data loaded.
+   * <p>
+   * The tables are loaded sequentially or by a pool of threads depending of the parallelism (see
+   * {@link #setParallelism(int)}).
+   * </p>
+   *
+   * @param tablesToLoadList The list of the tables to load.
+   * @return The list of the tables (in the same order than {@code tablesToLoadList}).
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the loading.
+   */
+  private List<Table> getLoadedTablesList(List<Table> tablesToLoadList) {
+    List<Table> loadedTablesList = new LinkedList<>();
+    for (Table table : tablesToLoadList) {
+      loadedTablesList.add(getDuplicatedTable(table));
+    }
+
+    if (consistentSnapshot) {
+      loadTablesInOneTransaction(loadedTablesList);
+      return loadedTablesList;
+    }
+
+    int threadsNumber = Math.min(parallelism, loadedTablesList.size());
+    if (threadsNumber <= 1) {
+      for (Table table : loadedTablesList) {
+        table.getRowsList();
+      }
+      return loadedTablesList;
+    }
+
+    ExecutorService executorService = Executors.newFixedThreadPool(threadsNumber, SnapshotThreadFactory.INSTANCE);
+    try {
+      List<Future<List<Row>>> futuresList = new ArrayList<>();
+      for (final Table table : loadedTablesList) {
+        futuresList.add(executorService.submit(new Callable<List<Row>>() {
+          @Override
+          public List<Row> call() {
+            return table.getRowsList();
+          }
+        }));
+      }
+      for (Future<List<Row>> future : futuresList) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertJDBException(e);
+    } catch (ExecutionException e) {
+      // The loading does not throw checked exceptions
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw (Error) e.getCause();
+    } finally {
+      executorService.shutdownNow();
+    }
+    return loadedTablesList;
+  }
+
+  /**
+   * Returns the list of the tables at end point : the tables with the same checksum than at start point are the tables
+   * at start point and the other tables are loaded.
+   *
+   * @param tablesToLoadList The list of the tables to load.
+   * @return The list of the tables (in the same order than {@code tablesToLoadList}).
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the loading.
+   * @see #setChecksumPreCheck(boolean)
+   */
+  private List<Table> getChangedTablesLoadedList(List<Table> tablesToLoadList) {
+    List<Table> tablesAtEndPointList = new LinkedList<>();
+    List<Table> changedTablesList = new ArrayList<>();
+    Iterator<String> iteratorChecksum = tablesChecksumAtStartPointList.iterator();
+    Iterator<Table> iteratorAtStartPoint = tablesAtStartPointList.iterator();
+    for (Table table : tablesToLoadList) {
+      String checksum = iteratorChecksum.next();
+      Table tableAtStartPoint = iteratorAtStartPoint.next();
+      if (checksum != null && checksum.equals(TableChecksum.getChecksum(table))) {
+        tablesAtEndPointList.add(tableAtStartPoint);
+      } else {
+        tablesAtEndPointList.add(null);
+        changedTablesList.add(table);
+      }
+    }
+
+    Iterator<Table> iteratorLoaded = getLoadedTablesList(changedTablesList).iterator();
+    for (ListIterator<Table> iterator = tablesAtEndPointList.listIterator(); iterator.hasNext(); ) {
+      if (iterator.next() == null) {
+        iterator.set(iteratorLoaded.next());
+      }
+    }
+    return tablesAtEndPointList;
+  }
+
+  /**
+   * Loads the tables with one connection in one read-only transaction.
+   * <p>
+   * The state of the connection (auto-commit, read-only and isolation level) is restored after the loading, even if the
+   * loading fails (see {@link ConnectionState}) : a failure of the rollback or of the restoration of a setting is added
+   * as a suppressed exception to the failure of the loading if there is one.
+   * </p>
+   *
+   * @param tablesList The list of the tables to load.
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the loading.
+   * @see #setConsistentSnapshot(boolean)
+   */
+  private void loadTablesInOneTransaction(List<Table> tablesList) {
+    try (Connection connection = getConnection();
+         ConnectionState connectionState = new ConnectionState(connection)) {
+
+      int snapshotIsolation = getSnapshotIsolation(connection.getMetaData(),
+                                                   connectionState.getTransactionIsolation());
+      if (snapshotIsolation != connectionState.getTransactionIsolation()) {
+        connection.setTransactionIsolation(snapshotIsolation);
+      }
+      connection.setReadOnly(true);
+      connection.setAutoCommit(false);
+
+      for (Table table : tablesList) {
+        if (isWithSameSource(table)) {
+          table.load(connection);
+        } else {
+          table.getRowsList();
+        }
+      }
+    } catch (SQLException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Returns the isolation level to use for a consistent snapshot.
+   *
+   * @param metaData The meta data of the database.
+   * @param transactionIsolation The actual isolation level of the connection.
+   * @return {@link Connection#TRANSACTION_REPEATABLE_READ} or {@link Connection#TRANSACTION_SERIALIZABLE} if
+   *         supported, otherwise the actual isolation level.
+   * @throws SQLException SQL Exception.
+   */
+  private static int getSnapshotIsolation(DatabaseMetaData metaData, int transactionIsolation) throws SQLException {
+    if (transactionIsolation == Connection.TRANSACTION_REPEATABLE_READ
+        || transactionIsolation == Connection.TRANSACTION_SERIALIZABLE) {
+      return transactionIsolation;
+    }
+    if (metaData.supportsTransactionIsolationLevel(Connection.TRANSACTION_REPEATABLE_READ)) {
+      return Connection.TRANSACTION_REPEATABLE_READ;
+    }
+    if (metaData.supportsTransactionIsolationLevel(Connection.TRANSACTION_SERIALIZABLE)) {
+      return Connection.TRANSACTION_SERIALIZABLE;
+    }
+    return transactionIsolation;
+  }
+
+  /**
+   * Returns if the {@link Table} has the same {@link Source} or {@link DataSource} than this {@code Changes}.
+   *
+   * @param table The {@link Table}.
+   * @return {@code true} if the {@link Table} can be loaded with a connection of this {@code Changes}.
+   */
+  private boolean isWithSameSource(Table table) {
+    if (table.getDataSource() != null) {
+      return table.getDataSource() == getDataSource();
+    }
+    return table.getSource() != null && table.getSource() == getSource();
+  }
+
+  /**
+   * Factory of the daemon threads which load the tables for a snapshot.
+   */
+  private enum SnapshotThreadFactory implements ThreadFactory {
+
+    /**
+     * Singleton instance.
+     */
+    INSTANCE;
+
+    /** {@inheritDoc} */
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "assertj-db-snapshot");
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+  /**
+   * Returns the list of the tables to load in memory (the tables without external snapshot).
+   *
+   * @return The list of the tables to load.
+   * @see #setDatabaseSnapshot(boolean)
+   */
+  private List<Table> getTablesToLoadList() {
+    if (tablesSnapshotAtStartPointList == null) {
+      return tablesList;
+    }
+    List<Table> tablesToLoadList = new ArrayList<>();
+    Iterator<ExternalSnapshot> iterator = tablesSnapshotAtStartPointList.iterator();
+    for (Table table : tablesList) {
+      if (iterator.next() == null) {
+        tablesToLoadList.add(table);
+      }
+    }
+    return tablesToLoadList;
+  }
+
+  /**
+   * Drops the external snapshots (snapshot tables in the database or files) if there are.
+   *
+   * @throws AssertJDBException If triggered, this exception wrap a possible exception during the drop.
+   * @see #setDatabaseSnapshot(boolean)
+   */
+  private void dropTablesSnapshot() {
+    if (tablesSnapshotAtStartPointList != null) {
+      List<ExternalSnapshot> tablesSnapshotList = tablesSnapshotAtStartPointList;
+      tablesSnapshotAtStartPointList = null;
+      RuntimeException exception = null;
+      for (ExternalSnapshot tableSnapshot : tablesSnapshotList) {
+        if (tableSnapshot != null) {
+          try {
+            tableSnapshot.drop();
+          } catch (RuntimeException e) {
+            if (exception == null) {
+              exception = e;
+            } else {
+              exception.addSuppressed(e);
+            }
+          }
+        }
+      }
+      if (exception != null) {
+        throw exception;
+      }
+    }
+  }
+
+  /**
+   * Drops the external snapshots after a failure of the start point or of the end point : a failure during the drop
+   * is added as a suppressed exception to the failure.
+   * <p>
+   * The snapshots are kept in the list (as dropped) : so an end point can not be set without setting the start point
+   * again.
+   * </p>
+   *
+   * @param failure The failure.
+   */
+  private void dropTablesSnapshotAfterFailure(Throwable failure) {
+    if (tablesSnapshotAtStartPointList != null) {
+      for (ExternalSnapshot tableSnapshot : tablesSnapshotAtStartPointList) {
+        if (tableSnapshot != null) {
+          try {
+            tableSnapshot.drop();
+          } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Invalidates the metadata of the sources of the tables in their {@link MetadataCache}, so the start point sees the
+   * actual structure of the tables.
+   */
+  private void invalidateMetadata() {
+    for (Table table : tablesList) {
+      MetadataCache metadataCache = MetadataCache.getMetadataCache(table);
+      if (metadataCache != null) {
+        metadataCache.invalidate();
+      }
+    }
   }
 
   /**
    * Sets the start point for comparison.
+   * <p>
+   * If the {@link MetadataCache} of a source of the tables is enabled, its metadata are read again.
+   * </p>
    * 
    * @return {@code this} actual instance.
    */
@@ -275,6 +891,10 @@ public class Changes extends AbstractDbElement<Changes> {
             new String[] { "TABLE" });
         while (resultSet.next()) {
           String tableName = resultSet.getString("TABLE_NAME");
+          if (TableSnapshot.isSnapshotName(tableName)) {
+            // The snapshot tables of other changes are ignored
+            continue;
+          }
           Table t = new Table().setLetterCases(getTableLetterCase(), getColumnLetterCase(), getPrimaryKeyLetterCase())
                                .setName(getTableLetterCase().convert(tableName));
           copyElement(this, t);
@@ -289,22 +909,167 @@ public class Changes extends AbstractDbElement<Changes> {
       tablesAtStartPointList = null;
       requestAtStartPoint = getDuplicatedRequest(request);
       requestAtStartPoint.getRowsList();
+    } else {
+      requestAtStartPoint = null;
+      invalidateMetadata();
+      dropTablesSnapshot();
+      try {
+        if (databaseSnapshot || triggerCapture || streamingDiff) {
+          tablesSnapshotAtStartPointList = new ArrayList<>(tablesList.size());
+          for (Table table : tablesList) {
+            ExternalSnapshot tableSnapshot = null;
+            if (triggerCapture) {
+              tableSnapshot = TableSnapshot.createWithTriggers(getDuplicatedTable(table));
+            }
+            if (tableSnapshot == null && databaseSnapshot) {
+              tableSnapshot = TableSnapshot.create(getDuplicatedTable(table));
+            }
+            if (tableSnapshot == null && streamingDiff) {
+              tableSnapshot = TableRun.create(getDuplicatedTable(table));
+            }
+            tablesSnapshotAtStartPointList.add(tableSnapshot);
+          }
+        }
+        List<Table> tablesToLoadList = getTablesToLoadList();
+        tablesChecksumAtStartPointList = null;
+        if (checksumPreCheck && !digestSnapshot) {
+          // The checksum is computed before the loading : so a change during the loading is seen at end point
+          tablesChecksumAtStartPointList = new ArrayList<>(tablesToLoadList.size());
+          for (Table table : tablesToLoadList) {
+            tablesChecksumAtStartPointList.add(TableChecksum.getChecksum(table));
+          }
+        }
+        tablesAtStartPointList = getLoadedTablesList(tablesToLoadList);
+        tablesDigestAtStartPointList = null;
+        if (digestSnapshot) {
+          tablesDigestAtStartPointList = new ArrayList<>(tablesAtStartPointList.size());
+          for (Table table : tablesAtStartPointList) {
+            tablesDigestAtStartPointList.add(new TableDigest(table));
+          }
+          tablesAtStartPointList = null;
+        }
+      } catch (RuntimeException | Error e) {
+        // The objects created in the database for the start point are dropped and the start point is not set
+        dropTablesSnapshotAfterFailure(e);
+        tablesSnapshotAtStartPointList = null;
+        tablesChecksumAtStartPointList = null;
+        tablesAtStartPointList = null;
+        tablesDigestAtStartPointList = null;
+        throw e;
+      }
+    }
+    tablesAtEndPointList = null;
+    requestAtEndPoint = null;
+    changesList = null;
+    changesIndex = null;
+
+    return myself;
+  }
+
+  /**
+   * Writes the start point in a snapshot file.
+   * <p>
+   * The file can be read later, even by another JVM, with {@link #setStartPointFromSnapshot(File)} to compare the
+   * database with this start point (for example a baseline captured once).
+   * </p>
+   * <p>
+   * The start point must be kept in memory : it can not be written with the digests (see
+   * {@link #setDigestSnapshot(boolean)}) or the external snapshots (see {@link #setDatabaseSnapshot(boolean)},
+   * {@link #setTriggerCapture(boolean)} and {@link #setStreamingDiff(boolean)}).
+   * </p>
+   *
+   * @param file The file.
+   * @return {@code this} actual instance.
+   * @throws NullPointerException If {@code file} is {@code null}.
+   * @throws AssertJDBException If the start point is not set or is not in memory, or if triggered, this exception
+   *                            wrap a possible exception during the writing.
+   * @since 1.2.0
+   */
+  public Changes writeStartPointSnapshot(File file) {
+    if (requestAtStartPoint != null) {
+      SnapshotFile.write(file, Collections.singletonList(requestAtStartPoint));
+      return myself;
+    }
+    if (tablesAtStartPointList == null && tablesDigestAtStartPointList == null) {
+      throw new AssertJDBException("Start point must be set before");
+    }
+    if (tablesDigestAtStartPointList != null || tablesSnapshotAtStartPointList != null) {
+      throw new AssertJDBException("Start point must be in memory to be written");
+    }
+    SnapshotFile.write(file, tablesAtStartPointList);
+    return myself;
+  }
+
+  /**
+   * Sets the start point for comparison from a snapshot file (written by {@link #writeStartPointSnapshot(File)}).
+   * <p>
+   * The data at start point are read from the file instead of the database. If the tables are not set (see
+   * {@link #setTables(Table...)}), the tables are the tables in the file.
+   * </p>
+   *
+   * @param file The file.
+   * @return {@code this} actual instance.
+   * @throws NullPointerException If {@code file} is {@code null}.
+   * @throws AssertJDBException If the file does not contain the data or if triggered, this exception wrap a possible
+   *                            exception during the reading.
+   * @since 1.2.0
+   */
+  public Changes setStartPointFromSnapshot(File file) {
+    SnapshotFile snapshotFile = SnapshotFile.open(file);
+    if (request == null && tablesList == null) {
+      tablesList = new LinkedList<>();
+      for (int index = 0; index < snapshotFile.size(); index++) {
+        if (snapshotFile.getDataType(index) == DataType.TABLE) {
+          Table t = new Table().setLetterCases(getTableLetterCase(), getColumnLetterCase(), getPrimaryKeyLetterCase())
+                               .setName(getTableLetterCase().convert(snapshotFile.getName(index)));
+          copyElement(this, t);
+          tablesList.add(t);
+        }
+      }
+    }
+
+    dropTablesSnapshot();
+    tablesDigestAtStartPointList = null;
+    tablesChecksumAtStartPointList = null;
+    if (request != null) {
+      tablesAtStartPointList = null;
+      requestAtStartPoint = getDuplicatedRequest(request);
+      readStartPointSnapshot(snapshotFile, requestAtStartPoint);
     } else {
       requestAtStartPoint = null;
       tablesAtStartPointList = new LinkedList<>();
       for (Table table : tablesList) {
-        Table t = getDuplicatedTable(table);
-        t.getRowsList();
-        tablesAtStartPointList.add(t);
+        Table tableAtStartPoint = getDuplicatedTable(table);
+        readStartPointSnapshot(snapshotFile, tableAtStartPoint);
+        tablesAtStartPointList.add(tableAtStartPoint);
       }
     }
     tablesAtEndPointList = null;
     requestAtEndPoint = null;
     changesList = null;
+    changesIndex = null;
 
     return myself;
   }
 
+  /**
+   * Reads a data at start point from a snapshot file.
+   *
+   * @param snapshotFile The snapshot file.
+   * @param data The data to read.
+   * @throws AssertJDBException If the file does not contain the data.
+   */
+  private static void readStartPointSnapshot(SnapshotFile snapshotFile, AbstractDbData<?> data) {
+    int index = snapshotFile.indexOf(data);
+    if (index == -1) {
+      if (data instanceof Table) {
+        throw new AssertJDBException("The table %s is not in the snapshot file", ((Table) data).getName());
+      }
+      throw new AssertJDBException("The request %s is not in the snapshot file", data.getRequest());
+    }
+    snapshotFile.read(index, data);
+  }
+
   /**
    * Sets the end point for comparison.
    * 
@@ -312,7 +1077,7 @@ public class Changes extends AbstractDbElement<Changes> {
    * @throws AssertJDBException If the start point is not set
    */
   public Changes setEndPointNow() {
-    if (requestAtStartPoint == null && tablesAtStartPointList == null) {
+    if (requestAtStartPoint == null && tablesAtStartPointList == null && tablesDigestAtStartPointList == null) {
       throw new AssertJDBException("Start point must be set before");
     }
 
@@ -320,20 +1085,84 @@ public class Changes extends AbstractDbElement<Changes> {
       requestAtEndPoint = getDuplicatedRequest(request);
       requestAtEndPoint.getRowsList();
     } else {
-      tablesAtEndPointList = new LinkedList<>();
-      for (Table table : tablesList) {
-        Table t = getDuplicatedTable(table);
-        t.getRowsList();
-        tablesAtEndPointList.add(t);
+      try {
+        List<Table> tablesToLoadList = getTablesToLoadList();
+        if (tablesChecksumAtStartPointList != null) {
+          tablesAtEndPointList = getChangedTablesLoadedList(tablesToLoadList);
+        } else {
+          tablesAtEndPointList = getLoadedTablesList(tablesToLoadList);
+        }
+        if (tablesDigestAtStartPointList != null) {
+          tablesAtStartPointList = new LinkedList<>();
+          Iterator<Table> iterator = tablesToLoadList.iterator();
+          Iterator<Table> iteratorAtEndPoint = tablesAtEndPointList.iterator();
+          for (TableDigest tableDigest : tablesDigestAtStartPointList) {
+            Table table = getDuplicatedTable(iterator.next());
+            tablesAtStartPointList.add(tableDigest.getTableAtStartPoint(table, iteratorAtEndPoint.next()));
+          }
+        }
+        if (tablesSnapshotAtStartPointList != null) {
+          setTablesWithDifferences();
+        }
+      } catch (RuntimeException | Error e) {
+        // The objects created in the database for the start point are dropped : the start point must be set again
+        dropTablesSnapshotAfterFailure(e);
+        throw e;
       }
     }
     changesList = null;
+    changesIndex = null;
 
     return myself;
   }
 
+  /**
+   * Sets the tables at start point and at end point with the rows which are different in the external snapshots
+   * (snapshot tables in the database or files).
+   * <p>
+   * The tables loaded in memory are kept at their place in the lists.
+   * </p>
+   *
+   * @throws AssertJDBException If the snapshot tables are already dropped by a previous end point.
+   * @see #setDatabaseSnapshot(boolean)
+   * @see #setTriggerCapture(boolean)
+   * @see #setStreamingDiff(boolean)
+   */
+  private void setTablesWithDifferences() {
+    for (ExternalSnapshot tableSnapshot : tablesSnapshotAtStartPointList) {
+      if (tableSnapshot != null && tableSnapshot.isDropped()) {
+        throw new AssertJDBException("Start point must be set again (the snapshot tables are dropped at end point)");
+      }
+    }
+
+    List<Table> tablesAtStartPointList = new LinkedList<>();
+    List<Table> tablesAtEndPointList = new LinkedList<>();
+    Iterator<Table> iteratorAtStartPoint = this.tablesAtStartPointList.iterator();
+    Iterator<Table> iteratorAtEndPoint = this.tablesAtEndPointList.iterator();
+    Iterator<Table> iterator = tablesList.iterator();
+    for (ExternalSnapshot tableSnapshot : tablesSnapshotAtStartPointList) {
+      Table table = iterator.next();
+      if (tableSnapshot == null) {
+        tablesAtStartPointList.add(iteratorAtStartPoint.next());
+        tablesAtEndPointList.add(iteratorAtEndPoint.next());
+      } else {
+        Table tableAtStartPoint = getDuplicatedTable(table);
+        Table tableAtEndPoint = getDuplicatedTable(table);
+        tableSnapshot.loadDifferences(tableAtStartPoint, tableAtEndPoint);
+        tablesAtStartPointList.add(tableAtStartPoint);
+        tablesAtEndPointList.add(tableAtEndPoint);
+      }
+    }
+    this.tablesAtStartPointList = tablesAtStartPointList;
+    this.tablesAtEndPointList = tablesAtEndPointList;
+  }
+
   /**
    * Returns the list of changes for the data when there have primary keys.
+   * <p>
+   * The rows are searched with {@link AbstractDbData#getRowFromPksValues(Value...)} which uses an index on the
+   * primary keys values, so the changes are found in a linear time.
+   * </p>
    * 
    * @param dataName The name of the data.
    * @param dataAtStartPoint The data at start point.
@@ -363,10 +1192,12 @@ public class Changes extends AbstractDbElement<Changes> {
         changesList.add(change);
       } else {
         // List the modified rows
-        if (!row.hasValues(rowAtEndPoint)) {
-          // If at least one value in the rows is different, add the change
+        BitSet modifiedColumns = row.getIndexesOfDifferentValues(rowAtEndPoint);
+        if (!modifiedColumns.isEmpty()) {
+          // If at least one value in the rows is different, add the change (with the modified columns)
           Change change = createModificationChange(dataAtStartPoint.getDataType(), dataName, row, rowAtEndPoint,
-                                                   getTableLetterCase(), getColumnLetterCase(), getPrimaryKeyLetterCase());
+                                                   modifiedColumns, getTableLetterCase(), getColumnLetterCase(),
+                                                   getPrimaryKeyLetterCase());
           changesList.add(change);
         }
       }
@@ -377,6 +1208,11 @@ public class Changes extends AbstractDbElement<Changes> {
 
   /**
    * Returns the list of changes for the data when there is no primary key.
+   * <p>
+   * The rows of each point are indexed by the hash code of their values (see {@link RowsHashIndex}) and used like a
+   * multiset, so a row is only compared with the rows which have the same hash code. If the values of a column do
+   * not have the same type in all the rows, the hash code can not be used and all the rows are compared.
+   * </p>
    * 
    * @param dataName The name of the data.
    * @param dataAtStartPoint The data at start point.
@@ -387,45 +1223,25 @@ public class Changes extends AbstractDbElement<Changes> {
       AbstractDbData<?> dataAtEndPoint) {
 
     List<Change> changesList = new ArrayList<>();
+    List<Row> rowsListAtStartPoint = dataAtStartPoint.getRowsList();
+    List<Row> rowsListAtEndPoint = dataAtEndPoint.getRowsList();
 
     // List the created rows : the row is not present at the start point
-    List<Row> rowsAtStartPointList = new ArrayList<>(dataAtStartPoint.getRowsList());
-    for (Row rowAtEndPoint : dataAtEndPoint.getRowsList()) {
-      int index = -1;
-      int index1 = 0;
-      for (Row rowAtStartPoint : rowsAtStartPointList) {
-        if (rowAtEndPoint.hasValues(rowAtStartPoint)) {
-          index = index1;
-          break;
-        }
-        index1++;
-      }
-      if (index == -1) {
+    RowsHashIndex rowsAtStartPointIndex = new RowsHashIndex(rowsListAtStartPoint, RowsHashIndex.Key.VALUES);
+    for (Row rowAtEndPoint : rowsListAtEndPoint) {
+      if (!rowsAtStartPointIndex.removeRowWithSameValues(rowAtEndPoint)) {
         Change change = createCreationChange(dataAtStartPoint.getDataType(), dataName, rowAtEndPoint,
                                              getTableLetterCase(), getColumnLetterCase(), getPrimaryKeyLetterCase());
         changesList.add(change);
-      } else {
-        rowsAtStartPointList.remove(index);
       }
     }
     // List the deleted rows : the row is not present at the end point
-    List<Row> rowsAtEndPointList = new ArrayList<>(dataAtEndPoint.getRowsList());
-    for (Row rowAtStartPoint : dataAtStartPoint.getRowsList()) {
-      int index = -1;
-      int index1 = 0;
-      for (Row rowAtEndPoint : rowsAtEndPointList) {
-        if (rowAtStartPoint.hasValues(rowAtEndPoint)) {
-          index = index1;
-          break;
-        }
-        index1++;
-      }
-      if (index == -1) {
+    RowsHashIndex rowsAtEndPointIndex = new RowsHashIndex(rowsListAtEndPoint, RowsHashIndex.Key.VALUES);
+    for (Row rowAtStartPoint : rowsListAtStartPoint) {
+      if (!rowsAtEndPointIndex.removeRowWithSameValues(rowAtStartPoint)) {
         Change change = createDeletionChange(dataAtStartPoint.getDataType(), dataName, rowAtStartPoint,
                                              getTableLetterCase(), getColumnLetterCase(), getPrimaryKeyLetterCase());
         changesList.add(change);
-      } else {
-        rowsAtEndPointList.remove(index);
       }
     }
 
@@ -452,12 +1268,29 @@ public class Changes extends AbstractDbElement<Changes> {
 
   /**
    * Returns the list of the changes.
+   * <p>
+   * The changes are computed and sorted (with {@link ChangeComparator}) at the first call, then the same unmodifiable
+   * list is returned (before 1.2.0, the list was modifiable and sorted again at each call).
+   * </p>
    * 
-   * @return The list of the changes.
+   * @return The unmodifiable list of the changes.
    * @throws AssertJDBException If the changes are on all the tables and if the number of tables change between the
    *           start point and the end point. It is normally impossible.
    */
   public List<Change> getChangesList() {
+    return getChangesIndex().getChangesList();
+  }
+
+  /**
+   * Returns the index of the changes (the changes are computed and sorted at the first call).
+   *
+   * @return The index of the changes.
+   * @throws AssertJDBException If the end point is not set.
+   */
+  private ChangesIndex getChangesIndex() {
+    if (changesIndex != null) {
+      return changesIndex;
+    }
     if (changesList == null) {
       if (requestAtEndPoint == null && tablesAtEndPointList == null) {
         throw new AssertJDBException("End point must be set before");
@@ -476,13 +1309,16 @@ public class Changes extends AbstractDbElement<Changes> {
         }
       }
     }
-
-    Collections.sort(changesList, ChangeComparator.INSTANCE);
-    return changesList;
+    changesIndex = new ChangesIndex(changesList, getTableLetterCase());
+    changesList = changesIndex.getChangesList();
+    return changesIndex;
   }
 
   /**
    * Returns {@code Changes} only on the table name in parameter.
+   * <p>
+   * The returned {@code Changes} shares the index of the changes of {@code this} one (see {@link #getChangesList()}).
+   * </p>
    * @param tableName The table name
    * @return {@code Changes} instance.
    */
@@ -490,20 +1326,19 @@ public class Changes extends AbstractDbElement<Changes> {
     if (tableName == null) {
       throw new NullPointerException("tableName must be not null");
     }
-    Changes changes = createChangesFromThis();
-    List<Change> changesList = getChangesList();
-    if (tablesList != null) {
-      for (Change change : changesList) {
-        if (getTableLetterCase().isEqual(tableName, change.getDataName())) {
-          changes.changesList.add(change);
-        }
-      }
+    ChangesIndex index = getChangesIndex();
+    if (tablesList == null) {
+      // The changes on a request are not on a table
+      index = new ChangesIndex(Collections.<Change>emptyList(), getTableLetterCase());
     }
-    return changes;
+    return createChangesFromThis(index.getIndex(null, tableName));
   }
 
   /**
    * Returns {@code Changes} only on the change type in parameter.
+   * <p>
+   * The returned {@code Changes} shares the index of the changes of {@code this} one (see {@link #getChangesList()}).
+   * </p>
    * @param changeType The change type
    * @return {@code Changes} instance.
    */
@@ -511,32 +1346,26 @@ public class Changes extends AbstractDbElement<Changes> {
     if (changeType == null) {
       throw new NullPointerException("changeType must be not null");
     }
-    Changes changes = createChangesFromThis();
-    List<Change> changesList = getChangesList();
-    for (Change change : changesList) {
-      if (changeType.equals(change.getChangeType())) {
-        changes.changesList.add(change);
-      }
-    }
-    return changes;
+    return createChangesFromThis(getChangesIndex().getIndex(changeType, null));
   }
 
   /**
    * Creates a new instance of {@code Changes} from {@code this} one.
+   * <p>
+   * The new instance shares the request and the tables of {@code this} one (they are not duplicated, so the database
+   * is not queried).
+   * </p>
+   * @param changesIndex The index of the changes of the new instance.
    * @return The new instance.
    */
-  private Changes createChangesFromThis() {
+  private Changes createChangesFromThis(ChangesIndex changesIndex) {
     Changes changes = new Changes();
-    if (request != null) {
-      changes.request = getDuplicatedRequest(request);
-    }
+    changes.request = request;
     if (tablesList != null) {
-      changes.tablesList = new ArrayList<>();
-      for (Table table : tablesList) {
-        changes.tablesList.add(getDuplicatedTable(table));
-      }
+      changes.tablesList = Collections.unmodifiableList(tablesList);
     }
-    changes.changesList = new ArrayList<>();
+    changes.changesIndex = changesIndex;
+    changes.changesList = changesIndex.getChangesList();
     return changes;
   }
 }
@@ -0,0 +1,224 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.type.lettercase.LetterCase;
+import org.assertj.db.util.ChangeComparator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the sorted list of {@link Change}s of a {@link Changes}, partitioned by table and by {@link ChangeType}.
+ * <p>
+ * The list is sorted once when the index is created. The indexes on a table and/or a type of change (see
+ * {@link #getIndex(ChangeType, String)}) share the partitions of the root index and are cached in it, so the
+ * {@link Changes} returned by {@link Changes#getChangesOfTable(String)} and
+ * {@link Changes#getChangesOfType(ChangeType)} do not filter the changes again.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class ChangesIndex {
+
+  /**
+   * The root index (which contains all the changes).
+   */
+  private final ChangesIndex root;
+  /**
+   * The letter case of the tables name.
+   */
+  private final LetterCase tableLetterCase;
+  /**
+   * The type of the changes of this index ({@code null} for all the types).
+   */
+  private final ChangeType changeType;
+  /**
+   * The name of the table of the changes of this index ({@code null} for all the tables).
+   */
+  private final String tableName;
+  /**
+   * The sorted list of the changes (unmodifiable).
+   */
+  private final List<Change> changesList;
+  /**
+   * The changes by type (only in the root index).
+   */
+  private final Map<ChangeType, List<Change>> changesByTypeMap;
+  /**
+   * The changes by name of table (only in the root index).
+   */
+  private final Map<String, List<Change>> changesByTableMap;
+  /**
+   * The cache of the indexes by type and by name of table (only in the root index).
+   */
+  private final Map<ChangeType, Map<String, ChangesIndex>> indexesMap;
+
+  /**
+   * Constructor of a root index.
+   *
+   * @param changesList The list of the changes (sorted by this constructor).
+   * @param tableLetterCase The letter case of the tables name.
+   */
+  ChangesIndex(List<Change> changesList, LetterCase tableLetterCase) {
+    List<Change> sortedChangesList = new ArrayList<>(changesList);
+    ChangeComparator.sort(sortedChangesList);
+
+    root = this;
+    this.tableLetterCase = tableLetterCase;
+    changeType = null;
+    tableName = null;
+    this.changesList = Collections.unmodifiableList(sortedChangesList);
+    changesByTypeMap = new EnumMap<>(ChangeType.class);
+    changesByTableMap = new LinkedHashMap<>();
+    indexesMap = new HashMap<>();
+    for (Change change : sortedChangesList) {
+      addInPartition(changesByTypeMap, change.getChangeType(), change);
+      addInPartition(changesByTableMap, change.getDataName(), change);
+    }
+  }
+
+  /**
+   * Constructor of an index on a table and/or a type of change.
+   *
+   * @param root The root index.
+   * @param changeType The type of the changes ({@code null} for all the types).
+   * @param tableName The name of the table ({@code null} for all the tables).
+   * @param changesList The sorted list of the changes.
+   */
+  private ChangesIndex(ChangesIndex root, ChangeType changeType, String tableName, List<Change> changesList) {
+    this.root = root;
+    tableLetterCase = root.tableLetterCase;
+    this.changeType = changeType;
+    this.tableName = tableName;
+    this.changesList = Collections.unmodifiableList(changesList);
+    changesByTypeMap = null;
+    changesByTableMap = null;
+    indexesMap = null;
+  }
+
+  /**
+   * Adds a change in the partition with the key in parameter.
+   *
+   * @param partitionsMap The map of the partitions.
+   * @param key The key of the partition.
+   * @param change The change.
+   * @param <K> The type of the key.
+   */
+  private static <K> void addInPartition(Map<K, List<Change>> partitionsMap, K key, Change change) {
+    List<Change> partition = partitionsMap.get(key);
+    if (partition == null) {
+      partition = new ArrayList<>();
+      partitionsMap.put(key, partition);
+    }
+    partition.add(change);
+  }
+
+  /**
+   * Returns the sorted list of the changes (unmodifiable).
+   *
+   * @return The list of the changes.
+   */
+  List<Change> getChangesList() {
+    return changesList;
+  }
+
+  /**
+   * Returns the index of the changes of this index on the type of change and the table in parameter.
+   *
+   * @param changeType The type of the changes ({@code null} to keep the type of this index).
+   * @param tableName The name of the table ({@code null} to keep the table of this index).
+   * @return The index.
+   */
+  ChangesIndex getIndex(ChangeType changeType, String tableName) {
+    ChangeType type = this.changeType;
+    if (changeType != null) {
+      if (type != null && type != changeType) {
+        return new ChangesIndex(root, changeType, tableName, Collections.<Change>emptyList());
+      }
+      type = changeType;
+    }
+    String name = this.tableName;
+    if (tableName != null) {
+      if (name != null && !tableLetterCase.isEqual(name, tableName)) {
+        return new ChangesIndex(root, type, tableName, Collections.<Change>emptyList());
+      }
+      name = root.getTableName(tableName);
+    }
+    return root.getIndexFromRoot(type, name);
+  }
+
+  /**
+   * Returns the name of the table in the changes which is equal to the name in parameter.
+   *
+   * @param tableName The name of the table.
+   * @return The name of the table in the changes (or {@code tableName} if there is no change on this table).
+   */
+  private String getTableName(String tableName) {
+    for (String name : changesByTableMap.keySet()) {
+      if (tableLetterCase.isEqual(tableName, name)) {
+        return name;
+      }
+    }
+    return tableName;
+  }
+
+  /**
+   * Returns the index on the type of change and the table from the cache of the root index (the index is created if
+   * it is not in the cache).
+   *
+   * @param changeType The type of the changes ({@code null} for all the types).
+   * @param tableName The name of the table ({@code null} for all the tables).
+   * @return The index.
+   */
+  private synchronized ChangesIndex getIndexFromRoot(ChangeType changeType, String tableName) {
+    if (changeType == null && tableName == null) {
+      return this;
+    }
+    Map<String, ChangesIndex> indexesByTableMap = indexesMap.get(changeType);
+    if (indexesByTableMap == null) {
+      indexesByTableMap = new HashMap<>();
+      indexesMap.put(changeType, indexesByTableMap);
+    }
+    ChangesIndex index = indexesByTableMap.get(tableName);
+    if (index == null) {
+      List<Change> partition;
+      if (tableName == null) {
+        partition = changesByTypeMap.get(changeType);
+      } else {
+        partition = changesByTableMap.get(tableName);
+        if (partition != null && changeType != null) {
+          List<Change> changesOfTypeList = new ArrayList<>();
+          for (Change change : partition) {
+            if (change.getChangeType() == changeType) {
+              changesOfTypeList.add(change);
+            }
+          }
+          partition = changesOfTypeList;
+        }
+      }
+      if (partition == null) {
+        partition = Collections.emptyList();
+      }
+      index = new ChangesIndex(this, changeType, tableName, partition);
+      indexesByTableMap.put(tableName, index);
+    }
+    return index;
+  }
+}
@@ -0,0 +1,510 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.type.lettercase.LetterCase;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage of the values of a {@link AbstractDbData} by column.
+ * <p>
+ * Each column is stored in an array of primitive depending of the type of the values : {@code long} for the integral
+ * numbers, the booleans, the dates and the times, {@code double} for the floating numbers, and a dictionary of codes for
+ * the texts. The {@code null} values are kept in a bitmap. The other values (and the columns with values of different
+ * types) are stored in an array of objects.
+ * </p>
+ * <p>
+ * The {@link Value}s are only created when they are read (see {@link #getRowValuesList(int)}) and are not kept : the
+ * loading and the sort of the rows (on the primary keys values) do not create a {@link Value} for each cell.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class ColumnarStorage {
+
+  /**
+   * The list of the columns name.
+   */
+  private final List<String> columnsNameList;
+  /**
+   * Letter case of the columns.
+   */
+  private final LetterCase columnLetterCase;
+  /**
+   * The data of the columns.
+   */
+  private final ColumnData[] columnsData;
+  /**
+   * The number of rows.
+   */
+  private int rowsNumber;
+
+  /**
+   * Kind of storage for a column.
+   */
+  private enum Kind {
+    BYTE, SHORT, INTEGER, LONG, BOOLEAN, FLOAT, DOUBLE, DATE, TIME, TIMESTAMP, TEXT, OBJECT;
+
+    /**
+     * Returns the kind of storage for the object.
+     *
+     * @param object The object (must be not {@code null}).
+     * @return The kind of storage.
+     */
+    static Kind of(Object object) {
+      Class<?> clazz = object.getClass();
+      if (clazz == Byte.class) {
+        return BYTE;
+      }
+      if (clazz == Short.class) {
+        return SHORT;
+      }
+      if (clazz == Integer.class) {
+        return INTEGER;
+      }
+      if (clazz == Long.class) {
+        return LONG;
+      }
+      if (clazz == Boolean.class) {
+        return BOOLEAN;
+      }
+      if (clazz == Float.class) {
+        return FLOAT;
+      }
+      if (clazz == Double.class) {
+        return DOUBLE;
+      }
+      if (clazz == Date.class) {
+        return DATE;
+      }
+      if (clazz == Time.class) {
+        return TIME;
+      }
+      if (clazz == Timestamp.class) {
+        return TIMESTAMP;
+      }
+      if (clazz == String.class) {
+        return TEXT;
+      }
+      return OBJECT;
+    }
+  }
+
+  /**
+   * Data of a column.
+   */
+  private static class ColumnData {
+
+    /**
+     * The kind of storage ({@code null} while there are only {@code null} values).
+     */
+    private Kind kind;
+    /**
+     * The number of values.
+     */
+    private int size;
+    /**
+     * The indexes of the {@code null} values.
+     */
+    private final BitSet nullsBitSet = new BitSet();
+    /**
+     * The values stored as {@code long} (integral numbers, booleans, dates, times and timestamps in milliseconds).
+     */
+    private long[] longs;
+    /**
+     * The values stored as {@code double} (floating numbers).
+     */
+    private double[] doubles;
+    /**
+     * The values stored as {@code int} (nanoseconds of the timestamps or codes of the texts).
+     */
+    private int[] ints;
+    /**
+     * The values stored as objects.
+     */
+    private Object[] objects;
+    /**
+     * The dictionary of the texts (the index in the list is the code).
+     */
+    private List<String> dictionary;
+    /**
+     * The codes of the texts in the dictionary.
+     */
+    private Map<String, Integer> codesMap;
+
+    /**
+     * Adds a value at the end of the column.
+     *
+     * @param object The value.
+     */
+    void add(Object object) {
+      int index = size;
+      if (object == null) {
+        nullsBitSet.set(index);
+        size++;
+        return;
+      }
+
+      Kind kindOfObject = Kind.of(object);
+      if (kind == null) {
+        kind = kindOfObject;
+      } else if (kind != Kind.OBJECT && kind != kindOfObject) {
+        convertToObjects();
+      }
+      ensureCapacity(index + 1);
+
+      switch (kind) {
+      case BYTE:
+      case SHORT:
+      case INTEGER:
+      case LONG:
+        longs[index] = ((Number) object).longValue();
+        break;
+      case BOOLEAN:
+        longs[index] = ((Boolean) object) ? 1 : 0;
+        break;
+      case FLOAT:
+      case DOUBLE:
+        doubles[index] = ((Number) object).doubleValue();
+        break;
+      case DATE:
+      case TIME:
+        longs[index] = ((java.util.Date) object).getTime();
+        break;
+      case TIMESTAMP:
+        Timestamp timestamp = (Timestamp) object;
+        longs[index] = timestamp.getTime();
+        ints[index] = timestamp.getNanos();
+        break;
+      case TEXT:
+        ints[index] = getCode((String) object);
+        break;
+
+      default:
+        objects[index] = object;
+        break;
+      }
+      size++;
+    }
+
+    /**
+     * Returns the value at the index.
+     *
+     * @param index The index.
+     * @return The value.
+     */
+    Object get(int index) {
+      if (kind == null || nullsBitSet.get(index)) {
+        return null;
+      }
+
+      switch (kind) {
+      case BYTE:
+        return (byte) longs[index];
+      case SHORT:
+        return (short) longs[index];
+      case INTEGER:
+        return (int) longs[index];
+      case LONG:
+        return longs[index];
+      case BOOLEAN:
+        return longs[index] != 0;
+      case FLOAT:
+        return (float) doubles[index];
+      case DOUBLE:
+        return doubles[index];
+      case DATE:
+        return new Date(longs[index]);
+      case TIME:
+        return new Time(longs[index]);
+      case TIMESTAMP:
+        Timestamp timestamp = new Timestamp(longs[index]);
+        timestamp.setNanos(ints[index]);
+        return timestamp;
+      case TEXT:
+        return dictionary.get(ints[index]);
+
+      default:
+        return objects[index];
+      }
+    }
+
+    /**
+     * Returns the code of the text in the dictionary (the text is added to the dictionary if necessary).
+     *
+     * @param text The text.
+     * @return The code.
+     */
+    private int getCode(String text) {
+      if (codesMap == null) {
+        codesMap = new HashMap<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+          codesMap.put(dictionary.get(code), code);
+        }
+      }
+      Integer code = codesMap.get(text);
+      if (code == null) {
+        code = dictionary.size();
+        dictionary.add(text);
+        codesMap.put(text, code);
+      }
+      return code;
+    }
+
+    /**
+     * Converts the values already stored to objects (when a value is not of the same kind than the others).
+     */
+    private void convertToObjects() {
+      Object[] convertedObjects = new Object[Math.max(size, 16)];
+      for (int index = 0; index < size; index++) {
+        convertedObjects[index] = get(index);
+      }
+      kind = Kind.OBJECT;
+      objects = convertedObjects;
+      longs = null;
+      doubles = null;
+      ints = null;
+      dictionary = null;
+      codesMap = null;
+    }
+
+    /**
+     * Ensures that the arrays of the kind of storage have at least the capacity in parameter.
+     *
+     * @param capacity The minimal capacity.
+     */
+    private void ensureCapacity(int capacity) {
+      switch (kind) {
+      case FLOAT:
+      case DOUBLE:
+        if (doubles == null || doubles.length < capacity) {
+          doubles = doubles == null ? new double[getNewCapacity(0, capacity)]
+                                    : Arrays.copyOf(doubles, getNewCapacity(doubles.length, capacity));
+        }
+        break;
+      case TEXT:
+        if (dictionary == null) {
+          dictionary = new ArrayList<>();
+        }
+        ensureIntsCapacity(capacity);
+        break;
+      case TIMESTAMP:
+        ensureLongsCapacity(capacity);
+        ensureIntsCapacity(capacity);
+        break;
+      case OBJECT:
+        if (objects == null || objects.length < capacity) {
+          objects = objects == null ? new Object[getNewCapacity(0, capacity)]
+                                    : Arrays.copyOf(objects, getNewCapacity(objects.length, capacity));
+        }
+        break;
+
+      default:
+        ensureLongsCapacity(capacity);
+        break;
+      }
+    }
+
+    /**
+     * Ensures that the array of {@code long} has at least the capacity in parameter.
+     *
+     * @param capacity The minimal capacity.
+     */
+    private void ensureLongsCapacity(int capacity) {
+      if (longs == null || longs.length < capacity) {
+        longs = longs == null ? new long[getNewCapacity(0, capacity)]
+                              : Arrays.copyOf(longs, getNewCapacity(longs.length, capacity));
+      }
+    }
+
+    /**
+     * Ensures that the array of {@code int} has at least the capacity in parameter.
+     *
+     * @param capacity The minimal capacity.
+     */
+    private void ensureIntsCapacity(int capacity) {
+      if (ints == null || ints.length < capacity) {
+        ints = ints == null ? new int[getNewCapacity(0, capacity)]
+                            : Arrays.copyOf(ints, getNewCapacity(ints.length, capacity));
+      }
+    }
+
+    /**
+     * Returns the new capacity of an array.
+     *
+     * @param length The actual length of the array.
+     * @param capacity The minimal capacity.
+     * @return The new capacity.
+     */
+    private static int getNewCapacity(int length, int capacity) {
+      return Math.max(Math.max(length * 2, 16), capacity);
+    }
+
+    /**
+     * Reduces the arrays to the number of values.
+     */
+    void trimToSize() {
+      if (longs != null && longs.length > size) {
+        longs = Arrays.copyOf(longs, size);
+      }
+      if (doubles != null && doubles.length > size) {
+        doubles = Arrays.copyOf(doubles, size);
+      }
+      if (ints != null && ints.length > size) {
+        ints = Arrays.copyOf(ints, size);
+      }
+      if (objects != null && objects.length > size) {
+        objects = Arrays.copyOf(objects, size);
+      }
+      codesMap = null;
+    }
+  }
+
+  /**
+   * List of the values of a row, the {@link Value}s are created from the columns when they are read and are not kept
+   * (so a row does not use more memory after its reading).
+   */
+  private class RowValuesList extends AbstractList<Value> {
+
+    /**
+     * The index of the row in the storage.
+     */
+    private final int rowIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param rowIndex The index of the row in the storage.
+     */
+    private RowValuesList(int rowIndex) {
+      this.rowIndex = rowIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Value get(int index) {
+      return new Value(columnsNameList.get(index), getObject(rowIndex, index), columnLetterCase);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+      return columnsData.length;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param columnsNameList The list of the columns name.
+   * @param columnLetterCase The letter case of the columns.
+   */
+  ColumnarStorage(List<String> columnsNameList, LetterCase columnLetterCase) {
+    this.columnsNameList = columnsNameList;
+    this.columnLetterCase = columnLetterCase;
+    columnsData = new ColumnData[columnsNameList.size()];
+    for (int index = 0; index < columnsData.length; index++) {
+      columnsData[index] = new ColumnData();
+    }
+  }
+
+  /**
+   * Adds a row at the end of the storage.
+   *
+   * @param objects The values of the row (in the same order than the columns name).
+   * @return The index of the row in the storage.
+   */
+  int addRow(Object[] objects) {
+    for (int index = 0; index < columnsData.length; index++) {
+      columnsData[index].add(objects[index]);
+    }
+    return rowsNumber++;
+  }
+
+  /**
+   * Adds a value at the end of a column.
+   * <p>
+   * This method is used to fill the storage column by column (see {@link SnapshotFile}) : the number of rows must be
+   * set with {@link #setRowsNumber(int)} when all the columns are filled.
+   * </p>
+   *
+   * @param columnIndex The index of the column.
+   * @param object The value.
+   */
+  void addColumnValue(int columnIndex, Object object) {
+    columnsData[columnIndex].add(object);
+  }
+
+  /**
+   * Sets the number of rows (after the filling column by column).
+   *
+   * @param rowsNumber The number of rows.
+   * @see #addColumnValue(int, Object)
+   */
+  void setRowsNumber(int rowsNumber) {
+    this.rowsNumber = rowsNumber;
+  }
+
+  /**
+   * Returns the number of rows.
+   *
+   * @return The number of rows.
+   */
+  int getRowsNumber() {
+    return rowsNumber;
+  }
+
+  /**
+   * Returns the value of a row in a column.
+   *
+   * @param rowIndex The index of the row.
+   * @param columnIndex The index of the column.
+   * @return The value.
+   */
+  Object getObject(int rowIndex, int columnIndex) {
+    if (rowIndex < 0 || rowIndex >= rowsNumber) {
+      throw new IndexOutOfBoundsException("Index: " + rowIndex + ", Size: " + rowsNumber);
+    }
+    return columnsData[columnIndex].get(rowIndex);
+  }
+
+  /**
+   * Returns the list of the values of a row, the {@link Value}s are created when they are read for the first time.
+   *
+   * @param rowIndex The index of the row.
+   * @return The list of the values.
+   */
+  List<Value> getRowValuesList(int rowIndex) {
+    return new RowValuesList(rowIndex);
+  }
+
+  /**
+   * Reduces the memory used by the storage (must be called when all the rows are added).
+   */
+  void trimToSize() {
+    for (ColumnData columnData : columnsData) {
+      columnData.trimToSize();
+    }
+  }
+}
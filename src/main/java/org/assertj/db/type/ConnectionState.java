@@ -0,0 +1,156 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * State of a {@link Connection} (auto-commit, read-only mode, isolation level and catalog) recorded to be restored.
+ * <p>
+ * The state is restored with {@link #restore()} or when it is closed (so it can be used as a resource of a
+ * {@code try}) : the transaction in progress is rolled back, then each setting which is different from the recorded
+ * one is restored. Each step is done on its own : a failure of the rollback or of the restoration of a setting does
+ * not prevent the others, the first failure is thrown with the next ones suppressed.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class ConnectionState implements AutoCloseable {
+
+  /**
+   * The connection.
+   */
+  private final Connection connection;
+  /**
+   * The auto-commit mode.
+   */
+  private final boolean autoCommit;
+  /**
+   * The read-only mode.
+   */
+  private final boolean readOnly;
+  /**
+   * The isolation level.
+   */
+  private final int transactionIsolation;
+  /**
+   * The catalog (can be {@code null}).
+   */
+  private final String catalog;
+
+  /**
+   * Constructor (records the actual state of the connection).
+   *
+   * @param connection The connection.
+   * @throws SQLException SQL Exception.
+   */
+  ConnectionState(Connection connection) throws SQLException {
+    this.connection = connection;
+    autoCommit = connection.getAutoCommit();
+    readOnly = connection.isReadOnly();
+    transactionIsolation = connection.getTransactionIsolation();
+    catalog = connection.getCatalog();
+  }
+
+  /**
+   * Returns the connection.
+   *
+   * @return The connection.
+   */
+  Connection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Returns the recorded isolation level.
+   *
+   * @return The isolation level.
+   */
+  int getTransactionIsolation() {
+    return transactionIsolation;
+  }
+
+  /**
+   * Restores the recorded state of the connection.
+   *
+   * @throws SQLException The first failure of the rollback or of a restoration (with the next ones suppressed).
+   */
+  void restore() throws SQLException {
+    SQLException exception = null;
+    try {
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+      }
+    } catch (SQLException e) {
+      exception = getException(exception, e);
+    }
+    try {
+      if (connection.getAutoCommit() != autoCommit) {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (SQLException e) {
+      exception = getException(exception, e);
+    }
+    try {
+      if (connection.isReadOnly() != readOnly) {
+        connection.setReadOnly(readOnly);
+      }
+    } catch (SQLException e) {
+      exception = getException(exception, e);
+    }
+    try {
+      if (connection.getTransactionIsolation() != transactionIsolation) {
+        connection.setTransactionIsolation(transactionIsolation);
+      }
+    } catch (SQLException e) {
+      exception = getException(exception, e);
+    }
+    try {
+      if (catalog != null && !catalog.equals(connection.getCatalog())) {
+        connection.setCatalog(catalog);
+      }
+    } catch (SQLException e) {
+      exception = getException(exception, e);
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /**
+   * Returns the exception to throw after a failure.
+   *
+   * @param exception The first failure ({@code null} if there is none).
+   * @param failure The new failure.
+   * @return The new failure if it is the first one, otherwise the first failure (with the new one suppressed).
+   */
+  private static SQLException getException(SQLException exception, SQLException failure) {
+    if (exception == null) {
+      return failure;
+    }
+    exception.addSuppressed(failure);
+    return exception;
+  }
+
+  /**
+   * Restores the recorded state of the connection (see {@link #restore()}).
+   *
+   * @throws SQLException The first failure of the rollback or of a restoration (with the next ones suppressed).
+   */
+  @Override
+  public void close() throws SQLException {
+    restore();
+  }
+}
@@ -28,7 +28,7 @@ import java.util.logging.Logger;
  * @author Régis Pouiller
  * @since 1.1.0
  */
-public class DataSourceWithLetterCase implements DataSource, WithLetterCase {
+public class DataSourceWithLetterCase implements DataSource, WithLetterCase, WithLoadOptions, WithMetadataCache {
 
   /**
    * The data source.
@@ -46,6 +46,15 @@ public class DataSourceWithLetterCase implements DataSource, WithLetterCase {
    * Letter case of the primary keys.
    */
   private final LetterCase primaryKeyLetterCase;
+  /**
+   * Options to load the data.
+   */
+  private final LoadOptions loadOptions;
+  /**
+   * The cache of the metadata.
+   * @since 1.2.0
+   */
+  private final MetadataCache metadataCache = new MetadataCache();
 
   /**
    * Constructor.
@@ -57,10 +66,31 @@ public class DataSourceWithLetterCase implements DataSource, WithLetterCase {
   public DataSourceWithLetterCase(DataSource dataSource, LetterCase tableLetterCase,
                                   LetterCase columnLetterCase, LetterCase primaryKeyLetterCase) {
 
+    this(dataSource, tableLetterCase, columnLetterCase, primaryKeyLetterCase, LoadOptions.DEFAULT);
+  }
+
+  /**
+   * Constructor with the options to load the data.
+   * @param dataSource The data source.
+   * @param tableLetterCase Letter case of the tables.
+   * @param columnLetterCase Letter case of the columns.
+   * @param primaryKeyLetterCase Letter case of the primary keys.
+   * @param loadOptions Options to load the data.
+   * @throws NullPointerException If {@code loadOptions} is {@code null}.
+   * @since 1.2.0
+   */
+  public DataSourceWithLetterCase(DataSource dataSource, LetterCase tableLetterCase,
+                                  LetterCase columnLetterCase, LetterCase primaryKeyLetterCase,
+                                  LoadOptions loadOptions) {
+
+    if (loadOptions == null) {
+      throw new NullPointerException("loadOptions must be not null");
+    }
     this.dataSource = dataSource;
     this.tableLetterCase = tableLetterCase;
     this.columnLetterCase = columnLetterCase;
     this.primaryKeyLetterCase = primaryKeyLetterCase;
+    this.loadOptions = loadOptions;
   }
 
   /**
@@ -87,6 +117,26 @@ public class DataSourceWithLetterCase implements DataSource, WithLetterCase {
     return tableLetterCase;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public LoadOptions getLoadOptions() {
+    return loadOptions;
+  }
+
+  /**
+   * Returns the cache of the metadata of this data source (disabled by default).
+   *
+   * @return The cache of the metadata.
+   * @see MetadataCache#setEnabled(boolean)
+   * @since 1.2.0
+   */
+  @Override
+  public MetadataCache getMetadataCache() {
+    return metadataCache;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,244 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parser of the texts of the {@link DateValue}s, {@link TimeValue}s and {@link DateTimeValue}s.
+ * <p>
+ * The formats are checked character by character and the numbers are read without creating sub-strings. The values
+ * parsed by {@link #parseDate(String)}, {@link #parseTime(String)} and {@link #parseDateTime(String)} are kept in
+ * bounded caches (the values are immutable), so the same expected texts compared to many values are parsed once.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class DateTimeParser {
+
+  /**
+   * Length of the {@code yyyy-mm-dd} format.
+   */
+  static final int DATE_LENGTH = 10;
+  /**
+   * Length of the {@code hh:mm} format.
+   */
+  static final int TIME_LENGTH = 5;
+  /**
+   * Length of the {@code hh:mm:ss} format.
+   */
+  static final int TIME_WITH_SECONDS_LENGTH = 8;
+  /**
+   * Length of the {@code hh:mm:ss.nnnnnnnnn} format.
+   */
+  static final int TIME_WITH_NANO_LENGTH = 18;
+
+  /**
+   * The cache of the parsed dates.
+   */
+  private static final Cache<DateValue> DATES_CACHE = new Cache<>();
+  /**
+   * The cache of the parsed times.
+   */
+  private static final Cache<TimeValue> TIMES_CACHE = new Cache<>();
+  /**
+   * The cache of the parsed dates/times.
+   */
+  private static final Cache<DateTimeValue> DATES_TIMES_CACHE = new Cache<>();
+
+  /**
+   * Bounded cache of parsed values by text (the least recently used value is removed first).
+   *
+   * @param <V> The type of the values.
+   */
+  private static class Cache<V> {
+
+    /**
+     * Maximum number of values in the cache.
+     */
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * The values by text.
+     */
+    private final Map<String, V> valuesMap = new LinkedHashMap<String, V>(16, 0.75f, true) {
+      /**
+       * Serial version UID of the class.
+       */
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+        return size() > CACHE_SIZE;
+      }
+    };
+
+    /**
+     * Returns the value of the text.
+     *
+     * @param text The text.
+     * @return The value or {@code null} if the text is not in the cache.
+     */
+    synchronized V get(String text) {
+      return valuesMap.get(text);
+    }
+
+    /**
+     * Puts the value of the text.
+     *
+     * @param text The text.
+     * @param value The value.
+     */
+    synchronized void put(String text, V value) {
+      valuesMap.put(text, value);
+    }
+  }
+
+  /**
+   * Private constructor.
+   */
+  private DateTimeParser() {
+    // Empty
+  }
+
+  /**
+   * Returns the date value of the text in {@code yyyy-mm-dd} format (from the cache if the text is already parsed).
+   *
+   * @param date The text.
+   * @return The date value.
+   * @throws NullPointerException If {@code date} is {@code null}.
+   * @throws ParseException If {@code date} don't respect the format.
+   */
+  static DateValue parseDate(String date) throws ParseException {
+    DateValue dateValue = DATES_CACHE.get(date);
+    if (dateValue == null) {
+      dateValue = new DateValue(date);
+      DATES_CACHE.put(date, dateValue);
+    }
+    return dateValue;
+  }
+
+  /**
+   * Returns the time value of the text in {@code hh:mm}, {@code hh:mm:ss} or {@code hh:mm:ss.nnnnnnnnn} format (from
+   * the cache if the text is already parsed).
+   *
+   * @param time The text.
+   * @return The time value.
+   * @throws NullPointerException If {@code time} is {@code null}.
+   * @throws ParseException If {@code time} don't respect the formats.
+   */
+  static TimeValue parseTime(String time) throws ParseException {
+    TimeValue timeValue = TIMES_CACHE.get(time);
+    if (timeValue == null) {
+      timeValue = new TimeValue(time);
+      TIMES_CACHE.put(time, timeValue);
+    }
+    return timeValue;
+  }
+
+  /**
+   * Returns the date/time value of the text in {@code yyyy-mm-dd}, {@code yyyy-mm-ddThh:mm},
+   * {@code yyyy-mm-ddThh:mm:ss} or {@code yyyy-mm-ddThh:mm:ss.nnnnnnnnn} format (from the cache if the text is
+   * already parsed).
+   *
+   * @param dateTime The text.
+   * @return The date/time value.
+   * @throws NullPointerException If {@code dateTime} is {@code null}.
+   * @throws ParseException If {@code dateTime} don't respect the formats.
+   */
+  static DateTimeValue parseDateTime(String dateTime) throws ParseException {
+    DateTimeValue dateTimeValue = DATES_TIMES_CACHE.get(dateTime);
+    if (dateTimeValue == null) {
+      dateTimeValue = new DateTimeValue(dateTime);
+      DATES_TIMES_CACHE.put(dateTime, dateTimeValue);
+    }
+    return dateTimeValue;
+  }
+
+  /**
+   * Returns if the text contains a date in {@code yyyy-mm-dd} format at the index.
+   *
+   * @param text The text.
+   * @param index The index of the date.
+   * @return {@code true} if there is a date, {@code false} otherwise.
+   */
+  static boolean isDate(String text, int index) {
+    return text.length() >= index + DATE_LENGTH
+           && areDigits(text, index, index + 4) && text.charAt(index + 4) == '-'
+           && areDigits(text, index + 5, index + 7) && text.charAt(index + 7) == '-'
+           && areDigits(text, index + 8, index + 10);
+  }
+
+  /**
+   * Returns if the text contains only a time from the index : {@code hh:mm}, {@code hh:mm:ss} or
+   * {@code hh:mm:ss.nnnnnnnnn}.
+   *
+   * @param text The text.
+   * @param index The index of the time.
+   * @return {@code true} if the end of the text is a time, {@code false} otherwise.
+   */
+  static boolean isTime(String text, int index) {
+    int length = text.length() - index;
+    if (length != TIME_LENGTH && length != TIME_WITH_SECONDS_LENGTH && length != TIME_WITH_NANO_LENGTH) {
+      return false;
+    }
+    if (!areDigits(text, index, index + 2) || text.charAt(index + 2) != ':' || !areDigits(text, index + 3, index + 5)) {
+      return false;
+    }
+    if (length == TIME_LENGTH) {
+      return true;
+    }
+    if (text.charAt(index + 5) != ':' || !areDigits(text, index + 6, index + 8)) {
+      return false;
+    }
+    return length == TIME_WITH_SECONDS_LENGTH
+           || text.charAt(index + 8) == '.' && areDigits(text, index + 9, index + 18);
+  }
+
+  /**
+   * Returns if the characters of the text between the indexes are digits.
+   *
+   * @param text The text.
+   * @param beginIndex The beginning index (inclusive).
+   * @param endIndex The ending index (exclusive).
+   * @return {@code true} if all the characters are digits, {@code false} otherwise.
+   */
+  private static boolean areDigits(String text, int beginIndex, int endIndex) {
+    for (int index = beginIndex; index < endIndex; index++) {
+      char c = text.charAt(index);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number written with the digits of the text between the indexes.
+   *
+   * @param text The text (the characters between the indexes must be digits).
+   * @param beginIndex The beginning index (inclusive).
+   * @param endIndex The ending index (exclusive).
+   * @return The number.
+   */
+  static int getNumber(String text, int beginIndex, int endIndex) {
+    int number = 0;
+    for (int index = beginIndex; index < endIndex; index++) {
+      number = number * 10 + text.charAt(index) - '0';
+    }
+    return number;
+  }
+}
@@ -32,25 +32,6 @@ public class DateTimeValue implements Comparable<DateTimeValue>, DateValueContai
    * The time part.
    */
   private final TimeValue time;
-  /**
-   * Indicates where there are the digits in the {@code String} for {@link DateValue#DateValue(String)}.
-   */
-  private static final String DATE_FORMAT = "\\d\\d\\d\\d-\\d\\d-\\d\\d";
-  /**
-   * Indicates where there are the digits for {@code String} for {@link TimeValue#TimeValue(String)}.
-   */
-  private static final String TIME_FORMAT = "\\d\\d\\d\\d-\\d\\d-\\d\\dT\\d\\d:\\d\\d";
-  /**
-   * Indicates where there are the digits in style with seconds for {@code String} for
-   * {@link TimeValue#TimeValue(String)}.
-   */
-  private static final String TIME_FORMAT_WITH_SECONDS = "\\d\\d\\d\\d-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\d";
-  /**
-   * Indicates where there are the digits in style with nanoseconds for {@code String} for
-   * {@link TimeValue#TimeValue(String)}.
-   */
-  private static final String TIME_FORMAT_WITH_NANO = "\\d\\d\\d\\d-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\d.\\d\\d\\d\\d\\d\\d\\d\\d\\d";
-
   /**
    * Makes an instance of date/time value from a date with time at 00:00AM.
    * 
@@ -83,7 +64,7 @@ public class DateTimeValue implements Comparable<DateTimeValue>, DateValueContai
    * @return An instance of date/time value.
    */
   public static DateTimeValue parse(String dateTime) throws ParseException {
-    return new DateTimeValue(dateTime);
+    return DateTimeParser.parseDateTime(dateTime);
   }
 
   /**
@@ -151,14 +132,17 @@ public class DateTimeValue implements Comparable<DateTimeValue>, DateValueContai
       throw new NullPointerException("date/time should be not null");
     }
 
-    if (dateTime.matches(DATE_FORMAT)) {
-      date = DateValue.parse(dateTime);
+    int length = dateTime.length();
+    if (length == DateTimeParser.DATE_LENGTH && DateTimeParser.isDate(dateTime, 0)) {
+      date = new DateValue(dateTime);
       time = new TimeValue(0, 0);
-    } else if (dateTime.matches(TIME_FORMAT) || dateTime.matches(TIME_FORMAT_WITH_SECONDS)
-        || dateTime.matches(TIME_FORMAT_WITH_NANO)) {
+    } else if (length > DateTimeParser.DATE_LENGTH && DateTimeParser.isDate(dateTime, 0)
+               && dateTime.charAt(DateTimeParser.DATE_LENGTH) == 'T'
+               && DateTimeParser.isTime(dateTime, DateTimeParser.DATE_LENGTH + 1)) {
 
-      date = DateValue.parse(dateTime.substring(0, 10));
-      time = TimeValue.parse(dateTime.substring(11));
+      date = new DateValue(DateTimeParser.getNumber(dateTime, 0, 4), DateTimeParser.getNumber(dateTime, 5, 7),
+                           DateTimeParser.getNumber(dateTime, 8, 10));
+      time = new TimeValue(dateTime.substring(DateTimeParser.DATE_LENGTH + 1));
     } else {
       throw new ParseException("date/time must respect yyyy-mm-dd, yyyy-mm-ddThh:mm, "
           + "yyyy-mm-ddThh:mm:ss or yyyy-mm-ddThh:mm:ss.nnnnnnnnn format", dateTime.length());
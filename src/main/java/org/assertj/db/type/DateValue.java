@@ -36,10 +36,6 @@ public class DateValue implements Comparable<DateValue>, DateValueContainer {
    * Year.
    */
   private final int year;
-  /**
-   * Indicates where there are the digits in the {@code String} for {@link DateValue#DateValue(String)}.
-   */
-  private static final String DATE_FORMAT = "\\d\\d\\d\\d-\\d\\d-\\d\\d";
 
   /**
    * Makes an instance of date value from a day of month, a month and an year.
@@ -62,7 +58,7 @@ public class DateValue implements Comparable<DateValue>, DateValueContainer {
    * @return An instance of date value.
    */
   public static DateValue parse(String date) throws ParseException {
-    return new DateValue(date);
+    return DateTimeParser.parseDate(date);
   }
 
   /**
@@ -123,10 +119,10 @@ public class DateValue implements Comparable<DateValue>, DateValueContainer {
       throw new NullPointerException("date should be not null");
     }
 
-    if (date.matches(DATE_FORMAT)) {
-      year = Integer.parseInt(date.substring(0, 4));
-      month = Integer.parseInt(date.substring(5, 7));
-      dayOfTheMonth = Integer.parseInt(date.substring(8));
+    if (date.length() == DateTimeParser.DATE_LENGTH && DateTimeParser.isDate(date, 0)) {
+      year = DateTimeParser.getNumber(date, 0, 4);
+      month = DateTimeParser.getNumber(date, 5, 7);
+      dayOfTheMonth = DateTimeParser.getNumber(date, 8, 10);
     } else {
       throw new ParseException("date must respect yyyy-mm-dd format", date.length());
     }
@@ -0,0 +1,52 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.exception.AssertJDBException;
+
+/**
+ * Snapshot of a {@link Table} at start point which is not kept in memory by {@link Changes}.
+ * <p>
+ * At end point, only the rows which are different are loaded, then the snapshot is dropped.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @see TableSnapshot
+ * @see TableRun
+ * @since 1.2.0
+ */
+interface ExternalSnapshot {
+
+  /**
+   * Returns if the snapshot is dropped.
+   *
+   * @return {@code true} if the snapshot is dropped, {@code false} otherwise.
+   */
+  boolean isDropped();
+
+  /**
+   * Loads the rows which are different between the start point and now, then drops the snapshot.
+   *
+   * @param tableAtStartPoint The table to fill with the rows at start point (a duplicated table, not loaded).
+   * @param tableAtEndPoint The table to fill with the rows at end point (a duplicated table, not loaded).
+   * @throws AssertJDBException If triggered, this exception wrap a possible exception during the loading.
+   */
+  void loadDifferences(Table tableAtStartPoint, Table tableAtEndPoint);
+
+  /**
+   * Drops the snapshot.
+   *
+   * @throws AssertJDBException If triggered, this exception wrap a possible exception during the drop.
+   */
+  void drop();
+}
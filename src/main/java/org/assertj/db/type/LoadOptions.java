@@ -0,0 +1,102 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+/**
+ * The options to load the data from the database.
+ * <p>
+ * The data are always read with a {@link java.sql.ResultSet#TYPE_FORWARD_ONLY} and
+ * {@link java.sql.ResultSet#CONCUR_READ_ONLY} result set. In addition, these options indicate the fetch size (the
+ * number of rows got from the database at each round trip, so a driver which buffers the whole result by default can
+ * stream it), the query timeout and if the connection is set to read-only during the loading.
+ * </p>
+ * <p>Example of instantiation :</p>
+ * <pre><code class='java'>
+ * LoadOptions loadOptions = new LoadOptions(1000, 30, true);
+ * Table table = new Table(dataSource, "movie").setLoadOptions(loadOptions);
+ * </code></pre>
+ * <p>
+ * The options can also be given to a {@link SourceWithLetterCase} or a {@link DataSourceWithLetterCase} : in this
+ * case, the {@link Table}s and the {@link Request}s which use them inherit the options.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+public class LoadOptions {
+
+  /**
+   * The default options (the fetch size and the query timeout of the driver, the connection is not set to read-only).
+   */
+  public static final LoadOptions DEFAULT = new LoadOptions(0, 0, false);
+
+  /**
+   * The fetch size ({@code 0} for the default of the driver).
+   */
+  private final int fetchSize;
+  /**
+   * The query timeout in seconds ({@code 0} for no timeout).
+   */
+  private final int queryTimeout;
+  /**
+   * If the connection is set to read-only during the loading.
+   */
+  private final boolean readOnlyConnection;
+
+  /**
+   * Constructor with the options.
+   *
+   * @param fetchSize The fetch size ({@code 0} for the default of the driver).
+   * @param queryTimeout The query timeout in seconds ({@code 0} for no timeout).
+   * @param readOnlyConnection If the connection is set to read-only during the loading.
+   * @throws IllegalArgumentException If the fetch size or the query timeout is negative.
+   */
+  public LoadOptions(int fetchSize, int queryTimeout, boolean readOnlyConnection) {
+    if (fetchSize < 0) {
+      throw new IllegalArgumentException("fetchSize must be positive or zero");
+    }
+    if (queryTimeout < 0) {
+      throw new IllegalArgumentException("queryTimeout must be positive or zero");
+    }
+    this.fetchSize = fetchSize;
+    this.queryTimeout = queryTimeout;
+    this.readOnlyConnection = readOnlyConnection;
+  }
+
+  /**
+   * Returns the fetch size.
+   *
+   * @return The fetch size ({@code 0} for the default of the driver).
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Returns the query timeout.
+   *
+   * @return The query timeout in seconds ({@code 0} for no timeout).
+   */
+  public int getQueryTimeout() {
+    return queryTimeout;
+  }
+
+  /**
+   * Returns if the connection is set to read-only during the loading.
+   *
+   * @return {@code true} if the connection is set to read-only, {@code false} otherwise.
+   */
+  public boolean isReadOnlyConnection() {
+    return readOnlyConnection;
+  }
+}
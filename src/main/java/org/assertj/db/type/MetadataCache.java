@@ -0,0 +1,465 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.type.lettercase.LetterCase;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the metadata (names of the tables, of the columns and of the primary keys) of a {@link Source} or a
+ * {@link DataSource}.
+ * <p>
+ * Each {@link Source} and each {@link DataSourceWithLetterCase} has its own cache (see {@link WithMetadataCache}),
+ * shared by all the {@link Table}s which use it, so the repeated instantiations of a {@link Table} (like the
+ * duplications done by {@link Changes}) do not need to read the metadata from the database again.
+ * </p>
+ * <p>
+ * The cache is disabled by default (see {@link #setEnabled(boolean)}) : the metadata are read from the database each
+ * time they are needed, so the changes of the structure of the database are always seen. The metadata of the other
+ * {@link DataSource}s are never cached.
+ * </p>
+ * <p>
+ * When the cache is enabled, a table which is not found in the cache causes a new reading of the names of the tables.
+ * But the changes on the columns or on the primary keys of an existing table are not seen : in this case, the cache
+ * must be invalidated with {@link #invalidate()}, or a time to live must be set with {@link #setTimeToLive(long)}. The
+ * metadata of the tables of a {@link Changes} are invalidated when its start point is set (see
+ * {@link Changes#setStartPointNow()}).
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+public final class MetadataCache {
+
+  /**
+   * If the cache is enabled.
+   */
+  private volatile boolean enabled;
+  /**
+   * The time to live of the metadata in milliseconds ({@code 0} if the metadata does not expire).
+   */
+  private volatile long timeToLive;
+  /**
+   * The metadata ({@code null} while they are not read).
+   */
+  private SourceMetadata sourceMetadata;
+
+  /**
+   * Metadata of a {@link Source} or a {@link DataSource}.
+   */
+  private static class SourceMetadata {
+
+    /**
+     * The time to live of the metadata in milliseconds ({@code 0} if the metadata does not expire).
+     */
+    private final long timeToLive;
+    /**
+     * The time of the creation in milliseconds.
+     */
+    private final long creationTime = System.currentTimeMillis();
+    /**
+     * If the catalog and the schema are read.
+     */
+    private boolean catalogAndSchemaRead;
+    /**
+     * The catalog.
+     */
+    private String catalog;
+    /**
+     * The schema.
+     */
+    private String schema;
+    /**
+     * The names of the tables ({@code null} while they are not read).
+     */
+    private List<String> tablesNameList;
+    /**
+     * The names of the columns by table.
+     */
+    private final Map<String, List<String>> columnsNameMap = new HashMap<>();
+    /**
+     * The names of the primary keys by table.
+     */
+    private final Map<String, List<String>> pksNameMap = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param timeToLive The time to live of the metadata in milliseconds ({@code 0} if the metadata does not expire).
+     */
+    private SourceMetadata(long timeToLive) {
+      this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Returns if the metadata are expired.
+     *
+     * @return {@code true} if the metadata are expired, {@code false} otherwise.
+     */
+    private boolean isExpired() {
+      return timeToLive > 0 && System.currentTimeMillis() - creationTime > timeToLive;
+    }
+
+    /**
+     * Reads the catalog and the schema of the connection.
+     *
+     * @param connection The connection.
+     * @throws SQLException SQL Exception.
+     */
+    private void readCatalogAndSchema(Connection connection) throws SQLException {
+      if (!catalogAndSchemaRead) {
+        catalog = AbstractDbElement.getCatalog(connection);
+        schema = AbstractDbElement.getSchema(connection);
+        catalogAndSchemaRead = true;
+      }
+    }
+
+    /**
+     * Reads the names of the tables.
+     *
+     * @param connection The connection.
+     * @throws SQLException SQL Exception.
+     */
+    private void readTablesNameList(Connection connection) throws SQLException {
+      readCatalogAndSchema(connection);
+      tablesNameList = MetadataCache.readTablesNameList(connection, catalog, schema);
+    }
+  }
+
+  /**
+   * Constructor (the cache is disabled).
+   */
+  MetadataCache() {
+    // Empty
+  }
+
+  /**
+   * Returns if the cache is enabled.
+   *
+   * @return {@code true} if the cache is enabled, {@code false} otherwise.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets if the cache is enabled (the cache is disabled by default).
+   * <p>
+   * When the cache is disabled, the metadata are read from the database each time they are needed.
+   * </p>
+   *
+   * @param enabled {@code true} to enable the cache.
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    if (!enabled) {
+      invalidate();
+    }
+  }
+
+  /**
+   * Returns the time to live of the metadata.
+   *
+   * @return The time to live in milliseconds ({@code 0} if the metadata do not expire).
+   */
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  /**
+   * Sets the time to live of the metadata (by default the metadata do not expire).
+   *
+   * @param timeToLive The time to live in milliseconds ({@code 0} if the metadata do not expire).
+   * @throws IllegalArgumentException If {@code timeToLive} is negative.
+   */
+  public void setTimeToLive(long timeToLive) {
+    if (timeToLive < 0) {
+      throw new IllegalArgumentException("timeToLive must be positive or zero");
+    }
+    this.timeToLive = timeToLive;
+  }
+
+  /**
+   * Invalidates the metadata in the cache.
+   */
+  public synchronized void invalidate() {
+    sourceMetadata = null;
+  }
+
+  /**
+   * Returns the metadata in the cache (read again if they are expired).
+   *
+   * @return The metadata.
+   */
+  private synchronized SourceMetadata getSourceMetadata() {
+    if (sourceMetadata == null || sourceMetadata.isExpired()) {
+      sourceMetadata = new SourceMetadata(timeToLive);
+    }
+    return sourceMetadata;
+  }
+
+  /**
+   * Returns the cache of the metadata of the {@link Source} or the {@link DataSource} of the element.
+   *
+   * @param element The element.
+   * @return The cache or {@code null} if the {@link Source} or the {@link DataSource} has no cache.
+   */
+  static MetadataCache getMetadataCache(AbstractDbElement<?> element) {
+    if (element.getDataSource() instanceof WithMetadataCache) {
+      return ((WithMetadataCache) element.getDataSource()).getMetadataCache();
+    }
+    if (element.getDataSource() == null && element.getSource() instanceof WithMetadataCache) {
+      return ((WithMetadataCache) element.getSource()).getMetadataCache();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the metadata of the {@link Source} or the {@link DataSource} of the element if the cache is enabled.
+   *
+   * @param element The element.
+   * @return The metadata or {@code null} if the cache is not enabled.
+   */
+  private static SourceMetadata getEnabledSourceMetadata(AbstractDbElement<?> element) {
+    MetadataCache metadataCache = getMetadataCache(element);
+    if (metadataCache == null || !metadataCache.enabled) {
+      return null;
+    }
+    return metadataCache.getSourceMetadata();
+  }
+
+  /**
+   * Reads the names of the tables.
+   *
+   * @param connection The connection.
+   * @param catalog The catalog.
+   * @param schema The schema.
+   * @return The names of the tables.
+   * @throws SQLException SQL Exception.
+   */
+  private static List<String> readTablesNameList(Connection connection, String catalog, String schema)
+          throws SQLException {
+
+    List<String> list = new ArrayList<>();
+    try (ResultSet resultSet = connection.getMetaData().getTables(catalog, schema, null, new String[] { "TABLE" })) {
+      while (resultSet.next()) {
+        list.add(resultSet.getString("TABLE_NAME"));
+      }
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Reads the names of the columns of a table.
+   *
+   * @param connection The connection.
+   * @param catalog The catalog.
+   * @param schema The schema.
+   * @param tableName The name of the table (as in the database).
+   * @return The names of the columns.
+   * @throws SQLException SQL Exception.
+   */
+  private static List<String> readColumnsNameList(Connection connection, String catalog, String schema,
+                                                  String tableName) throws SQLException {
+
+    List<String> list = new ArrayList<>();
+    try (ResultSet resultSet = connection.getMetaData().getColumns(catalog, schema, tableName, null)) {
+      while (resultSet.next()) {
+        list.add(resultSet.getString("COLUMN_NAME"));
+      }
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Reads the names of the primary keys of a table.
+   *
+   * @param connection The connection.
+   * @param catalog The catalog.
+   * @param schema The schema.
+   * @param tableName The name of the table (as in the database).
+   * @return The names of the primary keys.
+   * @throws SQLException SQL Exception.
+   */
+  private static List<String> readPksNameList(Connection connection, String catalog, String schema,
+                                              String tableName) throws SQLException {
+
+    List<String> list = new ArrayList<>();
+    try (ResultSet resultSet = connection.getMetaData().getPrimaryKeys(catalog, schema, tableName)) {
+      while (resultSet.next()) {
+        list.add(resultSet.getString("COLUMN_NAME"));
+      }
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Returns the name of a table as in the database.
+   * <p>
+   * If the cache is enabled and if the table is not found in the names of the tables in the cache, these names are
+   * read again.
+   * </p>
+   *
+   * @param element The element which gives the connection.
+   * @param connection The connection to use ({@code null} to get a connection from the element if necessary).
+   * @param name The name of the table.
+   * @param letterCase The letter case of the tables.
+   * @return The name of the table as in the database or {@code null} if the table is not found.
+   * @throws SQLException SQL Exception.
+   */
+  static String getTableName(AbstractDbElement<?> element, Connection connection, String name,
+                             LetterCase letterCase) throws SQLException {
+
+    SourceMetadata sourceMetadata = getEnabledSourceMetadata(element);
+    if (sourceMetadata == null) {
+      Connection actualConnection = connection == null ? element.getConnection() : connection;
+      try {
+        return findTableName(readTablesNameList(actualConnection, AbstractDbElement.getCatalog(actualConnection),
+                                                AbstractDbElement.getSchema(actualConnection)), name, letterCase);
+      } finally {
+        if (connection == null) {
+          actualConnection.close();
+        }
+      }
+    }
+    synchronized (sourceMetadata) {
+      if (sourceMetadata.tablesNameList != null) {
+        String tableName = findTableName(sourceMetadata.tablesNameList, name, letterCase);
+        if (tableName != null) {
+          return tableName;
+        }
+      }
+      Connection actualConnection = connection == null ? element.getConnection() : connection;
+      try {
+        sourceMetadata.readTablesNameList(actualConnection);
+      } finally {
+        if (connection == null) {
+          actualConnection.close();
+        }
+      }
+      return findTableName(sourceMetadata.tablesNameList, name, letterCase);
+    }
+  }
+
+  /**
+   * Finds the name of a table in a list.
+   *
+   * @param tablesNameList The names of the tables.
+   * @param name The name of the table to find.
+   * @param letterCase The letter case of the tables.
+   * @return The name of the table in the list or {@code null} if it is not found.
+   */
+  private static String findTableName(List<String> tablesNameList, String name, LetterCase letterCase) {
+    for (String tableName : tablesNameList) {
+      if (letterCase.isEqual(tableName, name)) {
+        return tableName;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the names of the columns of a table as in the database.
+   *
+   * @param element The element which gives the connection.
+   * @param connection The connection to use ({@code null} to get a connection from the element if necessary).
+   * @param tableName The name of the table as in the database.
+   * @return The names of the columns.
+   * @throws SQLException SQL Exception.
+   */
+  static List<String> getColumnsNameList(AbstractDbElement<?> element, Connection connection, String tableName)
+          throws SQLException {
+
+    SourceMetadata sourceMetadata = getEnabledSourceMetadata(element);
+    if (sourceMetadata == null) {
+      Connection actualConnection = connection == null ? element.getConnection() : connection;
+      try {
+        return readColumnsNameList(actualConnection, AbstractDbElement.getCatalog(actualConnection),
+                                   AbstractDbElement.getSchema(actualConnection), tableName);
+      } finally {
+        if (connection == null) {
+          actualConnection.close();
+        }
+      }
+    }
+    synchronized (sourceMetadata) {
+      List<String> columnsNameList = sourceMetadata.columnsNameMap.get(tableName);
+      if (columnsNameList == null) {
+        Connection actualConnection = connection == null ? element.getConnection() : connection;
+        try {
+          sourceMetadata.readCatalogAndSchema(actualConnection);
+          columnsNameList = readColumnsNameList(actualConnection, sourceMetadata.catalog, sourceMetadata.schema,
+                                                tableName);
+        } finally {
+          if (connection == null) {
+            actualConnection.close();
+          }
+        }
+        sourceMetadata.columnsNameMap.put(tableName, columnsNameList);
+      }
+      return columnsNameList;
+    }
+  }
+
+  /**
+   * Returns the names of the primary keys of a table as in the database.
+   *
+   * @param element The element which gives the connection.
+   * @param connection The connection to use ({@code null} to get a connection from the element if necessary).
+   * @param tableName The name of the table as in the database.
+   * @return The names of the primary keys.
+   * @throws SQLException SQL Exception.
+   */
+  static List<String> getPksNameList(AbstractDbElement<?> element, Connection connection, String tableName)
+          throws SQLException {
+
+    SourceMetadata sourceMetadata = getEnabledSourceMetadata(element);
+    if (sourceMetadata == null) {
+      Connection actualConnection = connection == null ? element.getConnection() : connection;
+      try {
+        return readPksNameList(actualConnection, AbstractDbElement.getCatalog(actualConnection),
+                               AbstractDbElement.getSchema(actualConnection), tableName);
+      } finally {
+        if (connection == null) {
+          actualConnection.close();
+        }
+      }
+    }
+    synchronized (sourceMetadata) {
+      List<String> pksNameList = sourceMetadata.pksNameMap.get(tableName);
+      if (pksNameList == null) {
+        Connection actualConnection = connection == null ? element.getConnection() : connection;
+        try {
+          sourceMetadata.readCatalogAndSchema(actualConnection);
+          pksNameList = readPksNameList(actualConnection, sourceMetadata.catalog, sourceMetadata.schema, tableName);
+        } finally {
+          if (connection == null) {
+            actualConnection.close();
+          }
+        }
+        sourceMetadata.pksNameMap.put(tableName, pksNameList);
+      }
+      return pksNameList;
+    }
+  }
+}
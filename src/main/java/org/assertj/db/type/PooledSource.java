@@ -0,0 +1,421 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.type.lettercase.LetterCase;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * A source to indicates the informations to connect to the database with a pool of connections.
+ * <p>
+ * The {@link Table}s, the {@link Request}s and the {@link Changes} which use this source get their connections from a
+ * small bounded pool instead of opening a new physical connection each time. A connection is validated before being
+ * reused and the connections which are idle for longer than the idle timeout are closed.
+ * </p>
+ * <p>Example of instantiation :</p>
+ * <pre><code class='java'>
+ * PooledSource source = new PooledSource("jdbc:h2:mem:test", "sa", "", 4);
+ * </code></pre>
+ * <p>
+ * The physical connections are closed with {@link #close()}.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+public class PooledSource extends SourceWithLetterCase implements Closeable {
+
+  /**
+   * The default idle timeout in milliseconds.
+   */
+  public static final long DEFAULT_IDLE_TIMEOUT = 60000;
+  /**
+   * The timeout in seconds for the validation of a connection.
+   */
+  private static final int VALIDATION_TIMEOUT = 1;
+  /**
+   * The timeout in milliseconds to wait for a connection when they are all used.
+   */
+  private static final long WAIT_TIMEOUT = 30000;
+
+  /**
+   * The maximum number of physical connections.
+   */
+  private final int maxPoolSize;
+  /**
+   * The time in milliseconds after which an idle connection is closed.
+   */
+  private final long idleTimeout;
+  /**
+   * The idle connections (the most recently used first).
+   */
+  private final LinkedList<IdleConnection> idleConnectionsList = new LinkedList<>();
+  /**
+   * The number of physical connections opened.
+   */
+  private int openedConnectionsNumber;
+  /**
+   * If the pool is closed.
+   */
+  private boolean closed;
+
+  /**
+   * Physical connection in the pool with the time from which it is idle.
+   */
+  private static class IdleConnection {
+
+    /**
+     * The state of the physical connection at its opening.
+     */
+    private final ConnectionState connectionState;
+    /**
+     * The physical connection.
+     */
+    private final Connection connection;
+    /**
+     * The time from which the connection is idle.
+     */
+    private final long idleTime = System.currentTimeMillis();
+
+    /**
+     * Constructor.
+     *
+     * @param connectionState The state of the physical connection at its opening.
+     */
+    private IdleConnection(ConnectionState connectionState) {
+      this.connectionState = connectionState;
+      connection = connectionState.getConnection();
+    }
+  }
+
+  /**
+   * Handler of the connections given by the pool : the call to {@code close()} gives back the physical connection to
+   * the pool.
+   */
+  private class PooledConnectionHandler implements InvocationHandler {
+
+    /**
+     * The state of the physical connection at its opening.
+     */
+    private final ConnectionState connectionState;
+    /**
+     * The physical connection.
+     */
+    private final Connection connection;
+    /**
+     * If the connection is given back.
+     */
+    private boolean released;
+
+    /**
+     * Constructor.
+     *
+     * @param connectionState The state of the physical connection at its opening.
+     */
+    private PooledConnectionHandler(ConnectionState connectionState) {
+      this.connectionState = connectionState;
+      connection = connectionState.getConnection();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (method.getDeclaringClass() == Object.class) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        }
+        if ("hashCode".equals(methodName)) {
+          return System.identityHashCode(proxy);
+        }
+        return "Pooled " + connection;
+      }
+      if ("close".equals(methodName) && method.getParameterTypes().length == 0) {
+        if (!released) {
+          released = true;
+          release(connectionState);
+        }
+        return null;
+      }
+      if ("isClosed".equals(methodName) && method.getParameterTypes().length == 0) {
+        return released || connection.isClosed();
+      }
+      if (released) {
+        throw new SQLException("Connection is closed");
+      }
+      try {
+        return method.invoke(connection, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  /**
+   * Constructor with the informations and the maximum number of connections.
+   *
+   * @param url URL to the database.
+   * @param user User to connect.
+   * @param password Password to connect.
+   * @param maxPoolSize The maximum number of physical connections.
+   * @throws IllegalArgumentException If {@code maxPoolSize} is less than {@code 1}.
+   */
+  public PooledSource(String url, String user, String password, int maxPoolSize) {
+    this(url, user, password, LetterCase.TABLE_DEFAULT, LetterCase.COLUMN_DEFAULT, LetterCase.PRIMARY_KEY_DEFAULT,
+         LoadOptions.DEFAULT, maxPoolSize, DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Constructor with all the informations.
+   *
+   * @param url URL to the database.
+   * @param user User to connect.
+   * @param password Password to connect.
+   * @param tableLetterCase Letter case of the tables.
+   * @param columnLetterCase Letter case of the columns.
+   * @param primaryKeyLetterCase Letter case of the primary keys.
+   * @param loadOptions Options to load the data.
+   * @param maxPoolSize The maximum number of physical connections.
+   * @param idleTimeout The time in milliseconds after which an idle connection is closed ({@code 0} to never close
+   *                    the idle connections).
+   * @throws NullPointerException If {@code loadOptions} is {@code null}.
+   * @throws IllegalArgumentException If {@code maxPoolSize} is less than {@code 1} or {@code idleTimeout} is negative.
+   */
+  public PooledSource(String url, String user, String password,
+                      LetterCase tableLetterCase, LetterCase columnLetterCase, LetterCase primaryKeyLetterCase,
+                      LoadOptions loadOptions, int maxPoolSize, long idleTimeout) {
+
+    super(url, user, password, tableLetterCase, columnLetterCase, primaryKeyLetterCase, loadOptions);
+    if (maxPoolSize < 1) {
+      throw new IllegalArgumentException("maxPoolSize must be greater than or equal to 1");
+    }
+    if (idleTimeout < 0) {
+      throw new IllegalArgumentException("idleTimeout must be positive or zero");
+    }
+    this.maxPoolSize = maxPoolSize;
+    this.idleTimeout = idleTimeout;
+  }
+
+  /**
+   * Returns the maximum number of physical connections.
+   *
+   * @return The maximum number of physical connections.
+   */
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  /**
+   * Returns the time after which an idle connection is closed.
+   *
+   * @return The time in milliseconds ({@code 0} if the idle connections are never closed).
+   */
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Returns the number of physical connections opened.
+   *
+   * @return The number of physical connections opened (idle or used).
+   */
+  public synchronized int getOpenedConnectionsNumber() {
+    return openedConnectionsNumber;
+  }
+
+  /**
+   * Returns a connection from the pool.
+   * <p>
+   * An idle connection is reused if it is still valid, otherwise a new physical connection is opened if the maximum is
+   * not reached. If all the connections are used, this method waits that one is given back. The connection is given
+   * back to the pool when it is closed.
+   * </p>
+   *
+   * @return A connection.
+   * @throws SQLException SQL Exception (or if no connection is available after the waiting).
+   */
+  Connection getConnection() throws SQLException {
+    while (true) {
+      ConnectionState connectionState = null;
+      synchronized (this) {
+        if (closed) {
+          throw new SQLException("The pool is closed");
+        }
+        closeExpiredConnections();
+        long waitEnd = System.currentTimeMillis() + WAIT_TIMEOUT;
+        while (idleConnectionsList.isEmpty() && openedConnectionsNumber >= maxPoolSize) {
+          long waitTime = waitEnd - System.currentTimeMillis();
+          if (waitTime <= 0) {
+            throw new SQLException("No connection available in the pool");
+          }
+          try {
+            wait(waitTime);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+          }
+          if (closed) {
+            throw new SQLException("The pool is closed");
+          }
+        }
+        if (!idleConnectionsList.isEmpty()) {
+          connectionState = idleConnectionsList.removeFirst().connectionState;
+        } else {
+          openedConnectionsNumber++;
+        }
+      }
+
+      if (connectionState == null) {
+        Connection connection = null;
+        try {
+          connection = DriverManager.getConnection(getUrl(), getUser(), getPassword());
+          return getPooledConnection(new ConnectionState(connection));
+        } catch (SQLException e) {
+          discard(connection);
+          throw e;
+        }
+      }
+      if (isValid(connectionState.getConnection())) {
+        return getPooledConnection(connectionState);
+      }
+      discard(connectionState.getConnection());
+    }
+  }
+
+  /**
+   * Returns if the connection is valid.
+   *
+   * @param connection The connection.
+   * @return {@code true} if the connection is valid, {@code false} otherwise.
+   */
+  private static boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(VALIDATION_TIMEOUT);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the connection which gives back the physical connection to the pool when it is closed.
+   *
+   * @param connectionState The state of the physical connection at its opening.
+   * @return The connection to use.
+   */
+  private Connection getPooledConnection(ConnectionState connectionState) {
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                                               new PooledConnectionHandler(connectionState));
+  }
+
+  /**
+   * Gives back a physical connection to the pool.
+   * <p>
+   * The transaction in progress is rolled back and the state of the connection at its opening (auto-commit,
+   * read-only mode, isolation level and catalog) is restored, so the next user of the connection does not inherit the
+   * settings changed by the previous one (see {@link ConnectionState}). The connection is closed if its state can not
+   * be restored or if the pool is closed.
+   * </p>
+   *
+   * @param connectionState The state of the physical connection at its opening.
+   */
+  private void release(ConnectionState connectionState) {
+    Connection connection = connectionState.getConnection();
+    try {
+      connectionState.restore();
+    } catch (SQLException e) {
+      discard(connection);
+      return;
+    }
+    synchronized (this) {
+      if (!closed) {
+        idleConnectionsList.addFirst(new IdleConnection(connectionState));
+        notifyAll();
+        return;
+      }
+    }
+    discard(connection);
+  }
+
+  /**
+   * Closes a physical connection and removes it from the number of connections opened.
+   *
+   * @param connection The physical connection ({@code null} if the connection failed to be opened).
+   */
+  private void discard(Connection connection) {
+    closeQuietly(connection);
+    synchronized (this) {
+      openedConnectionsNumber--;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Closes the idle connections which are expired (must be called when the lock is taken).
+   */
+  private void closeExpiredConnections() {
+    if (idleTimeout == 0) {
+      return;
+    }
+    long limit = System.currentTimeMillis() - idleTimeout;
+    Iterator<IdleConnection> iterator = idleConnectionsList.iterator();
+    while (iterator.hasNext()) {
+      IdleConnection idleConnection = iterator.next();
+      if (idleConnection.idleTime < limit) {
+        iterator.remove();
+        closeQuietly(idleConnection.connection);
+        openedConnectionsNumber--;
+      }
+    }
+  }
+
+  /**
+   * Closes a connection without throwing exception.
+   *
+   * @param connection The connection ({@code null} is ignored).
+   */
+  private static void closeQuietly(Connection connection) {
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        // The connection is lost anyway
+      }
+    }
+  }
+
+  /**
+   * Closes the pool : the idle connections are closed and the used connections are closed when they are given back.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      for (IdleConnection idleConnection : idleConnectionsList) {
+        closeQuietly(idleConnection.connection);
+        openedConnectionsNumber--;
+      }
+      idleConnectionsList.clear();
+      notifyAll();
+    }
+  }
+}
@@ -12,6 +12,7 @@
  */
 package org.assertj.db.type;
 
+import org.assertj.db.exception.AssertJDBException;
 import org.assertj.db.type.lettercase.LetterCase;
 
 import javax.sql.DataSource;
@@ -186,6 +187,63 @@ public class Request extends AbstractDbData<Request> {
     controlIfAllThePksNameExistInTheColumns();
   }
 
+  /**
+   * Specific implementation of the count of the rows for a {@code Request}.
+   * <p>
+   * The request is wrapped in a {@code SELECT COUNT(*)} request. If the database does not accept this wrapping (for
+   * example because of an {@code ORDER BY} in a sub-query), the rows can not be counted by the database.
+   * </p>
+   *
+   * @param connection {@link Connection} to the database provided by {@link AbstractDbData#getRowsNumber()} method.
+   * @return The number of rows or {@code null} if the request can not be wrapped to be counted by the database.
+   * @throws NullPointerException If the {@link #request} field is {@code null}.
+   * @throws AssertJDBException If the count fails for another reason than the wrapping of the request.
+   * @see AbstractDbData#countImpl(Connection)
+   * @since 1.2.0
+   */
+  @Override
+  protected Integer countImpl(Connection connection) {
+    if (request == null) {
+      throw new NullPointerException("request can not be null");
+    }
+
+    String countRequest = "SELECT COUNT(*) FROM (" + request + ") COUNT_ROWS";
+    try (PreparedStatement statement = prepareStatement(connection, countRequest)) {
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
+      }
+      try (ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        return resultSet.getInt(1);
+      }
+    } catch (SQLException e) {
+      if (isWrappingImpossible(e)) {
+        return null;
+      }
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Returns if the exception thrown during the count means that the request can not be wrapped in a
+   * {@code SELECT COUNT(*) FROM (...)} (like a request which is not a query or with a syntax that is not accepted in a
+   * sub-query by the database).
+   * <p>
+   * The syntax errors and the access rule violations (the SQL states of the class {@code 42}) are in this case : then
+   * the rows are loaded to be counted (and an error in the request itself is reported by the loading).
+   * </p>
+   *
+   * @param exception The exception thrown during the count.
+   * @return {@code true} if the request can not be wrapped, {@code false} if it is another error.
+   */
+  private static boolean isWrappingImpossible(SQLException exception) {
+    if (exception instanceof SQLSyntaxErrorException) {
+      return true;
+    }
+    String sqlState = exception.getSQLState();
+    return sqlState != null && sqlState.startsWith("42");
+  }
+
   /**
    * Specific implementation of the loading for a {@code Request}.
    * 
@@ -200,7 +258,7 @@ public class Request extends AbstractDbData<Request> {
       throw new NullPointerException("request can not be null");
     }
 
-    try (PreparedStatement statement = connection.prepareStatement(request)) {
+    try (PreparedStatement statement = prepareStatement(connection, request)) {
       for (int i = 0; i < parameters.length; i++) {
         statement.setObject(i + 1, parameters[i]);
       }
@@ -15,10 +15,9 @@ package org.assertj.db.type;
 import org.assertj.db.type.lettercase.LetterCase;
 import org.assertj.db.type.lettercase.WithColumnLetterCase;
 import org.assertj.db.type.lettercase.WithPrimaryKeyLetterCase;
-import org.assertj.db.util.NameComparator;
-import org.assertj.db.util.Values;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -38,27 +37,23 @@ import java.util.List;
 public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLetterCase {
 
   /**
-   * List of the primary key names.
+   * The schema of the row (columns name, primary keys name and letter cases).
+   * @since 1.2.0
    */
-  private List<String> pksNameList;
-  /**
-   * The list of columns name.
-   */
-  private final List<String> columnsNameList;
+  private RowSchema schema;
   /**
    * The list of value.
    */
   private final List<Value> valuesList;
   /**
-   * Letter case of the columns.
-   * @since 1.1.0
-   */
-  private final LetterCase columnLetterCase;
-  /**
-   * Letter case of the primary keys.
-   * @since 1.1.0
+   * The indexes of the columns with an unknown value ({@code null} if there is none).
+   * <p>
+   * The value of these columns is not known (a row at start point rebuilt from a digest) : it is {@code null} in the
+   * list of values but it is always considered as different from the value of another row.
+   * </p>
+   * @since 1.2.0
    */
-  private final LetterCase primaryKeyLetterCase;
+  private final BitSet unknownColumns;
 
   /**
    * Constructor of the row with visibility in the package.
@@ -72,11 +67,32 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
   Row(List<String> pksNameList, List<String> columnsNameList, List<Value> valuesList,
       LetterCase columnLetterCase, LetterCase primaryKeyLetterCase) {
 
-    this.pksNameList = pksNameList;
-    this.columnsNameList = columnsNameList;
+    this(new RowSchema(pksNameList, columnsNameList, columnLetterCase, primaryKeyLetterCase), valuesList);
+  }
+
+  /**
+   * Constructor of the row with a schema shared with the other rows of the data.
+   *
+   * @param schema The schema of the row.
+   * @param valuesList The values in the row.
+   * @since 1.2.0
+   */
+  Row(RowSchema schema, List<Value> valuesList) {
+    this(schema, valuesList, null);
+  }
+
+  /**
+   * Constructor of the row with a schema shared with the other rows of the data and columns with an unknown value.
+   *
+   * @param schema The schema of the row.
+   * @param valuesList The values in the row.
+   * @param unknownColumns The indexes of the columns with an unknown value ({@code null} if there is none).
+   * @since 1.2.0
+   */
+  Row(RowSchema schema, List<Value> valuesList, BitSet unknownColumns) {
+    this.schema = schema;
     this.valuesList = valuesList;
-    this.columnLetterCase = columnLetterCase;
-    this.primaryKeyLetterCase = primaryKeyLetterCase;
+    this.unknownColumns = unknownColumns == null || unknownColumns.isEmpty() ? null : unknownColumns;
   }
 
   /**
@@ -84,7 +100,7 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
    */
   @Override
   public LetterCase getColumnLetterCase() {
-    return columnLetterCase;
+    return schema.getColumnLetterCase();
   }
 
   /**
@@ -92,7 +108,7 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
    */
   @Override
   public LetterCase getPrimaryKeyLetterCase() {
-    return primaryKeyLetterCase;
+    return schema.getPrimaryKeyLetterCase();
   }
 
   /**
@@ -101,7 +117,7 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
    * @return The list of the primary keys name.
    */
   public List<String> getPksNameList() {
-    return pksNameList;
+    return schema.getPksNameList();
   }
 
   /**
@@ -110,24 +126,41 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
    * @return The list of the primary keys value.
    */
   public List<Value> getPksValueList() {
-    List<Value> pksValueList = new ArrayList<>();
-    if (pksNameList != null) {
-      for (String name : pksNameList) {
-        int index = NameComparator.INSTANCE.indexOf(columnsNameList, name, primaryKeyLetterCase);
-        Value value = valuesList.get(index);
-        pksValueList.add(value);
-      }
+    int[] pksIndexes = schema.getPksIndexes();
+    List<Value> pksValueList = new ArrayList<>(pksIndexes.length);
+    for (int index : pksIndexes) {
+      pksValueList.add(valuesList.get(index));
     }
     return pksValueList;
   }
 
+  /**
+   * Returns the schema of the row.
+   *
+   * @return The schema of the row.
+   * @since 1.2.0
+   */
+  RowSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Sets the schema of the row.
+   *
+   * @param schema The schema of the row.
+   * @since 1.2.0
+   */
+  void setSchema(RowSchema schema) {
+    this.schema = schema;
+  }
+
   /**
    * Sets the list of the primary keys name.
    *
    * @param pksNameList The list of the primary keys name.
    */
   void setPksNameList(List<String> pksNameList) {
-    this.pksNameList = pksNameList;
+    schema = schema.withPksNameList(pksNameList);
   }
 
   /**
@@ -136,7 +169,7 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
    * @return The list of the columns name.
    */
   public List<String> getColumnsNameList() {
-    return columnsNameList;
+    return schema.getColumnsNameList();
   }
 
   /**
@@ -154,15 +187,12 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
    * @return The primary keys value.
    */
   public Value[] getPksValues() {
-    List<Value> pksValuesList = new ArrayList<>();
-    if (pksNameList != null) {
-      for (String pkName : pksNameList) {
-        int index = NameComparator.INSTANCE.indexOf(columnsNameList, pkName, primaryKeyLetterCase);
-        Value value = valuesList.get(index);
-        pksValuesList.add(value);
-      }
+    int[] pksIndexes = schema.getPksIndexes();
+    Value[] pksValues = new Value[pksIndexes.length];
+    for (int index = 0; index < pksIndexes.length; index++) {
+      pksValues[index] = valuesList.get(pksIndexes[index]);
     }
-    return pksValuesList.toArray(new Value[pksValuesList.size()]);
+    return pksValues;
   }
 
   /**
@@ -172,10 +202,10 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
    * @return If the values of the primary keys are equal.
    */
   public boolean hasPksValuesEqualTo(Value[] pksValues) {
-    Value[] pksValues1 = getPksValues();
-    if (pksValues1.length != 0 && pksValues1.length == pksValues.length) {
-      for (int index = 0; index < pksValues1.length; index++) {
-        if (!Values.areEqual(pksValues1[index], pksValues[index].getValue())) {
+    int[] pksIndexes = schema.getPksIndexes();
+    if (pksIndexes.length != 0 && pksIndexes.length == pksValues.length) {
+      for (int index = 0; index < pksIndexes.length; index++) {
+        if (!ValueEquality.areEqual(valuesList.get(pksIndexes[index]), pksValues[index].getValue())) {
           return false;
         }
       }
@@ -187,16 +217,22 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
 
   /**
    * Returns if the values are equal to the value of the {@code Row} in parameter.
+   * <p>
+   * The values are compared with the equality of their class (see {@link ValueEquality}). An unknown value is
+   * different from any value.
+   * </p>
+   *
    * @param row The {@code Row} to compare with.
    * @return If the values are equal.
    */
   public boolean hasValues(Row row) {
-    List<Value> valuesList = getValuesList();
+    if (unknownColumns != null || row.unknownColumns != null) {
+      return false;
+    }
     List<Value> rowValuesList = row.getValuesList();
-    for (int index = 0; index < valuesList.size(); index++) {
-      Value value = valuesList.get(index);
-      Value rowValue = rowValuesList.get(index);
-      if (!Values.areEqual(value, rowValue.getValue())) {
+    int size = valuesList.size();
+    for (int index = 0; index < size; index++) {
+      if (!ValueEquality.areEqual(valuesList.get(index), rowValuesList.get(index).getValue())) {
         return false;
       }
     }
@@ -204,6 +240,52 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
     return true;
   }
 
+  /**
+   * Returns the indexes of the columns with a value different to the value of the {@code Row} in parameter.
+   * <p>
+   * The values are compared with the equality of their class (see {@link ValueEquality}). A column with an unknown
+   * value is always different.
+   * </p>
+   *
+   * @param row The {@code Row} to compare with.
+   * @return The set of the indexes of the columns with a different value.
+   * @since 1.2.0
+   */
+  BitSet getIndexesOfDifferentValues(Row row) {
+    List<Value> rowValuesList = row.getValuesList();
+    int size = valuesList.size();
+    BitSet indexes = new BitSet(size);
+    if (unknownColumns != null) {
+      indexes.or(unknownColumns);
+    }
+    if (row.unknownColumns != null) {
+      indexes.or(row.unknownColumns);
+    }
+    for (int index = 0; index < size; index++) {
+      if (!indexes.get(index) && !ValueEquality.areEqual(valuesList.get(index), rowValuesList.get(index).getValue())) {
+        indexes.set(index);
+      }
+    }
+    return indexes;
+  }
+
+  /**
+   * Returns the indexes of the columns with a non {@code null} value.
+   *
+   * @return The set of the indexes of the columns with a non {@code null} value.
+   * @since 1.2.0
+   */
+  BitSet getIndexesOfNotNullValues() {
+    int size = valuesList.size();
+    BitSet indexes = new BitSet(size);
+    for (int index = 0; index < size; index++) {
+      if (valuesList.get(index).getValue() != null) {
+        indexes.set(index);
+      }
+    }
+    return indexes;
+  }
+
   /**
    * Returns the value corresponding to the column index.
    * 
@@ -226,7 +308,7 @@ public class Row implements DbElement, WithColumnLetterCase, WithPrimaryKeyLette
       throw new NullPointerException("Column name must be not null");
     }
 
-    int index = NameComparator.INSTANCE.indexOf(columnsNameList, columnName, columnLetterCase);
+    int index = schema.getColumnIndex(columnName);
     if (index == -1) {
       return null;
     }
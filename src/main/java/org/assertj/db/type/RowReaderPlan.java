@@ -0,0 +1,323 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.type.lettercase.LetterCase;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plan to read the values of the rows from a {@link ResultSet}.
+ * <p>
+ * The index and the SQL type of each column are resolved once from the {@link ResultSetMetaData}, then the values
+ * are read by index with a {@link ColumnReader} depending of the type.<br>
+ * The plans are cached by SQL request, so the repeated loadings of the same {@link Table} or {@link Request} reuse
+ * them (a plan is only reused if the columns of the {@link ResultSet} are still the same). The plans of the SQL
+ * requests which are only executed once are not cached (see {@link #newPlan(ResultSetMetaData, List, LetterCase)}).
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class RowReaderPlan {
+
+  /**
+   * Maximum number of plans in the cache.
+   */
+  private static final int CACHE_SIZE = 128;
+  /**
+   * The cache of the plans by SQL request (the least recently used plan is removed first).
+   */
+  private static final Map<String, RowReaderPlan> CACHE = new LinkedHashMap<String, RowReaderPlan>(16, 0.75f, true) {
+    /**
+     * Serial version UID of the class.
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, RowReaderPlan> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
+  /**
+   * The letter case of the columns.
+   */
+  private final LetterCase columnLetterCase;
+  /**
+   * The list of the columns name to read.
+   */
+  private final List<String> columnsNameList;
+  /**
+   * The labels of all the columns in the {@link ResultSet}.
+   */
+  private final String[] labels;
+  /**
+   * The SQL types of all the columns in the {@link ResultSet}.
+   */
+  private final int[] types;
+  /**
+   * The index in the {@link ResultSet} of each column to read.
+   */
+  private final int[] indexes;
+  /**
+   * The reader of each column to read.
+   */
+  private final ColumnReader[] readers;
+
+  /**
+   * Reader of the value of a column depending of its SQL type.
+   */
+  enum ColumnReader {
+
+    /**
+     * Reader for {@link Types#DATE}.
+     */
+    DATE {
+      @Override
+      Object read(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getDate(index);
+      }
+    },
+    /**
+     * Reader for {@link Types#TIME}.
+     */
+    TIME {
+      @Override
+      Object read(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getTime(index);
+      }
+    },
+    /**
+     * Reader for {@link Types#TIMESTAMP}.
+     */
+    TIMESTAMP {
+      @Override
+      Object read(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getTimestamp(index);
+      }
+    },
+    /**
+     * Reader for {@link Types#BLOB}.
+     */
+    BYTES {
+      @Override
+      Object read(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getBytes(index);
+      }
+    },
+    /**
+     * Reader for {@link Types#CLOB}.
+     */
+    STRING {
+      @Override
+      Object read(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getString(index);
+      }
+    },
+    /**
+     * Reader for the other types.
+     */
+    OBJECT {
+      @Override
+      Object read(ResultSet resultSet, int index) throws SQLException {
+        return resultSet.getObject(index);
+      }
+    };
+
+    /**
+     * Reads the value of the column.
+     *
+     * @param resultSet The {@link ResultSet}.
+     * @param index The index of the column in the {@link ResultSet}.
+     * @return The value.
+     * @throws SQLException SQL Exception.
+     */
+    abstract Object read(ResultSet resultSet, int index) throws SQLException;
+
+    /**
+     * Returns the reader corresponding to the SQL type.
+     *
+     * @param type The SQL type (from {@link Types}).
+     * @return The reader.
+     */
+    static ColumnReader of(int type) {
+      switch (type) {
+      case Types.DATE:
+        return DATE;
+      case Types.TIME:
+        return TIME;
+      case Types.TIMESTAMP:
+        return TIMESTAMP;
+      case Types.BLOB:
+        return BYTES;
+      case Types.CLOB:
+        return STRING;
+
+      default:
+        return OBJECT;
+      }
+    }
+  }
+
+  /**
+   * Returns the plan to read the columns in parameter from a {@link ResultSet} of the SQL request.
+   * <p>
+   * The plan comes from the cache if there is one for the SQL request with the same columns, otherwise a new plan is
+   * built and put in the cache.
+   * </p>
+   *
+   * @param request The SQL request.
+   * @param metaData The meta data of the {@link ResultSet}.
+   * @param columnsNameList The list of the columns name to read.
+   * @param columnLetterCase The letter case of the columns.
+   * @return The plan.
+   * @throws SQLException SQL Exception.
+   */
+  static RowReaderPlan getPlan(String request, ResultSetMetaData metaData, List<String> columnsNameList,
+                               LetterCase columnLetterCase) throws SQLException {
+
+    RowReaderPlan plan;
+    synchronized (CACHE) {
+      plan = CACHE.get(request);
+    }
+    if (plan == null || !plan.isUsableFor(metaData, columnsNameList, columnLetterCase)) {
+      plan = newPlan(metaData, columnsNameList, columnLetterCase);
+      synchronized (CACHE) {
+        CACHE.put(request, plan);
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * Returns a new plan to read the columns in parameter from a {@link ResultSet}, without the cache.
+   * <p>
+   * This method is used for the SQL requests which are only executed once (like the requests on the snapshot tables of
+   * {@link TableSnapshot}) : they would only replace the plans of the other requests in the cache.
+   * </p>
+   *
+   * @param metaData The meta data of the {@link ResultSet}.
+   * @param columnsNameList The list of the columns name to read.
+   * @param columnLetterCase The letter case of the columns.
+   * @return The plan.
+   * @throws SQLException SQL Exception.
+   */
+  static RowReaderPlan newPlan(ResultSetMetaData metaData, List<String> columnsNameList, LetterCase columnLetterCase)
+          throws SQLException {
+
+    return new RowReaderPlan(metaData, columnsNameList, columnLetterCase);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param metaData The meta data of the {@link ResultSet}.
+   * @param columnsNameList The list of the columns name to read.
+   * @param columnLetterCase The letter case of the columns.
+   * @throws SQLException SQL Exception.
+   */
+  private RowReaderPlan(ResultSetMetaData metaData, List<String> columnsNameList, LetterCase columnLetterCase)
+          throws SQLException {
+
+    this.columnLetterCase = columnLetterCase;
+    this.columnsNameList = new ArrayList<>(columnsNameList);
+
+    int columnCount = metaData.getColumnCount();
+    labels = new String[columnCount];
+    types = new int[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      labels[i] = metaData.getColumnLabel(i + 1);
+      types[i] = metaData.getColumnType(i + 1);
+    }
+
+    indexes = new int[columnsNameList.size()];
+    readers = new ColumnReader[columnsNameList.size()];
+    int index = 0;
+    for (String columnName : columnsNameList) {
+      int columnIndex = -1;
+      for (int i = 0; i < columnCount; i++) {
+        if (columnLetterCase.isEqual(columnName, labels[i])) {
+          columnIndex = i;
+          break;
+        }
+      }
+      if (columnIndex == -1) {
+        throw new SQLException("Column " + columnName + " not found in the result set");
+      }
+      indexes[index] = columnIndex + 1;
+      readers[index] = ColumnReader.of(types[columnIndex]);
+      index++;
+    }
+  }
+
+  /**
+   * Returns if the plan can be used to read the columns in parameter from a {@link ResultSet}.
+   *
+   * @param metaData The meta data of the {@link ResultSet}.
+   * @param columnsNameList The list of the columns name to read.
+   * @param columnLetterCase The letter case of the columns.
+   * @return {@code true} if the plan can be used, {@code false} otherwise.
+   * @throws SQLException SQL Exception.
+   */
+  boolean isUsableFor(ResultSetMetaData metaData, List<String> columnsNameList, LetterCase columnLetterCase)
+          throws SQLException {
+
+    if (this.columnLetterCase != columnLetterCase || !this.columnsNameList.equals(columnsNameList)
+        || metaData.getColumnCount() != labels.length) {
+      return false;
+    }
+    for (int i = 0; i < labels.length; i++) {
+      if (!labels[i].equals(metaData.getColumnLabel(i + 1)) || types[i] != metaData.getColumnType(i + 1)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the objects of the current row of the {@link ResultSet} (without creating {@link Value}s).
+   *
+   * @param resultSet The {@link ResultSet} (positioned on a row).
+   * @param objects The array to fill with the objects in the same order than the columns name.
+   * @throws SQLException SQL Exception.
+   */
+  void readObjects(ResultSet resultSet, Object[] objects) throws SQLException {
+    for (int index = 0; index < indexes.length; index++) {
+      objects[index] = readers[index].read(resultSet, indexes[index]);
+    }
+  }
+
+  /**
+   * Reads the values of the current row of the {@link ResultSet}.
+   *
+   * @param resultSet The {@link ResultSet} (positioned on a row).
+   * @return The list of the values in the same order than the columns name.
+   * @throws SQLException SQL Exception.
+   */
+  List<Value> readValues(ResultSet resultSet) throws SQLException {
+    List<Value> valuesList = new ArrayList<>(indexes.length);
+    for (int index = 0; index < indexes.length; index++) {
+      Object object = readers[index].read(resultSet, indexes[index]);
+      valuesList.add(new Value(columnsNameList.get(index), object, columnLetterCase));
+    }
+    return valuesList;
+  }
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.type.lettercase.LetterCase;
+import org.assertj.db.util.NameComparator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schema of the {@link Row}s of a data : the columns name, the primary keys name and their letter cases.
+ * <p>
+ * The schema is shared by all the rows of a data, so the metadata are not duplicated in each row. The names and the
+ * letter cases never change, but the schema is not immutable : it keeps caches filled lazily, the indexes of the
+ * primary keys in the columns (resolved once and published by a {@code volatile} field) and the indexes of the columns
+ * found by name (in a concurrent map, the names are compared with the letter case of the columns). So a schema can be
+ * used by several threads.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class RowSchema {
+
+  /**
+   * The list of the columns name.
+   */
+  private final List<String> columnsNameList;
+  /**
+   * The list of the primary keys name.
+   */
+  private final List<String> pksNameList;
+  /**
+   * The letter case of the columns.
+   */
+  private final LetterCase columnLetterCase;
+  /**
+   * The letter case of the primary keys.
+   */
+  private final LetterCase primaryKeyLetterCase;
+  /**
+   * The indexes of the primary keys in the columns ({@code null} while they are not resolved).
+   */
+  private volatile int[] pksIndexes;
+  /**
+   * The indexes of the columns by the names already searched.
+   */
+  private final Map<String, Integer> columnsIndexesMap = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param pksNameList The list of the primary keys name.
+   * @param columnsNameList The list of the columns name.
+   * @param columnLetterCase The letter case of the columns.
+   * @param primaryKeyLetterCase The letter case of the primary keys.
+   */
+  RowSchema(List<String> pksNameList, List<String> columnsNameList, LetterCase columnLetterCase,
+            LetterCase primaryKeyLetterCase) {
+
+    this.pksNameList = pksNameList;
+    this.columnsNameList = columnsNameList;
+    this.columnLetterCase = columnLetterCase;
+    this.primaryKeyLetterCase = primaryKeyLetterCase;
+  }
+
+  /**
+   * Returns a schema with the same columns and the primary keys in parameter.
+   *
+   * @param pksNameList The list of the primary keys name.
+   * @return The schema.
+   */
+  RowSchema withPksNameList(List<String> pksNameList) {
+    return new RowSchema(pksNameList, columnsNameList, columnLetterCase, primaryKeyLetterCase);
+  }
+
+  /**
+   * Returns the list of the columns name.
+   *
+   * @return The list of the columns name.
+   */
+  List<String> getColumnsNameList() {
+    return columnsNameList;
+  }
+
+  /**
+   * Returns the list of the primary keys name.
+   *
+   * @return The list of the primary keys name.
+   */
+  List<String> getPksNameList() {
+    return pksNameList;
+  }
+
+  /**
+   * Returns the letter case of the columns.
+   *
+   * @return The letter case of the columns.
+   */
+  LetterCase getColumnLetterCase() {
+    return columnLetterCase;
+  }
+
+  /**
+   * Returns the letter case of the primary keys.
+   *
+   * @return The letter case of the primary keys.
+   */
+  LetterCase getPrimaryKeyLetterCase() {
+    return primaryKeyLetterCase;
+  }
+
+  /**
+   * Returns the indexes of the primary keys in the columns (the array must not be modified).
+   *
+   * @return The indexes of the primary keys ({@code -1} for a primary key which is not in the columns).
+   */
+  int[] getPksIndexes() {
+    int[] indexes = pksIndexes;
+    if (indexes == null) {
+      if (pksNameList == null) {
+        indexes = new int[0];
+      } else {
+        indexes = new int[pksNameList.size()];
+        for (int index = 0; index < indexes.length; index++) {
+          indexes[index] = NameComparator.INSTANCE.indexOf(columnsNameList, pksNameList.get(index),
+                                                           primaryKeyLetterCase);
+        }
+      }
+      pksIndexes = indexes;
+    }
+    return indexes;
+  }
+
+  /**
+   * Returns the index of the column with the name in parameter.
+   *
+   * @param columnName The name of the column (must be not {@code null}).
+   * @return The index of the column or {@code -1} if there is no column with this name.
+   */
+  int getColumnIndex(String columnName) {
+    Integer index = columnsIndexesMap.get(columnName);
+    if (index == null) {
+      index = NameComparator.INSTANCE.indexOf(columnsNameList, columnName, columnLetterCase);
+      columnsIndexesMap.put(columnName, index);
+    }
+    return index;
+  }
+}
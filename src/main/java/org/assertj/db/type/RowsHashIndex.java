@@ -0,0 +1,199 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.util.Values;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of rows by the hash code of some of their values (see {@link Values#getHashCode(Value[])}).
+ * <p>
+ * The type of the indexed values is kept for each position : a value which is not of the same type (for example a
+ * text compared to a number) does not have a consistent hash code, so the index is only used to search values of the
+ * same types (all the rows are browsed otherwise).
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class RowsHashIndex {
+
+  /**
+   * The values of a row which are indexed.
+   */
+  enum Key {
+
+    /**
+     * The primary keys values.
+     */
+    PRIMARY_KEYS {
+      @Override
+      Value[] getValues(Row row) {
+        return row.getPksValues();
+      }
+    },
+    /**
+     * All the values.
+     */
+    VALUES {
+      @Override
+      Value[] getValues(Row row) {
+        List<Value> valuesList = row.getValuesList();
+        return valuesList.toArray(new Value[valuesList.size()]);
+      }
+    };
+
+    /**
+     * Returns the indexed values of the row.
+     *
+     * @param row The row.
+     * @return The values.
+     */
+    abstract Value[] getValues(Row row);
+  }
+
+  /**
+   * The values of the rows which are indexed.
+   */
+  private final Key key;
+  /**
+   * The indexed rows.
+   */
+  private final List<Row> rowsList;
+  /**
+   * The rows by the hash code of their values.
+   */
+  private final Map<Integer, List<Row>> rowsByHashCodeMap = new HashMap<>();
+  /**
+   * The types of the values in the index ({@code null} if the index can not be used).
+   */
+  private final ValueType[] valueTypes;
+  /**
+   * The rows removed by {@link #removeRowWithSameValues(Row)} ({@code null} while there is none).
+   */
+  private Set<Row> removedRowsSet;
+
+  /**
+   * Constructor.
+   *
+   * @param rowsList The rows to index.
+   * @param key The values of the rows which are indexed.
+   */
+  RowsHashIndex(List<Row> rowsList, Key key) {
+    this.key = key;
+    this.rowsList = rowsList;
+    ValueType[] valueTypes = null;
+    boolean isWithSameValueTypes = true;
+    for (Row row : rowsList) {
+      Value[] values = key.getValues(row);
+      if (valueTypes == null) {
+        valueTypes = new ValueType[values.length];
+      } else if (valueTypes.length != values.length) {
+        isWithSameValueTypes = false;
+      }
+      for (int index = 0; index < values.length && isWithSameValueTypes; index++) {
+        Value value = values[index];
+        if (value.getValue() != null) {
+          if (valueTypes[index] == null) {
+            valueTypes[index] = value.getValueType();
+          } else if (valueTypes[index] != value.getValueType()) {
+            isWithSameValueTypes = false;
+          }
+        }
+      }
+
+      Integer hashCode = Values.getHashCode(values);
+      List<Row> rowsWithSameHashCodeList = rowsByHashCodeMap.get(hashCode);
+      if (rowsWithSameHashCodeList == null) {
+        rowsWithSameHashCodeList = new ArrayList<>(1);
+        rowsByHashCodeMap.put(hashCode, rowsWithSameHashCodeList);
+      }
+      rowsWithSameHashCodeList.add(row);
+    }
+    this.valueTypes = isWithSameValueTypes ? valueTypes : null;
+  }
+
+  /**
+   * Returns if the index can be used to search the values in parameter.
+   *
+   * @param values The values.
+   * @return {@code true} if the index can be used, {@code false} otherwise.
+   */
+  private boolean isUsable(Value[] values) {
+    if (valueTypes == null || valueTypes.length != values.length) {
+      return false;
+    }
+    for (int index = 0; index < values.length; index++) {
+      Value value = values[index];
+      if (value.getValue() != null && valueTypes[index] != null && valueTypes[index] != value.getValueType()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the rows which can have values equal to the values in parameter : the rows with the same hash code if
+   * the index can be used, all the rows otherwise.
+   *
+   * @param values The values.
+   * @return The candidate rows (in the same order than in the indexed rows).
+   */
+  List<Row> getCandidateRows(Value[] values) {
+    if (isUsable(values)) {
+      List<Row> rowsWithSameHashCodeList = rowsByHashCodeMap.get(Values.getHashCode(values));
+      if (rowsWithSameHashCodeList == null) {
+        return Collections.emptyList();
+      }
+      return rowsWithSameHashCodeList;
+    }
+    return rowsList;
+  }
+
+  /**
+   * Removes from the index the first row with the same values than the row in parameter (the index is used like a
+   * multiset).
+   *
+   * @param row The row to search.
+   * @return {@code true} if a row is removed, {@code false} otherwise.
+   */
+  boolean removeRowWithSameValues(Row row) {
+    List<Row> candidateRowsList = getCandidateRows(key.getValues(row));
+    Iterator<Row> iterator = candidateRowsList.iterator();
+    while (iterator.hasNext()) {
+      Row candidateRow = iterator.next();
+      if (removedRowsSet != null && removedRowsSet.contains(candidateRow)) {
+        continue;
+      }
+      if (row.hasValues(candidateRow)) {
+        if (removedRowsSet == null) {
+          removedRowsSet = Collections.newSetFromMap(new IdentityHashMap<Row, Boolean>());
+        }
+        removedRowsSet.add(candidateRow);
+        if (candidateRowsList != rowsList) {
+          iterator.remove();
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+}
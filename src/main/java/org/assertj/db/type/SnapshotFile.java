@@ -0,0 +1,630 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.exception.AssertJDBException;
+import org.assertj.db.type.lettercase.LetterCase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * File which contains a snapshot of one or several {@link Table}s or {@link Request}s.
+ * <p>
+ * The file begins by a header, then contains one block by data : the columns name and the primary keys name are
+ * written once at the beginning of the block, followed by the values column by column (each value is preceded by a
+ * byte with its type). The file ends by an index of the blocks (type, name and position of each data) and the
+ * position of this index.
+ * </p>
+ * <p>
+ * The dates, the times and the timestamps are written as texts, so they are read the same by a JVM with another
+ * time zone.
+ * </p>
+ * <p>
+ * Only the types of values which can be written as primitives or texts are accepted (no Java serialization) : so the
+ * reading of a file never instantiates other classes.
+ * </p>
+ * <p>
+ * The file is memory-mapped to be read : only the blocks of the data which are read are decoded (in a
+ * {@link ColumnarStorage}). The lengths and the positions in the file are checked against its size : a truncated or
+ * corrupted file is reported by an {@link AssertJDBException}.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class SnapshotFile {
+
+  /**
+   * The magic number at the beginning of the file ("ADBS").
+   */
+  private static final int MAGIC = 0x41444253;
+  /**
+   * The version of the format.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * Type of the {@code null} values.
+   */
+  private static final byte NULL = 0;
+  /**
+   * Type of the {@link Boolean} values.
+   */
+  private static final byte BOOLEAN = 1;
+  /**
+   * Type of the {@link Byte} values.
+   */
+  private static final byte BYTE = 2;
+  /**
+   * Type of the {@link Short} values.
+   */
+  private static final byte SHORT = 3;
+  /**
+   * Type of the {@link Integer} values.
+   */
+  private static final byte INTEGER = 4;
+  /**
+   * Type of the {@link Long} values.
+   */
+  private static final byte LONG = 5;
+  /**
+   * Type of the {@link Float} values.
+   */
+  private static final byte FLOAT = 6;
+  /**
+   * Type of the {@link Double} values.
+   */
+  private static final byte DOUBLE = 7;
+  /**
+   * Type of the {@link BigDecimal} values.
+   */
+  private static final byte BIG_DECIMAL = 8;
+  /**
+   * Type of the {@link BigInteger} values.
+   */
+  private static final byte BIG_INTEGER = 9;
+  /**
+   * Type of the {@link String} values.
+   */
+  private static final byte STRING = 10;
+  /**
+   * Type of the arrays of bytes.
+   */
+  private static final byte BYTES = 11;
+  /**
+   * Type of the {@link Date} values.
+   */
+  private static final byte DATE = 12;
+  /**
+   * Type of the {@link Time} values.
+   */
+  private static final byte TIME = 13;
+  /**
+   * Type of the {@link Timestamp} values.
+   */
+  private static final byte TIMESTAMP = 14;
+  /**
+   * Type of the {@link UUID} values.
+   */
+  private static final byte UUID_VALUE = 15;
+
+  /**
+   * The file.
+   */
+  private final File file;
+  /**
+   * The content of the file.
+   */
+  private final ByteBuffer buffer;
+  /**
+   * The types of the data in the file.
+   */
+  private final List<DataType> dataTypesList;
+  /**
+   * The names of the data in the file (the name of the table or the SQL request).
+   */
+  private final List<String> namesList;
+  /**
+   * The positions of the blocks of the data in the file.
+   */
+  private final List<Integer> positionsList;
+
+  /**
+   * Writes the data in parameter in a snapshot file (the data are loaded if they are not loaded yet).
+   *
+   * @param file The file.
+   * @param dataList The list of the data.
+   * @throws NullPointerException If {@code file} is {@code null}.
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link IOException} during the writing.
+   */
+  static void write(File file, List<? extends AbstractDbData<?>> dataList) {
+    if (file == null) {
+      throw new NullPointerException("File must be not null");
+    }
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+
+      List<Integer> positionsList = new ArrayList<>(dataList.size());
+      for (AbstractDbData<?> data : dataList) {
+        positionsList.add(output.size());
+        writeData(output, data);
+      }
+
+      int indexPosition = output.size();
+      output.writeInt(dataList.size());
+      for (int index = 0; index < dataList.size(); index++) {
+        AbstractDbData<?> data = dataList.get(index);
+        output.writeByte(data.getDataType().ordinal());
+        writeString(output, getName(data));
+        output.writeInt(positionsList.get(index));
+      }
+      output.writeInt(indexPosition);
+      if (output.size() == Integer.MAX_VALUE) {
+        // The counter of the stream is blocked at the maximum : the positions are wrong
+        throw new AssertJDBException("The snapshot file %s is too large", file);
+      }
+    } catch (IOException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Opens a snapshot file to read it.
+   *
+   * @param file The file.
+   * @return The snapshot file.
+   * @throws NullPointerException If {@code file} is {@code null}.
+   * @throws AssertJDBException If the file is not a snapshot file or if triggered, this exception wrap a possible
+   *                            {@link IOException} during the reading.
+   */
+  static SnapshotFile open(File file) {
+    if (file == null) {
+      throw new NullPointerException("File must be not null");
+    }
+    ByteBuffer buffer;
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+         FileChannel channel = randomAccessFile.getChannel()) {
+      if (channel.size() < 12 || channel.size() > Integer.MAX_VALUE) {
+        throw new AssertJDBException("The file %s is not a snapshot file", file);
+      }
+      // The mapping stays valid after the closing of the channel
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new AssertJDBException(e);
+    }
+    if (buffer.getInt(0) != MAGIC) {
+      throw new AssertJDBException("The file %s is not a snapshot file", file);
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new AssertJDBException("The version %s of the snapshot file %s is not supported", buffer.getInt(4), file);
+    }
+    return new SnapshotFile(file, buffer);
+  }
+
+  /**
+   * Constructor (reads the index of the data).
+   *
+   * @param file The file.
+   * @param buffer The content of the file.
+   */
+  private SnapshotFile(File file, ByteBuffer buffer) {
+    this.file = file;
+    this.buffer = buffer;
+    try {
+      ByteBuffer index = buffer.duplicate();
+      index.limit(buffer.limit() - 4);
+      index.position(getPosition(index, buffer.getInt(buffer.limit() - 4)));
+      // Each data in the index needs at least 9 bytes (type, length of the name and position)
+      int size = getSize(index, 9);
+      dataTypesList = new ArrayList<>(size);
+      namesList = new ArrayList<>(size);
+      positionsList = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        int dataType = index.get();
+        if (dataType < 0 || dataType >= DataType.values().length) {
+          throw getCorruptedFileException();
+        }
+        dataTypesList.add(DataType.values()[dataType]);
+        namesList.add(readString(index));
+        positionsList.add(getPosition(index, index.getInt()));
+      }
+    } catch (BufferUnderflowException e) {
+      throw getCorruptedFileException();
+    }
+  }
+
+  /**
+   * Returns the exception thrown when the file is truncated or corrupted.
+   *
+   * @return The exception.
+   */
+  private AssertJDBException getCorruptedFileException() {
+    return new AssertJDBException("The snapshot file %s is corrupted", file);
+  }
+
+  /**
+   * Returns a position in the file after checking that it is in the limit of the buffer.
+   *
+   * @param input The buffer.
+   * @param position The position.
+   * @return The position.
+   * @throws BufferUnderflowException If the position is out of the buffer.
+   */
+  private static int getPosition(ByteBuffer input, int position) {
+    if (position < 0 || position > input.limit()) {
+      throw new BufferUnderflowException();
+    }
+    return position;
+  }
+
+  /**
+   * Reads a size (a number of elements) after checking that the elements can be in the remaining bytes of the buffer.
+   *
+   * @param input The buffer.
+   * @param minimumElementLength The minimum number of bytes of an element.
+   * @return The size.
+   * @throws BufferUnderflowException If the size is negative or if the elements can not be in the remaining bytes.
+   */
+  private static int getSize(ByteBuffer input, int minimumElementLength) {
+    int size = input.getInt();
+    if (size < 0 || (long) size * minimumElementLength > input.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of data in the file.
+   *
+   * @return The number of data.
+   */
+  int size() {
+    return namesList.size();
+  }
+
+  /**
+   * Returns the type of a data in the file.
+   *
+   * @param index The index of the data.
+   * @return The type of the data.
+   */
+  DataType getDataType(int index) {
+    return dataTypesList.get(index);
+  }
+
+  /**
+   * Returns the name of a data in the file (the name of the table or the SQL request).
+   *
+   * @param index The index of the data.
+   * @return The name of the data.
+   */
+  String getName(int index) {
+    return namesList.get(index);
+  }
+
+  /**
+   * Returns the index in the file of the data with the same type and the same name than the data in parameter.
+   *
+   * @param data The data.
+   * @return The index of the data or {@code -1} if the data is not in the file.
+   */
+  int indexOf(AbstractDbData<?> data) {
+    String name = getName(data);
+    for (int index = 0; index < namesList.size(); index++) {
+      if (dataTypesList.get(index) == data.getDataType()) {
+        if (data.getDataType() == DataType.TABLE) {
+          if (data.getTableLetterCase().isEqual(namesList.get(index), name)) {
+            return index;
+          }
+        } else if (namesList.get(index).equals(name)) {
+          return index;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Reads a data of the file in the data in parameter (the columns, the primary keys and the rows are replaced).
+   *
+   * @param index The index of the data in the file.
+   * @param data The data to fill.
+   * @throws AssertJDBException If the file is truncated or corrupted.
+   */
+  void read(int index, AbstractDbData<?> data) {
+    List<String> columnsNameList;
+    List<String> pksNameList;
+    int rowsNumber;
+    ColumnarStorage storage;
+    try {
+      ByteBuffer block = buffer.duplicate();
+      block.position(positionsList.get(index));
+      columnsNameList = readStringsList(block);
+      pksNameList = readStringsList(block);
+      // Each value needs at least one byte (its type)
+      rowsNumber = getSize(block, columnsNameList.size());
+
+      storage = new ColumnarStorage(columnsNameList, data.getColumnLetterCase());
+      for (int columnIndex = 0; columnIndex < columnsNameList.size(); columnIndex++) {
+        for (int rowIndex = 0; rowIndex < rowsNumber; rowIndex++) {
+          storage.addColumnValue(columnIndex, readValue(block));
+        }
+      }
+      storage.setRowsNumber(rowsNumber);
+      storage.trimToSize();
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      // IllegalArgumentException : a type which is unknown or a text which is not a number, a date or a time
+      throw getCorruptedFileException();
+    }
+
+    LetterCase columnLetterCase = data.getColumnLetterCase();
+
+    data.setColumnsNameList(columnsNameList);
+    data.setPksNameList(pksNameList);
+    RowSchema schema = new RowSchema(data.getPksNameList(), columnsNameList, columnLetterCase,
+                                     data.getPrimaryKeyLetterCase());
+    List<Row> rowsList = new ArrayList<>(rowsNumber);
+    for (int rowIndex = 0; rowIndex < rowsNumber; rowIndex++) {
+      rowsList.add(new Row(schema, storage.getRowValuesList(rowIndex)));
+    }
+    data.setRowsList(rowsList);
+  }
+
+  /**
+   * Returns the name of the data (the name of the table or the SQL request).
+   *
+   * @param data The data.
+   * @return The name.
+   */
+  private static String getName(AbstractDbData<?> data) {
+    if (data instanceof Table) {
+      return ((Table) data).getName();
+    }
+    return data.getRequest();
+  }
+
+  /**
+   * Writes the block of a data : the columns name, the primary keys name, the number of rows and the values column by
+   * column.
+   *
+   * @param output The output.
+   * @param data The data.
+   * @throws IOException I/O Exception.
+   */
+  private static void writeData(DataOutputStream output, AbstractDbData<?> data) throws IOException {
+    List<String> columnsNameList = data.getColumnsNameList();
+    List<Row> rowsList = data.getRowsList();
+    writeStringsList(output, columnsNameList);
+    writeStringsList(output, data.getPksNameList());
+    output.writeInt(rowsList.size());
+    for (int columnIndex = 0; columnIndex < columnsNameList.size(); columnIndex++) {
+      for (Row row : rowsList) {
+        Value value = row.getValuesList().get(columnIndex);
+        writeValue(output, value.getValue(), value.getColumnName());
+      }
+    }
+  }
+
+  /**
+   * Writes a value preceded by its type (this encoding is also used by the runs of the tables, see {@link TableRun}).
+   *
+   * @param output The output.
+   * @param object The object of the value.
+   * @param columnName The name of the column of the value (for the message of the exception).
+   * @throws IOException I/O Exception.
+   * @throws AssertJDBException If the value can not be written.
+   */
+  static void writeValue(DataOutputStream output, Object object, String columnName) throws IOException {
+    if (object == null) {
+      output.writeByte(NULL);
+    } else if (object instanceof Boolean) {
+      output.writeByte(BOOLEAN);
+      output.writeBoolean((Boolean) object);
+    } else if (object instanceof Byte) {
+      output.writeByte(BYTE);
+      output.writeByte((Byte) object);
+    } else if (object instanceof Short) {
+      output.writeByte(SHORT);
+      output.writeShort((Short) object);
+    } else if (object instanceof Integer) {
+      output.writeByte(INTEGER);
+      output.writeInt((Integer) object);
+    } else if (object instanceof Long) {
+      output.writeByte(LONG);
+      output.writeLong((Long) object);
+    } else if (object instanceof Float) {
+      output.writeByte(FLOAT);
+      output.writeFloat((Float) object);
+    } else if (object instanceof Double) {
+      output.writeByte(DOUBLE);
+      output.writeDouble((Double) object);
+    } else if (object instanceof BigDecimal) {
+      output.writeByte(BIG_DECIMAL);
+      writeString(output, object.toString());
+    } else if (object instanceof BigInteger) {
+      output.writeByte(BIG_INTEGER);
+      writeString(output, object.toString());
+    } else if (object instanceof String) {
+      output.writeByte(STRING);
+      writeString(output, (String) object);
+    } else if (object instanceof byte[]) {
+      output.writeByte(BYTES);
+      writeBytes(output, (byte[]) object);
+    } else if (object instanceof Date) {
+      output.writeByte(DATE);
+      writeString(output, object.toString());
+    } else if (object instanceof Time) {
+      Time time = (Time) object;
+      output.writeByte(TIME);
+      writeString(output, time.toString());
+      // The text of a time do not contain the milliseconds
+      output.writeInt((int) ((time.getTime() % 1000 + 1000) % 1000));
+    } else if (object instanceof Timestamp) {
+      output.writeByte(TIMESTAMP);
+      writeString(output, object.toString());
+    } else if (object instanceof UUID) {
+      UUID uuid = (UUID) object;
+      output.writeByte(UUID_VALUE);
+      output.writeLong(uuid.getMostSignificantBits());
+      output.writeLong(uuid.getLeastSignificantBits());
+    } else {
+      throw new AssertJDBException("The value %s of the column %s can not be written in a snapshot file", object,
+                                   columnName);
+    }
+  }
+
+  /**
+   * Reads a value preceded by its type (written by {@link #writeValue(DataOutputStream, Object, String)}).
+   *
+   * @param input The input.
+   * @return The object of the value.
+   * @throws BufferUnderflowException If the value is truncated.
+   * @throws IllegalArgumentException If the type of the value is unknown or if a text is not a number, a date or a
+   *                                  time.
+   */
+  static Object readValue(ByteBuffer input) {
+    byte type = input.get();
+    switch (type) {
+    case NULL:
+      return null;
+    case BOOLEAN:
+      return input.get() != 0;
+    case BYTE:
+      return input.get();
+    case SHORT:
+      return input.getShort();
+    case INTEGER:
+      return input.getInt();
+    case LONG:
+      return input.getLong();
+    case FLOAT:
+      return input.getFloat();
+    case DOUBLE:
+      return input.getDouble();
+    case BIG_DECIMAL:
+      return new BigDecimal(readString(input));
+    case BIG_INTEGER:
+      return new BigInteger(readString(input));
+    case STRING:
+      return readString(input);
+    case BYTES:
+      return readBytes(input);
+    case DATE:
+      return Date.valueOf(readString(input));
+    case TIME:
+      Time time = Time.valueOf(readString(input));
+      time.setTime(time.getTime() + input.getInt());
+      return time;
+    case TIMESTAMP:
+      return Timestamp.valueOf(readString(input));
+    case UUID_VALUE:
+      return new UUID(input.getLong(), input.getLong());
+
+    default:
+      throw new IllegalArgumentException("The type " + type + " of a value is unknown");
+    }
+  }
+
+  /**
+   * Writes a list of texts preceded by its size.
+   *
+   * @param output The output.
+   * @param stringsList The list of texts.
+   * @throws IOException I/O Exception.
+   */
+  private static void writeStringsList(DataOutputStream output, List<String> stringsList) throws IOException {
+    output.writeInt(stringsList.size());
+    for (String string : stringsList) {
+      writeString(output, string);
+    }
+  }
+
+  /**
+   * Reads a list of texts preceded by its size.
+   *
+   * @param input The input.
+   * @return The list of texts.
+   */
+  private static List<String> readStringsList(ByteBuffer input) {
+    // Each text needs at least 4 bytes (its length)
+    int size = getSize(input, 4);
+    List<String> stringsList = new ArrayList<>(size);
+    for (int index = 0; index < size; index++) {
+      stringsList.add(readString(input));
+    }
+    return stringsList;
+  }
+
+  /**
+   * Writes a text in UTF-8 (without limit of length, unlike {@link DataOutputStream#writeUTF(String)}).
+   *
+   * @param output The output.
+   * @param string The text.
+   * @throws IOException I/O Exception.
+   */
+  private static void writeString(DataOutputStream output, String string) throws IOException {
+    writeBytes(output, string.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads a text in UTF-8.
+   *
+   * @param input The input.
+   * @return The text.
+   */
+  private static String readString(ByteBuffer input) {
+    return new String(readBytes(input), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes an array of bytes preceded by its length.
+   *
+   * @param output The output.
+   * @param bytes The array of bytes.
+   * @throws IOException I/O Exception.
+   */
+  private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  /**
+   * Reads an array of bytes preceded by its length.
+   *
+   * @param input The input.
+   * @return The array of bytes.
+   */
+  private static byte[] readBytes(ByteBuffer input) {
+    byte[] bytes = new byte[getSize(input, 1)];
+    input.get(bytes);
+    return bytes;
+  }
+}
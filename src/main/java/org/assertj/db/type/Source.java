@@ -24,7 +24,7 @@ package org.assertj.db.type;
  * @author Régis Pouiller
  * 
  */
-public class Source {
+public class Source implements WithMetadataCache {
 
   /**
    * URL to the database.
@@ -38,6 +38,11 @@ public class Source {
    * Password to connect.
    */
   private final String password;
+  /**
+   * The cache of the metadata.
+   * @since 1.2.0
+   */
+  private final MetadataCache metadataCache = new MetadataCache();
 
   /**
    * Constructor with the informations.
@@ -78,4 +83,16 @@ public class Source {
   public String getPassword() {
     return password;
   }
+
+  /**
+   * Returns the cache of the metadata of this source (disabled by default).
+   *
+   * @return The cache of the metadata.
+   * @see MetadataCache#setEnabled(boolean)
+   * @since 1.2.0
+   */
+  @Override
+  public MetadataCache getMetadataCache() {
+    return metadataCache;
+  }
 }
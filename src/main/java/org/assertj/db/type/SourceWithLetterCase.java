@@ -21,7 +21,7 @@ import org.assertj.db.type.lettercase.WithLetterCase;
  * @author Régis Pouiller
  * @since 1.1.0
  */
-public class SourceWithLetterCase extends Source implements WithLetterCase {
+public class SourceWithLetterCase extends Source implements WithLetterCase, WithLoadOptions {
 
   /**
    * Letter case of the tables.
@@ -35,6 +35,10 @@ public class SourceWithLetterCase extends Source implements WithLetterCase {
    * Letter case of the primary keys.
    */
   private final LetterCase primaryKeyLetterCase;
+  /**
+   * Options to load the data.
+   */
+  private final LoadOptions loadOptions;
 
   /**
    * Constructor with the informations.
@@ -49,10 +53,34 @@ public class SourceWithLetterCase extends Source implements WithLetterCase {
   public SourceWithLetterCase(String url, String user, String password,
                 LetterCase tableLetterCase, LetterCase columnLetterCase, LetterCase primaryKeyLetterCase) {
 
+    this(url, user, password, tableLetterCase, columnLetterCase, primaryKeyLetterCase, LoadOptions.DEFAULT);
+  }
+
+  /**
+   * Constructor with the informations and the options to load the data.
+   *
+   * @param url URL to the database.
+   * @param user User to connect.
+   * @param password Password to connect.
+   * @param tableLetterCase Letter case of the tables.
+   * @param columnLetterCase Letter case of the columns.
+   * @param primaryKeyLetterCase Letter case of the primary keys.
+   * @param loadOptions Options to load the data.
+   * @throws NullPointerException If {@code loadOptions} is {@code null}.
+   * @since 1.2.0
+   */
+  public SourceWithLetterCase(String url, String user, String password,
+                LetterCase tableLetterCase, LetterCase columnLetterCase, LetterCase primaryKeyLetterCase,
+                LoadOptions loadOptions) {
+
     super(url, user, password);
+    if (loadOptions == null) {
+      throw new NullPointerException("loadOptions must be not null");
+    }
     this.tableLetterCase = tableLetterCase;
     this.columnLetterCase = columnLetterCase;
     this.primaryKeyLetterCase = primaryKeyLetterCase;
+    this.loadOptions = loadOptions;
   }
 
   /**
@@ -78,4 +106,12 @@ public class SourceWithLetterCase extends Source implements WithLetterCase {
   public LetterCase getTableLetterCase() {
     return tableLetterCase;
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public LoadOptions getLoadOptions() {
+    return loadOptions;
+  }
 }
@@ -349,31 +349,30 @@ public class Table extends AbstractDbData<Table> {
 
   /**
    * Set the name from the corresponding name in the database.
+   * <p>
+   * The names of the tables and of the columns are got from the {@link MetadataCache} of the source if it is enabled,
+   * otherwise they are read with one connection.
+   * </p>
    */
   private void setNameFromDb() {
     if (name != null && (getSource() != null || getDataSource() != null)) {
-      try (Connection connection = getConnection()) {
+      MetadataCache metadataCache = MetadataCache.getMetadataCache(this);
+      boolean withCache = metadataCache != null && metadataCache.isEnabled();
+      // Without cache, the connection is the same for the two readings
+      try (Connection connection = withCache ? null : getConnection()) {
         LetterCase tableLetterCase = getTableLetterCase();
         LetterCase columnLetterCase = getColumnLetterCase();
 
-        DatabaseMetaData metaData = connection.getMetaData();
-        try (ResultSet tableResultSet = metaData.getTables(getCatalog(connection), getSchema(connection), null,
-                                                 new String[] { "TABLE" })) {
-          while (tableResultSet.next()) {
-            String tableName = tableResultSet.getString("TABLE_NAME");
-            if (tableLetterCase.isEqual(tableName, name)) {
-              name = tableLetterCase.convert(tableName);
-              break;
-            }
-          }
+        String tableName = MetadataCache.getTableName(this, connection, name, tableLetterCase);
+        if (tableName != null) {
+          name = tableLetterCase.convert(tableName);
+        } else {
+          tableName = name;
         }
 
         columnsList = new ArrayList<>();
-        try (ResultSet columnsResultSet = metaData.getColumns(getCatalog(connection), getSchema(connection), name, null)) {
-          while (columnsResultSet.next()) {
-            String column = columnsResultSet.getString("COLUMN_NAME");
-            columnsList.add(columnLetterCase.convert(column));
-          }
+        for (String column : MetadataCache.getColumnsNameList(this, connection, tableName)) {
+          columnsList.add(columnLetterCase.convert(column));
         }
       } catch (SQLException e) {
         throw new AssertJDBException(e);
@@ -596,43 +595,54 @@ public class Table extends AbstractDbData<Table> {
    * Collects the primary key name from the {@code Connection} to the database.
    * <p>
    * This method use the {@link DatabaseMetaData} from the {@code Connection} parameter to list the primary keys of the
-   * table.
+   * table (the names are cached by the {@link MetadataCache} of the source if it is enabled).
    * </p>
    *
    * @param connection The {@code Connection} to the database.
    * @throws SQLException SQL Exception.
    */
   private void collectPrimaryKeyName(Connection connection) throws SQLException {
-    String catalog = getCatalog(connection);
-    String schema = getSchema(connection);
     List<String> pksNameList = new ArrayList<>();
-    DatabaseMetaData metaData = connection.getMetaData();
-
-    String tableName = name;
-    try (ResultSet resultSet = metaData.getTables(catalog, schema, null, new String[] { "TABLE" })) {
-      LetterCase letterCase = getTableLetterCase();
-      while (resultSet.next()) {
-        String tableResult = resultSet.getString("TABLE_NAME");
-        if (letterCase.isEqual(tableName, tableResult)) {
-          tableName = tableResult;
-          break;
-        }
-      }
+
+    String tableName = MetadataCache.getTableName(this, connection, name, getTableLetterCase());
+    if (tableName == null) {
+      tableName = name;
     }
 
-    try (ResultSet resultSet = metaData.getPrimaryKeys(catalog, schema, tableName)) {
-      LetterCase letterCase = getPrimaryKeyLetterCase();
-      while (resultSet.next()) {
-        String columnName = resultSet.getString("COLUMN_NAME");
-        if (NameComparator.INSTANCE.contains(getColumnsNameList(), columnName, letterCase)) {
-          String pkName = letterCase.convert(columnName);
-          pksNameList.add(pkName);
-        }
+    LetterCase letterCase = getPrimaryKeyLetterCase();
+    for (String columnName : MetadataCache.getPksNameList(this, connection, tableName)) {
+      if (NameComparator.INSTANCE.contains(getColumnsNameList(), columnName, letterCase)) {
+        String pkName = letterCase.convert(columnName);
+        pksNameList.add(pkName);
       }
     }
     setPksNameList(pksNameList);
   }
 
+  /**
+   * Specific implementation of the count of the rows for a {@code Table}.
+   *
+   * @param connection {@link Connection} to the database provided by {@link AbstractDbData#getRowsNumber()} method.
+   * @return The number of rows.
+   * @throws NullPointerException If the {@link #name} field is {@code null}.
+   * @throws SQLException         SQL Exception.
+   * @see AbstractDbData#countImpl(Connection)
+   * @since 1.2.0
+   */
+  @Override
+  protected Integer countImpl(Connection connection) throws SQLException {
+    if (name == null) {
+      throw new NullPointerException("name can not be null");
+    }
+
+    try (Statement statement = createStatement(connection)) {
+      try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + name)) {
+        resultSet.next();
+        return resultSet.getInt(1);
+      }
+    }
+  }
+
   /**
    * Specific implementation of the loading for a {@code Table}.
    *
@@ -647,15 +657,44 @@ public class Table extends AbstractDbData<Table> {
       throw new NullPointerException("name can not be null");
     }
 
-    try (Statement statement = connection.createStatement()) {
-      try (ResultSet resultSet = statement.executeQuery(getRequest())) {
+    loadFromRequest(connection, getRequest(), true);
+    if (columnsToOrder == null) {
+      sortRows();
+    }
+  }
+
+  /**
+   * Loads the rows returned by a SQL request on the table (instead of {@link #getRequest()}).
+   * <p>
+   * This method is used by {@link TableSnapshot} to load only the rows which are different between the start point
+   * and the end point of {@link Changes}. The SQL request is only executed once : so its plan to read the rows is not
+   * cached (see {@link RowReaderPlan#newPlan(ResultSetMetaData, List, LetterCase)}).
+   * </p>
+   *
+   * @param connection {@link Connection} to the database (it is not closed by this method).
+   * @param request The SQL request.
+   * @throws SQLException SQL Exception.
+   * @since 1.2.0
+   */
+  void loadFromRequest(Connection connection, String request) throws SQLException {
+    loadFromRequest(connection, request, false);
+  }
+
+  /**
+   * Loads the rows returned by a SQL request on the table.
+   *
+   * @param connection {@link Connection} to the database (it is not closed by this method).
+   * @param request The SQL request.
+   * @param withCachedPlan {@code true} to use the cache of the plans to read the rows.
+   * @throws SQLException SQL Exception.
+   */
+  private void loadFromRequest(Connection connection, String request, boolean withCachedPlan) throws SQLException {
+    try (Statement statement = createStatement(connection)) {
+      try (ResultSet resultSet = statement.executeQuery(request)) {
         collectColumnsNameFromResultSet(resultSet);
-        collectRowsFromResultSet(resultSet);
+        collectRowsFromResultSet(resultSet, withCachedPlan);
       }
     }
     collectPrimaryKeyName(connection);
-    if (columnsToOrder == null) {
-      sortRows();
-    }
   }
 }
@@ -0,0 +1,138 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.exception.AssertJDBException;
+import org.assertj.db.util.NameComparator;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checksum of the values of a {@link Table} computed by the database (see {@link CaptureDialect}).
+ * <p>
+ * If the checksum of a table at end point is the same than at start point, {@link Changes} does not load the table
+ * again (see {@link Changes#setChecksumPreCheck(boolean)}).
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class TableChecksum {
+
+  /**
+   * Private constructor.
+   */
+  private TableChecksum() {
+    // Empty
+  }
+
+  /**
+   * Returns the checksum of the values of the table.
+   * <p>
+   * The names of the table and of the columns are the names in the database (found with the letter cases of the
+   * table) quoted, so the request does not depend on the case of the names or on the reserved words.
+   * </p>
+   *
+   * @param table The table.
+   * @return The checksum or {@code null} if the database can not compute it (no {@link CaptureDialect}, no hash
+   *         function in the dialect or request not accepted on the types of the columns).
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the
+   *                            connection or the execution of the request.
+   */
+  static String getChecksum(Table table) {
+    try (Connection connection = table.getConnection()) {
+      DatabaseMetaData metaData = connection.getMetaData();
+      CaptureDialect dialect = CaptureDialect.of(metaData);
+      if (dialect == null) {
+        return null;
+      }
+      String tableName = MetadataCache.getTableName(table, connection, table.getName(), table.getTableLetterCase());
+      List<String> columnsNameList = tableName == null ? null : getColumnsNameList(table, connection, tableName);
+      if (columnsNameList == null) {
+        return null;
+      }
+      String quote = metaData.getIdentifierQuoteString();
+      List<String> quotedColumnsNameList = new ArrayList<>(columnsNameList.size());
+      for (String columnName : columnsNameList) {
+        quotedColumnsNameList.add(getQuotedName(quote, columnName));
+      }
+      String request = dialect.getChecksumRequest(getQuotedName(quote, tableName), quotedColumnsNameList);
+      if (request == null) {
+        return null;
+      }
+
+      PreparedStatement preparedStatement;
+      try {
+        preparedStatement = connection.prepareStatement(request);
+      } catch (SQLException e) {
+        // The database does not accept the request (e.g. on the types of the columns)
+        return null;
+      }
+      try (PreparedStatement statement = preparedStatement;
+           ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        return resultSet.getLong(1) + ":" + resultSet.getString(2);
+      }
+    } catch (SQLException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Returns the names in the database of the columns of the table which are checked.
+   *
+   * @param table The table.
+   * @param connection The connection to the database.
+   * @param tableName The name of the table as in the database.
+   * @return The names of the columns or {@code null} if a column to check is unknown.
+   * @throws SQLException SQL Exception.
+   */
+  private static List<String> getColumnsNameList(Table table, Connection connection, String tableName)
+          throws SQLException {
+
+    List<String> checkedColumnsNameList = TableSnapshot.getColumnsNameList(table, connection, tableName);
+    if (checkedColumnsNameList == null) {
+      return null;
+    }
+    List<String> tableColumnsNameList = MetadataCache.getColumnsNameList(table, connection, tableName);
+    List<String> columnsNameList = new ArrayList<>(checkedColumnsNameList.size());
+    for (String columnName : checkedColumnsNameList) {
+      int index = NameComparator.INSTANCE.indexOf(tableColumnsNameList, columnName, table.getColumnLetterCase());
+      if (index == -1) {
+        return null;
+      }
+      columnsNameList.add(tableColumnsNameList.get(index));
+    }
+    return columnsNameList;
+  }
+
+  /**
+   * Returns the name quoted (the quote in the name is doubled).
+   *
+   * @param quote The quote of the database (a space if the database does not support the quoted names).
+   * @param name The name.
+   * @return The quoted name.
+   */
+  private static String getQuotedName(String quote, String name) {
+    if (quote == null || quote.trim().isEmpty()) {
+      return name;
+    }
+    return quote + name.replace(quote, quote + quote) + quote;
+  }
+}
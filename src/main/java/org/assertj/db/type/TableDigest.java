@@ -0,0 +1,417 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.exception.AssertJDBException;
+import org.assertj.db.util.NameComparator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Digest of a {@link Table} at start point.
+ * <p>
+ * Only the values of the primary keys and the digests of the values are kept for each row : a SHA-256 digest of the
+ * row and a 64 bits digest (the beginning of the SHA-256 digest) of the value of each column. The digests are computed
+ * on a typed encoding of the values which is the same for the equal values. At end point, the table at start point is
+ * rebuilt from the digest and the table at end point : the values which have the same digest than at end point are the
+ * values at end point, the other values are unknown except the values of the primary keys. An unknown value is
+ * {@code null} but it is marked as unknown in the row (see {@link Row#getIndexesOfDifferentValues(Row)}) : so the
+ * column is always modified, even if the value at end point is {@code null}. A row with a different digest is always
+ * a modification.
+ * </p>
+ * <p>
+ * If the table has no primary key, the rows can not be found at end point : so the table itself is kept.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class TableDigest {
+
+  /**
+   * The algorithm of the digests.
+   */
+  private static final String ALGORITHM = "SHA-256";
+  /**
+   * Tag of the encoding of a {@code null} value.
+   */
+  private static final byte NULL_TAG = 0;
+  /**
+   * Tag of the encoding of a number with an integral value which holds in a {@code long}.
+   */
+  private static final byte LONG_TAG = 1;
+  /**
+   * Tag of the encoding of a {@code float}.
+   */
+  private static final byte FLOAT_TAG = 2;
+  /**
+   * Tag of the encoding of a {@code double}.
+   */
+  private static final byte DOUBLE_TAG = 3;
+  /**
+   * Tag of the encoding of a {@link BigInteger} which does not hold in a {@code long}.
+   */
+  private static final byte BIG_INTEGER_TAG = 4;
+  /**
+   * Tag of the encoding of a {@link BigDecimal} which is not integral.
+   */
+  private static final byte BIG_DECIMAL_TAG = 5;
+  /**
+   * Tag of the encoding of an array of bytes.
+   */
+  private static final byte BYTES_TAG = 6;
+  /**
+   * Tag of the encoding of a date.
+   */
+  private static final byte DATE_TAG = 7;
+  /**
+   * Tag of the encoding of a time.
+   */
+  private static final byte TIME_TAG = 8;
+  /**
+   * Tag of the encoding of a date/time.
+   */
+  private static final byte DATE_TIME_TAG = 9;
+  /**
+   * Tag of the encoding of a boolean.
+   */
+  private static final byte BOOLEAN_TAG = 10;
+  /**
+   * Tag of the encoding of the other values (by their class and their representation as a text).
+   */
+  private static final byte OBJECT_TAG = 11;
+
+  /**
+   * The table (only kept when there is no primary key).
+   */
+  private final Table table;
+  /**
+   * The list of the columns name.
+   */
+  private final List<String> columnsNameList;
+  /**
+   * The list of the primary keys name.
+   */
+  private final List<String> pksNameList;
+  /**
+   * The values of the primary keys of each row.
+   */
+  private final List<Value[]> pksValuesList;
+  /**
+   * The digests of the values of each row.
+   */
+  private final List<RowDigest> rowDigestsList;
+
+  /**
+   * Digest of the values of a row.
+   */
+  private static class RowDigest {
+
+    /**
+     * The SHA-256 digest of the row.
+     */
+    private final byte[] digest;
+    /**
+     * The 64 bits digests of the values of each column.
+     */
+    private final long[] columnDigests;
+
+    /**
+     * Constructor.
+     *
+     * @param row The row.
+     */
+    private RowDigest(Row row) {
+      MessageDigest rowMessageDigest = getMessageDigest();
+      MessageDigest columnMessageDigest = getMessageDigest();
+      List<Value> valuesList = row.getValuesList();
+      columnDigests = new long[valuesList.size()];
+      for (int index = 0; index < columnDigests.length; index++) {
+        update(columnMessageDigest, valuesList.get(index));
+        byte[] columnDigest = columnMessageDigest.digest();
+        rowMessageDigest.update(columnDigest);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+          value = (value << 8) | (columnDigest[i] & 0xFF);
+        }
+        columnDigests[index] = value;
+      }
+      digest = rowMessageDigest.digest();
+    }
+
+    /**
+     * Returns if the digest of the row is equal to the digest of another row.
+     *
+     * @param rowDigest The other digest.
+     * @return {@code true} if the digests are equal, {@code false} otherwise.
+     */
+    private boolean isEqualTo(RowDigest rowDigest) {
+      return MessageDigest.isEqual(digest, rowDigest.digest);
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param table The table at start point (loaded).
+   */
+  TableDigest(Table table) {
+    columnsNameList = table.getColumnsNameList();
+    pksNameList = table.getPksNameList();
+    if (pksNameList.isEmpty()) {
+      this.table = table;
+      pksValuesList = null;
+      rowDigestsList = null;
+    } else {
+      this.table = null;
+      List<Row> rowsList = table.getRowsList();
+      pksValuesList = new ArrayList<>(rowsList.size());
+      rowDigestsList = new ArrayList<>(rowsList.size());
+      for (Row row : rowsList) {
+        pksValuesList.add(row.getPksValues());
+        rowDigestsList.add(new RowDigest(row));
+      }
+    }
+  }
+
+  /**
+   * Returns a new SHA-256 digest.
+   *
+   * @return The digest.
+   * @throws AssertJDBException If the algorithm is not available.
+   */
+  private static MessageDigest getMessageDigest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Updates the digest with the encoding of a value.
+   * <p>
+   * The encoding is the same for the values which are equal (see
+   * {@link org.assertj.db.util.Values#areEqual(Value, Object)}) : the numbers with an integral value are encoded as a
+   * {@code long} whatever their type, the dates and the times are encoded by their fields.
+   * </p>
+   *
+   * @param messageDigest The digest.
+   * @param value The value.
+   */
+  private static void update(MessageDigest messageDigest, Value value) {
+    Object object = value.getValue();
+    if (object == null) {
+      messageDigest.update(NULL_TAG);
+      return;
+    }
+
+    switch (value.getValueType()) {
+    case NUMBER:
+      update(messageDigest, (Number) object);
+      break;
+    case BYTES:
+      messageDigest.update(BYTES_TAG);
+      update(messageDigest, (byte[]) object);
+      break;
+    case DATE:
+      messageDigest.update(DATE_TAG);
+      update(messageDigest, DateValue.from((Date) object));
+      break;
+    case TIME:
+      messageDigest.update(TIME_TAG);
+      update(messageDigest, TimeValue.from((Time) object));
+      break;
+    case DATE_TIME:
+      DateTimeValue dateTimeValue = DateTimeValue.from((Timestamp) object);
+      messageDigest.update(DATE_TIME_TAG);
+      update(messageDigest, dateTimeValue.getDate());
+      update(messageDigest, dateTimeValue.getTime());
+      break;
+    case BOOLEAN:
+      messageDigest.update(BOOLEAN_TAG);
+      messageDigest.update((byte) ((Boolean) object ? 1 : 0));
+      break;
+    default:
+      messageDigest.update(OBJECT_TAG);
+      update(messageDigest, object.getClass().getName().getBytes(StandardCharsets.UTF_8));
+      update(messageDigest, object.toString().getBytes(StandardCharsets.UTF_8));
+      break;
+    }
+  }
+
+  /**
+   * Updates the digest with the encoding of a number.
+   *
+   * @param messageDigest The digest.
+   * @param number The number.
+   */
+  private static void update(MessageDigest messageDigest, Number number) {
+    if (number instanceof Byte || number instanceof Short || number instanceof Integer || number instanceof Long) {
+      messageDigest.update(LONG_TAG);
+      update(messageDigest, number.longValue());
+    } else if (number instanceof BigInteger) {
+      BigInteger bigInteger = (BigInteger) number;
+      if (bigInteger.bitLength() < 64) {
+        messageDigest.update(LONG_TAG);
+        update(messageDigest, bigInteger.longValue());
+      } else {
+        messageDigest.update(BIG_INTEGER_TAG);
+        update(messageDigest, bigInteger.toByteArray());
+      }
+    } else if (number instanceof BigDecimal) {
+      BigDecimal bigDecimal = (BigDecimal) number;
+      BigDecimal stripped = bigDecimal.signum() == 0 ? BigDecimal.ZERO : bigDecimal.stripTrailingZeros();
+      if (stripped.scale() <= 0) {
+        update(messageDigest, stripped.toBigIntegerExact());
+      } else {
+        messageDigest.update(BIG_DECIMAL_TAG);
+        update(messageDigest, stripped.unscaledValue().toByteArray());
+        update(messageDigest, (long) stripped.scale());
+      }
+    } else {
+      double doubleValue = number.doubleValue();
+      if (doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) < 0x1p63) {
+        messageDigest.update(LONG_TAG);
+        update(messageDigest, (long) doubleValue);
+      } else if (number instanceof Float) {
+        messageDigest.update(FLOAT_TAG);
+        update(messageDigest, (long) Float.floatToIntBits(number.floatValue()));
+      } else {
+        messageDigest.update(DOUBLE_TAG);
+        update(messageDigest, Double.doubleToLongBits(doubleValue));
+      }
+    }
+  }
+
+  /**
+   * Updates the digest with the encoding of a date.
+   *
+   * @param messageDigest The digest.
+   * @param dateValue The date.
+   */
+  private static void update(MessageDigest messageDigest, DateValue dateValue) {
+    update(messageDigest, (long) dateValue.getYear());
+    update(messageDigest, (long) dateValue.getMonth());
+    update(messageDigest, (long) dateValue.getDayOfTheMonth());
+  }
+
+  /**
+   * Updates the digest with the encoding of a time.
+   *
+   * @param messageDigest The digest.
+   * @param timeValue The time.
+   */
+  private static void update(MessageDigest messageDigest, TimeValue timeValue) {
+    update(messageDigest, (long) timeValue.getHours());
+    update(messageDigest, (long) timeValue.getMinutes());
+    update(messageDigest, (long) timeValue.getSeconds());
+    update(messageDigest, (long) timeValue.getNanoSeconds());
+  }
+
+  /**
+   * Updates the digest with an array of bytes (preceded by its length).
+   *
+   * @param messageDigest The digest.
+   * @param bytes The array of bytes.
+   */
+  private static void update(MessageDigest messageDigest, byte[] bytes) {
+    update(messageDigest, (long) bytes.length);
+    messageDigest.update(bytes);
+  }
+
+  /**
+   * Updates the digest with a {@code long}.
+   *
+   * @param messageDigest The digest.
+   * @param value The {@code long}.
+   */
+  private static void update(MessageDigest messageDigest, long value) {
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      messageDigest.update((byte) (value >>> shift));
+    }
+  }
+
+  /**
+   * Returns the table at start point rebuilt from the digest.
+   *
+   * @param table The table to fill (a duplicated table, not loaded).
+   * @param tableAtEndPoint The table at end point (loaded).
+   * @return The table at start point.
+   */
+  Table getTableAtStartPoint(Table table, Table tableAtEndPoint) {
+    if (this.table != null) {
+      return this.table;
+    }
+
+    boolean isWithSameColumns = columnsNameList.equals(tableAtEndPoint.getColumnsNameList());
+    RowSchema schema = new RowSchema(pksNameList, columnsNameList, table.getColumnLetterCase(),
+                                     table.getPrimaryKeyLetterCase());
+    List<Row> rowsList = new ArrayList<>(pksValuesList.size());
+    for (int index = 0; index < pksValuesList.size(); index++) {
+      Value[] pksValues = pksValuesList.get(index);
+      RowDigest rowDigest = rowDigestsList.get(index);
+      Row rowAtEndPoint = isWithSameColumns ? tableAtEndPoint.getRowFromPksValues(pksValues) : null;
+      RowDigest rowDigestAtEndPoint = rowAtEndPoint != null ? new RowDigest(rowAtEndPoint) : null;
+
+      if (rowDigestAtEndPoint != null && rowDigest.isEqualTo(rowDigestAtEndPoint)) {
+        // The row is not modified : the values are shared with the row at end point
+        rowsList.add(new Row(schema, rowAtEndPoint.getValuesList()));
+        continue;
+      }
+
+      // The row is modified : the columns with a different digest are unknown
+      List<Value> valuesList = new ArrayList<>(columnsNameList.size());
+      BitSet unknownColumns = new BitSet(columnsNameList.size());
+      for (int columnIndex = 0; columnIndex < columnsNameList.size(); columnIndex++) {
+        String columnName = columnsNameList.get(columnIndex);
+        int pkIndex = NameComparator.INSTANCE.indexOf(pksNameList, columnName, table.getPrimaryKeyLetterCase());
+        if (pkIndex != -1) {
+          valuesList.add(pksValues[pkIndex]);
+        } else if (rowDigestAtEndPoint != null
+                   && rowDigest.columnDigests[columnIndex] == rowDigestAtEndPoint.columnDigests[columnIndex]) {
+          valuesList.add(rowAtEndPoint.getColumnValue(columnIndex));
+        } else {
+          valuesList.add(new Value(columnName, null, table.getColumnLetterCase()));
+          unknownColumns.set(columnIndex);
+        }
+      }
+      if (unknownColumns.isEmpty()) {
+        // The digests of the columns are equal but not the digest of the row : all the values are unknown
+        for (int columnIndex = 0; columnIndex < columnsNameList.size(); columnIndex++) {
+          String columnName = columnsNameList.get(columnIndex);
+          if (NameComparator.INSTANCE.indexOf(pksNameList, columnName, table.getPrimaryKeyLetterCase()) == -1) {
+            valuesList.set(columnIndex, new Value(columnName, null, table.getColumnLetterCase()));
+            unknownColumns.set(columnIndex);
+          }
+        }
+      }
+      rowsList.add(new Row(schema, valuesList, unknownColumns));
+    }
+
+    table.setColumnsNameList(columnsNameList);
+    table.setRowsList(rowsList);
+    table.setPksNameList(pksNameList);
+    return table;
+  }
+}
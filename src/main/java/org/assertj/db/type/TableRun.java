@@ -0,0 +1,436 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.exception.AssertJDBException;
+import org.assertj.db.util.NameComparator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Run of a {@link Table} at start point written in a temporary file and compared at end point by a merge.
+ * <p>
+ * At start point, the rows are read in the order of the primary keys ({@code ORDER BY}) and written one by one in
+ * the file, so the table is never entirely in memory. At end point, the rows are read again in the same order and
+ * merged with the rows of the file : only the rows which are different are kept in memory.
+ * </p>
+ * <p>
+ * The merge needs that the order of the database is the same than the order of the values in Java : it is verified
+ * when reading the rows. If it is not the case at start point (or if a value can not be written in the file), the
+ * run is not created and the table is loaded in memory. If it is not the case at end point, the table at start point
+ * is read from the file and the table at end point is loaded like usually.
+ * </p>
+ * <p>
+ * The values are written with the typed encoding of the snapshot files (see {@link SnapshotFile}) : each row is
+ * preceded by its length in bytes (and the file ends with a negative length), so the rows are read one by one.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class TableRun implements ExternalSnapshot {
+
+  /**
+   * The length written at the end of the file (instead of the length of a row).
+   */
+  private static final int END_OF_RUN = -1;
+
+  /**
+   * The table.
+   */
+  private final Table table;
+  /**
+   * The SQL request which reads the rows in the order of the primary keys.
+   */
+  private final String request;
+  /**
+   * The list of the columns name.
+   */
+  private final List<String> columnsNameList;
+  /**
+   * The list of the primary keys name.
+   */
+  private final List<String> pksNameList;
+  /**
+   * The index of the primary keys in the columns.
+   */
+  private final int[] pksIndexes;
+  /**
+   * The schema of the rows.
+   */
+  private final RowSchema schema;
+  /**
+   * The file which contains the rows at start point.
+   */
+  private final File file;
+  /**
+   * If the file is deleted.
+   */
+  private boolean dropped;
+
+  /**
+   * Constructor.
+   *
+   * @param table The table.
+   * @param request The SQL request which reads the rows in the order of the primary keys.
+   * @param columnsNameList The list of the columns name.
+   * @param pksNameList The list of the primary keys name.
+   * @param pksIndexes The index of the primary keys in the columns.
+   * @param file The file which contains the rows at start point.
+   */
+  private TableRun(Table table, String request, List<String> columnsNameList, List<String> pksNameList,
+                   int[] pksIndexes, File file) {
+    this.table = table;
+    this.request = request;
+    this.columnsNameList = columnsNameList;
+    this.pksNameList = pksNameList;
+    this.pksIndexes = pksIndexes;
+    this.file = file;
+    schema = new RowSchema(pksNameList, columnsNameList, table.getColumnLetterCase(), table.getPrimaryKeyLetterCase());
+  }
+
+  /**
+   * Creates the run of the table by writing its rows in a temporary file.
+   *
+   * @param table The table.
+   * @return The run or {@code null} if the table can not be written (no primary key, values which can not be written
+   *         or order of the database different of the order in Java).
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the reading or
+   *                            {@link IOException} during the creation of the file.
+   */
+  static TableRun create(Table table) {
+    try (Connection connection = table.getConnection()) {
+      String tableName = MetadataCache.getTableName(table, connection, table.getName(), table.getTableLetterCase());
+      List<String> columnsNameInDbList = tableName == null ? null : TableSnapshot.getColumnsNameList(table, connection,
+                                                                                                     tableName);
+      if (columnsNameInDbList == null) {
+        return null;
+      }
+      List<String> pksNameInDbList = MetadataCache.getPksNameList(table, connection, tableName);
+      if (pksNameInDbList.isEmpty()) {
+        return null;
+      }
+
+      List<String> columnsNameList = new ArrayList<>();
+      StringBuilder stringBuilder = new StringBuilder("SELECT ");
+      for (String columnName : columnsNameInDbList) {
+        columnsNameList.add(table.getColumnLetterCase().convert(columnName));
+        stringBuilder.append(columnsNameList.size() == 1 ? "" : ", ").append(columnName);
+      }
+      stringBuilder.append(" FROM ").append(table.getName()).append(" ORDER BY ");
+      List<String> pksNameList = new ArrayList<>();
+      int[] pksIndexes = new int[pksNameInDbList.size()];
+      for (String pkName : pksNameInDbList) {
+        int index = NameComparator.INSTANCE.indexOf(columnsNameList, pkName, table.getPrimaryKeyLetterCase());
+        if (index == -1) {
+          return null;
+        }
+        pksIndexes[pksNameList.size()] = index;
+        pksNameList.add(table.getPrimaryKeyLetterCase().convert(pkName));
+        stringBuilder.append(pksNameList.size() == 1 ? "" : ", ").append(pkName);
+      }
+
+      File file = File.createTempFile("assertj-db-", ".run");
+      file.deleteOnExit();
+      TableRun tableRun = new TableRun(table, stringBuilder.toString(), columnsNameList, pksNameList, pksIndexes,
+                                       file);
+      if (!tableRun.write(connection)) {
+        tableRun.drop();
+        return null;
+      }
+      return tableRun;
+    } catch (SQLException | IOException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Writes the rows of the table in the file.
+   *
+   * @param connection The connection to the database.
+   * @return {@code true} if the rows are written, {@code false} if a value can not be written or if the order of the
+   *         database is different of the order in Java.
+   * @throws SQLException SQL Exception.
+   */
+  private boolean write(Connection connection) throws SQLException {
+    try (Statement statement = table.createStatement(connection);
+         ResultSet resultSet = statement.executeQuery(request);
+         DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+
+      RowReaderPlan plan = RowReaderPlan.getPlan(request, resultSet.getMetaData(), columnsNameList,
+                                                 table.getColumnLetterCase());
+      ByteArrayOutputStream rowBytes = new ByteArrayOutputStream();
+      DataOutputStream rowOutputStream = new DataOutputStream(rowBytes);
+      Object[] previousObjects = null;
+      while (resultSet.next()) {
+        Object[] objects = new Object[columnsNameList.size()];
+        plan.readObjects(resultSet, objects);
+        if (previousObjects != null && compare(previousObjects, objects) >= 0) {
+          return false;
+        }
+        rowBytes.reset();
+        for (int index = 0; index < objects.length; index++) {
+          SnapshotFile.writeValue(rowOutputStream, objects[index], columnsNameList.get(index));
+        }
+        outputStream.writeInt(rowBytes.size());
+        rowBytes.writeTo(outputStream);
+        previousObjects = objects;
+      }
+      outputStream.writeInt(END_OF_RUN);
+      return true;
+    } catch (AssertJDBException e) {
+      // A value can not be written with the encoding of the snapshot files
+      return false;
+    } catch (IOException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Reads the objects of the next row of the file.
+   *
+   * @param inputStream The stream of the file.
+   * @return The objects or {@code null} if there is no more row.
+   * @throws IOException I/O Exception.
+   * @throws AssertJDBException If the file is corrupted.
+   */
+  private Object[] read(DataInputStream inputStream) throws IOException {
+    int length = inputStream.readInt();
+    if (length == END_OF_RUN) {
+      return null;
+    }
+    if (length < 0) {
+      throw new AssertJDBException("The run file %s is corrupted", file);
+    }
+    byte[] bytes = new byte[length];
+    inputStream.readFully(bytes);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    Object[] objects = new Object[columnsNameList.size()];
+    try {
+      for (int index = 0; index < objects.length; index++) {
+        objects[index] = SnapshotFile.readValue(buffer);
+      }
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new AssertJDBException("The run file %s is corrupted", file);
+    }
+    return objects;
+  }
+
+  /**
+   * Compares the primary keys of two rows.
+   *
+   * @param objects1 The objects of the first row.
+   * @param objects2 The objects of the second row.
+   * @return The result of the comparison or {@link Integer#MAX_VALUE} if the primary keys can not be compared.
+   */
+  private int compare(Object[] objects1, Object[] objects2) {
+    for (int index : pksIndexes) {
+      Object object1 = objects1[index];
+      Object object2 = objects2[index];
+      int compare;
+      if (object1 instanceof Number && object2 instanceof Number && object1.getClass() != object2.getClass()) {
+        compare = new BigDecimal(object1.toString()).compareTo(new BigDecimal(object2.toString()));
+      } else if (object1 instanceof Comparable && object2 != null && object1.getClass() == object2.getClass()) {
+        @SuppressWarnings("unchecked")
+        Comparable<Object> comparable = (Comparable<Object>) object1;
+        compare = comparable.compareTo(object2);
+      } else {
+        return Integer.MAX_VALUE;
+      }
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns a row with the objects in parameter.
+   *
+   * @param objects The objects.
+   * @return The row.
+   */
+  private Row getRow(Object[] objects) {
+    List<Value> valuesList = new ArrayList<>(objects.length);
+    for (int index = 0; index < objects.length; index++) {
+      valuesList.add(new Value(columnsNameList.get(index), objects[index], table.getColumnLetterCase()));
+    }
+    return new Row(schema, valuesList);
+  }
+
+  /**
+   * Reads the objects of the next row of the {@link ResultSet}.
+   *
+   * @param resultSet The {@link ResultSet}.
+   * @param plan The plan to read the objects.
+   * @return The objects or {@code null} if there is no more row.
+   * @throws SQLException SQL Exception.
+   */
+  private Object[] read(ResultSet resultSet, RowReaderPlan plan) throws SQLException {
+    if (!resultSet.next()) {
+      return null;
+    }
+    Object[] objects = new Object[columnsNameList.size()];
+    plan.readObjects(resultSet, objects);
+    return objects;
+  }
+
+  /**
+   * Merges the rows of the file and the rows of the table (in the order of the primary keys).
+   *
+   * @param connection The connection to the database.
+   * @param rowsAtStartPointList The list to fill with the rows at start point which are different.
+   * @param rowsAtEndPointList The list to fill with the rows at end point which are different.
+   * @return {@code true} if the rows are merged, {@code false} if the order of the database is different of the
+   *         order in Java.
+   * @throws SQLException SQL Exception.
+   * @throws IOException I/O Exception.
+   */
+  private boolean merge(Connection connection, List<Row> rowsAtStartPointList, List<Row> rowsAtEndPointList)
+          throws SQLException, IOException {
+
+    try (Statement statement = table.createStatement(connection);
+         ResultSet resultSet = statement.executeQuery(request);
+         DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+      RowReaderPlan plan = RowReaderPlan.getPlan(request, resultSet.getMetaData(), columnsNameList,
+                                                 table.getColumnLetterCase());
+      Object[] objectsAtStartPoint = read(inputStream);
+      Object[] objectsAtEndPoint = read(resultSet, plan);
+      while (objectsAtStartPoint != null || objectsAtEndPoint != null) {
+        int compare;
+        if (objectsAtStartPoint == null) {
+          compare = 1;
+        } else if (objectsAtEndPoint == null) {
+          compare = -1;
+        } else {
+          compare = compare(objectsAtStartPoint, objectsAtEndPoint);
+          if (compare == Integer.MAX_VALUE) {
+            return false;
+          }
+        }
+
+        if (compare <= 0) {
+          Row rowAtStartPoint = getRow(objectsAtStartPoint);
+          if (compare < 0) {
+            rowsAtStartPointList.add(rowAtStartPoint);
+          } else {
+            Row rowAtEndPoint = getRow(objectsAtEndPoint);
+            if (!rowAtStartPoint.hasValues(rowAtEndPoint)) {
+              rowsAtStartPointList.add(rowAtStartPoint);
+              rowsAtEndPointList.add(rowAtEndPoint);
+            }
+          }
+          objectsAtStartPoint = read(inputStream);
+        } else {
+          rowsAtEndPointList.add(getRow(objectsAtEndPoint));
+        }
+        if (compare >= 0) {
+          Object[] previousObjects = objectsAtEndPoint;
+          objectsAtEndPoint = read(resultSet, plan);
+          if (objectsAtEndPoint != null && compare(previousObjects, objectsAtEndPoint) >= 0) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Reads all the rows of the file.
+   *
+   * @return The rows.
+   * @throws IOException I/O Exception.
+   */
+  private List<Row> readAll() throws IOException {
+    List<Row> rowsList = new ArrayList<>();
+    try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      Object[] objects = read(inputStream);
+      while (objects != null) {
+        rowsList.add(getRow(objects));
+        objects = read(inputStream);
+      }
+    }
+    return rowsList;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isDropped() {
+    return dropped;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void loadDifferences(Table tableAtStartPoint, Table tableAtEndPoint) {
+    try {
+      List<Row> rowsAtStartPointList = new ArrayList<>();
+      List<Row> rowsAtEndPointList = new ArrayList<>();
+      boolean merged;
+      try (Connection connection = table.getConnection()) {
+        merged = merge(connection, rowsAtStartPointList, rowsAtEndPointList);
+      }
+      if (!merged) {
+        // The order is not the same in the database : so the tables are entirely loaded
+        rowsAtStartPointList = readAll();
+        tableAtEndPoint.getRowsList();
+      } else {
+        tableAtEndPoint.setColumnsNameList(columnsNameList);
+        tableAtEndPoint.setRowsList(rowsAtEndPointList);
+        tableAtEndPoint.setPksNameList(pksNameList);
+      }
+      tableAtStartPoint.setColumnsNameList(columnsNameList);
+      tableAtStartPoint.setRowsList(rowsAtStartPointList);
+      tableAtStartPoint.setPksNameList(pksNameList);
+    } catch (SQLException | IOException e) {
+      throw new AssertJDBException(e);
+    } finally {
+      drop();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void drop() {
+    if (!dropped) {
+      dropped = true;
+      if (!file.delete()) {
+        throw new AssertJDBException("The file %s can not be deleted", file);
+      }
+    }
+  }
+}
@@ -0,0 +1,504 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.exception.AssertJDBException;
+import org.assertj.db.util.NameComparator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Snapshot of a {@link Table} kept in the database.
+ * <p>
+ * There are two kinds of snapshot :
+ * </p>
+ * <ul>
+ * <li>The copy (see {@link #create(Table)}) : at start point, the table is copied in a snapshot table (with
+ * {@code CREATE TABLE ... AS SELECT ...}). At end point, only the rows which are different between the snapshot table
+ * and the table are read (with {@code EXCEPT}).</li>
+ * <li>The capture (see {@link #createWithTriggers(Table)}) : at start point, triggers are created on the table to
+ * journal the changed rows in a capture table. At end point, only the journaled rows are read.</li>
+ * </ul>
+ * <p>
+ * At end point, the objects created in the database are dropped. They are also dropped if the creation or the loading
+ * of the differences fails. The snapshot is only possible on a table with primary keys and if the database accepts
+ * the requests : otherwise the methods return {@code null} and the table is loaded in memory.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+class TableSnapshot implements ExternalSnapshot {
+
+  /**
+   * The prefix of the name of the snapshot tables.
+   */
+  static final String NAME_PREFIX = "ADB_SNAP_";
+  /**
+   * The suffix of the name of the capture table.
+   */
+  static final String CAPTURE_SUFFIX = "_CAPT";
+  /**
+   * The suffix of the name of the sequence of the capture table.
+   */
+  static final String SEQUENCE_SUFFIX = "_SEQ";
+  /**
+   * The suffix of the name of the triggers.
+   */
+  static final String TRIGGER_SUFFIX = "_TRG";
+  /**
+   * The suffix of the name of the index of the capture table (dropped with the capture table).
+   */
+  static final String INDEX_SUFFIX = "_IDX";
+  /**
+   * Part of the name of the snapshot tables which is different for each execution.
+   */
+  private static final String NAME_EXECUTION = Long.toString(System.currentTimeMillis() % 1000000000L, 36)
+                                                   .toUpperCase();
+  /**
+   * The counter for the name of the snapshot tables.
+   */
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  /**
+   * The table.
+   */
+  private final Table table;
+  /**
+   * The statements to drop the objects created in the database.
+   */
+  private final List<String> dropStatementsList;
+  /**
+   * The SQL request which returns the rows at start point which are different at end point.
+   */
+  private final String requestAtStartPoint;
+  /**
+   * The SQL request which returns the rows at end point which are different at start point.
+   */
+  private final String requestAtEndPoint;
+  /**
+   * If the objects created in the database are dropped.
+   */
+  private boolean dropped;
+
+  /**
+   * Constructor.
+   *
+   * @param table The table.
+   * @param requestAtStartPoint The SQL request which returns the rows at start point which are different.
+   * @param requestAtEndPoint The SQL request which returns the rows at end point which are different.
+   * @param dropStatementsList The statements to drop the objects created in the database.
+   */
+  private TableSnapshot(Table table, String requestAtStartPoint, String requestAtEndPoint,
+                        List<String> dropStatementsList) {
+    this.table = table;
+    this.requestAtStartPoint = requestAtStartPoint;
+    this.requestAtEndPoint = requestAtEndPoint;
+    this.dropStatementsList = dropStatementsList;
+  }
+
+  /**
+   * Returns a new name for the objects created in the database.
+   *
+   * @return The name.
+   */
+  private static String getNewName() {
+    return NAME_PREFIX + NAME_EXECUTION + "_" + COUNTER.incrementAndGet();
+  }
+
+  /**
+   * Returns if the name in parameter is the name of a snapshot table.
+   *
+   * @param name The name of a table.
+   * @return {@code true} if it is the name of a snapshot table, {@code false} otherwise.
+   */
+  static boolean isSnapshotName(String name) {
+    return name.toUpperCase().startsWith(NAME_PREFIX);
+  }
+
+  /**
+   * Creates the snapshot of the table in the database by a copy of the table.
+   *
+   * @param table The table.
+   * @return The snapshot or {@code null} if the table can not be copied in the database (no primary key or requests
+   *         not accepted by the database).
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the
+   *                            connection.
+   */
+  static TableSnapshot create(Table table) {
+    try (Connection connection = table.getConnection()) {
+      String columns = getColumns(table, connection);
+      if (columns == null) {
+        return null;
+      }
+
+      String snapshotName = getNewName();
+      String request = "SELECT " + columns + " FROM " + table.getName();
+      TableSnapshot tableSnapshot = new TableSnapshot(table,
+                                                      "SELECT " + columns + " FROM " + snapshotName
+                                                      + " EXCEPT " + request,
+                                                      request + " EXCEPT SELECT " + columns + " FROM " + snapshotName,
+                                                      Arrays.asList("DROP TABLE " + snapshotName));
+      try {
+        if (!execute(connection, "CREATE TABLE " + snapshotName + " AS " + request)
+            && !execute(connection, "CREATE TABLE " + snapshotName + " AS (" + request + ") WITH DATA")) {
+          tableSnapshot.dropped = true;
+          return null;
+        }
+        if (!tableSnapshot.isAccepted(connection)) {
+          tableSnapshot.drop(connection);
+          return null;
+        }
+        return tableSnapshot;
+      } catch (SQLException | RuntimeException | Error e) {
+        tableSnapshot.dropAfterFailure(connection, e);
+        throw e;
+      }
+    } catch (SQLException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Returns if the database accepts the requests on the differences (e.g. {@code EXCEPT} on the types of the
+   * columns).
+   *
+   * @param connection The connection to the database.
+   * @return {@code true} if the requests are accepted, {@code false} otherwise.
+   */
+  private boolean isAccepted(Connection connection) {
+    try {
+      connection.prepareStatement(requestAtStartPoint).close();
+      connection.prepareStatement(requestAtEndPoint).close();
+      return true;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Creates the snapshot of the table in the database by a capture of the changes with triggers.
+   * <p>
+   * The triggers journal in a capture table the rows before the change (with {@code O} as operation) and after the
+   * change (with {@code N} as operation), with a sequence for the order. So at end point, the rows at start point are
+   * the first journaled rows before a change for each primary key and the rows at end point are the rows of the table
+   * with a journaled primary key. The capture table is indexed on the primary keys and the sequence, so these rows are
+   * found with a join on the first sequence of each primary key and a lookup of the index.
+   * </p>
+   *
+   * @param table The table.
+   * @return The snapshot or {@code null} if the table can not be captured (no primary key or database without
+   *         {@link CaptureDialect}).
+   * @throws AssertJDBException If triggered, this exception wrap a possible {@link SQLException} during the
+   *                            connection.
+   */
+  static TableSnapshot createWithTriggers(Table table) {
+    try (Connection connection = table.getConnection()) {
+      CaptureDialect dialect = CaptureDialect.of(connection.getMetaData());
+      String columns = getColumns(table, connection);
+      if (dialect == null || columns == null) {
+        return null;
+      }
+      String tableName = MetadataCache.getTableName(table, connection, table.getName(), table.getTableLetterCase());
+      List<String> columnsNameList = MetadataCache.getColumnsNameList(table, connection, tableName);
+      List<String> pksNameList = MetadataCache.getPksNameList(table, connection, tableName);
+
+      String name = getNewName();
+      String captureName = name + CAPTURE_SUFFIX;
+      String sequenceName = name + SEQUENCE_SUFFIX;
+      List<String> triggersNameList = dialect.getTriggersNameList(name + TRIGGER_SUFFIX);
+      List<String> dropStatementsList = new ArrayList<>();
+      for (String triggerName : triggersNameList) {
+        dropStatementsList.add("DROP TRIGGER " + triggerName);
+      }
+      dropStatementsList.add("DROP TABLE " + captureName);
+      dropStatementsList.add("DROP SEQUENCE " + sequenceName);
+
+      // The rows at start point are found with a join on the first sequence of each primary key (the columns of the
+      // grouping are renamed so the columns of the capture table are not ambiguous)
+      StringBuilder pksColumns = new StringBuilder();
+      StringBuilder pksFirstColumns = new StringBuilder();
+      StringBuilder pksFirstCondition = new StringBuilder();
+      StringBuilder pksConditionOnTable = new StringBuilder();
+      for (int index = 0; index < pksNameList.size(); index++) {
+        String pkName = pksNameList.get(index);
+        String separator = index == 0 ? "" : ", ";
+        String condition = index == 0 ? "" : " AND ";
+        pksColumns.append(separator).append(pkName);
+        pksFirstColumns.append(separator).append(pkName).append(" AS ADB_PK").append(index);
+        pksFirstCondition.append(condition).append("c.").append(pkName).append(" = f.ADB_PK").append(index);
+        pksConditionOnTable.append(condition).append("c.").append(pkName).append(" = t.").append(pkName);
+      }
+      TableSnapshot tableSnapshot = new TableSnapshot(table,
+                                                      "SELECT " + columns + " FROM " + captureName + " c"
+                                                      + " JOIN (SELECT " + pksFirstColumns
+                                                      + ", MIN(ADB_SEQ) AS ADB_FIRST FROM " + captureName
+                                                      + " GROUP BY " + pksColumns + ") f ON " + pksFirstCondition
+                                                      + " AND c.ADB_SEQ = f.ADB_FIRST WHERE c.ADB_OP = 'O'",
+                                                      "SELECT " + columns + " FROM " + table.getName() + " t"
+                                                      + " WHERE EXISTS (SELECT 1 FROM " + captureName + " c"
+                                                      + " WHERE " + pksConditionOnTable + ")",
+                                                      dropStatementsList);
+
+      List<String> statementsList = new ArrayList<>();
+      statementsList.add(dialect.getCreateCaptureTableStatement(captureName, table.getName()));
+      statementsList.add("ALTER TABLE " + captureName + " ADD COLUMN ADB_SEQ BIGINT");
+      statementsList.add("ALTER TABLE " + captureName + " ADD COLUMN ADB_OP CHAR(1)");
+      statementsList.add("CREATE INDEX " + name + INDEX_SUFFIX + " ON " + captureName
+                         + " (" + pksColumns + ", ADB_SEQ)");
+      statementsList.add("CREATE SEQUENCE " + sequenceName);
+      statementsList.addAll(dialect.getCreateTriggersStatementsList(triggersNameList, table.getName(), captureName,
+                                                                    sequenceName, columnsNameList));
+      try {
+        for (String statement : statementsList) {
+          if (!execute(connection, statement)) {
+            // Drop the objects already created
+            tableSnapshot.dropCreatedObjects(connection);
+            return null;
+          }
+        }
+        return tableSnapshot;
+      } catch (SQLException | RuntimeException | Error e) {
+        tableSnapshot.dropAfterFailure(connection, e);
+        throw e;
+      }
+    } catch (SQLException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * Returns the names of the columns of the table which are checked (as in the database).
+   *
+   * @param table The table.
+   * @param connection The connection to the database.
+   * @param tableName The name of the table as in the database.
+   * @return The names of the columns or {@code null} if a column to check is unknown.
+   * @throws SQLException SQL Exception.
+   */
+  static List<String> getColumnsNameList(Table table, Connection connection, String tableName) throws SQLException {
+    List<String> columnsNameList;
+    if (table.getColumnsToCheck() != null) {
+      columnsNameList = Arrays.asList(table.getColumnsToCheck());
+      if (columnsNameList.contains(null)) {
+        return null;
+      }
+    } else {
+      columnsNameList = new ArrayList<>(MetadataCache.getColumnsNameList(table, connection, tableName));
+      if (table.getColumnsToExclude() != null) {
+        for (String columnName : table.getColumnsToExclude()) {
+          int index = columnName == null ? -1 : NameComparator.INSTANCE.indexOf(columnsNameList, columnName,
+                                                                                table.getColumnLetterCase());
+          if (index != -1) {
+            columnsNameList.remove(index);
+          }
+        }
+      }
+    }
+    return columnsNameList;
+  }
+
+  /**
+   * Returns the columns of the table to copy in the snapshot table.
+   *
+   * @param table The table.
+   * @param connection The connection to the database.
+   * @return The columns (separated by a comma) or {@code null} if the table has no primary key in these columns.
+   * @throws SQLException SQL Exception.
+   */
+  private static String getColumns(Table table, Connection connection) throws SQLException {
+    String tableName = MetadataCache.getTableName(table, connection, table.getName(), table.getTableLetterCase());
+    if (tableName == null) {
+      return null;
+    }
+    List<String> columnsNameList = getColumnsNameList(table, connection, tableName);
+    if (columnsNameList == null) {
+      return null;
+    }
+
+    List<String> pksNameList = MetadataCache.getPksNameList(table, connection, tableName);
+    if (pksNameList.isEmpty()) {
+      return null;
+    }
+    for (String pkName : pksNameList) {
+      if (!NameComparator.INSTANCE.contains(columnsNameList, pkName, table.getColumnLetterCase())) {
+        return null;
+      }
+    }
+
+    StringBuilder stringBuilder = new StringBuilder();
+    for (String columnName : columnsNameList) {
+      if (stringBuilder.length() > 0) {
+        stringBuilder.append(", ");
+      }
+      stringBuilder.append(columnName);
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Executes a SQL statement which modifies the structure of the database.
+   *
+   * @param connection The connection to the database.
+   * @param sql The SQL statement.
+   * @return {@code true} if the statement is executed, {@code false} if it is not accepted by the database.
+   * @throws SQLException SQL Exception during the commit.
+   */
+  private static boolean execute(Connection connection, String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.executeUpdate(sql);
+    } catch (SQLException e) {
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+      }
+      return false;
+    }
+    if (!connection.getAutoCommit()) {
+      connection.commit();
+    }
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isDropped() {
+    return dropped;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void loadDifferences(Table tableAtStartPoint, Table tableAtEndPoint) {
+    try (Connection connection = table.getConnection()) {
+      try {
+        tableAtStartPoint.loadFromRequest(connection, requestAtStartPoint);
+        tableAtStartPoint.sortRows();
+        tableAtEndPoint.loadFromRequest(connection, requestAtEndPoint);
+        tableAtEndPoint.sortRows();
+      } catch (SQLException | RuntimeException | Error e) {
+        try {
+          drop(connection);
+        } catch (SQLException dropException) {
+          e.addSuppressed(dropException);
+        }
+        throw e;
+      }
+      drop(connection);
+    } catch (SQLException e) {
+      throw new AssertJDBException(e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void drop() {
+    if (!dropped) {
+      try (Connection connection = table.getConnection()) {
+        drop(connection);
+      } catch (SQLException e) {
+        throw new AssertJDBException(e);
+      }
+    }
+  }
+
+  /**
+   * Drops the objects created in the database with the connection in parameter.
+   * <p>
+   * All the statements are executed even if one of them fails : the first failure is thrown with the next ones as
+   * suppressed exceptions.
+   * </p>
+   *
+   * @param connection The connection to the database.
+   * @throws SQLException SQL Exception.
+   */
+  private void drop(Connection connection) throws SQLException {
+    if (!dropped) {
+      dropped = true;
+      SQLException exception = null;
+      for (String dropStatement : dropStatementsList) {
+        SQLException dropException = null;
+        try {
+          if (!execute(connection, dropStatement)) {
+            dropException = new SQLException("The statement " + dropStatement + " can not be executed");
+          }
+        } catch (SQLException e) {
+          dropException = e;
+        }
+        if (dropException != null) {
+          if (exception == null) {
+            exception = dropException;
+          } else {
+            exception.addSuppressed(dropException);
+          }
+        }
+      }
+      if (exception != null) {
+        throw exception;
+      }
+    }
+  }
+
+  /**
+   * Drops the objects which are created in the database when the creation is not complete : the statements on the
+   * objects which are not created are not accepted by the database, so they are ignored.
+   *
+   * @param connection The connection to the database.
+   * @throws SQLException SQL Exception during the commit or the rollback.
+   */
+  private void dropCreatedObjects(Connection connection) throws SQLException {
+    dropped = true;
+    SQLException exception = null;
+    for (String dropStatement : dropStatementsList) {
+      try {
+        execute(connection, dropStatement);
+      } catch (SQLException e) {
+        if (exception == null) {
+          exception = e;
+        } else {
+          exception.addSuppressed(e);
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /**
+   * Drops the objects created in the database after a failure during the creation : a failure during the drop is added
+   * as a suppressed exception to the failure.
+   *
+   * @param connection The connection to the database.
+   * @param failure The failure.
+   */
+  private void dropAfterFailure(Connection connection, Throwable failure) {
+    if (!dropped) {
+      try {
+        dropCreatedObjects(connection);
+      } catch (SQLException | RuntimeException e) {
+        failure.addSuppressed(e);
+      }
+    }
+  }
+}
@@ -40,21 +40,6 @@ public class TimeValue implements Comparable<TimeValue> {
    * Nanoseconds.
    */
   private final int nanoSeconds;
-  /**
-   * Indicates where there are the digits for {@code String} for {@link TimeValue#TimeValue(String)}.
-   */
-  private static final String TIME_FORMAT = "\\d\\d:\\d\\d";
-  /**
-   * Indicates where there are the digits in style with seconds for {@code String} for
-   * {@link TimeValue#TimeValue(String)}.
-   */
-  private static final String TIME_FORMAT_WITH_SECONDS = "\\d\\d:\\d\\d:\\d\\d";
-  /**
-   * Indicates where there are the digits in style with nanoseconds for {@code String} for
-   * {@link TimeValue#TimeValue(String)}.
-   */
-  private static final String TIME_FORMAT_WITH_NANO = "\\d\\d:\\d\\d:\\d\\d.\\d\\d\\d\\d\\d\\d\\d\\d\\d";
-
   /**
    * Makes an instance of time value from a hours, minutes, seconds and nanoseconds.
    * 
@@ -102,7 +87,7 @@ public class TimeValue implements Comparable<TimeValue> {
    *           {@code hh:mm:ss.nnnnnnnnn} format.
    */
   public static TimeValue parse(String time) throws ParseException {
-    return new TimeValue(time);
+    return DateTimeParser.parseTime(time);
   }
 
   /**
@@ -187,21 +172,19 @@ public class TimeValue implements Comparable<TimeValue> {
       throw new NullPointerException("time should be not null");
     }
 
-    if (time.matches(TIME_FORMAT)) {
-      hours = Integer.parseInt(time.substring(0, 2));
-      minutes = Integer.parseInt(time.substring(3));
-      seconds = 0;
-      nanoSeconds = 0;
-    } else if (time.matches(TIME_FORMAT_WITH_SECONDS)) {
-      hours = Integer.parseInt(time.substring(0, 2));
-      minutes = Integer.parseInt(time.substring(3, 5));
-      seconds = Integer.parseInt(time.substring(6));
-      nanoSeconds = 0;
-    } else if (time.matches(TIME_FORMAT_WITH_NANO)) {
-      hours = Integer.parseInt(time.substring(0, 2));
-      minutes = Integer.parseInt(time.substring(3, 5));
-      seconds = Integer.parseInt(time.substring(6, 8));
-      nanoSeconds = Integer.parseInt(time.substring(9));
+    if (DateTimeParser.isTime(time, 0)) {
+      hours = DateTimeParser.getNumber(time, 0, 2);
+      minutes = DateTimeParser.getNumber(time, 3, 5);
+      if (time.length() >= DateTimeParser.TIME_WITH_SECONDS_LENGTH) {
+        seconds = DateTimeParser.getNumber(time, 6, 8);
+      } else {
+        seconds = 0;
+      }
+      if (time.length() == DateTimeParser.TIME_WITH_NANO_LENGTH) {
+        nanoSeconds = DateTimeParser.getNumber(time, 9, 18);
+      } else {
+        nanoSeconds = 0;
+      }
     } else {
       throw new ParseException("time must respect hh:mm, hh:mm:ss or hh:mm:ss.nnnnnnnnn format", time.length());
     }
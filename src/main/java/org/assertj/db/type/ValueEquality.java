@@ -0,0 +1,215 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.util.Values;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Equality of the values, specialized by the class of the objects compared.
+ * <p>
+ * The equality is chosen for each comparison (see {@link #areEqual(Value, Object)}) : when the two objects are of the
+ * same class, the equality of this class is found in a map and the objects are compared directly, otherwise (e.g. an
+ * {@link Integer} and a {@link Long} in the same column) the comparison is done by
+ * {@link Values#areEqual(Value, Object)}. So the result is always the same than with
+ * {@link Values#areEqual(Value, Object)}, even if the classes of the objects are different from a row to another.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+enum ValueEquality {
+
+  /**
+   * Equality of the texts.
+   */
+  TEXT(String.class),
+  /**
+   * Equality of the booleans.
+   */
+  BOOLEAN(Boolean.class),
+  /**
+   * Equality of the bytes.
+   */
+  BYTE(Byte.class),
+  /**
+   * Equality of the shorts.
+   */
+  SHORT(Short.class),
+  /**
+   * Equality of the integers.
+   */
+  INTEGER(Integer.class),
+  /**
+   * Equality of the longs.
+   */
+  LONG(Long.class),
+  /**
+   * Equality of the UUIDs.
+   */
+  UUID(java.util.UUID.class),
+  /**
+   * Equality of the floats (compared as primitives).
+   */
+  FLOAT(Float.class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return ((Float) object).floatValue() == ((Float) expected).floatValue();
+    }
+  },
+  /**
+   * Equality of the doubles (compared as primitives).
+   */
+  DOUBLE(Double.class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return ((Double) object).doubleValue() == ((Double) expected).doubleValue();
+    }
+  },
+  /**
+   * Equality of the big integers.
+   */
+  BIG_INTEGER(BigInteger.class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return ((BigInteger) object).compareTo((BigInteger) expected) == 0;
+    }
+  },
+  /**
+   * Equality of the big decimals (without taking the scale into account).
+   */
+  BIG_DECIMAL(BigDecimal.class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return ((BigDecimal) object).compareTo((BigDecimal) expected) == 0;
+    }
+  },
+  /**
+   * Equality of the arrays of bytes.
+   */
+  BYTES(byte[].class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return Arrays.equals((byte[]) object, (byte[]) expected);
+    }
+  },
+  /**
+   * Equality of the dates (on the day).
+   */
+  DATE(Date.class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return DateValue.from((Date) object).equals(DateValue.from((Date) expected));
+    }
+  },
+  /**
+   * Equality of the times.
+   */
+  TIME(Time.class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return TimeValue.from((Time) object).equals(TimeValue.from((Time) expected));
+    }
+  },
+  /**
+   * Equality of the timestamps.
+   */
+  DATE_TIME(Timestamp.class) {
+    @Override
+    boolean areEqualObjects(Object object, Object expected) {
+      return DateTimeValue.from((Timestamp) object).equals(DateTimeValue.from((Timestamp) expected));
+    }
+  },
+  /**
+   * Equality of the other objects (always compared by {@link Values#areEqual(Value, Object)}).
+   */
+  OTHER(null);
+
+  /**
+   * The equalities by the class of the objects compared directly (never modified after the initialization).
+   */
+  private static final Map<Class<?>, ValueEquality> EQUALITIES_MAP = new HashMap<>();
+
+  static {
+    for (ValueEquality equality : values()) {
+      if (equality.type != null) {
+        EQUALITIES_MAP.put(equality.type, equality);
+      }
+    }
+  }
+
+  /**
+   * The class of the objects compared directly.
+   */
+  private final Class<?> type;
+
+  /**
+   * Constructor.
+   *
+   * @param type The class of the objects compared directly.
+   */
+  ValueEquality(Class<?> type) {
+    this.type = type;
+  }
+
+  /**
+   * Returns the equality corresponding to the class of the object.
+   *
+   * @param object The object (must be not {@code null}).
+   * @return The equality.
+   */
+  static ValueEquality of(Object object) {
+    ValueEquality equality = EQUALITIES_MAP.get(object.getClass());
+    return equality == null ? OTHER : equality;
+  }
+
+  /**
+   * Returns if the value is equal to the expected object.
+   *
+   * @param value    The value.
+   * @param expected The expected object.
+   * @return {@code true} if the value is equal to the expected object, {@code false} otherwise.
+   */
+  static boolean areEqual(Value value, Object expected) {
+    Object object = value.getValue();
+    if (object == null || expected == null) {
+      return object == expected;
+    }
+    if (object.getClass() == expected.getClass()) {
+      ValueEquality equality = of(object);
+      if (equality != OTHER) {
+        return equality.areEqualObjects(object, expected);
+      }
+    }
+    return Values.areEqual(value, expected);
+  }
+
+  /**
+   * Returns if the objects (both of the class of the equality) are equal.
+   *
+   * @param object   The object.
+   * @param expected The expected object.
+   * @return {@code true} if the objects are equal, {@code false} otherwise.
+   */
+  boolean areEqualObjects(Object object, Object expected) {
+    return object.equals(expected);
+  }
+}
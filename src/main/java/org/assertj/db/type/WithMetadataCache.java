@@ -0,0 +1,27 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+/**
+ * Defines the method to get the cache of the metadata.
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+public interface WithMetadataCache {
+
+  /**
+   * Returns the cache of the metadata.
+   * @return The cache of the metadata.
+   */
+  MetadataCache getMetadataCache();
+}
@@ -17,6 +17,8 @@ import org.assertj.db.type.ChangeType;
 import org.assertj.db.type.Row;
 
 import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Comparator for the {@code Change}.
@@ -31,29 +33,119 @@ public enum ChangeComparator implements Comparator<Change> {
    */
   INSTANCE;
 
-  /** {@inheritDoc} */
-  @Override
-  public int compare(Change change1, Change change2) {
-    ChangeType changeType1 = change1.getChangeType();
-    ChangeType changeType2 = change2.getChangeType();
+  /**
+   * Sorts the list of changes (like {@code Collections.sort(changesList, ChangeComparator.INSTANCE)}).
+   * <p>
+   * The type, the data name and the key of the row (see {@link RowComparator#sort(List)}) of each change are
+   * extracted once, then the keys are sorted (in parallel for a large list) : the comparisons use these keys and do not
+   * allocate.
+   * </p>
+   *
+   * @param changesList The list of changes to sort.
+   * @since 1.2.0
+   */
+  public static void sort(List<Change> changesList) {
+    ChangeKey[] keys = new ChangeKey[changesList.size()];
+    int index = 0;
+    for (Change change : changesList) {
+      keys[index++] = new ChangeKey(change);
+    }
+    KeyedSort.sort(keys, ChangeKey.COMPARATOR);
+    ListIterator<Change> iterator = changesList.listIterator();
+    for (ChangeKey key : keys) {
+      iterator.next();
+      iterator.set(key.change);
+    }
+  }
+
+  /**
+   * Returns the row used to compare the change (the row at start point or the row at end point for a creation).
+   *
+   * @param change The change.
+   * @return The row.
+   */
+  private static Row getRow(Change change) {
+    Row row = change.getRowAtStartPoint();
+    if (row == null) {
+      row = change.getRowAtEndPoint();
+    }
+    return row;
+  }
+
+  /**
+   * Compares the type and the data name of the changes.
+   *
+   * @param changeType1 The type of the first change.
+   * @param dataName1   The data name of the first change.
+   * @param changeType2 The type of the second change.
+   * @param dataName2   The data name of the second change.
+   * @return The result.
+   */
+  private static int compare(ChangeType changeType1, String dataName1, ChangeType changeType2, String dataName2) {
     int compare = changeType1.compareTo(changeType2);
     if (compare != 0) {
       return compare;
     }
-    String dataName1 = change1.getDataName();
-    String dataName2 = change2.getDataName();
-    compare = dataName1.compareTo(dataName2);
+    return dataName1.compareTo(dataName2);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int compare(Change change1, Change change2) {
+    int compare = compare(change1.getChangeType(), change1.getDataName(), change2.getChangeType(),
+                          change2.getDataName());
     if (compare != 0) {
       return compare;
     }
-    Row row1 = change1.getRowAtStartPoint();
-    Row row2 = change2.getRowAtStartPoint();
-    if (row1 == null) {
-      row1 = change1.getRowAtEndPoint();
-    }
-    if (row2 == null) {
-      row2 = change2.getRowAtEndPoint();
+    return RowComparator.INSTANCE.compare(getRow(change1), getRow(change2));
+  }
+
+  /**
+   * Key of a change to sort : the type, the data name and the key of the row.
+   */
+  private static final class ChangeKey {
+
+    /**
+     * Comparator of the keys (same order than {@link ChangeComparator}).
+     */
+    private static final Comparator<ChangeKey> COMPARATOR = new Comparator<ChangeKey>() {
+      @Override
+      public int compare(ChangeKey key1, ChangeKey key2) {
+        int compare = ChangeComparator.compare(key1.changeType, key1.dataName, key2.changeType, key2.dataName);
+        if (compare != 0) {
+          return compare;
+        }
+        return RowComparator.RowKey.COMPARATOR.compare(key1.rowKey, key2.rowKey);
+      }
+    };
+
+    /**
+     * The change.
+     */
+    private final Change change;
+    /**
+     * The type of the change.
+     */
+    private final ChangeType changeType;
+    /**
+     * The data name of the change.
+     */
+    private final String dataName;
+    /**
+     * The key of the row of the change.
+     */
+    private final RowComparator.RowKey rowKey;
+
+    /**
+     * Constructor.
+     *
+     * @param change The change.
+     */
+    private ChangeKey(Change change) {
+      this.change = change;
+      changeType = change.getChangeType();
+      dataName = change.getDataName();
+      rowKey = new RowComparator.RowKey(getRow(change));
     }
-    return RowComparator.INSTANCE.compare(row1, row2);
   }
 }
@@ -13,12 +13,6 @@
 package org.assertj.db.util;
 
 import org.assertj.db.type.Change;
-import org.assertj.db.type.Row;
-import org.assertj.db.type.Value;
-
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 
 /**
  * Utility methods related to changes.
@@ -36,53 +30,20 @@ public class Changes {
 
   /**
    * Returns the indexes of the modified columns.
+   * <p>
+   * The indexes are served from the set of the modified columns kept by the change (see
+   * {@link Change#getIndexesOfModifiedColumns()}).
+   * </p>
+   *
    * @param change    The change.
    * @return The indexes.
    */
   public static Integer[] getIndexesOfModifiedColumns(Change change) {
-    List<Integer> indexesList = new ArrayList<>();
-    Row rowAtStartPoint = change.getRowAtStartPoint();
-    Row rowAtEndPoint = change.getRowAtEndPoint();
-    if (rowAtStartPoint != null && rowAtEndPoint != null) {
-      List<Value> valuesListAtStartPoint = rowAtStartPoint.getValuesList();
-      List<Value> valuesListAtEndPoint = rowAtEndPoint.getValuesList();
-      Iterator<Value> iteratorAtEndPoint = valuesListAtEndPoint.iterator();
-      int index = 0;
-      for (Value valueAtStartPoint : valuesListAtStartPoint) {
-        Value valueAtEndPoint  = iteratorAtEndPoint.next();
-        Object objectAtStartPoint = valueAtStartPoint.getValue();
-        Object objectAtEndPoint = valueAtEndPoint.getValue();
-
-        if ((objectAtStartPoint == null && objectAtEndPoint != null) ||
-            (objectAtStartPoint != null && !objectAtStartPoint.equals(objectAtEndPoint))) {
-
-          indexesList.add(index);
-        }
-        index++;
-      }
-    }
-    else if (rowAtStartPoint != null) {
-      List<Value> valuesListAtStartPoint = rowAtStartPoint.getValuesList();
-      int index = 0;
-      for (Value valueAtStartPoint : valuesListAtStartPoint) {
-        if (valueAtStartPoint.getValue() != null) {
-          indexesList.add(index);
-        }
-        index++;
-      }
+    int[] indexes = change.getIndexesOfModifiedColumns();
+    Integer[] indexesOfModifiedColumns = new Integer[indexes.length];
+    for (int i = 0; i < indexes.length; i++) {
+      indexesOfModifiedColumns[i] = indexes[i];
     }
-    else {
-      List<Value> valuesListAtEndPoint = rowAtEndPoint.getValuesList();
-      int index = 0;
-      for (Value valueAtEndPoint : valuesListAtEndPoint) {
-        if (valueAtEndPoint.getValue() != null) {
-          indexesList.add(index);
-        }
-        index++;
-      }
-    }
-
-    return indexesList.toArray(new Integer[indexesList.size()]);
+    return indexesOfModifiedColumns;
   }
-
 }
@@ -0,0 +1,165 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sort of the keys extracted once from the elements to sort (see {@link RowComparator#sort(java.util.List)} and
+ * {@link ChangeComparator#sort(java.util.List)}).
+ * <p>
+ * The sort is stable, like {@link java.util.Collections#sort(java.util.List, Comparator)}. A large array of keys is
+ * sorted in parallel : the parts are sorted in a {@link ForkJoinPool}, then merged.
+ * </p>
+ *
+ * @author Régis Pouiller
+ * @since 1.2.0
+ */
+final class KeyedSort {
+
+  /**
+   * Minimum number of keys to sort in parallel.
+   */
+  static final int PARALLEL_THRESHOLD = 1 << 14;
+  /**
+   * Maximum number of keys in a part sorted sequentially during a parallel sort.
+   */
+  private static final int PART_SIZE = 1 << 13;
+
+  /**
+   * Holder of the pool used for the parallel sorts (created at the first parallel sort).
+   */
+  private static final class PoolHolder {
+
+    /**
+     * The pool.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+  }
+
+  /**
+   * Private constructor.
+   */
+  private KeyedSort() {
+    // Empty
+  }
+
+  /**
+   * Sorts the array of keys.
+   *
+   * @param <K>        The type of the keys.
+   * @param keys       The keys to sort.
+   * @param comparator The comparator of the keys.
+   */
+  static <K> void sort(K[] keys, Comparator<? super K> comparator) {
+    if (keys.length < PARALLEL_THRESHOLD) {
+      Arrays.sort(keys, comparator);
+    } else {
+      PoolHolder.POOL.invoke(new SortTask<>(keys, keys.clone(), 0, keys.length, comparator));
+    }
+  }
+
+  /**
+   * Task which sorts a part of the keys.
+   *
+   * @param <K> The type of the keys.
+   */
+  private static final class SortTask<K> extends RecursiveAction {
+
+    /**
+     * Serial version UID of the class.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * The keys.
+     */
+    private final K[] keys;
+    /**
+     * The buffer used to merge the keys (with the same size than the keys).
+     */
+    private final K[] buffer;
+    /**
+     * The index of the first key of the part (inclusive).
+     */
+    private final int from;
+    /**
+     * The index of the last key of the part (exclusive).
+     */
+    private final int to;
+    /**
+     * The comparator of the keys.
+     */
+    private final Comparator<? super K> comparator;
+
+    /**
+     * Constructor.
+     *
+     * @param keys       The keys.
+     * @param buffer     The buffer used to merge the keys.
+     * @param from       The index of the first key of the part (inclusive).
+     * @param to         The index of the last key of the part (exclusive).
+     * @param comparator The comparator of the keys.
+     */
+    private SortTask(K[] keys, K[] buffer, int from, int to, Comparator<? super K> comparator) {
+      this.keys = keys;
+      this.buffer = buffer;
+      this.from = from;
+      this.to = to;
+      this.comparator = comparator;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+      if (to - from <= PART_SIZE) {
+        Arrays.sort(keys, from, to, comparator);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new SortTask<>(keys, buffer, from, middle, comparator),
+                new SortTask<>(keys, buffer, middle, to, comparator));
+      merge(middle);
+    }
+
+    /**
+     * Merges the two sorted halves of the part (a key of the first half is put first when the keys are equal).
+     *
+     * @param middle The index of the first key of the second half.
+     */
+    private void merge(int middle) {
+      if (comparator.compare(keys[middle - 1], keys[middle]) <= 0) {
+        return;
+      }
+      int left = from;
+      int right = middle;
+      int index = from;
+      while (left < middle && right < to) {
+        if (comparator.compare(keys[left], keys[right]) <= 0) {
+          buffer[index++] = keys[left++];
+        } else {
+          buffer[index++] = keys[right++];
+        }
+      }
+      while (left < middle) {
+        buffer[index++] = keys[left++];
+      }
+      while (right < to) {
+        buffer[index++] = keys[right++];
+      }
+      System.arraycopy(buffer, from, keys, from, to - from);
+    }
+  }
+}
@@ -17,6 +17,7 @@ import org.assertj.db.type.Value;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Comparator for the {@code Row}.
@@ -32,51 +33,160 @@ public enum RowComparator implements Comparator<Row>{
   INSTANCE;
 
   /**
-   * Compare one array of values to another.
-   * @param values1 The first array of values.
-   * @param values2 The second array of values.
+   * Sorts the list of rows (like {@code Collections.sort(rowsList, RowComparator.INSTANCE)}).
+   * <p>
+   * The primary keys values of each row are extracted once in a key, then the keys are sorted (in parallel for a large
+   * list), so there is no allocation for each comparison. The other values are only read when the primary keys values
+   * of two rows are equal.
+   * </p>
+   *
+   * @param rowsList The list of rows to sort.
+   * @since 1.2.0
+   */
+  public static void sort(List<Row> rowsList) {
+    RowKey[] keys = new RowKey[rowsList.size()];
+    int index = 0;
+    for (Row row : rowsList) {
+      keys[index++] = new RowKey(row);
+    }
+    KeyedSort.sort(keys, RowKey.COMPARATOR);
+    ListIterator<Row> iterator = rowsList.listIterator();
+    for (RowKey key : keys) {
+      iterator.next();
+      iterator.set(key.row);
+    }
+  }
+
+  /**
+   * Compare one object to another.
+   * @param object1 The first object.
+   * @param object2 The second object.
    * @return The result.
    * @see Comparator#compare(Object, Object)
    */
-  private static int compare(Value[] values1, Value[] values2) {
-    if (values1.length == values2.length) {
-      for (int index = 0; index < values1.length; index++) {
-        Value value1 = values1[index];
-        Value value2 = values2[index];
-        Object object1 = value1.getValue();
-        Object object2 = value2.getValue();
-        if (object1 == null && object2 != null) {
-          return 1;
-        }
-        if (object1 != null && object2 == null) {
-          return -1;
+  private static int compareObjects(Object object1, Object object2) {
+    if (object1 == null && object2 != null) {
+      return 1;
+    }
+    if (object1 != null && object2 == null) {
+      return -1;
+    }
+    if (object1 instanceof Comparable && object2 instanceof Comparable) {
+      @SuppressWarnings("unchecked")
+      Comparable<Object> comparable1 = Comparable.class.cast(object1);
+      return comparable1.compareTo(object2);
+    }
+    return 0;
+  }
+
+  /**
+   * Compare one array of objects to another.
+   * @param objects1 The first array of objects.
+   * @param objects2 The second array of objects.
+   * @return The result.
+   * @see Comparator#compare(Object, Object)
+   */
+  private static int compare(Object[] objects1, Object[] objects2) {
+    if (objects1.length == objects2.length) {
+      for (int index = 0; index < objects1.length; index++) {
+        int compare = compareObjects(objects1[index], objects2[index]);
+        if (compare != 0) {
+          return compare;
         }
-        if (object1 instanceof Comparable && object2 instanceof Comparable) {
-          @SuppressWarnings("unchecked")
-          Comparable<Object> comparable1 = Comparable.class.cast(object1);
-          int compare = comparable1.compareTo(object2);
-          if (compare != 0) {
-            return compare;
-          }
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Compare the values of one row to the values of another (the values are read one by one, without copy).
+   * @param row1 The first row.
+   * @param row2 The second row.
+   * @return The result.
+   * @see Comparator#compare(Object, Object)
+   */
+  private static int compareValues(Row row1, Row row2) {
+    List<Value> valuesList1 = row1.getValuesList();
+    List<Value> valuesList2 = row2.getValuesList();
+    int size = valuesList1.size();
+    if (size == valuesList2.size()) {
+      for (int index = 0; index < size; index++) {
+        int compare = compareObjects(valuesList1.get(index).getValue(), valuesList2.get(index).getValue());
+        if (compare != 0) {
+          return compare;
         }
       }
     }
     return 0;
   }
 
+  /**
+   * Returns the objects of the values.
+   *
+   * @param values The values.
+   * @return The objects.
+   */
+  private static Object[] getObjects(Value[] values) {
+    Object[] objects = new Object[values.length];
+    for (int index = 0; index < values.length; index++) {
+      objects[index] = values[index].getValue();
+    }
+    return objects;
+  }
+
   /** {@inheritDoc} */
   @Override
   public int compare(Row row1, Row row2) {
     Value[] pksValues1 = row1.getPksValues();
     Value[] pksValues2 = row2.getPksValues();
-    int compare = compare(pksValues1, pksValues2);
-    if (compare != 0) {
-      return compare;
+    if (pksValues1.length == pksValues2.length) {
+      for (int index = 0; index < pksValues1.length; index++) {
+        int compare = compareObjects(pksValues1[index].getValue(), pksValues2[index].getValue());
+        if (compare != 0) {
+          return compare;
+        }
+      }
+    }
+    return compareValues(row1, row2);
+  }
+
+  /**
+   * Key of a row to sort : the objects of the primary keys values (the other values are read from the row when the
+   * primary keys values are equal).
+   */
+  static final class RowKey {
+
+    /**
+     * Comparator of the keys (same order than {@link RowComparator}).
+     */
+    static final Comparator<RowKey> COMPARATOR = new Comparator<RowKey>() {
+      @Override
+      public int compare(RowKey key1, RowKey key2) {
+        int compare = RowComparator.compare(key1.pksObjects, key2.pksObjects);
+        if (compare != 0) {
+          return compare;
+        }
+        return compareValues(key1.row, key2.row);
+      }
+    };
+
+    /**
+     * The row.
+     */
+    private final Row row;
+    /**
+     * The objects of the primary keys values.
+     */
+    private final Object[] pksObjects;
+
+    /**
+     * Constructor.
+     *
+     * @param row The row.
+     */
+    RowKey(Row row) {
+      this.row = row;
+      pksObjects = getObjects(row.getPksValues());
     }
-    List<Value> valuesList1 = row1.getValuesList();
-    List<Value> valuesList2 = row2.getValuesList();
-    Value[] values1 = valuesList1.toArray(new Value[valuesList1.size()]);
-    Value[] values2 = valuesList2.toArray(new Value[valuesList2.size()]);
-    return compare(values1, values2);
   }
 }
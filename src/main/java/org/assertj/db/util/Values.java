@@ -21,6 +21,7 @@ import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.UUID;
 
 /**
@@ -146,98 +147,134 @@ public class Values {
       return object == null;
     }
 
-    // If parameter is a BigInteger,
-    // change the actual in BigInteger to compare
-    if (expected instanceof BigInteger) {
-      BigInteger bi;
-
-      if (object instanceof BigInteger) {
-        bi = (BigInteger) object;
+    // If parameter is a BigInteger or a BigDecimal,
+    // change the actual in the same type to compare
+    // (an integral value is compared without conversion)
+    if (expected instanceof BigInteger || expected instanceof BigDecimal) {
+      return compareToBig(object, expected) == 0;
+    }
+    // Otherwise
+    // If the value is Float, Double, BigInteger or BigDecimal
+    // change the value to compare to make the comparison possible
+    // else
+    // get the value value in long to compare
+    if (object instanceof Float) {
+      return ((Float) object) == expected.floatValue();
+    } else if (object instanceof Double) {
+      return ((Double) object) == expected.doubleValue();
+    } else if (object instanceof BigInteger) {
+      return compareBigToNumber(object, expected) == 0;
+    } else if (object instanceof BigDecimal) {
+      return compareBigToNumber(object, expected) == 0;
+    } else if (isIntegral(object)) {
+      long actualValue = ((Number) object).longValue();
+      if (expected instanceof Float) {
+        return actualValue == expected.floatValue();
+      } else if (expected instanceof Double) {
+        return actualValue == expected.doubleValue();
       } else {
-        try {
-          bi = new BigInteger("" + object);
-        } catch (NumberFormatException e) {
-          throw new AssertJDBException("Expected <%s> can not be compared to a BigInteger (<%s>)", expected, object);
-        }
+        return actualValue == expected.longValue();
       }
+    }
 
-      if (bi.compareTo((BigInteger) expected) == 0) {
-        return true;
-      }
+    return false;
+  }
+
+  /**
+   * Returns if the object is an integral number of a primitive type ({@code Byte}, {@code Short}, {@code Integer} or
+   * {@code Long}).
+   *
+   * @param object The object.
+   * @return {@code true} if the object is an integral number of a primitive type, {@code false} otherwise.
+   */
+  private static boolean isIntegral(Object object) {
+    return object instanceof Integer || object instanceof Long || object instanceof Short || object instanceof Byte;
+  }
+
+  /**
+   * Compares a {@code BigInteger} with a {@code long} (without allocation).
+   *
+   * @param bigInteger The {@code BigInteger}.
+   * @param l The {@code long}.
+   * @return The result of the comparison ({@code -1}, {@code 0} or {@code 1}).
+   */
+  private static int compare(BigInteger bigInteger, long l) {
+    if (bigInteger.bitLength() < 64) {
+      return Long.compare(bigInteger.longValue(), l);
     }
-    // If parameter is a BigDecimal,
-    // change the value in BigDecimal to compare
-    else if (expected instanceof BigDecimal) {
-      BigDecimal bd;
+    // The BigInteger is out of the range of long
+    return bigInteger.signum();
+  }
 
-      if (object instanceof BigDecimal) {
-        bd = (BigDecimal) object;
-      } else {
-        try {
-          bd = new BigDecimal("" + object);
-        } catch (NumberFormatException e) {
-          throw new AssertJDBException("Expected <%s> can not be compared to a BigDecimal (<%s>)", expected, object);
-        }
+  /**
+   * Compares the object (the actual value) with the expected {@code BigInteger} or {@code BigDecimal}.
+   * <p>
+   * An integral number of a primitive type is compared without allocation to a {@code BigInteger}. The other objects
+   * are converted to the type of {@code expected}.
+   * </p>
+   *
+   * @param object The object.
+   * @param expected The expected {@code BigInteger} or {@code BigDecimal}.
+   * @return The result of the comparison.
+   * @throws AssertJDBException If the object can not be converted to the type of {@code expected}.
+   */
+  private static int compareToBig(Object object, Number expected) {
+    if (expected instanceof BigInteger) {
+      if (object instanceof BigInteger) {
+        return ((BigInteger) object).compareTo((BigInteger) expected);
       }
-
-      if (bd.compareTo((BigDecimal) expected) == 0) {
-        return true;
+      if (isIntegral(object)) {
+        return -compare((BigInteger) expected, ((Number) object).longValue());
+      }
+      try {
+        return new BigInteger(String.valueOf(object)).compareTo((BigInteger) expected);
+      } catch (NumberFormatException e) {
+        throw new AssertJDBException("Expected <%s> can not be compared to a BigInteger (<%s>)", expected, object);
       }
     }
-    // Otherwise
-    // If the value is Float, Double, BigInteger or BigDecimal
-    // change the value to compare to make the comparison possible
-    // else
-    // get the value value in Long to compare
-    else {
-      Long actualValue = null;
 
-      if (object instanceof Float) {
-        if (((Float) object) == expected.floatValue()) {
-          return true;
-        }
-      } else if (object instanceof Double) {
-        if (((Double) object) == expected.doubleValue()) {
-          return true;
-        }
-      } else if (object instanceof BigInteger) {
-        BigInteger bi = new BigInteger("" + expected);
-        if (((BigInteger) object).compareTo(bi) == 0) {
-          return true;
-        }
-      } else if (object instanceof BigDecimal) {
-        BigDecimal bd = new BigDecimal("" + expected);
-        if (((BigDecimal) object).compareTo(bd) == 0) {
-          return true;
-        }
-      } else if (object instanceof Byte) {
-        actualValue = ((Byte) object).longValue();
-      } else if (object instanceof Short) {
-        actualValue = ((Short) object).longValue();
-      } else if (object instanceof Integer) {
-        actualValue = ((Integer) object).longValue();
-      } else if (object instanceof Long) {
-        actualValue = (Long) object;
+    BigDecimal bd;
+    if (object instanceof BigDecimal) {
+      bd = (BigDecimal) object;
+    } else if (isIntegral(object)) {
+      bd = BigDecimal.valueOf(((Number) object).longValue());
+    } else {
+      try {
+        bd = new BigDecimal(String.valueOf(object));
+      } catch (NumberFormatException e) {
+        throw new AssertJDBException("Expected <%s> can not be compared to a BigDecimal (<%s>)", expected, object);
       }
+    }
+    return bd.compareTo((BigDecimal) expected);
+  }
 
-      if (actualValue != null) {
-        if (expected instanceof Float) {
-          if (actualValue == expected.floatValue()) {
-            return true;
-          }
-        } else if (expected instanceof Double) {
-          if (actualValue == expected.doubleValue()) {
-            return true;
-          }
-        } else {
-          if (actualValue == expected.longValue()) {
-            return true;
-          }
-        }
+  /**
+   * Compares the object (the actual value, a {@code BigInteger} or a {@code BigDecimal}) with the expected number
+   * (which is not a {@code BigInteger} or a {@code BigDecimal}).
+   * <p>
+   * An expected integral number of a primitive type is compared without allocation to a {@code BigInteger}. Otherwise
+   * the expected number is converted to the type of the object.
+   * </p>
+   *
+   * @param object The {@code BigInteger} or {@code BigDecimal} object.
+   * @param expected The expected number.
+   * @return The result of the comparison.
+   * @throws NumberFormatException If {@code expected} can not be converted to the type of {@code object}.
+   */
+  private static int compareBigToNumber(Object object, Number expected) {
+    if (object instanceof BigInteger) {
+      if (isIntegral(expected)) {
+        return compare((BigInteger) object, expected.longValue());
       }
+      return ((BigInteger) object).compareTo(new BigInteger(expected.toString()));
     }
-
-    return false;
+    BigDecimal bd;
+    if (isIntegral(expected)) {
+      bd = BigDecimal.valueOf(expected.longValue());
+    } else {
+      bd = new BigDecimal(expected.toString());
+    }
+    return ((BigDecimal) object).compareTo(bd);
   }
 
   /**
@@ -353,25 +390,17 @@ public class Values {
           return true;
         }
       } else if (number instanceof BigInteger) {
-        BigInteger bi = new BigInteger("" + expected);
+        BigInteger bi = new BigInteger(expected);
         if (((BigInteger) number).compareTo(bi) == 0) {
           return true;
         }
       } else if (number instanceof BigDecimal) {
-        BigDecimal bd = new BigDecimal("" + expected);
+        BigDecimal bd = new BigDecimal(expected);
         if (((BigDecimal) number).compareTo(bd) == 0) {
           return true;
         }
       } else {
-        Long actual = null;
-
-        if (number instanceof Byte || number instanceof Short || number instanceof Integer) {
-          actual = number.longValue();
-        } else if (number instanceof Long) {
-          actual = (Long) number;
-        }
-
-        if (actual != null && actual == Long.parseLong(expected)) {
+        if (isIntegral(number) && number.longValue() == Long.parseLong(expected)) {
           return true;
         }
       }
@@ -521,128 +550,168 @@ public class Values {
   }
 
   /**
-   * Returns the result of the comparison between the value and the {@code Number} in parameter.
+   * Returns a hash code of the value which is consistent with {@link #areEqual(Value, Object)} : two values which are
+   * equal have the same hash code (for example an {@code Integer} {@code 1} and a {@code Long} {@code 1}).
+   * <p>
+   * The only exception is about numbers which are equal only after a lossy conversion to {@code float} or
+   * {@code double} (for example a {@code Long} greater than 2<sup>53</sup> compared to a {@code Double}).
+   * </p>
    *
-   * @param value    The value.
-   * @param expected The {@code Number} to compare.
-   * @return {@code 0} if the value is equal to the {@code Number} parameter, {@code -1} if value is less than the
-   * {@code Number} parameter and {@code 1} if value is greater than the {@code Number} parameter.
+   * @param value The value.
+   * @return The hash code.
+   * @since 1.2.0
    */
-  public static int compare(Value value, Number expected) {
+  public static int getHashCode(Value value) {
     Object object = value.getValue();
-    // If parameter is a BigInteger,
-    // change the actual in BigInteger to compare
-    if (expected instanceof BigInteger) {
-      BigInteger bi;
+    if (object == null) {
+      return 0;
+    }
 
-      if (object instanceof BigInteger) {
-        bi = (BigInteger) object;
-      } else {
-        try {
-          bi = new BigInteger("" + object);
-        } catch (NumberFormatException e) {
-          throw new AssertJDBException("Expected <%s> can not be compared to a BigInteger (<%s>)", expected, object);
-        }
-      }
+    switch (value.getValueType()) {
+    case NUMBER:
+      return getHashCode((Number) object);
+    case BYTES:
+      return Arrays.hashCode((byte[]) object);
+    case DATE:
+      return DateValue.from((Date) object).hashCode();
+    case TIME:
+      return TimeValue.from((Time) object).hashCode();
+    case DATE_TIME:
+      return DateTimeValue.from((Timestamp) object).hashCode();
+    default:
+      return object.hashCode();
+    }
+  }
 
-      return bi.compareTo((BigInteger) expected);
+  /**
+   * Returns a hash code of the values which is consistent with {@link #areEqual(Value, Object)} used on each value.
+   *
+   * @param values The values.
+   * @return The hash code.
+   * @see #getHashCode(Value)
+   * @since 1.2.0
+   */
+  public static int getHashCode(Value[] values) {
+    int result = 1;
+    for (Value value : values) {
+      result = 31 * result + getHashCode(value);
     }
-    // If parameter is a BigDecimal,
-    // change the value in BigDecimal to compare
-    else if (expected instanceof BigDecimal) {
-      BigDecimal bd;
+    return result;
+  }
 
-      if (object instanceof BigDecimal) {
-        bd = (BigDecimal) object;
-      } else {
-        try {
-          bd = new BigDecimal("" + object);
-        } catch (NumberFormatException e) {
-          throw new AssertJDBException("Expected <%s> can not be compared to a BigDecimal (<%s>)", expected, object);
+  /**
+   * Returns a hash code of the number which is the same for all the numbers with the same value.
+   * <p>
+   * An integral number is hashed from its {@code long} value. Otherwise the hash is computed from the {@code float}
+   * value because it is the least precise comparison done in {@link #areEqual(Value, Number)}.
+   * </p>
+   *
+   * @param number The number.
+   * @return The hash code.
+   */
+  private static int getHashCode(Number number) {
+    if (number instanceof Byte || number instanceof Short || number instanceof Integer || number instanceof Long) {
+      return getHashCode(number.longValue());
+    }
+    if (number instanceof BigInteger) {
+      BigInteger bi = (BigInteger) number;
+      if (bi.bitLength() < 64) {
+        return getHashCode(bi.longValue());
+      }
+    } else if (number instanceof BigDecimal) {
+      BigDecimal bd = (BigDecimal) number;
+      if (bd.signum() == 0) {
+        return getHashCode(0L);
+      }
+      BigDecimal stripped = bd.stripTrailingZeros();
+      if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() < 19) {
+        BigInteger bi = stripped.toBigInteger();
+        if (bi.bitLength() < 64) {
+          return getHashCode(bi.longValue());
         }
       }
+    }
+
+    double doubleValue = number.doubleValue();
+    if (doubleValue == Math.rint(doubleValue) && Math.abs(doubleValue) < 0x1p63) {
+      return getHashCode((long) doubleValue);
+    }
+    float floatValue = (float) doubleValue;
+    if (floatValue == Math.rint(floatValue) && Math.abs(floatValue) < 0x1p63) {
+      return getHashCode((long) floatValue);
+    }
+    return Float.floatToIntBits(floatValue);
+  }
+
+  /**
+   * Returns the hash code of a {@code long}.
+   *
+   * @param value The {@code long}.
+   * @return The hash code.
+   */
+  private static int getHashCode(long value) {
+    return (int) (value ^ (value >>> 32));
+  }
 
-      return bd.compareTo((BigDecimal) expected);
+  /**
+   * Returns the result of the comparison between the value and the {@code Number} in parameter.
+   *
+   * @param value    The value.
+   * @param expected The {@code Number} to compare.
+   * @return {@code 0} if the value is equal to the {@code Number} parameter, {@code -1} if value is less than the
+   * {@code Number} parameter and {@code 1} if value is greater than the {@code Number} parameter.
+   */
+  public static int compare(Value value, Number expected) {
+    Object object = value.getValue();
+    // If parameter is a BigInteger or a BigDecimal,
+    // change the actual in the same type to compare
+    // (an integral value is compared without conversion)
+    if (expected instanceof BigInteger || expected instanceof BigDecimal) {
+      return compareToBig(object, expected);
     }
     // Otherwise
     // If the value is Float, Double, BigInteger or BigDecimal
     // change the value to compare to make the comparison possible
     // else
-    // get the value value in Long to compare
-    else {
-      Long actualValue = null;
-
-      if (object instanceof Float) {
-        float f = (Float) object;
-        float expectedF = expected.floatValue();
-        if (f > expectedF) {
-          return 1;
-        } else if (f < expectedF) {
-          return -1;
-        } else {
-          return 0;
-        }
-      } else if (object instanceof Double) {
-        double d = (Double) object;
-        double expectedD = expected.doubleValue();
-        if (d > expectedD) {
-          return 1;
-        } else if (d < expectedD) {
-          return -1;
-        } else {
-          return 0;
-        }
-      } else if (object instanceof BigInteger) {
-        BigInteger bi = new BigInteger("" + expected);
-        return ((BigInteger) object).compareTo(bi);
-      } else if (object instanceof BigDecimal) {
-        BigDecimal bd = new BigDecimal("" + expected);
-        return ((BigDecimal) object).compareTo(bd);
-      } else if (object instanceof Byte) {
-        actualValue = ((Byte) object).longValue();
-      } else if (object instanceof Short) {
-        actualValue = ((Short) object).longValue();
-      } else if (object instanceof Integer) {
-        actualValue = ((Integer) object).longValue();
-      } else if (object instanceof Long) {
-        actualValue = (Long) object;
-      }
-
-      if (actualValue != null) {
-        if (expected instanceof Float) {
-          float expectedF = expected.floatValue();
-          if (actualValue > expectedF) {
-            return 1;
-          } else if (actualValue < expectedF) {
-            return -1;
-          } else {
-            return 0;
-          }
-        } else if (expected instanceof Double) {
-          double expectedD = expected.doubleValue();
-          if (actualValue > expectedD) {
-            return 1;
-          } else if (actualValue < expectedD) {
-            return -1;
-          } else {
-            return 0;
-          }
-        } else {
-          double expectedL = expected.longValue();
-          if (actualValue > expectedL) {
-            return 1;
-          } else if (actualValue < expectedL) {
-            return -1;
-          } else {
-            return 0;
-          }
-        }
+    // get the value value in long to compare
+    if (object instanceof Float) {
+      return compare((Float) object, expected.floatValue());
+    } else if (object instanceof Double) {
+      return compare((Double) object, expected.doubleValue());
+    } else if (object instanceof BigInteger || object instanceof BigDecimal) {
+      return compareBigToNumber(object, expected);
+    } else if (isIntegral(object)) {
+      long actualValue = ((Number) object).longValue();
+      if (expected instanceof Float) {
+        return compare((float) actualValue, expected.floatValue());
+      } else if (expected instanceof Double) {
+        return compare(actualValue, expected.doubleValue());
+      } else {
+        return Long.compare(actualValue, expected.longValue());
       }
     }
 
     throw new AssertJDBException("Expected <%s> can not be compared to a Number (<%s>)", expected, object);
   }
 
+  /**
+   * Compares two {@code double} ({@code 0} if one of them is {@code NaN}).
+   *
+   * @param d1 The first {@code double}.
+   * @param d2 The second {@code double}.
+   * @return {@code 0} if the values are equal, {@code -1} if {@code d1} is less than {@code d2} and {@code 1} if
+   * {@code d1} is greater than {@code d2}.
+   */
+  private static int compare(double d1, double d2) {
+    if (d1 > d2) {
+      return 1;
+    } else if (d1 < d2) {
+      return -1;
+    } else {
+      return 0;
+    }
+  }
+
   /**
    * Returns a representation of the values (this representation is used for error message).
    *
@@ -765,14 +834,14 @@ public class Values {
         bi = (BigInteger) object;
       } else {
         try {
-          bi = new BigInteger("" + object);
+          bi = new BigInteger(String.valueOf(object));
         } catch (NumberFormatException e) {
           throw new AssertJDBException("Expected <%s> can not be compared to a BigInteger (<%s>)", expected, object);
         }
       }
 
       BigInteger bigExpected = (BigInteger) expected;
-      BigInteger bigTolerance = new BigInteger("" + tolerance);
+      BigInteger bigTolerance = new BigInteger(String.valueOf(tolerance));
       BigInteger bigMin = bigExpected.subtract(bigTolerance);
       BigInteger bigMax = bigExpected.add(bigTolerance);
       if (bi.compareTo(bigMin) >= 0 && bi.compareTo(bigMax) <= 0) {
@@ -788,14 +857,14 @@ public class Values {
         bd = (BigDecimal) object;
       } else {
         try {
-          bd = new BigDecimal("" + object);
+          bd = new BigDecimal(String.valueOf(object));
         } catch (NumberFormatException e) {
           throw new AssertJDBException("Expected <%s> can not be compared to a BigDecimal (<%s>)", expected, object);
         }
       }
 
       BigDecimal bigExpected = (BigDecimal) expected;
-      BigDecimal bigTolerance = new BigDecimal("" + tolerance);
+      BigDecimal bigTolerance = new BigDecimal(String.valueOf(tolerance));
       BigDecimal bigMin = bigExpected.subtract(bigTolerance);
       BigDecimal bigMax = bigExpected.add(bigTolerance);
       if (bd.compareTo(bigMin) >= 0 && bd.compareTo(bigMax) <= 0) {
@@ -826,8 +895,8 @@ public class Values {
         }
       } else if (object instanceof BigInteger) {
         BigInteger bi = (BigInteger) object;
-        BigInteger bigExpected = new BigInteger("" + expected);
-        BigInteger bigTolerance = new BigInteger("" + tolerance);
+        BigInteger bigExpected = new BigInteger(String.valueOf(expected));
+        BigInteger bigTolerance = new BigInteger(String.valueOf(tolerance));
         BigInteger bigMin = bigExpected.subtract(bigTolerance);
         BigInteger bigMax = bigExpected.add(bigTolerance);
         if (bi.compareTo(bigMin) >= 0 && bi.compareTo(bigMax) <= 0) {
@@ -835,8 +904,8 @@ public class Values {
         }
       } else if (object instanceof BigDecimal) {
         BigDecimal bd = (BigDecimal) object;
-        BigDecimal bigExpected = new BigDecimal("" + expected);
-        BigDecimal bigTolerance = new BigDecimal("" + tolerance);
+        BigDecimal bigExpected = new BigDecimal(String.valueOf(expected));
+        BigDecimal bigTolerance = new BigDecimal(String.valueOf(tolerance));
         BigDecimal bigMin = bigExpected.subtract(bigTolerance);
         BigDecimal bigMax = bigExpected.add(bigTolerance);
         if (bd.compareTo(bigMin) >= 0 && bd.compareTo(bigMax) <= 0) {
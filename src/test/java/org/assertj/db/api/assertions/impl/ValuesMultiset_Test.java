@@ -0,0 +1,99 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.api.assertions.impl;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.type.DateTimeValue;
+import org.assertj.db.type.DateValue;
+import org.assertj.db.type.TimeValue;
+import org.assertj.db.type.Value;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests on {@link ValuesMultiset} class.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class ValuesMultiset_Test extends AbstractTest {
+
+  /**
+   * This method tests the {@code getIndexOfMissingValue} method with numbers which are keyed or not.
+   */
+  @Test
+  public void test_get_index_of_missing_value_with_numbers() throws Exception {
+    List<Value> list = new ArrayList<>(Arrays.asList(getValue(null, 7), getValue(null, 8.5f), getValue(null, 7L),
+                                                     getValue(null, new BigDecimal("9.00")), getValue(null, null)));
+
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] { 9, null, 7.0, 8.5, (byte) 7 },
+                                                                ValuesMultiset.Equality.NUMBER)).isEqualTo(-1);
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] { 7, 7L, 7, 8.5, 9 },
+                                                                ValuesMultiset.Equality.NUMBER)).isEqualTo(2);
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] { "7", "9", null, "7", "8.5" },
+                                                                ValuesMultiset.Equality.OBJECT)).isEqualTo(-1);
+  }
+
+  /**
+   * This method tests the {@code getIndexOfMissingValue} method with dates, times and date/times.
+   */
+  @Test
+  public void test_get_index_of_missing_value_with_dates() throws Exception {
+    List<Value> list = new ArrayList<>(Arrays.asList(getValue(null, Date.valueOf("2007-12-23")),
+                                                     getValue(null, Timestamp.valueOf("2007-12-23 00:00:00")),
+                                                     getValue(null, Timestamp.valueOf("2007-12-23 09:01:00"))));
+
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] {
+            DateTimeValue.parse("2007-12-23T09:01"), DateValue.parse("2007-12-23"),
+            DateTimeValue.parse("2007-12-23T00:00") }, ValuesMultiset.Equality.OBJECT)).isEqualTo(-1);
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] {
+            DateValue.parse("2007-12-23"), DateValue.parse("2007-12-23"), DateValue.parse("2007-12-23") },
+                                                                ValuesMultiset.Equality.DATE)).isEqualTo(2);
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] {
+            "2007-12-23T09:01", Date.valueOf("2007-12-23"), "2007-12-23" }, ValuesMultiset.Equality.OBJECT))
+              .isEqualTo(-1);
+
+    list = new ArrayList<>(Arrays.asList(getValue(null, Time.valueOf("09:01:00")), getValue(null, null)));
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] { null, TimeValue.parse("09:01") },
+                                                                ValuesMultiset.Equality.TIME)).isEqualTo(-1);
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, new Object[] { null, null },
+                                                                ValuesMultiset.Equality.TIME)).isEqualTo(1);
+  }
+
+  /**
+   * This method tests the {@code getIndexOfMissingValue} method with many duplicated values.
+   */
+  @Test
+  public void test_get_index_of_missing_value_with_duplicates() throws Exception {
+    List<Value> list = new ArrayList<>();
+    Object[] expected = new Object[10000];
+    for (int i = 0; i < expected.length; i++) {
+      list.add(getValue(null, "text" + (i % 10)));
+      expected[expected.length - 1 - i] = "text" + (i % 10);
+    }
+
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, expected, ValuesMultiset.Equality.TEXT))
+              .isEqualTo(-1);
+    expected[5000] = "text10";
+    Assertions.assertThat(ValuesMultiset.getIndexOfMissingValue(list, expected, ValuesMultiset.Equality.TEXT))
+              .isEqualTo(5000);
+  }
+}
@@ -766,4 +766,32 @@ public class HsqldbDatabase_Source_UIUIUI_Test extends AbstractHsqlsbTest {
                        .value("var26")
     ;
   }
+
+  @Test
+  @NeedReload
+  public void test_Changes_with_database_snapshot() {
+    Table table = new Table(source, "test");
+    Changes changes = new Changes(table).setDatabaseSnapshot(true).setStartPointNow();
+    update();
+    changes.setEndPointNow();
+
+    assertThat(changes).hasNumberOfChanges(1)
+                       .change().isModification()
+                       .rowAtStartPoint().value("var1").isEqualTo(1)
+                       .changeOfModification().hasModifiedColumns("var2");
+  }
+
+  @Test
+  @NeedReload
+  public void test_Changes_with_trigger_capture() {
+    Table table = new Table(source, "test");
+    Changes changes = new Changes(table).setTriggerCapture(true).setStartPointNow();
+    update();
+    changes.setEndPointNow();
+
+    assertThat(changes).hasNumberOfChanges(1)
+                       .change().isModification()
+                       .rowAtStartPoint().value("var1").isEqualTo(1)
+                       .changeOfModification().hasModifiedColumns("var2");
+  }
 }
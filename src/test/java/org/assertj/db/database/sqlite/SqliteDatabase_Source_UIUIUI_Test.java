@@ -715,4 +715,18 @@ public class SqliteDatabase_Source_UIUIUI_Test extends AbstractSqliteTest {
                        .value("var20").isText().isOfType(ValueType.TEXT)
     ;
   }
+
+  @Test
+  @NeedReload
+  public void test_Changes_with_database_snapshot() {
+    Table table = new Table(source, "test");
+    Changes changes = new Changes(table).setDatabaseSnapshot(true).setStartPointNow();
+    update();
+    changes.setEndPointNow();
+
+    assertThat(changes).hasNumberOfChanges(1)
+                       .change().isModification()
+                       .rowAtStartPoint().value("var1").isEqualTo(1)
+                       .changeOfModification().hasModifiedColumns("var11");
+  }
 }
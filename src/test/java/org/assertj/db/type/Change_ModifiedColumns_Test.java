@@ -0,0 +1,81 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the modified columns of {@code Change}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Change_ModifiedColumns_Test extends AbstractTest {
+
+  /**
+   * This method test the modified columns of the changes built without {@code Changes}.
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  public void test_modified_columns() throws Exception {
+    List<String> columnsNameList = Arrays.asList("ID", "NAME", "FIRSTNAME", "SALARY");
+    Row rowAtStartPoint = getRow(Arrays.asList("ID"), columnsNameList,
+                                 Arrays.asList(getValue("ID", 1), getValue("NAME", "Weaver"),
+                                               getValue("FIRSTNAME", null), getValue("SALARY", new BigDecimal("1.50"))));
+    Row rowAtEndPoint = getRow(Arrays.asList("ID"), columnsNameList,
+                               Arrays.asList(getValue("ID", 1L), getValue("NAME", "Weaverr"),
+                                             getValue("FIRSTNAME", "Sigourney"), getValue("SALARY", new BigDecimal("1.5"))));
+
+    Change change = getTableModificationChange("test", rowAtStartPoint, rowAtEndPoint);
+    assertThat(change.getIndexesOfModifiedColumns()).containsExactly(1, 2);
+    assertThat(change.getNumberOfModifiedColumns()).isEqualTo(2);
+    assertThat(change.getIndexOfNextModifiedColumn(0)).isEqualTo(1);
+    assertThat(change.getIndexOfNextModifiedColumn(2)).isEqualTo(2);
+    assertThat(change.getIndexOfNextModifiedColumn(3)).isEqualTo(-1);
+
+    change = getTableCreationChange("test", rowAtStartPoint);
+    assertThat(change.getIndexesOfModifiedColumns()).containsExactly(0, 1, 3);
+    assertThat(change.getNumberOfModifiedColumns()).isEqualTo(3);
+  }
+
+  /**
+   * This method test that the modified columns are computed during the detection of the modification.
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  @NeedReload
+  public void test_modified_columns_computed_by_changes() throws Exception {
+    Changes changes = new Changes(new Table(source, "movie"));
+    changes.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+
+    Field field = Change.class.getDeclaredField("modifiedColumns");
+    field.setAccessible(true);
+    List<Change> changesList = changes.getChangesOfType(ChangeType.MODIFICATION).getChangesList();
+    assertThat(changesList).hasSize(1);
+    assertThat(field.get(changesList.get(0))).isNotNull();
+    assertThat(changesList.get(0).getIndexesOfModifiedColumns()).containsExactly(1);
+  }
+}
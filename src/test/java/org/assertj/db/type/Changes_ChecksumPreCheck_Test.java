@@ -0,0 +1,199 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the checksum compared before loading again the tables in {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_ChecksumPreCheck_Test extends AbstractTest {
+
+  /**
+   * Returns a proxy which records the SQL requests executed with the object and the objects it creates.
+   *
+   * @param type The interface of the object.
+   * @param object The object.
+   * @param requestsList The list in which the requests are recorded.
+   * @return The proxy.
+   */
+  private static <T> T getRecordingProxy(Class<T> type, final Object object, final List<String> requestsList) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (args != null && args.length > 0 && args[0] instanceof String && method.getName().startsWith("execute")
+            || method.getName().equals("prepareStatement")) {
+          requestsList.add((String) args[0]);
+        }
+        Object result;
+        try {
+          result = method.invoke(object, args);
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        }
+        if (result instanceof Connection) {
+          return getRecordingProxy(Connection.class, result, requestsList);
+        }
+        if (method.getName().equals("createStatement")) {
+          return getRecordingProxy(Statement.class, result, requestsList);
+        }
+        return result;
+      }
+    }));
+  }
+
+  /**
+   * This method tests that the tables without change are not loaded again.
+   */
+  @Test
+  @NeedReload
+  public void test_tables_without_change_are_not_loaded_again() {
+    Changes changes = new Changes(source);
+    Changes changesWithChecksum = new Changes(source).setChecksumPreCheck(true);
+    assertThat(changes.isChecksumPreCheck()).isFalse();
+    assertThat(changesWithChecksum.isChecksumPreCheck()).isTrue();
+
+    changes.setStartPointNow();
+    changesWithChecksum.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+    changesWithChecksum.setEndPointNow();
+
+    List<Table> tablesAtStartPointList = changesWithChecksum.getTablesAtStartPointList();
+    List<Table> tablesAtEndPointList = changesWithChecksum.getTablesAtEndPointList();
+    for (int index = 0; index < tablesAtStartPointList.size(); index++) {
+      Table tableAtStartPoint = tablesAtStartPointList.get(index);
+      Table tableAtEndPoint = tablesAtEndPointList.get(index);
+      String name = tableAtStartPoint.getName();
+      if ("ACTOR".equals(name) || "INTERPRETATION".equals(name) || "MOVIE".equals(name)) {
+        assertThat(tableAtEndPoint).isNotSameAs(tableAtStartPoint);
+      } else {
+        assertThat(tableAtEndPoint).isSameAs(tableAtStartPoint);
+      }
+    }
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesWithChecksumList = changesWithChecksum.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesWithChecksumList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      assertThat(changesWithChecksumList.get(index).getDataName()).isEqualTo(changesList.get(index).getDataName());
+      assertThat(changesWithChecksumList.get(index).getChangeType())
+              .isEqualTo(changesList.get(index).getChangeType());
+    }
+  }
+
+  /**
+   * This method tests that a change which keeps the number of rows is seen.
+   */
+  @Test
+  @NeedReload
+  public void test_change_with_same_number_of_rows() {
+    Changes changes = new Changes(new Table(source, "test"), new Table(source, "test2")).setChecksumPreCheck(true);
+    changes.setStartPointNow();
+    update("update test2 set var3 = 20 where var1 = 1");
+    changes.setEndPointNow();
+
+    assertThat(changes.getTablesAtEndPointList().get(0)).isSameAs(changes.getTablesAtStartPointList().get(0));
+    assertThat(changes.getTablesAtEndPointList().get(1)).isNotSameAs(changes.getTablesAtStartPointList().get(1));
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(2);
+    assertThat(changesList.get(0).getDataName()).isEqualTo("TEST2");
+  }
+
+  /**
+   * This method tests that the checksum is not used with the digest of the tables.
+   */
+  @Test
+  @NeedReload
+  public void test_checksum_is_not_used_with_digest() {
+    Changes changes = new Changes(new Table(source, "movie")).setChecksumPreCheck(true).setDigestSnapshot(true);
+    changes.setStartPointNow();
+    changes.setEndPointNow();
+
+    assertThat(changes.getTablesAtEndPointList().get(0)).isNotSameAs(changes.getTablesAtStartPointList().get(0));
+    assertThat(changes.getChangesList()).isEmpty();
+  }
+
+  /**
+   * This method tests the checksum computed by the database on a table.
+   */
+  @Test
+  @NeedReload
+  public void test_checksum_of_table() {
+    String checksum = TableChecksum.getChecksum(new Table(source, "movie"));
+    assertThat(checksum).startsWith("3:").isEqualTo(TableChecksum.getChecksum(new Table(source, "movie")));
+
+    update("update movie set title = 'The Avatar' where id = 3");
+    assertThat(TableChecksum.getChecksum(new Table(source, "movie"))).startsWith("3:").isNotEqualTo(checksum);
+
+    update("delete from interpretation");
+    assertThat(TableChecksum.getChecksum(new Table(source, "interpretation"))).isEqualTo("0:null");
+  }
+
+  /**
+   * This method tests that the requests to load the tables without change are not executed again.
+   */
+  @Test
+  @NeedReload
+  public void test_tables_without_change_are_not_read_again() {
+    List<String> requestsList = new ArrayList<>();
+    DataSource recordingDataSource = getRecordingProxy(DataSource.class, dataSource, requestsList);
+    Table movie = new Table(recordingDataSource, "movie");
+    Table test = new Table(recordingDataSource, "test");
+    Changes changes = new Changes(movie, test).setChecksumPreCheck(true);
+    changes.setStartPointNow();
+    assertThat(requestsList).contains(movie.getRequest(), test.getRequest());
+
+    update("update movie set title = 'The Avatar' where id = 3");
+    requestsList.clear();
+    changes.setEndPointNow();
+
+    assertThat(requestsList).contains(movie.getRequest()).doesNotContain(test.getRequest());
+    assertThat(changes.getChangesList()).hasSize(1);
+  }
+
+  /**
+   * This method tests that the names are quoted in the checksum request.
+   */
+  @Test
+  @NeedReload
+  public void test_checksum_of_table_with_names_to_quote() {
+    update("create table checksumtable(id number primary key, \"value\" varchar(20))");
+    update("insert into checksumtable values(1, 'first')");
+    Table table = new Table(source, "checksumtable");
+    String checksum = TableChecksum.getChecksum(table);
+    assertThat(checksum).startsWith("1:").isEqualTo(TableChecksum.getChecksum(table));
+
+    update("update checksumtable set \"value\" = 'second'");
+    assertThat(TableChecksum.getChecksum(table)).startsWith("1:").isNotEqualTo(checksum);
+    update("drop table checksumtable");
+  }
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.assertj.db.exception.AssertJDBException;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on the snapshots of the tables loaded in one transaction in {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_ConsistentSnapshot_Test extends AbstractTest {
+
+  /**
+   * This method tests that the changes are the same with the tables loaded in one transaction.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_are_the_same_with_consistent_snapshot() throws SQLException {
+    Changes changes = new Changes(source);
+    Changes changesWithConsistentSnapshot = new Changes(dataSource).setConsistentSnapshot(true);
+    assertThat(changes.isConsistentSnapshot()).isFalse();
+    assertThat(changesWithConsistentSnapshot.isConsistentSnapshot()).isTrue();
+
+    changes.setStartPointNow();
+    changesWithConsistentSnapshot.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+    changesWithConsistentSnapshot.setEndPointNow();
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesWithConsistentSnapshotList = changesWithConsistentSnapshot.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesWithConsistentSnapshotList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      Change change = changesList.get(index);
+      Change changeWithConsistentSnapshot = changesWithConsistentSnapshotList.get(index);
+      assertThat(changeWithConsistentSnapshot.getDataName()).isEqualTo(change.getDataName());
+      assertThat(changeWithConsistentSnapshot.getChangeType()).isEqualTo(change.getChangeType());
+      assertThat(changeWithConsistentSnapshot.getPksValueList().get(0).getValue())
+              .isEqualTo(change.getPksValueList().get(0).getValue());
+    }
+
+    try (Connection connection = dataSource.getConnection()) {
+      assertThat(connection.getAutoCommit()).isTrue();
+      assertThat(connection.isReadOnly()).isFalse();
+    }
+  }
+
+  /**
+   * This method tests the consistent snapshot with tables which have different sources.
+   */
+  @Test
+  @NeedReload
+  public void test_consistent_snapshot_with_tables_with_different_sources() {
+    Source otherSource = new Source("jdbc:h2:mem:test", "sa", "");
+    Changes changes = new Changes(new Table(source, "movie"), new Table(otherSource, "actor"),
+                                  new Table(dataSource, "interpretation")).setConsistentSnapshot(true);
+
+    changes.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+
+    assertThat(changes.getChangesList()).hasSize(8);
+    assertThat(changes.getChangesOfTable("movie").getChangesList()).hasSize(2);
+    assertThat(changes.getChangesOfTable("actor").getChangesList()).hasSize(3);
+    assertThat(changes.getChangesOfTable("interpretation").getChangesList()).hasSize(3);
+  }
+
+  /**
+   * This method tests that the state of the connection is restored and that the failure of the rollback is suppressed
+   * when the loading fails.
+   */
+  @Test
+  public void test_connection_is_restored_when_loading_fails() throws SQLException {
+    final Connection connection = dataSource.getConnection();
+    try {
+      final Connection failingConnection = (Connection) Proxy.newProxyInstance(
+              getClass().getClassLoader(), new Class<?>[] { Connection.class }, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                  String name = method.getName();
+                  if (name.equals("close")) {
+                    return null;
+                  }
+                  if (name.equals("createStatement") || name.equals("prepareStatement")) {
+                    throw new SQLException("load failed");
+                  }
+                  if (name.equals("rollback")) {
+                    throw new SQLException("rollback failed");
+                  }
+                  try {
+                    return method.invoke(connection, args);
+                  } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                  }
+                }
+              });
+      DataSource failingDataSource = (DataSource) Proxy.newProxyInstance(
+              getClass().getClassLoader(), new Class<?>[] { DataSource.class }, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                  if (method.getName().equals("getConnection")) {
+                    return failingConnection;
+                  }
+                  return method.invoke(dataSource, args);
+                }
+              });
+      int transactionIsolation = connection.getTransactionIsolation();
+
+      Changes changes = new Changes(new Table(failingDataSource, "movie")).setConsistentSnapshot(true);
+      try {
+        changes.setStartPointNow();
+        fail("An exception must be raised");
+      } catch (AssertJDBException e) {
+        assertThat(e.getCause()).hasMessage("load failed");
+        assertThat(e.getCause().getSuppressed()).hasSize(1);
+        assertThat(e.getCause().getSuppressed()[0]).hasMessage("rollback failed");
+      }
+
+      assertThat(connection.getAutoCommit()).isTrue();
+      assertThat(connection.isReadOnly()).isFalse();
+      assertThat(connection.getTransactionIsolation()).isEqualTo(transactionIsolation);
+    } finally {
+      connection.close();
+    }
+  }
+}
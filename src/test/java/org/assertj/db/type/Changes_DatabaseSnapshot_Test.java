@@ -0,0 +1,231 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.assertj.db.exception.AssertJDBException;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests on the snapshots of the tables kept in the database in {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_DatabaseSnapshot_Test extends AbstractTest {
+
+  /**
+   * Returns the names of the snapshot tables in the database.
+   *
+   * @return The names of the snapshot tables.
+   */
+  private List<String> getSnapshotTablesNameList() throws SQLException {
+    List<String> tablesNameList = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection()) {
+      try (ResultSet resultSet = connection.getMetaData().getTables(null, null, "ADB_SNAP_%", null)) {
+        while (resultSet.next()) {
+          tablesNameList.add(resultSet.getString("TABLE_NAME"));
+        }
+      }
+    }
+    return tablesNameList;
+  }
+
+  /**
+   * Returns the objects of the values of a row.
+   *
+   * @param row The row.
+   * @return The objects (or {@code null} if the row is {@code null}).
+   */
+  private static List<Object> getObjectsList(Row row) {
+    if (row == null) {
+      return null;
+    }
+    List<Object> objectsList = new ArrayList<>();
+    for (Value value : row.getValuesList()) {
+      objectsList.add(value.getValue());
+    }
+    return objectsList;
+  }
+
+  /**
+   * This method tests that the changes are the same with the tables kept in the database.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_are_the_same_with_database_snapshot() throws SQLException {
+    Changes changes = new Changes(source);
+    Changes changesWithDatabaseSnapshot = new Changes(source).setDatabaseSnapshot(true);
+    assertThat(changes.isDatabaseSnapshot()).isFalse();
+    assertThat(changesWithDatabaseSnapshot.isDatabaseSnapshot()).isTrue();
+
+    changes.setStartPointNow();
+    changesWithDatabaseSnapshot.setStartPointNow();
+    // test2 has no primary key : it is loaded in memory
+    assertThat(getSnapshotTablesNameList()).hasSize(changes.getTablesList().size() - 1);
+    updateChangesForTests();
+    changes.setEndPointNow();
+    changesWithDatabaseSnapshot.setEndPointNow();
+    assertThat(getSnapshotTablesNameList()).isEmpty();
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesWithDatabaseSnapshotList = changesWithDatabaseSnapshot.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesWithDatabaseSnapshotList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      Change change = changesList.get(index);
+      Change changeWithDatabaseSnapshot = changesWithDatabaseSnapshotList.get(index);
+      assertThat(changeWithDatabaseSnapshot.getDataName()).isEqualTo(change.getDataName());
+      assertThat(changeWithDatabaseSnapshot.getChangeType()).isEqualTo(change.getChangeType());
+      assertThat(changeWithDatabaseSnapshot.getPksValueList().get(0).getValue())
+              .isEqualTo(change.getPksValueList().get(0).getValue());
+      assertThat(getObjectsList(changeWithDatabaseSnapshot.getRowAtStartPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtStartPoint()));
+      assertThat(getObjectsList(changeWithDatabaseSnapshot.getRowAtEndPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtEndPoint()));
+    }
+  }
+
+  /**
+   * This method tests that only the rows which are different are read.
+   */
+  @Test
+  @NeedReload
+  public void test_only_different_rows_are_read_with_database_snapshot() {
+    Changes changes = new Changes(new Table(source, "movie", null, new String[] { "movie_imdb" }))
+            .setDatabaseSnapshot(true);
+    changes.setStartPointNow();
+    updateChangesForTests();
+    update("update movie set movie_imdb = '16319617-AE95-4087-9264-D3D21BF611B6' where id = 1");
+    changes.setEndPointNow();
+
+    Table tableAtStartPoint = changes.getTablesAtStartPointList().get(0);
+    Table tableAtEndPoint = changes.getTablesAtEndPointList().get(0);
+    assertThat(tableAtStartPoint.getColumnsNameList()).containsExactly("ID", "TITLE", "YEAR");
+    assertThat(tableAtStartPoint.getRowsList()).hasSize(1);
+    assertThat(tableAtStartPoint.getRow(0).getColumnValue("TITLE").getValue()).isEqualTo("Avatar");
+    assertThat(tableAtEndPoint.getRowsList()).hasSize(2);
+    assertThat(tableAtEndPoint.getRow(1).getColumnValue("TITLE").getValue()).isEqualTo("Ghostbusters");
+
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(2);
+    assertThat(changesList.get(0).getChangeType()).isEqualTo(ChangeType.CREATION);
+    assertThat(changesList.get(0).getPksValueList().get(0).getValue()).isEqualTo(new BigDecimal(4));
+    assertThat(changesList.get(1).getChangeType()).isEqualTo(ChangeType.MODIFICATION);
+    assertThat(changesList.get(1).getPksValueList().get(0).getValue()).isEqualTo(new BigDecimal(3));
+  }
+
+  /**
+   * This method should fail because the snapshot tables are dropped at end point.
+   */
+  @Test
+  @NeedReload
+  public void should_fail_because_snapshot_tables_are_dropped() {
+    Changes changes = new Changes(new Table(source, "movie")).setDatabaseSnapshot(true);
+    changes.setStartPointNow();
+    changes.setEndPointNow();
+    try {
+      changes.setEndPointNow();
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("Start point must be set again (the snapshot tables are dropped at end point)");
+    }
+  }
+
+  /**
+   * This method tests that the snapshot tables are dropped when the tables change.
+   */
+  @Test
+  @NeedReload
+  public void test_snapshot_tables_are_dropped_when_tables_change() throws SQLException {
+    Changes changes = new Changes(new Table(source, "movie")).setDatabaseSnapshot(true);
+    changes.setStartPointNow();
+    assertThat(getSnapshotTablesNameList()).hasSize(1);
+    changes.setStartPointNow();
+    assertThat(getSnapshotTablesNameList()).hasSize(1);
+    changes.setTables(new Table(source, "actor"));
+    assertThat(getSnapshotTablesNameList()).isEmpty();
+  }
+
+  /**
+   * This method tests that the snapshot tables are dropped when the end point fails.
+   */
+  @Test
+  @NeedReload
+  public void test_snapshot_tables_are_dropped_when_end_point_fails() throws SQLException {
+    update("create table snaptable(id number primary key, name varchar(20))");
+    Changes changes = new Changes(new Table(source, "snaptable")).setDatabaseSnapshot(true);
+    changes.setStartPointNow();
+    assertThat(getSnapshotTablesNameList()).hasSize(1);
+    update("alter table snaptable drop column name");
+    try {
+      changes.setEndPointNow();
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getCause()).isInstanceOf(SQLException.class);
+    }
+    assertThat(getSnapshotTablesNameList()).isEmpty();
+    try {
+      changes.setEndPointNow();
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("Start point must be set again (the snapshot tables are dropped at end point)");
+    }
+    update("drop table snaptable");
+  }
+
+  /**
+   * This method tests that the requests on the snapshot tables do not use the cache of the plans to read the rows.
+   */
+  @Test
+  @NeedReload
+  @SuppressWarnings("unchecked")
+  public void test_requests_on_snapshot_tables_are_not_in_the_cache_of_plans() throws Exception {
+    Table table = new Table(source, "movie");
+    table.getRowsList();
+    Field field = RowReaderPlan.class.getDeclaredField("CACHE");
+    field.setAccessible(true);
+    Map<String, RowReaderPlan> cache = (Map<String, RowReaderPlan>) field.get(null);
+    RowReaderPlan plan;
+    synchronized (cache) {
+      plan = cache.get(table.getRequest());
+    }
+    assertThat(plan).isNotNull();
+
+    Changes changes = new Changes(new Table(source, "movie")).setDatabaseSnapshot(true);
+    changes.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+    assertThat(changes.getChangesList()).hasSize(2);
+
+    synchronized (cache) {
+      assertThat(cache.get(table.getRequest())).isSameAs(plan);
+      for (String request : cache.keySet()) {
+        assertThat(request).doesNotContain(TableSnapshot.NAME_PREFIX);
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the digest of the tables at start point in {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_DigestSnapshot_Test extends AbstractTest {
+
+  /**
+   * This method tests that the changes are the same with the digest of the tables.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_are_the_same_with_digest_snapshot() {
+    Changes changes = new Changes(source);
+    Changes changesWithDigest = new Changes(source).setDigestSnapshot(true);
+    assertThat(changes.isDigestSnapshot()).isFalse();
+    assertThat(changesWithDigest.isDigestSnapshot()).isTrue();
+
+    changes.setStartPointNow();
+    changesWithDigest.setStartPointNow();
+    assertThat(changesWithDigest.getTablesAtStartPointList()).isNull();
+    updateChangesForTests();
+    changes.setEndPointNow();
+    changesWithDigest.setEndPointNow();
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesWithDigestList = changesWithDigest.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesWithDigestList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      Change change = changesList.get(index);
+      Change changeWithDigest = changesWithDigestList.get(index);
+      assertThat(changeWithDigest.getDataName()).isEqualTo(change.getDataName());
+      assertThat(changeWithDigest.getChangeType()).isEqualTo(change.getChangeType());
+      assertThat(changeWithDigest.getPksValueList().get(0).getValue())
+              .isEqualTo(change.getPksValueList().get(0).getValue());
+    }
+  }
+
+  /**
+   * This method tests the values of a modified row rebuilt from the digest.
+   */
+  @Test
+  @NeedReload
+  public void test_values_of_modified_row_with_digest_snapshot() {
+    Changes changes = new Changes(new Table(source, "movie")).setDigestSnapshot(true);
+    changes.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(2);
+    Change change = changesList.get(1);
+    assertThat(change.getChangeType()).isEqualTo(ChangeType.MODIFICATION);
+    Row rowAtStartPoint = change.getRowAtStartPoint();
+    Row rowAtEndPoint = change.getRowAtEndPoint();
+    assertThat(rowAtStartPoint.getColumnValue("ID").getValue()).isEqualTo(new BigDecimal(3));
+    assertThat(rowAtStartPoint.getColumnValue("TITLE").getValue()).isNull();
+    assertThat(rowAtStartPoint.getColumnValue("YEAR").getValue()).isEqualTo(new BigDecimal(2009));
+    assertThat(rowAtEndPoint.getColumnValue("TITLE").getValue()).isEqualTo("The Avatar");
+  }
+
+  /**
+   * This method tests that a table without primary key is kept entirely with the digest.
+   */
+  @Test
+  @NeedReload
+  public void test_table_without_primary_key_with_digest_snapshot() {
+    Changes changes = new Changes(new Table(source, "test2")).setDigestSnapshot(true);
+    changes.setStartPointNow();
+    update("update test2 set var1 = 1000 where var1 = 1");
+    changes.setEndPointNow();
+
+    assertThat(changes.getTablesAtStartPointList().get(0).getRowsList()).hasSize(2);
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(2);
+    assertThat(changesList.get(0).getChangeType()).isEqualTo(ChangeType.CREATION);
+    assertThat(changesList.get(1).getChangeType()).isEqualTo(ChangeType.DELETION);
+  }
+
+  /**
+   * This method tests that the modifications are found with the digest when the values have the same hash code
+   * ({@code "Aa"} and {@code "BB"}, or two {@code double}s with the same {@code float} value).
+   */
+  @Test
+  @NeedReload
+  public void test_modifications_of_values_with_same_hash_code_with_digest_snapshot() {
+    update("create table digesttable(id number primary key, name varchar(20), amount double)");
+    update("insert into digesttable values(1, 'Aa', 1.00000001)");
+    update("insert into digesttable values(2, 'Aa', 1.00000001)");
+    update("insert into digesttable values(3, 'Aa', 1.00000001)");
+    Changes changes = new Changes(new Table(source, "digesttable")).setDigestSnapshot(true);
+    changes.setStartPointNow();
+    update("update digesttable set name = 'BB' where id = 1");
+    update("update digesttable set amount = 1.00000002 where id = 2");
+    update("update digesttable set name = 'BB', amount = 1.00000002 where id = 3");
+    changes.setEndPointNow();
+
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(3);
+    for (Change change : changesList) {
+      assertThat(change.getChangeType()).isEqualTo(ChangeType.MODIFICATION);
+    }
+    assertThat(changesList.get(0).getIndexesOfModifiedColumns()).containsExactly(1);
+    assertThat(changesList.get(0).getRowAtStartPoint().getColumnValue("AMOUNT").getValue()).isEqualTo(1.00000001);
+    assertThat(changesList.get(1).getIndexesOfModifiedColumns()).containsExactly(2);
+    assertThat(changesList.get(1).getRowAtStartPoint().getColumnValue("NAME").getValue()).isEqualTo("Aa");
+    assertThat(changesList.get(2).getIndexesOfModifiedColumns()).containsExactly(1, 2);
+    update("drop table digesttable");
+  }
+
+  /**
+   * This method tests that the modification of a value to {@code null} is found with the digest (the value at start
+   * point is unknown, not {@code null}).
+   */
+  @Test
+  @NeedReload
+  public void test_modification_to_null_with_digest_snapshot() {
+    update("create table digestnulltable(id number primary key, name varchar(20), amount double)");
+    update("insert into digestnulltable values(1, 'Aa', 1.5)");
+    update("insert into digestnulltable values(2, 'Bb', 2.5)");
+    Changes changes = new Changes(new Table(source, "digestnulltable"));
+    Changes changesWithDigest = new Changes(new Table(source, "digestnulltable")).setDigestSnapshot(true);
+    changes.setStartPointNow();
+    changesWithDigest.setStartPointNow();
+    update("update digestnulltable set name = null where id = 1");
+    changes.setEndPointNow();
+    changesWithDigest.setEndPointNow();
+
+    assertThat(changes.getChangesList()).hasSize(1);
+    List<Change> changesList = changesWithDigest.getChangesList();
+    assertThat(changesList).hasSize(1);
+    Change change = changesList.get(0);
+    assertThat(change.getChangeType()).isEqualTo(ChangeType.MODIFICATION);
+    assertThat(change.getIndexesOfModifiedColumns()).containsExactly(1);
+    assertThat(change.getRowAtStartPoint().getColumnValue("AMOUNT").getValue()).isEqualTo(1.5);
+    assertThat(change.getRowAtEndPoint().getColumnValue("NAME").getValue()).isNull();
+    update("drop table digestnulltable");
+  }
+}
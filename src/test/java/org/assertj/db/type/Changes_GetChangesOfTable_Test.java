@@ -143,4 +143,27 @@ public class Changes_GetChangesOfTable_Test extends AbstractTest {
     assertThat(changesRequest.getChangesOfTable("movie").getChangesList()).hasSize(0);
   }
 
+
+  /**
+   * This method test that the changes of table and of type share the index of the changes.
+   */
+  @Test
+  @NeedReload
+  public void test_getChangesOfTable_shares_the_index() {
+    Changes changes = new Changes(source).setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+
+    assertThat(changes.getChangesList()).isSameAs(changes.getChangesList());
+    Changes changesActor = changes.getChangesOfTable("actor");
+    assertThat(changesActor.getChangesList()).isSameAs(changes.getChangesOfTable("ACTOR").getChangesList());
+    assertThat(changes.getChangesList()).containsAll(changesActor.getChangesList());
+
+    Changes changesActorOfCreation = changesActor.getChangesOfType(ChangeType.CREATION);
+    assertThat(changesActorOfCreation.getChangesList()).hasSize(1);
+    assertThat(changesActorOfCreation.getChangesList())
+            .isSameAs(changes.getChangesOfType(ChangeType.CREATION).getChangesOfTable("actor").getChangesList());
+    assertThat(changesActorOfCreation.getChangesOfType(ChangeType.DELETION).getChangesList()).isEmpty();
+    assertThat(changes.getChangesOfTable("unknown").getChangesList()).isEmpty();
+  }
 }
@@ -0,0 +1,82 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.assertj.db.exception.AssertJDBException;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the snapshots of the tables loaded concurrently in {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_Parallelism_Test extends AbstractTest {
+
+  /**
+   * This method tests that the changes are the same with the tables loaded sequentially and concurrently.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_are_the_same_with_parallelism() {
+    Changes changes = new Changes(source);
+    Changes changesWithParallelism = new Changes(source).setParallelism(3);
+    assertThat(changes.getParallelism()).isEqualTo(1);
+    assertThat(changesWithParallelism.getParallelism()).isEqualTo(3);
+
+    changes.setStartPointNow();
+    changesWithParallelism.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+    changesWithParallelism.setEndPointNow();
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesWithParallelismList = changesWithParallelism.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesWithParallelismList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      Change change = changesList.get(index);
+      Change changeWithParallelism = changesWithParallelismList.get(index);
+      assertThat(changeWithParallelism.getDataName()).isEqualTo(change.getDataName());
+      assertThat(changeWithParallelism.getChangeType()).isEqualTo(change.getChangeType());
+      assertThat(changeWithParallelism.getPksValueList()).hasSameSizeAs(change.getPksValueList());
+      for (int index1 = 0; index1 < change.getPksValueList().size(); index1++) {
+        assertThat(changeWithParallelism.getPksValueList().get(index1).getValue())
+                .isEqualTo(change.getPksValueList().get(index1).getValue());
+      }
+    }
+  }
+
+  /**
+   * This method should fail because a table does not exist.
+   */
+  @Test(expected = AssertJDBException.class)
+  public void should_fail_because_table_does_not_exist() {
+    Changes changes = new Changes(new Table(source, "movie"), new Table(source, "unknown")).setParallelism(2);
+    changes.setStartPointNow();
+  }
+
+  /**
+   * This method should fail because the parallelism is less than 1.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_because_parallelism_is_less_than_one() {
+    new Changes(source).setParallelism(0);
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.assertj.db.exception.AssertJDBException;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests on the start point of {@code Changes} written in a snapshot file.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_StartPointSnapshot_Test extends AbstractTest {
+
+  /**
+   * Returns the objects of the values of a row.
+   *
+   * @param row The row.
+   * @return The objects (or {@code null} if the row is {@code null}).
+   */
+  private static List<Object> getObjectsList(Row row) {
+    if (row == null) {
+      return null;
+    }
+    List<Object> objectsList = new ArrayList<>();
+    for (Value value : row.getValuesList()) {
+      Object object = value.getValue();
+      objectsList.add(object instanceof byte[] ? new String((byte[]) object) : object);
+    }
+    return objectsList;
+  }
+
+  /**
+   * Returns a new temporary file.
+   *
+   * @return The file.
+   * @throws IOException I/O Exception.
+   */
+  private static File createFile() throws IOException {
+    File file = File.createTempFile("assertj-db-test-", ".snapshot");
+    file.deleteOnExit();
+    return file;
+  }
+
+  /**
+   * This method tests that the changes are the same with a start point read from a snapshot file.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_are_the_same_with_start_point_from_snapshot() throws IOException {
+    File file = createFile();
+    Changes changes = new Changes(source).setStartPointNow();
+    assertThat(changes.writeStartPointSnapshot(file)).isSameAs(changes);
+    updateChangesForTests();
+    changes.setEndPointNow();
+
+    // The tables are the tables in the file
+    Changes changesFromSnapshot = new Changes(source);
+    assertThat(changesFromSnapshot.setStartPointFromSnapshot(file)).isSameAs(changesFromSnapshot);
+    changesFromSnapshot.setEndPointNow();
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesFromSnapshotList = changesFromSnapshot.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesFromSnapshotList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      Change change = changesList.get(index);
+      Change changeFromSnapshot = changesFromSnapshotList.get(index);
+      assertThat(changeFromSnapshot.getDataName()).isEqualTo(change.getDataName());
+      assertThat(changeFromSnapshot.getChangeType()).isEqualTo(change.getChangeType());
+      assertThat(getObjectsList(changeFromSnapshot.getRowAtStartPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtStartPoint()));
+      assertThat(getObjectsList(changeFromSnapshot.getRowAtEndPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtEndPoint()));
+    }
+  }
+
+  /**
+   * This method tests the start point of a request read from a snapshot file.
+   */
+  @Test
+  @NeedReload
+  public void test_request_start_point_from_snapshot() throws IOException {
+    File file = createFile();
+    Request request = new Request(source, "select * from actor").setPksName("ID");
+    new Changes(request).setStartPointNow().writeStartPointSnapshot(file);
+    updateChangesForTests();
+
+    Changes changes = new Changes(request).setStartPointFromSnapshot(file).setEndPointNow();
+    assertThat(changes.getChangesList()).hasSize(3);
+  }
+
+  /**
+   * This method should fail because the start point is not in memory.
+   */
+  @Test
+  public void should_fail_because_start_point_is_not_in_memory() throws IOException {
+    File file = createFile();
+    Changes changes = new Changes(source).setDigestSnapshot(true).setStartPointNow();
+    try {
+      changes.writeStartPointSnapshot(file);
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("Start point must be in memory to be written");
+    }
+  }
+
+  /**
+   * This method should fail because the table is not in the snapshot file.
+   */
+  @Test
+  public void should_fail_because_table_is_not_in_snapshot() throws IOException {
+    File file = createFile();
+    new Changes(new Table(source, "movie")).setStartPointNow().writeStartPointSnapshot(file);
+    try {
+      new Changes(new Table(source, "actor")).setStartPointFromSnapshot(file);
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("The table ACTOR is not in the snapshot file");
+    }
+  }
+}
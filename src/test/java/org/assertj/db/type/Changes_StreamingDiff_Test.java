@@ -0,0 +1,172 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the comparison of the tables by a merge in {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_StreamingDiff_Test extends AbstractTest {
+
+  /**
+   * Returns the number of the files written by the runs.
+   *
+   * @return The number of files.
+   */
+  private static int getRunFilesNumber() {
+    String[] names = new File(System.getProperty("java.io.tmpdir")).list(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.startsWith("assertj-db-") && name.endsWith(".run");
+      }
+    });
+    return names == null ? 0 : names.length;
+  }
+
+  /**
+   * Returns the objects of the values of a row.
+   *
+   * @param row The row.
+   * @return The objects (or {@code null} if the row is {@code null}).
+   */
+  private static List<Object> getObjectsList(Row row) {
+    if (row == null) {
+      return null;
+    }
+    List<Object> objectsList = new ArrayList<>();
+    for (Value value : row.getValuesList()) {
+      objectsList.add(value.getValue());
+    }
+    return objectsList;
+  }
+
+  /**
+   * This method tests that the changes are the same with the merge.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_are_the_same_with_streaming_diff() {
+    int runFilesNumber = getRunFilesNumber();
+    Changes changes = new Changes(source);
+    Changes changesWithStreamingDiff = new Changes(source).setStreamingDiff(true);
+    assertThat(changes.isStreamingDiff()).isFalse();
+    assertThat(changesWithStreamingDiff.isStreamingDiff()).isTrue();
+
+    changes.setStartPointNow();
+    changesWithStreamingDiff.setStartPointNow();
+    // test2 has no primary key : it is loaded in memory
+    assertThat(getRunFilesNumber()).isEqualTo(runFilesNumber + changes.getTablesList().size() - 1);
+    updateChangesForTests();
+    changes.setEndPointNow();
+    changesWithStreamingDiff.setEndPointNow();
+    assertThat(getRunFilesNumber()).isEqualTo(runFilesNumber);
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesWithStreamingDiffList = changesWithStreamingDiff.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesWithStreamingDiffList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      Change change = changesList.get(index);
+      Change changeWithStreamingDiff = changesWithStreamingDiffList.get(index);
+      assertThat(changeWithStreamingDiff.getDataName()).isEqualTo(change.getDataName());
+      assertThat(changeWithStreamingDiff.getChangeType()).isEqualTo(change.getChangeType());
+      assertThat(getObjectsList(changeWithStreamingDiff.getRowAtStartPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtStartPoint()));
+      assertThat(getObjectsList(changeWithStreamingDiff.getRowAtEndPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtEndPoint()));
+    }
+  }
+
+  /**
+   * This method tests that only the rows which are different are kept.
+   */
+  @Test
+  @NeedReload
+  public void test_only_different_rows_are_kept_with_streaming_diff() {
+    Changes changes = new Changes(new Table(source, "actor", new String[] { "id", "name", "firstname" }, null))
+            .setStreamingDiff(true);
+    changes.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+
+    Table tableAtStartPoint = changes.getTablesAtStartPointList().get(0);
+    Table tableAtEndPoint = changes.getTablesAtEndPointList().get(0);
+    assertThat(tableAtStartPoint.getColumnsNameList()).containsExactly("ID", "NAME", "FIRSTNAME");
+    assertThat(tableAtStartPoint.getRowsList()).hasSize(2);
+    assertThat(tableAtStartPoint.getRow(0).getColumnValue("FIRSTNAME").getValue()).isEqualTo("Sigourney");
+    assertThat(tableAtStartPoint.getRow(1).getColumnValue("NAME").getValue()).isEqualTo("Worthington");
+    assertThat(tableAtEndPoint.getRowsList()).hasSize(2);
+    assertThat(tableAtEndPoint.getRow(0).getColumnValue("FIRSTNAME").getValue()).isEqualTo("Susan Alexandra");
+    assertThat(tableAtEndPoint.getRow(1).getColumnValue("NAME").getValue()).isEqualTo("Murray");
+
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(3);
+    assertThat(changesList.get(0).getChangeType()).isEqualTo(ChangeType.CREATION);
+    assertThat(changesList.get(0).getPksValueList().get(0).getValue()).isEqualTo(new BigDecimal(4));
+    assertThat(changesList.get(1).getChangeType()).isEqualTo(ChangeType.MODIFICATION);
+    assertThat(changesList.get(1).getPksValueList().get(0).getValue()).isEqualTo(new BigDecimal(1));
+    assertThat(changesList.get(2).getChangeType()).isEqualTo(ChangeType.DELETION);
+    assertThat(changesList.get(2).getPksValueList().get(0).getValue()).isEqualTo(new BigDecimal(3));
+  }
+
+  /**
+   * This method tests that the values of all the types are written in the run and read again.
+   */
+  @Test
+  @NeedReload
+  public void test_values_of_all_types_are_read_again_from_run() {
+    update("create table runtable(id int primary key, var1 boolean, var2 tinyint, var3 smallint, var4 bigint,"
+           + " var5 real, var6 double, var7 decimal(10, 2), var8 varchar(20), var9 binary(2), var10 date,"
+           + " var11 time, var12 timestamp, var13 uuid)");
+    update("insert into runtable values(1, true, 2, 3, 4, 5.5, 6.5, 7.25, 'text', X'0A0B', '2007-12-23',"
+           + " '09:01:02', '2007-12-23 09:01:02.123', '30B443AE-C0C9-4790-9BEC-CE1380808435')");
+    update("insert into runtable values(2, null, null, null, null, null, null, null, null, null, null, null, null,"
+           + " null)");
+    Table table = new Table(source, "runtable");
+    assertThat(table.getRowsList()).hasSize(2);
+    TableRun tableRun = TableRun.create(table);
+    assertThat(tableRun).isNotNull();
+
+    update("delete from runtable");
+    Table tableAtStartPoint = new Table(source, "runtable");
+    Table tableAtEndPoint = new Table(source, "runtable");
+    tableRun.loadDifferences(tableAtStartPoint, tableAtEndPoint);
+
+    assertThat(tableRun.isDropped()).isTrue();
+    assertThat(tableAtEndPoint.getRowsList()).isEmpty();
+    assertThat(tableAtStartPoint.getRowsList()).hasSize(2);
+    for (int index = 0; index < 2; index++) {
+      List<Object> objectsList = getObjectsList(tableAtStartPoint.getRow(index));
+      List<Object> expectedObjectsList = getObjectsList(table.getRow(index));
+      assertThat(objectsList).hasSameSizeAs(expectedObjectsList);
+      for (int columnIndex = 0; columnIndex < objectsList.size(); columnIndex++) {
+        assertThat(objectsList.get(columnIndex)).isEqualTo(expectedObjectsList.get(columnIndex));
+      }
+    }
+    update("drop table runtable");
+  }
+}
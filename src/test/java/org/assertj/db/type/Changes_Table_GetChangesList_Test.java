@@ -45,6 +45,20 @@ public class Changes_Table_GetChangesList_Test extends AbstractTest {
     assertThat(changes.getChangesList()).hasSize(0);
   }
 
+  /**
+   * This method should fail because the list of changes is unmodifiable.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  @NeedReload
+  public void should_fail_because_list_of_changes_is_unmodifiable() {
+    Changes changes = new Changes(source);
+    changes.setStartPointNow();
+    update("delete from test2 where VAR1 is null");
+    changes.setEndPointNow();
+    assertThat(changes.getChangesList()).isSameAs(changes.getChangesList());
+    changes.getChangesList().remove(0);
+  }
+
   /**
    * This method test when there is no change found because it is another table.
    * 
@@ -286,4 +300,33 @@ public class Changes_Table_GetChangesList_Test extends AbstractTest {
     assertThat(change.getRowAtStartPoint().getValuesList().get(3).getValue()).isEqualTo("Dr Grace Augustine");
     assertThat(change.getRowAtEndPoint()).isNull();
   }
+
+  /**
+   * This method test when there are creation changes of identical rows without primary key.
+   * 
+   * @throws SQLException
+   */
+  @Test
+  @NeedReload
+  public void test_when_there_is_creation_changes_of_identical_rows_without_primary_key() throws SQLException {
+    Changes changes = new Changes(new Table(source, "test2"));
+    changes.setStartPointNow();
+    update("insert into test2(VAR1, VAR12) values(200, 'identical')");
+    update("insert into test2(VAR1, VAR12) values(200, 'identical')");
+    update("delete from test2 where VAR1 is null");
+    changes.setEndPointNow();
+
+    assertThat(changes.getChangesList()).hasSize(3);
+    Change change = changes.getChangesList().get(0);
+    assertThat(change.getChangeType()).isEqualTo(ChangeType.CREATION);
+    assertThat(change.getRowAtEndPoint().getValuesList().get(0).getValue()).isEqualTo(200);
+    assertThat(change.getRowAtEndPoint().getValuesList().get(11).getValue()).isEqualTo("identical");
+    Change change1 = changes.getChangesList().get(1);
+    assertThat(change1.getChangeType()).isEqualTo(ChangeType.CREATION);
+    assertThat(change1.getRowAtEndPoint().getValuesList().get(0).getValue()).isEqualTo(200);
+    assertThat(change1.getRowAtEndPoint().getValuesList().get(11).getValue()).isEqualTo("identical");
+    Change change2 = changes.getChangesList().get(2);
+    assertThat(change2.getChangeType()).isEqualTo(ChangeType.DELETION);
+    assertThat(change2.getRowAtStartPoint().getValuesList().get(0).getValue()).isNull();
+  }
 }
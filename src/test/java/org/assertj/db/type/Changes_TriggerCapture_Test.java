@@ -0,0 +1,168 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.assertj.db.internal.H2CaptureTrigger;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the capture of the changes by triggers in {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Changes_TriggerCapture_Test extends AbstractTest {
+
+  /**
+   * Returns the names of the objects created in the database for the capture (tables and triggers).
+   *
+   * @return The names of the objects.
+   */
+  private List<String> getCaptureObjectsNameList() throws SQLException {
+    List<String> namesList = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection()) {
+      try (ResultSet resultSet = connection.getMetaData().getTables(null, null, "ADB_SNAP_%", null)) {
+        while (resultSet.next()) {
+          namesList.add(resultSet.getString("TABLE_NAME"));
+        }
+      }
+      try (ResultSet resultSet = connection.createStatement().executeQuery(
+              "SELECT TRIGGER_NAME FROM INFORMATION_SCHEMA.TRIGGERS WHERE TRIGGER_NAME LIKE 'ADB_SNAP_%'")) {
+        while (resultSet.next()) {
+          namesList.add(resultSet.getString("TRIGGER_NAME"));
+        }
+      }
+    }
+    return namesList;
+  }
+
+  /**
+   * Returns the objects of the values of a row.
+   *
+   * @param row The row.
+   * @return The objects (or {@code null} if the row is {@code null}).
+   */
+  private static List<Object> getObjectsList(Row row) {
+    if (row == null) {
+      return null;
+    }
+    List<Object> objectsList = new ArrayList<>();
+    for (Value value : row.getValuesList()) {
+      objectsList.add(value.getValue());
+    }
+    return objectsList;
+  }
+
+  /**
+   * This method tests that the changes are the same with the capture by triggers.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_are_the_same_with_trigger_capture() throws SQLException {
+    Changes changes = new Changes(source);
+    Changes changesWithTriggerCapture = new Changes(source).setTriggerCapture(true);
+    assertThat(changes.isTriggerCapture()).isFalse();
+    assertThat(changesWithTriggerCapture.isTriggerCapture()).isTrue();
+
+    changes.setStartPointNow();
+    changesWithTriggerCapture.setStartPointNow();
+    // A capture table and a trigger for each table with primary key (test2 has no primary key)
+    assertThat(getCaptureObjectsNameList()).hasSize(2 * (changes.getTablesList().size() - 1));
+    updateChangesForTests();
+    changes.setEndPointNow();
+    changesWithTriggerCapture.setEndPointNow();
+    assertThat(getCaptureObjectsNameList()).isEmpty();
+
+    List<Change> changesList = changes.getChangesList();
+    List<Change> changesWithTriggerCaptureList = changesWithTriggerCapture.getChangesList();
+    assertThat(changesList).hasSize(8);
+    assertThat(changesWithTriggerCaptureList).hasSameSizeAs(changesList);
+    for (int index = 0; index < changesList.size(); index++) {
+      Change change = changesList.get(index);
+      Change changeWithTriggerCapture = changesWithTriggerCaptureList.get(index);
+      assertThat(changeWithTriggerCapture.getDataName()).isEqualTo(change.getDataName());
+      assertThat(changeWithTriggerCapture.getChangeType()).isEqualTo(change.getChangeType());
+      assertThat(getObjectsList(changeWithTriggerCapture.getRowAtStartPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtStartPoint()));
+      assertThat(getObjectsList(changeWithTriggerCapture.getRowAtEndPoint()))
+              .isEqualTo(getObjectsList(change.getRowAtEndPoint()));
+    }
+  }
+
+  /**
+   * This method tests that only the changed rows are read and that the first value before the changes is kept.
+   */
+  @Test
+  @NeedReload
+  public void test_only_changed_rows_are_read_with_trigger_capture() {
+    Changes changes = new Changes(new Table(source, "movie")).setTriggerCapture(true);
+    changes.setStartPointNow();
+    update("update movie set title = 'The Avatar' where id = 3");
+    update("update movie set title = 'Avatar 2' where id = 3");
+    update("update movie set title = 'Alien' where id = 1");
+    update("insert into movie values(4, 'Ghostbusters', 1984, '30B443AE-C0C9-4790-9BEC-CE1380808435')");
+    update("delete from movie where id = 4");
+    changes.setEndPointNow();
+
+    Table tableAtStartPoint = changes.getTablesAtStartPointList().get(0);
+    Table tableAtEndPoint = changes.getTablesAtEndPointList().get(0);
+    assertThat(tableAtStartPoint.getRowsList()).hasSize(2);
+    assertThat(tableAtStartPoint.getRow(1).getColumnValue("TITLE").getValue()).isEqualTo("Avatar");
+    assertThat(tableAtEndPoint.getRowsList()).hasSize(2);
+    assertThat(tableAtEndPoint.getRow(1).getColumnValue("TITLE").getValue()).isEqualTo("Avatar 2");
+
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(1);
+    assertThat(changesList.get(0).getChangeType()).isEqualTo(ChangeType.MODIFICATION);
+    assertThat(changesList.get(0).getPksValueList().get(0).getValue()).isEqualTo(new BigDecimal(3));
+  }
+
+  /**
+   * This method tests that a table without primary key is snapshot in the database if it is also set.
+   */
+  @Test
+  @NeedReload
+  public void test_trigger_capture_with_database_snapshot() {
+    Changes changes = new Changes(new Table(source, "movie"), new Table(source, "test2"))
+            .setTriggerCapture(true).setDatabaseSnapshot(true);
+    changes.setStartPointNow();
+    update("update movie set title = 'The Avatar' where id = 3");
+    update("delete from test2 where var1 = 1");
+    changes.setEndPointNow();
+
+    List<Change> changesList = changes.getChangesList();
+    assertThat(changesList).hasSize(2);
+    assertThat(changesList.get(0).getChangeType()).isEqualTo(ChangeType.MODIFICATION);
+    assertThat(changesList.get(1).getChangeType()).isEqualTo(ChangeType.DELETION);
+    assertThat(changes.getTablesAtStartPointList().get(1).getRowsList()).hasSize(2);
+  }
+
+  /**
+   * This method tests that the trigger for H2 is named with the name of its class (which is not loaded by the dialect).
+   */
+  @Test
+  public void test_name_of_the_trigger_class_for_h2() {
+    assertThat(CaptureDialect.H2_TRIGGER_CLASS_NAME).isEqualTo(H2CaptureTrigger.class.getName());
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.type.lettercase.LetterCase;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on the storage of the values by column.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class ColumnarStorage_Test {
+
+  /**
+   * This method tests that the values of each kind are the same after the storage.
+   */
+  @Test
+  public void test_values_are_the_same_after_storage() {
+    List<String> columnsNameList = Arrays.asList("BYTE", "SHORT", "INTEGER", "LONG", "BOOLEAN", "FLOAT", "DOUBLE",
+                                                 "DATE", "TIME", "TIMESTAMP", "TEXT", "OBJECT");
+    ColumnarStorage storage = new ColumnarStorage(columnsNameList, LetterCase.COLUMN_DEFAULT);
+    Timestamp timestamp = Timestamp.valueOf("2007-12-23 09:01:06.000000003");
+    Object[] row1 = { (byte) 1, (short) 2, 3, 4L, true, 5.5f, 6.5d, Date.valueOf("2007-12-23"),
+                      Time.valueOf("09:01:06"), timestamp, "text", new BigDecimal("7.5") };
+    Object[] row2 = { (byte) -1, (short) -2, -3, -4L, false, -5.5f, -6.5d, Date.valueOf("2002-07-25"),
+                      Time.valueOf("23:59:59"), Timestamp.valueOf("2002-07-25 00:00:00"), "text",
+                      UUID.fromString("30B443AE-C0C9-4790-9BEC-CE1380808435") };
+    Object[] row3 = new Object[12];
+
+    assertThat(storage.addRow(row1)).isEqualTo(0);
+    assertThat(storage.addRow(row2)).isEqualTo(1);
+    assertThat(storage.addRow(row3)).isEqualTo(2);
+    storage.trimToSize();
+
+    assertThat(storage.getRowsNumber()).isEqualTo(3);
+    for (int index = 0; index < columnsNameList.size(); index++) {
+      assertThat(storage.getObject(0, index)).isEqualTo(row1[index]);
+      assertThat(storage.getObject(1, index)).isEqualTo(row2[index]);
+      assertThat(storage.getObject(2, index)).isNull();
+    }
+    assertThat(((Timestamp) storage.getObject(0, 9)).getNanos()).isEqualTo(3);
+  }
+
+  /**
+   * This method tests that the values are still the same when the kinds in a column are different.
+   */
+  @Test
+  public void test_values_are_the_same_with_different_kinds_in_a_column() {
+    ColumnarStorage storage = new ColumnarStorage(Arrays.asList("COLUMN1", "COLUMN2"), LetterCase.COLUMN_DEFAULT);
+    storage.addRow(new Object[] { null, "text1" });
+    storage.addRow(new Object[] { 1, "text2" });
+    storage.addRow(new Object[] { 2L, "text1" });
+    storage.addRow(new Object[] { "3", 4 });
+    storage.addRow(new Object[] { null, "text2" });
+
+    assertThat(storage.getObject(0, 0)).isNull();
+    assertThat(storage.getObject(1, 0)).isEqualTo(1);
+    assertThat(storage.getObject(2, 0)).isEqualTo(2L);
+    assertThat(storage.getObject(3, 0)).isEqualTo("3");
+    assertThat(storage.getObject(4, 0)).isNull();
+    assertThat(storage.getObject(0, 1)).isEqualTo("text1");
+    assertThat(storage.getObject(1, 1)).isEqualTo("text2");
+    assertThat(storage.getObject(2, 1)).isEqualTo("text1");
+    assertThat(storage.getObject(3, 1)).isEqualTo(4);
+    assertThat(storage.getObject(4, 1)).isEqualTo("text2");
+  }
+
+  /**
+   * This method tests that the values of a row are created when they are read.
+   */
+  @Test
+  public void test_row_values_list() {
+    ColumnarStorage storage = new ColumnarStorage(Arrays.asList("ID", "NAME"), LetterCase.COLUMN_DEFAULT);
+    for (int index = 0; index < 100; index++) {
+      storage.addRow(new Object[] { index, "name" + (index % 10) });
+    }
+    storage.trimToSize();
+    storage.addRow(new Object[] { 100, "name0" });
+
+    List<Value> valuesList = storage.getRowValuesList(42);
+    assertThat(valuesList).hasSize(2);
+    assertThat(valuesList.get(0).getColumnName()).isEqualTo("ID");
+    assertThat(valuesList.get(0).getValue()).isEqualTo(42);
+    assertThat(valuesList.get(0).getValueType()).isEqualTo(ValueType.NUMBER);
+    assertThat(valuesList.get(1).getColumnName()).isEqualTo("NAME");
+    assertThat(valuesList.get(1).getValue()).isEqualTo("name2");
+    assertThat(storage.getRowValuesList(100).get(1).getValue()).isEqualTo("name0");
+  }
+
+  /**
+   * This method tests that the values of a row are created at each reading and are not kept.
+   */
+  @Test
+  public void test_row_values_list_does_not_keep_the_values_read() {
+    ColumnarStorage storage = new ColumnarStorage(Arrays.asList("ID", "TIME"), LetterCase.COLUMN_DEFAULT);
+    storage.addRow(new Object[] { 1, Timestamp.valueOf("2007-12-23 09:01:00.123456789") });
+    storage.trimToSize();
+
+    List<Value> valuesList = storage.getRowValuesList(0);
+    Value value = valuesList.get(1);
+    assertThat(valuesList.get(1)).isNotSameAs(value);
+    assertThat(valuesList.get(1).getValue()).isEqualTo(value.getValue());
+    assertThat(value.getValue()).isEqualTo(Timestamp.valueOf("2007-12-23 09:01:00.123456789"));
+  }
+
+  /**
+   * This method should fail because the index of the row is out of the bounds.
+   */
+  @Test
+  public void should_fail_because_index_of_row_is_out_of_bounds() {
+    ColumnarStorage storage = new ColumnarStorage(Arrays.asList("ID"), LetterCase.COLUMN_DEFAULT);
+    storage.addRow(new Object[] { 1 });
+    try {
+      storage.getObject(1, 0);
+      fail("An exception must be raised");
+    } catch (IndexOutOfBoundsException e) {
+      assertThat(e.getMessage()).isEqualTo("Index: 1, Size: 1");
+    }
+  }
+}
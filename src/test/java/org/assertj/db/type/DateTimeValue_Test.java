@@ -935,4 +935,33 @@ public class DateTimeValue_Test extends AbstractTest {
     assertThat(DateTimeValue.of(DateValue.of(1, 1, 1), TimeValue.of(1, 1, 1, 1)).reverse())
                             .isEqualTo(DateTimeValue.of(DateValue.of(-1, -1, -1), TimeValue.of(-1, -1, -1, -1)));
   }
+
+  /**
+   * This method tests that the {@code parse} methods keep the parsed values.
+   */
+  @Test
+  public void test_parse_from_cache() throws ParseException {
+    DateTimeValue dateTimeValue = DateTimeValue.parse("2007-12-23T09:01:06.000000003");
+    assertThat(dateTimeValue).isEqualTo(DateTimeValue.of(DateValue.of(2007, 12, 23), TimeValue.of(9, 1, 6, 3)));
+    assertThat(DateTimeValue.parse("2007-12-23T09:01:06.000000003")).isSameAs(dateTimeValue);
+    assertThat(DateValue.parse("2007-12-23")).isSameAs(DateValue.parse("2007-12-23"));
+    assertThat(TimeValue.parse("09:01")).isSameAs(TimeValue.parse("09:01"));
+    assertThat(DateTimeValue.parse("2007-12-23")).isEqualTo(DateTimeValue.of(DateValue.of(2007, 12, 23)));
+  }
+
+  /**
+   * This method should throw a {@code ParseException} because the separator of the nanoseconds is not a point.
+   */
+  @Test(expected = ParseException.class)
+  public void should_parse_fail_if_date_time_has_bad_character_on_separator_of_nanoseconds() throws ParseException {
+    DateTimeValue.parse("2007-12-23T09:01:06x000000003");
+  }
+
+  /**
+   * This method should throw a {@code ParseException} because the time is not complete.
+   */
+  @Test(expected = ParseException.class)
+  public void should_parse_fail_if_date_time_has_incomplete_time() throws ParseException {
+    DateTimeValue.parse("2007-12-23T09:01:0");
+  }
 }
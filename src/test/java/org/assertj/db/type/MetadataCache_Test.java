@@ -0,0 +1,231 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.assertj.db.type.lettercase.LetterCase;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the cache of the metadata.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class MetadataCache_Test extends AbstractTest {
+
+  /**
+   * Data source which counts the connections.
+   */
+  private static class CountingDataSource implements DataSource {
+
+    private final DataSource dataSource;
+    private int connectionsNumber;
+
+    private CountingDataSource(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      connectionsNumber++;
+      return dataSource.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      connectionsNumber++;
+      return dataSource.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+      return dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+      dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+      dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+      return dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+      return dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+      return dataSource.isWrapperFor(iface);
+    }
+  }
+
+  /**
+   * Returns a data source which counts the connections and has a cache of the metadata.
+   *
+   * @param countingDataSource The data source which counts the connections.
+   * @return The data source.
+   */
+  private static DataSourceWithLetterCase getDataSourceWithCache(CountingDataSource countingDataSource) {
+    return new DataSourceWithLetterCase(countingDataSource, LetterCase.TABLE_DEFAULT, LetterCase.COLUMN_DEFAULT,
+                                        LetterCase.PRIMARY_KEY_DEFAULT);
+  }
+
+  /**
+   * This method tests that the cache of each source is disabled by default.
+   */
+  @Test
+  public void test_cache_is_disabled_by_default() {
+    Source otherSource = new Source("jdbc:h2:mem:test", "sa", "");
+    assertThat(otherSource.getMetadataCache().isEnabled()).isFalse();
+    assertThat(otherSource.getMetadataCache().getTimeToLive()).isEqualTo(0);
+    assertThat(otherSource.getMetadataCache()).isNotSameAs(source.getMetadataCache());
+    DataSourceWithLetterCase dataSourceWithCache = getDataSourceWithCache(new CountingDataSource(dataSource));
+    assertThat(dataSourceWithCache.getMetadataCache().isEnabled()).isFalse();
+  }
+
+  /**
+   * This method tests that the metadata are not read again for the same data source when the cache is enabled.
+   */
+  @Test
+  public void test_metadata_are_read_once() {
+    CountingDataSource countingDataSource = new CountingDataSource(dataSource);
+    DataSourceWithLetterCase dataSourceWithCache = getDataSourceWithCache(countingDataSource);
+    dataSourceWithCache.getMetadataCache().setEnabled(true);
+    assertThat(dataSourceWithCache.getMetadataCache().isEnabled()).isTrue();
+
+    Table table = new Table(dataSourceWithCache, "movie");
+    int connectionsNumber = countingDataSource.connectionsNumber;
+    assertThat(connectionsNumber).isGreaterThan(0);
+    assertThat(table.getName()).isEqualTo("MOVIE");
+
+    Table otherTable = new Table(dataSourceWithCache, "movie").setColumnsToCheck(new String[] { "title" });
+    assertThat(countingDataSource.connectionsNumber).isEqualTo(connectionsNumber);
+    assertThat(otherTable.getColumnsToCheck()).containsExactly("TITLE");
+
+    table.getRowsList();
+    otherTable.getRowsList();
+    assertThat(table.getPksNameList()).containsExactly("ID");
+    assertThat(countingDataSource.connectionsNumber).isEqualTo(connectionsNumber + 2);
+
+    // The cache is scoped to the data source
+    new Table(getDataSourceWithCache(countingDataSource), "movie");
+    assertThat(countingDataSource.connectionsNumber).isEqualTo(connectionsNumber + 3);
+
+    dataSourceWithCache.getMetadataCache().invalidate();
+    new Table(dataSourceWithCache, "movie");
+    assertThat(countingDataSource.connectionsNumber).isGreaterThan(connectionsNumber + 3);
+  }
+
+  /**
+   * This method tests that the metadata are read with one connection each time when the cache is disabled, and each
+   * time it is expired when it is enabled.
+   */
+  @Test
+  public void test_metadata_are_read_when_the_cache_is_disabled_or_expired() throws InterruptedException {
+    CountingDataSource countingDataSource = new CountingDataSource(dataSource);
+    new Table(countingDataSource, "movie");
+    assertThat(countingDataSource.connectionsNumber).isEqualTo(1);
+    DataSourceWithLetterCase dataSourceWithCache = getDataSourceWithCache(countingDataSource);
+    new Table(dataSourceWithCache, "movie");
+    assertThat(countingDataSource.connectionsNumber).isEqualTo(2);
+
+    dataSourceWithCache.getMetadataCache().setEnabled(true);
+    dataSourceWithCache.getMetadataCache().setTimeToLive(1);
+    assertThat(dataSourceWithCache.getMetadataCache().getTimeToLive()).isEqualTo(1);
+    new Table(dataSourceWithCache, "movie");
+    int connectionsNumber = countingDataSource.connectionsNumber - 2;
+    assertThat(connectionsNumber).isGreaterThan(0);
+    Thread.sleep(10);
+    new Table(dataSourceWithCache, "movie");
+    assertThat(countingDataSource.connectionsNumber).isEqualTo(2 + connectionsNumber * 2);
+  }
+
+  /**
+   * This method tests that the changes of the structure of a table are seen when the cache is disabled.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_of_structure_are_seen_when_the_cache_is_disabled() {
+    update("create table newtable(id number primary key, name varchar(20))");
+    Table newTable = new Table(source, "newtable").setColumnsToCheck(new String[] { "name" });
+    assertThat(newTable.getName()).isEqualTo("NEWTABLE");
+    assertThat(newTable.getColumnsToCheck()).containsExactly("NAME");
+
+    update("alter table newtable add column firstname varchar(20)");
+    assertThat(new Table(source, "newtable").setColumnsToCheck(new String[] { "firstname" }).getColumnsToCheck())
+            .containsExactly("FIRSTNAME");
+    update("drop table newtable");
+  }
+
+  /**
+   * This method tests that a new table is found and that the stale metadata are refreshed by the invalidation and by
+   * the start point of a {@code Changes} when the cache is enabled.
+   */
+  @Test
+  @NeedReload
+  public void test_stale_metadata_are_refreshed() {
+    Source sourceWithCache = new Source("jdbc:h2:mem:test", "sa", "");
+    sourceWithCache.getMetadataCache().setEnabled(true);
+    Table table = new Table(sourceWithCache, "movie");
+    assertThat(table.getName()).isEqualTo("MOVIE");
+
+    update("create table newtable(id number primary key, name varchar(20))");
+    Table newTable = new Table(sourceWithCache, "newtable").setColumnsToCheck(new String[] { "name" });
+    assertThat(newTable.getName()).isEqualTo("NEWTABLE");
+    assertThat(newTable.getColumnsToCheck()).containsExactly("NAME");
+
+    update("alter table newtable add column firstname varchar(20)");
+    sourceWithCache.getMetadataCache().invalidate();
+    assertThat(new Table(sourceWithCache, "newtable").setColumnsToCheck(new String[] { "firstname" })
+                       .getColumnsToCheck()).containsExactly("FIRSTNAME");
+
+    update("alter table newtable add column lastname varchar(20)");
+    new Changes(new Table(sourceWithCache, "newtable")).setStartPointNow();
+    assertThat(new Table(sourceWithCache, "newtable").setColumnsToCheck(new String[] { "lastname" })
+                       .getColumnsToCheck()).containsExactly("LASTNAME");
+    update("drop table newtable");
+  }
+
+  /**
+   * This method should fail because the time to live is negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_because_time_to_live_is_negative() {
+    new Source("jdbc:h2:mem:test", "sa", "").getMetadataCache().setTimeToLive(-1);
+  }
+}
@@ -0,0 +1,203 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on the pool of connections of {@code PooledSource}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class PooledSource_Test extends AbstractTest {
+
+  /**
+   * This method tests that the connections are reused by the {@code Table}s and the {@code Changes}.
+   */
+  @Test
+  @NeedReload
+  public void test_connections_are_reused() {
+    try (PooledSource pooledSource = new PooledSource("jdbc:h2:mem:test", "sa", "", 2)) {
+      assertThat(pooledSource.getMaxPoolSize()).isEqualTo(2);
+      assertThat(pooledSource.getIdleTimeout()).isEqualTo(PooledSource.DEFAULT_IDLE_TIMEOUT);
+
+      Table table = new Table(pooledSource, "movie");
+      assertThat(table.getRowsList()).hasSize(3);
+      assertThat(new Table(pooledSource, "actor").getRowsList()).hasSize(3);
+
+      Changes changes = new Changes(pooledSource);
+      changes.setStartPointNow();
+      updateChangesForTests();
+      changes.setEndPointNow();
+      assertThat(changes.getChangesList()).hasSize(8);
+
+      assertThat(pooledSource.getOpenedConnectionsNumber()).isBetween(1, 2);
+    }
+  }
+
+  /**
+   * This method tests the connection given by the pool.
+   */
+  @Test
+  public void test_pooled_connection() throws SQLException {
+    try (PooledSource pooledSource = new PooledSource("jdbc:h2:mem:test", "sa", "", 2)) {
+      Connection connection = pooledSource.getConnection();
+      Connection otherConnection = pooledSource.getConnection();
+      assertThat(connection).isEqualTo(connection).isNotEqualTo(otherConnection);
+      assertThat(connection.hashCode()).isEqualTo(connection.hashCode());
+      assertThat(connection.toString()).startsWith("Pooled ");
+      assertThat(connection.isClosed()).isFalse();
+      connection.setAutoCommit(false);
+
+      connection.close();
+      connection.close();
+      otherConnection.close();
+      assertThat(connection.isClosed()).isTrue();
+      try {
+        connection.getAutoCommit();
+        fail("An exception must be raised");
+      } catch (SQLException e) {
+        assertThat(e.getMessage()).isEqualTo("Connection is closed");
+      }
+
+      try (Connection reusedConnection = pooledSource.getConnection()) {
+        assertThat(reusedConnection.getAutoCommit()).isTrue();
+      }
+      assertThat(pooledSource.getOpenedConnectionsNumber()).isEqualTo(2);
+    }
+  }
+
+  /**
+   * This method tests that the state of a connection at its opening is restored when it is given back to the pool.
+   */
+  @Test
+  public void test_state_of_connection_is_restored() throws SQLException {
+    try (PooledSource pooledSource = new PooledSource("jdbc:h2:mem:test", "sa", "", 1)) {
+      int transactionIsolation;
+      try (Connection connection = pooledSource.getConnection()) {
+        transactionIsolation = connection.getTransactionIsolation();
+        assertThat(transactionIsolation).isNotEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setReadOnly(true);
+        connection.setAutoCommit(false);
+      }
+
+      try (Connection reusedConnection = pooledSource.getConnection()) {
+        assertThat(reusedConnection.getAutoCommit()).isTrue();
+        assertThat(reusedConnection.isReadOnly()).isFalse();
+        assertThat(reusedConnection.getTransactionIsolation()).isEqualTo(transactionIsolation);
+      }
+      assertThat(pooledSource.getOpenedConnectionsNumber()).isEqualTo(1);
+    }
+  }
+
+  /**
+   * This method tests that the invalid and the idle connections are closed.
+   */
+  @Test
+  public void test_invalid_and_idle_connections_are_closed() throws Exception {
+    try (PooledSource pooledSource = new PooledSource("jdbc:h2:mem:test", "sa", "", null, null, null,
+                                                      LoadOptions.DEFAULT, 2, 0)) {
+      Connection connection = pooledSource.getConnection();
+      Connection physicalConnection = connection.unwrap(Connection.class);
+      connection.close();
+      physicalConnection.close();
+      try (Connection newConnection = pooledSource.getConnection()) {
+        assertThat(newConnection.unwrap(Connection.class)).isNotSameAs(physicalConnection);
+      }
+      assertThat(pooledSource.getOpenedConnectionsNumber()).isEqualTo(1);
+
+      Connection otherConnection = pooledSource.getConnection();
+      otherConnection.unwrap(Connection.class).close();
+      otherConnection.close();
+      assertThat(pooledSource.getOpenedConnectionsNumber()).isEqualTo(0);
+    }
+
+    try (PooledSource pooledSource = new PooledSource("jdbc:h2:mem:test", "sa", "", null, null, null,
+                                                      LoadOptions.DEFAULT, 2, 1)) {
+      Connection connection = pooledSource.getConnection();
+      Connection physicalConnection = connection.unwrap(Connection.class);
+      connection.close();
+      Thread.sleep(10);
+      try (Connection newConnection = pooledSource.getConnection()) {
+        assertThat(newConnection.unwrap(Connection.class)).isNotSameAs(physicalConnection);
+      }
+      assertThat(physicalConnection.isClosed()).isTrue();
+      assertThat(pooledSource.getOpenedConnectionsNumber()).isEqualTo(1);
+    }
+  }
+
+  /**
+   * This method tests that the pool waits for a connection when they are all used.
+   */
+  @Test
+  public void test_waiting_for_a_connection() throws Exception {
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try (final PooledSource pooledSource = new PooledSource("jdbc:h2:mem:test", "sa", "", 1)) {
+      Connection connection = pooledSource.getConnection();
+      Future<Connection> future = executorService.submit(new Callable<Connection>() {
+        @Override
+        public Connection call() throws SQLException {
+          return pooledSource.getConnection();
+        }
+      });
+      Thread.sleep(50);
+      assertThat(future.isDone()).isFalse();
+      connection.close();
+      Connection otherConnection = future.get(5, TimeUnit.SECONDS);
+      assertThat(otherConnection.isClosed()).isFalse();
+
+      pooledSource.close();
+      otherConnection.close();
+      assertThat(pooledSource.getOpenedConnectionsNumber()).isEqualTo(0);
+      try {
+        pooledSource.getConnection();
+        fail("An exception must be raised");
+      } catch (SQLException e) {
+        assertThat(e.getMessage()).isEqualTo("The pool is closed");
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  /**
+   * This method should fail because the maximum number of connections is less than 1.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_because_max_pool_size_is_less_than_one() {
+    new PooledSource("jdbc:h2:mem:test", "sa", "", 0);
+  }
+
+  /**
+   * This method should fail because the idle timeout is negative.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_because_idle_timeout_is_negative() {
+    new PooledSource("jdbc:h2:mem:test", "sa", "", null, null, null, LoadOptions.DEFAULT, 1, -1);
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.type.lettercase.LetterCase;
+import org.junit.Test;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the plan to read the rows from a {@code ResultSet}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class RowReaderPlan_GetPlan_Test extends AbstractTest {
+
+  /**
+   * This method tests that the plan is reused for the same request and the same columns.
+   */
+  @Test
+  public void test_plan_is_reused_for_the_same_request() throws SQLException {
+    String request = "SELECT ID, TITLE FROM MOVIE ORDER BY ID";
+    try (Connection connection = dataSource.getConnection();
+         Statement statement = connection.createStatement()) {
+
+      RowReaderPlan plan;
+      try (ResultSet resultSet = statement.executeQuery(request)) {
+        plan = RowReaderPlan.getPlan(request, resultSet.getMetaData(), Arrays.asList("ID", "TITLE"),
+                                     LetterCase.COLUMN_DEFAULT);
+      }
+      try (ResultSet resultSet = statement.executeQuery(request)) {
+        assertThat(RowReaderPlan.getPlan(request, resultSet.getMetaData(), Arrays.asList("ID", "TITLE"),
+                                         LetterCase.COLUMN_DEFAULT)).isSameAs(plan);
+        assertThat(RowReaderPlan.getPlan(request, resultSet.getMetaData(), Arrays.asList("TITLE"),
+                                         LetterCase.COLUMN_DEFAULT)).isNotSameAs(plan);
+      }
+    }
+  }
+
+  /**
+   * This method tests that the plan is not used when the columns of the {@code ResultSet} are different.
+   */
+  @Test
+  public void test_plan_is_not_usable_for_other_columns() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+         Statement statement = connection.createStatement()) {
+
+      RowReaderPlan plan;
+      try (ResultSet resultSet = statement.executeQuery("SELECT ID, TITLE FROM MOVIE")) {
+        plan = RowReaderPlan.getPlan("SELECT ID, TITLE FROM MOVIE", resultSet.getMetaData(),
+                                     Arrays.asList("ID", "TITLE"), LetterCase.COLUMN_DEFAULT);
+      }
+      try (ResultSet resultSet = statement.executeQuery("SELECT ID, YEAR AS TITLE FROM MOVIE")) {
+        assertThat(plan.isUsableFor(resultSet.getMetaData(), Arrays.asList("ID", "TITLE"),
+                                    LetterCase.COLUMN_DEFAULT)).isFalse();
+      }
+      try (ResultSet resultSet = statement.executeQuery("SELECT ID FROM MOVIE")) {
+        assertThat(plan.isUsableFor(resultSet.getMetaData(), Arrays.asList("ID", "TITLE"),
+                                    LetterCase.COLUMN_DEFAULT)).isFalse();
+      }
+      try (ResultSet resultSet = statement.executeQuery("SELECT ID, TITLE FROM MOVIE")) {
+        assertThat(plan.isUsableFor(resultSet.getMetaData(), Arrays.asList("ID", "TITLE"),
+                                    LetterCase.TABLE_DEFAULT)).isFalse();
+      }
+    }
+  }
+
+  /**
+   * This method tests the reading of the values with the plan.
+   */
+  @Test
+  public void test_read_values() throws SQLException {
+    String request = "SELECT var1, var8, var9, var10, var12 FROM test WHERE var1 = 1";
+    try (Connection connection = dataSource.getConnection();
+         Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(request)) {
+
+      RowReaderPlan plan = RowReaderPlan.getPlan(request, resultSet.getMetaData(),
+                                                 Arrays.asList("VAR12", "VAR10", "VAR9", "VAR8"),
+                                                 LetterCase.COLUMN_DEFAULT);
+      assertThat(resultSet.next()).isTrue();
+      List<Value> valuesList = plan.readValues(resultSet);
+      assertThat(valuesList).hasSize(4);
+      assertThat(valuesList.get(0).getColumnName()).isEqualTo("VAR12");
+      assertThat(valuesList.get(0).getValue()).isEqualTo("text");
+      assertThat(valuesList.get(1).getValue()).isEqualTo(Timestamp.valueOf("2014-05-24 09:46:30"));
+      assertThat(valuesList.get(2).getValue()).isEqualTo(Date.valueOf("2014-05-24"));
+      assertThat(valuesList.get(3).getValue()).isEqualTo(Time.valueOf("09:46:30"));
+    }
+  }
+
+  /**
+   * This method should fail because the column is not in the {@code ResultSet}.
+   */
+  @Test(expected = SQLException.class)
+  public void should_fail_because_column_is_not_found() throws SQLException {
+    String request = "SELECT ID FROM MOVIE";
+    try (Connection connection = dataSource.getConnection();
+         Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(request)) {
+
+      RowReaderPlan.getPlan(request, resultSet.getMetaData(), Arrays.asList("NOT_FOUND"), LetterCase.COLUMN_DEFAULT);
+    }
+  }
+
+  /**
+   * This method tests the reader got for each SQL type.
+   */
+  @Test
+  public void test_column_reader_of_type() {
+    assertThat(RowReaderPlan.ColumnReader.of(Types.DATE)).isEqualTo(RowReaderPlan.ColumnReader.DATE);
+    assertThat(RowReaderPlan.ColumnReader.of(Types.TIME)).isEqualTo(RowReaderPlan.ColumnReader.TIME);
+    assertThat(RowReaderPlan.ColumnReader.of(Types.TIMESTAMP)).isEqualTo(RowReaderPlan.ColumnReader.TIMESTAMP);
+    assertThat(RowReaderPlan.ColumnReader.of(Types.BLOB)).isEqualTo(RowReaderPlan.ColumnReader.BYTES);
+    assertThat(RowReaderPlan.ColumnReader.of(Types.CLOB)).isEqualTo(RowReaderPlan.ColumnReader.STRING);
+    assertThat(RowReaderPlan.ColumnReader.of(Types.INTEGER)).isEqualTo(RowReaderPlan.ColumnReader.OBJECT);
+    assertThat(RowReaderPlan.ColumnReader.valueOf("OBJECT")).isEqualTo(RowReaderPlan.ColumnReader.OBJECT);
+  }
+}
@@ -16,6 +16,7 @@ import org.assertj.db.common.AbstractTest;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -54,4 +55,20 @@ public class Row_GetPksValues_Test extends AbstractTest {
     assertThat(primaryKeysValue[1].getValue()).isEqualTo("val1");
   }
 
+  /**
+   * This method test that the rows of a data share their schema, even when the primary keys are changed.
+   */
+  @Test
+  public void test_when_getprimarykeysvalue_with_shared_schema() {
+    Request request = new Request(source, "select * from actor");
+    List<Row> rowsList = request.getRowsList();
+    assertThat(rowsList.get(0).getPksValues()).isEmpty();
+    assertThat(rowsList.get(1).getSchema()).isSameAs(rowsList.get(0).getSchema());
+
+    request.setPksName("name");
+    assertThat(rowsList.get(1).getSchema()).isSameAs(rowsList.get(0).getSchema());
+    assertThat(rowsList.get(0).getPksNameList()).containsExactly("name");
+    assertThat(rowsList.get(0).getPksValues()[0].getValue()).isEqualTo("Weaver");
+    assertThat(rowsList.get(1).getPksValues()[0].getValue()).isEqualTo("Phoenix");
+  }
 }
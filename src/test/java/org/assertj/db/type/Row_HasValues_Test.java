@@ -0,0 +1,103 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.type.lettercase.LetterCase;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the comparison of the values of {@code Row}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Row_HasValues_Test extends AbstractTest {
+
+  /**
+   * This method test the comparison of rows sharing the same schema.
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  public void test_has_values_with_same_schema() throws Exception {
+    List<String> columnsNameList = Arrays.asList("col1", "col2", "col3", "col4");
+    RowSchema schema = new RowSchema(null, columnsNameList, LetterCase.COLUMN_DEFAULT, LetterCase.PRIMARY_KEY_DEFAULT);
+
+    Row row1 = new Row(schema, Arrays.asList(getValue(null, null), getValue(null, 1), getValue(null, "text"),
+                                             getValue(null, new BigDecimal("1.50"))));
+    Row row2 = new Row(schema, Arrays.asList(getValue(null, 1.5d), getValue(null, 1), getValue(null, "text"),
+                                             getValue(null, new BigDecimal("1.5"))));
+    Row row3 = new Row(schema, Arrays.asList(getValue(null, null), getValue(null, 1L), getValue(null, "text"),
+                                             getValue(null, 1.5d)));
+
+    assertThat(row1.hasValues(row2)).isFalse();
+    assertThat(row2.hasValues(row1)).isFalse();
+    assertThat(row1.hasValues(row3)).isTrue();
+    assertThat(row3.hasValues(row1)).isTrue();
+  }
+
+  /**
+   * This method test the comparison of rows with objects of different classes in the same column (the equality is
+   * chosen for each comparison, not from the first row).
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  public void test_has_values_with_different_classes_in_column() throws Exception {
+    List<String> columnsNameList = Arrays.asList("col1", "col2");
+    RowSchema schema = new RowSchema(null, columnsNameList, LetterCase.COLUMN_DEFAULT, LetterCase.PRIMARY_KEY_DEFAULT);
+
+    Row row1 = new Row(schema, Arrays.asList(getValue(null, 1), getValue(null, 1.5f)));
+    Row row2 = new Row(schema, Arrays.asList(getValue(null, 1L), getValue(null, 1.5d)));
+    Row row3 = new Row(schema, Arrays.asList(getValue(null, 2L), getValue(null, 1.5d)));
+    Row row4 = new Row(schema, Arrays.asList(getValue(null, 2L), getValue(null, 1.25d)));
+
+    assertThat(row1.hasValues(row1)).isTrue();
+    assertThat(row1.hasValues(row2)).isTrue();
+    assertThat(row2.hasValues(row1)).isTrue();
+    assertThat(row2.hasValues(row3)).isFalse();
+    assertThat(row3.hasValues(row4)).isFalse();
+    assertThat(row4.hasValues(row4)).isTrue();
+    assertThat(ValueEquality.of(1L)).isEqualTo(ValueEquality.LONG);
+    assertThat(ValueEquality.of(new Object())).isEqualTo(ValueEquality.OTHER);
+  }
+
+  /**
+   * This method test the comparison of dates and timestamps.
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  public void test_has_values_with_dates() throws Exception {
+    List<String> columnsNameList = Arrays.asList("col1", "col2");
+
+    Row row1 = getRow(null, columnsNameList, Arrays.asList(getValue(null, Date.valueOf("2007-12-23")),
+                                                           getValue(null, Timestamp.valueOf("2007-12-23 09:01:00"))));
+    Row row2 = getRow(null, columnsNameList, Arrays.asList(getValue(null, Date.valueOf("2007-12-23")),
+                                                           getValue(null, Timestamp.valueOf("2007-12-23 09:01:00"))));
+    Row row3 = getRow(null, columnsNameList, Arrays.asList(getValue(null, Timestamp.valueOf("2007-12-23 00:00:00")),
+                                                           getValue(null, Timestamp.valueOf("2007-12-23 09:01:01"))));
+
+    assertThat(row1.hasValues(row2)).isTrue();
+    assertThat(row1.hasValues(row3)).isFalse();
+  }
+}
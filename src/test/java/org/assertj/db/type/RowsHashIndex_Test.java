@@ -0,0 +1,68 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the index of rows by the hash code of their values.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class RowsHashIndex_Test extends AbstractTest {
+
+  /**
+   * This method test the removal of the rows with the same values (like a multiset).
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  public void test_remove_row_with_same_values() throws Exception {
+    List<String> columnsNameList = Arrays.asList("col1", "col2");
+    Row row1 = getRow(null, columnsNameList, Arrays.asList(getValue(null, 1), getValue(null, "text")));
+    Row row2 = getRow(null, columnsNameList, Arrays.asList(getValue(null, 1), getValue(null, "text")));
+    Row row3 = getRow(null, columnsNameList, Arrays.asList(getValue(null, 2L), getValue(null, null)));
+    RowsHashIndex index = new RowsHashIndex(Arrays.asList(row1, row2, row3), RowsHashIndex.Key.VALUES);
+
+    Row row = getRow(null, columnsNameList, Arrays.asList(getValue(null, 1L), getValue(null, "text")));
+    assertThat(index.removeRowWithSameValues(row)).isTrue();
+    assertThat(index.removeRowWithSameValues(row)).isTrue();
+    assertThat(index.removeRowWithSameValues(row)).isFalse();
+    assertThat(index.removeRowWithSameValues(row3)).isTrue();
+    assertThat(index.removeRowWithSameValues(row3)).isFalse();
+  }
+
+  /**
+   * This method test that all the rows are candidates when the types of the values are different.
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  public void test_candidate_rows_with_different_types() throws Exception {
+    List<String> columnsNameList = Arrays.asList("col1");
+    Row row1 = getRow(null, columnsNameList, Arrays.asList(getValue(null, 1)));
+    Row row2 = getRow(null, columnsNameList, Arrays.asList(getValue(null, 2)));
+    List<Row> rowsList = Arrays.asList(row1, row2);
+    RowsHashIndex index = new RowsHashIndex(rowsList, RowsHashIndex.Key.VALUES);
+
+    assertThat(index.getCandidateRows(new Value[] { getValue(null, 2L) })).containsExactly(row2);
+    assertThat(index.getCandidateRows(new Value[] { getValue(null, "2") })).isSameAs(rowsList);
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on the storage of the values by column in {@code Table}, {@code Request} and {@code Changes}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Table_ColumnarStorage_Test extends AbstractTest {
+
+  /**
+   * Asserts that the values of the rows and of the columns are the same.
+   *
+   * @param data The data loaded with the columnar storage.
+   * @param expected The data loaded without the columnar storage.
+   */
+  private static void assertThatValuesAreTheSame(AbstractDbData<?> data, AbstractDbData<?> expected) {
+    assertThat(data.isColumnarStorage()).isTrue();
+    assertThat(expected.isColumnarStorage()).isFalse();
+    assertThat(data.getColumnsNameList()).isEqualTo(expected.getColumnsNameList());
+    assertThat(data.getPksNameList()).isEqualTo(expected.getPksNameList());
+    List<Row> rowsList = data.getRowsList();
+    List<Row> expectedRowsList = expected.getRowsList();
+    assertThat(rowsList).hasSameSizeAs(expectedRowsList);
+    for (int index = 0; index < rowsList.size(); index++) {
+      List<Value> valuesList = rowsList.get(index).getValuesList();
+      List<Value> expectedValuesList = expectedRowsList.get(index).getValuesList();
+      assertThat(valuesList).hasSameSizeAs(expectedValuesList);
+      for (int index1 = 0; index1 < valuesList.size(); index1++) {
+        assertThat(valuesList.get(index1).getColumnName()).isEqualTo(expectedValuesList.get(index1).getColumnName());
+        assertThat(valuesList.get(index1).getValue()).isEqualTo(expectedValuesList.get(index1).getValue());
+      }
+    }
+    for (int index = 0; index < expected.getColumnsNameList().size(); index++) {
+      Column column = data.getColumn(index);
+      Column expectedColumn = expected.getColumn(index);
+      assertThat(column.getName()).isEqualTo(expectedColumn.getName());
+      assertThat(column.getValuesList()).hasSameSizeAs(expectedColumn.getValuesList());
+      for (int index1 = 0; index1 < column.getValuesList().size(); index1++) {
+        assertThat(column.getValuesList().get(index1).getValue())
+                .isEqualTo(expectedColumn.getValuesList().get(index1).getValue());
+      }
+    }
+  }
+
+  /**
+   * This method tests that the values of a {@code Table} are the same with the columnar storage.
+   */
+  @Test
+  public void test_table_values_are_the_same_with_columnar_storage() {
+    assertThatValuesAreTheSame(new Table(source, "test").setColumnarStorage(true), new Table(source, "test"));
+    assertThatValuesAreTheSame(new Table(source, "test2").setColumnarStorage(true), new Table(source, "test2"));
+    assertThatValuesAreTheSame(new Table(dataSource, "movie").setColumnarStorage(true),
+                               new Table(dataSource, "movie"));
+  }
+
+  /**
+   * This method tests that the values of a {@code Request} are the same with the columnar storage.
+   */
+  @Test
+  public void test_request_values_are_the_same_with_columnar_storage() {
+    String sql = "select actor.name, actor.firstname, actor.birth, interpretation.character, movie.title"
+                 + " from actor, interpretation, movie"
+                 + " where actor.id = interpretation.id_actor and movie.id = interpretation.id_movie";
+    assertThatValuesAreTheSame(new Request(source, sql).setColumnarStorage(true), new Request(source, sql));
+  }
+
+  /**
+   * This method tests that the loading and the sort of the rows with the columnar storage do not create and keep a
+   * {@code Value} for each cell.
+   */
+  @Test
+  public void test_values_are_not_materialized_after_loading_with_columnar_storage() {
+    Table table = new Table(source, "movie").setColumnarStorage(true);
+    List<Row> rowsList = table.getRowsList();
+    assertThat(rowsList).hasSize(3);
+    for (Row row : rowsList) {
+      List<Value> valuesList = row.getValuesList();
+      assertThat(valuesList).isNotInstanceOf(ArrayList.class);
+      for (int index = 0; index < valuesList.size(); index++) {
+        assertThat(valuesList.get(index)).isNotSameAs(valuesList.get(index));
+      }
+    }
+    assertThat(rowsList.get(0).getColumnValue("ID").getValue()).isEqualTo(new BigDecimal(1));
+  }
+
+  /**
+   * This method tests that the row is found from the primary keys values with the columnar storage.
+   */
+  @Test
+  public void test_getting_row_from_primary_keys_values_with_columnar_storage() throws Exception {
+    Table table = new Table(source, "movie").setColumnarStorage(true);
+    Row row = table.getRowFromPksValues(getValue(null, 2));
+    assertThat(row.getColumnValue("TITLE").getValue()).isEqualTo("The Village");
+  }
+
+  /**
+   * This method tests the changes with the columnar storage.
+   */
+  @Test
+  @NeedReload
+  public void test_changes_with_columnar_storage() {
+    Changes changes = new Changes(new Table(source, "movie").setColumnarStorage(true),
+                                  new Table(source, "test2").setColumnarStorage(true));
+    changes.setStartPointNow();
+    updateChangesForTests();
+    changes.setEndPointNow();
+
+    assertThat(changes.getChangesList()).hasSize(2);
+    assertThat(changes.getChangesOfType(ChangeType.CREATION).getChangesList().get(0).getRowAtEndPoint()
+                      .getColumnValue("TITLE").getValue()).isEqualTo("Ghostbusters");
+    assertThat(changes.getChangesOfType(ChangeType.MODIFICATION).getChangesList().get(0).getRowAtEndPoint()
+                      .getColumnValue("TITLE").getValue()).isEqualTo("The Avatar");
+  }
+}
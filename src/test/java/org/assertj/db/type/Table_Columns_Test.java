@@ -15,6 +15,8 @@ package org.assertj.db.type;
 import org.assertj.db.common.AbstractTest;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -60,4 +62,20 @@ public class Table_Columns_Test extends AbstractTest {
     assertThat(columnFromIndex.getRowValue(1).getValue()).isEqualTo("The Village");
   }
 
+  /**
+   * This method test that the columns are created when they are got and that the values are a view on the rows.
+   */
+  @Test
+  public void test_columns_are_created_when_got() {
+    Table table = new Table(source, "movie");
+
+    List<Column> columnsList = table.getColumnsList();
+    Column column = columnsList.get(1);
+
+    assertThat(columnsList).hasSize(table.getColumnsNameList().size());
+    assertThat(table.getColumn(1)).isSameAs(column);
+    assertThat(table.getColumnsList()).isSameAs(columnsList);
+    assertThat(column.getValuesList()).hasSize(3);
+    assertThat(column.getRowValue(2)).isSameAs(table.getRow(2).getColumnValue(1));
+  }
 }
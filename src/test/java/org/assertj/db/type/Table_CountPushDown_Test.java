@@ -0,0 +1,147 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.common.NeedReload;
+import org.assertj.db.exception.AssertJDBException;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.db.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on the count of the rows by the database in {@code Table} and {@code Request}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Table_CountPushDown_Test extends AbstractTest {
+
+  /**
+   * Returns if the data are loaded.
+   *
+   * @param data The data.
+   * @return {@code true} if the data are loaded.
+   * @throws Exception Exception.
+   */
+  private static boolean isLoaded(AbstractDbData<?> data) throws Exception {
+    Field field = AbstractDbData.class.getDeclaredField("rowsList");
+    field.setAccessible(true);
+    return field.get(data) != null;
+  }
+
+  /**
+   * This method tests the count of the rows of a {@code Table} by the database.
+   */
+  @Test
+  @NeedReload
+  public void test_count_of_rows_of_table() throws Exception {
+    Table table = new Table(source, "movie").setCountPushDown(true);
+    assertThat(table.isCountPushDown()).isTrue();
+    assertThat(table.getRowsNumber()).isEqualTo(3);
+    assertThat(isLoaded(table)).isFalse();
+
+    update("insert into movie values(4, 'Ghostbusters', 1984, '30B443AE-C0C9-4790-9BEC-CE1380808435')");
+    assertThat(table.getRowsNumber()).isEqualTo(4);
+    assertThat(table.getRowsList()).hasSize(4);
+    assertThat(table.getRowsNumber()).isEqualTo(4);
+
+    update("delete from movie where id = 4");
+    assertThat(table.getRowsNumber()).isEqualTo(4);
+
+    Table tableWithoutPushDown = new Table(source, "movie");
+    assertThat(tableWithoutPushDown.isCountPushDown()).isFalse();
+    assertThat(tableWithoutPushDown.getRowsNumber()).isEqualTo(3);
+    assertThat(isLoaded(tableWithoutPushDown)).isTrue();
+  }
+
+  /**
+   * This method tests the count of the rows of a {@code Request} by the database.
+   */
+  @Test
+  public void test_count_of_rows_of_request() throws Exception {
+    Request request = new Request(dataSource, "select * from movie where year > ?", 2000).setCountPushDown(true);
+    assertThat(request.getRowsNumber()).isEqualTo(2);
+    assertThat(isLoaded(request)).isFalse();
+  }
+
+  /**
+   * This method tests the assertions on the number of rows with the count by the database.
+   */
+  @Test
+  public void test_assertions_on_number_of_rows() throws Exception {
+    Table table = new Table(source, "actor").setCountPushDown(true);
+    assertThat(table).hasNumberOfRows(3)
+                     .hasNumberOfRowsGreaterThan(2)
+                     .hasNumberOfRowsLessThan(4)
+                     .hasNumberOfRowsGreaterThanOrEqualTo(3)
+                     .hasNumberOfRowsLessThanOrEqualTo(3);
+    assertThat(isLoaded(table)).isFalse();
+  }
+
+  /**
+   * This method tests the count of the rows of a {@code Request} which can not be wrapped in a sub-query : the rows
+   * are loaded to be counted.
+   */
+  @Test
+  public void test_count_of_rows_of_request_which_can_not_be_wrapped() throws Exception {
+    Request request = new Request(source, "show tables").setCountPushDown(true);
+    assertThat(request.getRowsNumber()).isGreaterThan(0);
+    assertThat(isLoaded(request)).isTrue();
+  }
+
+  /**
+   * This method should fail because the count fails for another reason than the wrapping of the request : the error
+   * is reported without loading the rows.
+   */
+  @Test
+  public void should_fail_because_count_fails() throws Exception {
+    Request request = new Request(source, "select * from movie where id = ?", "not a number").setCountPushDown(true);
+    try {
+      request.getRowsNumber();
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getCause()).isInstanceOf(SQLException.class);
+      assertThat(((SQLException) e.getCause()).getSQLState()).doesNotStartWith("42");
+      assertThat(e.getCause().getMessage()).contains("COUNT(*)");
+    }
+    assertThat(isLoaded(request)).isFalse();
+  }
+
+  /**
+   * This method should fail because the request is wrong : the rows can not be counted, so they are loaded.
+   */
+  @Test
+  public void should_fail_because_request_is_wrong() throws Exception {
+    Request request = new Request(source, "select * from unknown").setCountPushDown(true);
+    try {
+      request.getRowsNumber();
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getCause()).isNotNull();
+    }
+  }
+
+  /**
+   * This method should fail because the table does not exist.
+   */
+  @Test(expected = AssertJDBException.class)
+  public void should_fail_because_table_does_not_exist() {
+    new Table(source, "unknown").setCountPushDown(true).getRowsNumber();
+  }
+}
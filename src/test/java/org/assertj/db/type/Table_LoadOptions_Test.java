@@ -0,0 +1,137 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.type.lettercase.LetterCase;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests on the options to load the data of {@code Table} and {@code Request}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Table_LoadOptions_Test extends AbstractTest {
+
+  /**
+   * This method tests the options which are inherited from the source or the data source.
+   */
+  @Test
+  public void test_inherited_load_options() {
+    LoadOptions loadOptions = new LoadOptions(100, 10, true);
+    Source sourceWithLoadOptions = new SourceWithLetterCase("jdbc:h2:mem:test", "sa", "",
+                                                            LetterCase.TABLE_DEFAULT, LetterCase.COLUMN_DEFAULT,
+                                                            LetterCase.PRIMARY_KEY_DEFAULT, loadOptions);
+    DataSourceWithLetterCase dataSourceWithLoadOptions = new DataSourceWithLetterCase(dataSource,
+                                                                                      LetterCase.TABLE_DEFAULT,
+                                                                                      LetterCase.COLUMN_DEFAULT,
+                                                                                      LetterCase.PRIMARY_KEY_DEFAULT,
+                                                                                      loadOptions);
+    DataSourceWithLetterCase dataSourceWithLetterCase = new DataSourceWithLetterCase(dataSource,
+                                                                                     LetterCase.TABLE_DEFAULT,
+                                                                                     LetterCase.COLUMN_DEFAULT,
+                                                                                     LetterCase.PRIMARY_KEY_DEFAULT);
+
+    assertThat(new Table(source, "movie").getLoadOptions()).isSameAs(LoadOptions.DEFAULT);
+    assertThat(new Table(dataSource, "movie").getLoadOptions()).isSameAs(LoadOptions.DEFAULT);
+    assertThat(new Table(dataSourceWithLetterCase, "movie").getLoadOptions()).isSameAs(LoadOptions.DEFAULT);
+    assertThat(new Table(sourceWithLoadOptions, "movie").getLoadOptions()).isSameAs(loadOptions);
+    assertThat(new Request(dataSourceWithLoadOptions, "select * from movie").getLoadOptions()).isSameAs(loadOptions);
+    assertThat(dataSourceWithLoadOptions.getLoadOptions()).isSameAs(loadOptions);
+
+    LoadOptions otherLoadOptions = new LoadOptions(10, 0, false);
+    assertThat(new Table(sourceWithLoadOptions, "movie").setLoadOptions(otherLoadOptions).getLoadOptions())
+            .isSameAs(otherLoadOptions);
+    assertThat(otherLoadOptions.getFetchSize()).isEqualTo(10);
+    assertThat(otherLoadOptions.getQueryTimeout()).isEqualTo(0);
+    assertThat(otherLoadOptions.isReadOnlyConnection()).isFalse();
+  }
+
+  /**
+   * This method tests the loading of the data with options.
+   */
+  @Test
+  public void test_loading_with_load_options() {
+    LoadOptions loadOptions = new LoadOptions(1, 10, true);
+
+    Table table = new Table(source, "movie").setLoadOptions(loadOptions);
+    assertThat(table.getRowsList()).hasSize(3);
+    assertThat(table.getRow(2).getColumnValue("TITLE").getValue()).isEqualTo("Avatar");
+
+    Request request = new Request(dataSource, "select title from movie where id = ?", 2).setLoadOptions(loadOptions);
+    assertThat(request.getRowsList()).hasSize(1);
+    assertThat(request.getRow(0).getColumnValue("TITLE").getValue()).isEqualTo("The Village");
+
+    Changes changes = new Changes(new Table(dataSource, "movie").setLoadOptions(loadOptions));
+    changes.setStartPointNow();
+    changes.setEndPointNow();
+    assertThat(changes.getChangesList()).isEmpty();
+
+    Table tableWithDefaultOptions = new Table(dataSource, "movie");
+    assertThat(tableWithDefaultOptions.getRow(0).getColumnValue("ID").getValue()).isEqualTo(new BigDecimal(1));
+  }
+
+  /**
+   * This method should fail because the options are {@code null}.
+   */
+  @Test(expected = NullPointerException.class)
+  public void should_fail_because_load_options_are_null() {
+    new Table(source, "movie").setLoadOptions(null);
+  }
+
+  /**
+   * This method should fail because the options given to the constructor of the source are {@code null}.
+   */
+  @Test
+  public void should_fail_because_load_options_of_the_source_are_null() {
+    try {
+      new SourceWithLetterCase("jdbc:h2:mem:test", "sa", "", LetterCase.TABLE_DEFAULT, LetterCase.COLUMN_DEFAULT,
+                               LetterCase.PRIMARY_KEY_DEFAULT, null);
+      fail("An exception must be raised");
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("loadOptions must be not null");
+    }
+    try {
+      new DataSourceWithLetterCase(dataSource, LetterCase.TABLE_DEFAULT, LetterCase.COLUMN_DEFAULT,
+                                   LetterCase.PRIMARY_KEY_DEFAULT, null);
+      fail("An exception must be raised");
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("loadOptions must be not null");
+    }
+  }
+
+  /**
+   * This method should fail because the fetch size or the query timeout are negative.
+   */
+  @Test
+  public void should_fail_because_fetch_size_or_query_timeout_is_negative() {
+    try {
+      new LoadOptions(-1, 0, false);
+      fail("An exception must be raised");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).isEqualTo("fetchSize must be positive or zero");
+    }
+    try {
+      new LoadOptions(0, -1, false);
+      fail("An exception must be raised");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).isEqualTo("queryTimeout must be positive or zero");
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.type;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.exception.AssertJDBException;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tests on the snapshot files of {@code Table} and {@code Request}.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Table_Snapshot_Test extends AbstractTest {
+
+  /**
+   * Returns the objects of the values of the rows.
+   *
+   * @param data The data.
+   * @return The objects.
+   */
+  private static List<List<Object>> getObjectsList(AbstractDbData<?> data) {
+    List<List<Object>> objectsList = new ArrayList<>();
+    for (Row row : data.getRowsList()) {
+      List<Object> rowObjectsList = new ArrayList<>();
+      for (Value value : row.getValuesList()) {
+        Object object = value.getValue();
+        rowObjectsList.add(object instanceof byte[] ? new String((byte[]) object) : object);
+      }
+      objectsList.add(rowObjectsList);
+    }
+    return objectsList;
+  }
+
+  /**
+   * Returns a new temporary file.
+   *
+   * @return The file.
+   * @throws IOException I/O Exception.
+   */
+  private static File createFile() throws IOException {
+    File file = File.createTempFile("assertj-db-test-", ".snapshot");
+    file.deleteOnExit();
+    return file;
+  }
+
+  /**
+   * Returns the position of the first string value {@code x} (its type, its length and its character) in a file.
+   *
+   * @param file The file.
+   * @return The position.
+   * @throws IOException I/O Exception.
+   */
+  private static int getPositionOfValue(File file) throws IOException {
+    byte[] bytes;
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+      bytes = new byte[(int) randomAccessFile.length()];
+      randomAccessFile.readFully(bytes);
+    }
+    byte[] value = { 10, 0, 0, 0, 1, "x".getBytes(StandardCharsets.UTF_8)[0] };
+    for (int position = 0; position <= bytes.length - value.length; position++) {
+      boolean found = true;
+      for (int index = 0; index < value.length && found; index++) {
+        found = bytes[position + index] == value[index];
+      }
+      if (found) {
+        return position;
+      }
+    }
+    throw new AssertionError("The value is not in the file");
+  }
+
+  /**
+   * This method tests that a table read from a snapshot file is the same than the table loaded.
+   */
+  @Test
+  public void test_table_read_from_snapshot_is_the_same() throws IOException {
+    File file = createFile();
+    Table table = new Table(source, "test");
+    assertThat(table.writeSnapshot(file)).isSameAs(table);
+
+    Table tableFromSnapshot = new Table().setName("test");
+    assertThat(tableFromSnapshot.readSnapshot(file)).isSameAs(tableFromSnapshot);
+    assertThat(tableFromSnapshot.getColumnsNameList()).isEqualTo(table.getColumnsNameList());
+    assertThat(tableFromSnapshot.getPksNameList()).isEqualTo(table.getPksNameList());
+    assertThat(getObjectsList(tableFromSnapshot)).isEqualTo(getObjectsList(table));
+    assertThat(tableFromSnapshot.getRowFromPksValues(table.getRow(1).getPksValues()).getValuesList().get(1)
+                                .getValue()).isEqualTo(table.getRow(1).getValuesList().get(1).getValue());
+  }
+
+  /**
+   * This method tests that a request read from a snapshot file is the same than the request loaded.
+   */
+  @Test
+  public void test_request_read_from_snapshot_is_the_same() throws IOException {
+    File file = createFile();
+    Request request = new Request(source, "select * from movie").setPksName("ID");
+    request.writeSnapshot(file);
+
+    Request requestFromSnapshot = new Request().setRequest("select * from movie").readSnapshot(file);
+    assertThat(requestFromSnapshot.getColumnsNameList()).isEqualTo(request.getColumnsNameList());
+    assertThat(requestFromSnapshot.getPksNameList()).containsExactly("ID");
+    assertThat(getObjectsList(requestFromSnapshot)).isEqualTo(getObjectsList(request));
+  }
+
+  /**
+   * This method should fail because the data is not in the snapshot file.
+   */
+  @Test
+  public void should_fail_because_data_is_not_in_snapshot() throws IOException {
+    File file = createFile();
+    new Table(source, "movie").writeSnapshot(file);
+    try {
+      new Table().setName("actor").readSnapshot(file);
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("The snapshot file " + file + " does not contain the data");
+    }
+  }
+
+  /**
+   * This method should fail because the position of the index is out of the snapshot file.
+   */
+  @Test
+  public void should_fail_because_index_is_out_of_snapshot() throws IOException {
+    File file = createFile();
+    new Table(source, "movie").writeSnapshot(file);
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.seek(randomAccessFile.length() - 4);
+      randomAccessFile.writeInt(Integer.MAX_VALUE);
+    }
+    try {
+      new Table().setName("movie").readSnapshot(file);
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("The snapshot file " + file + " is corrupted");
+    }
+  }
+
+  /**
+   * This method should fail because the snapshot file is truncated.
+   */
+  @Test
+  public void should_fail_because_snapshot_is_truncated() throws IOException {
+    File file = createFile();
+    new Table(source, "movie").writeSnapshot(file);
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.setLength(randomAccessFile.length() / 2);
+    }
+    try {
+      new Table().setName("movie").readSnapshot(file);
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isIn("The snapshot file " + file + " is corrupted",
+                                      "The snapshot file " + file + " does not contain the data");
+    }
+  }
+
+  /**
+   * This method should fail because the length of a value is greater than the snapshot file.
+   */
+  @Test
+  public void should_fail_because_length_of_value_is_out_of_snapshot() throws IOException {
+    File file = createFile();
+    new Request(source, "select 'x' as a from movie").writeSnapshot(file);
+    int position = getPositionOfValue(file);
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.seek(position + 1);
+      randomAccessFile.writeInt(Integer.MAX_VALUE);
+    }
+    try {
+      new Request().setRequest("select 'x' as a from movie").readSnapshot(file);
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("The snapshot file " + file + " is corrupted");
+    }
+  }
+
+  /**
+   * This method should fail because the type of a value is unknown (the serialized objects are not read).
+   */
+  @Test
+  public void should_fail_because_type_of_value_is_unknown() throws IOException {
+    File file = createFile();
+    new Request(source, "select 'x' as a from movie").writeSnapshot(file);
+    int position = getPositionOfValue(file);
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.seek(position);
+      randomAccessFile.writeByte(16);
+    }
+    try {
+      new Request().setRequest("select 'x' as a from movie").readSnapshot(file);
+      fail("An exception must be raised");
+    } catch (AssertJDBException e) {
+      assertThat(e.getMessage()).isEqualTo("The snapshot file " + file + " is corrupted");
+    }
+  }
+}
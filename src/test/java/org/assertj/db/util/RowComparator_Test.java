@@ -13,9 +13,13 @@
 package org.assertj.db.util;
 
 import org.assertj.db.common.AbstractTest;
+import org.assertj.db.type.Row;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -138,4 +142,25 @@ public class RowComparator_Test extends AbstractTest {
             getRow(Arrays.asList("name"), Arrays.asList("id", "name"), Arrays.asList(getValue(null, 1), getValue(null,
                                                                                                                  new byte[] {1}))))).isEqualTo(0);
   }
+
+  /**
+   * Test the {@code sort} method (in parallel and with the same order than {@code Collections.sort}).
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  public void test_sort() throws Exception {
+    List<Row> rowsList = new ArrayList<>();
+    for (int index = 0; index < KeyedSort.PARALLEL_THRESHOLD * 3; index++) {
+      int id = (index * 7919) % 1000;
+      rowsList.add(getRow(Arrays.asList("id"), Arrays.asList("id", "name"),
+                          Arrays.asList(getValue(null, id), getValue(null, id % 3 == 0 ? null : "test" + (id % 7)))));
+    }
+    List<Row> expectedRowsList = new ArrayList<>(rowsList);
+    Collections.sort(expectedRowsList, RowComparator.INSTANCE);
+
+    RowComparator.sort(rowsList);
+
+    assertThat(rowsList).containsExactlyElementsOf(expectedRowsList);
+  }
 }
@@ -210,4 +210,17 @@ public class Values_AreEqual_Object_And_Number_Test extends AbstractTest {
   public void test_are_equal_for_other_and_other() throws Exception {
     assertThat(Values.areEqual(getValue(null, "-"), 1)).isFalse();
   }
+
+  /**
+   * This method tests the {@code areEqual} method for the numbers out of the range of {@code long}.
+   */
+  @Test
+  public void test_are_equal_for_large_numbers() throws Exception {
+    BigInteger big = new BigInteger("18446744073709551616");
+    assertThat(Values.areEqual(getValue(null, 0L), big)).isFalse();
+    assertThat(Values.areEqual(getValue(null, big), 0L)).isFalse();
+    assertThat(Values.areEqual(getValue(null, Long.MAX_VALUE), BigInteger.valueOf(Long.MAX_VALUE))).isTrue();
+    assertThat(Values.areEqual(getValue(null, BigInteger.valueOf(Long.MIN_VALUE)), Long.MIN_VALUE)).isTrue();
+    assertThat(Values.areEqual(getValue(null, new BigDecimal("2.00")), 2)).isTrue();
+  }
 }
@@ -243,4 +243,21 @@ public class Values_Compare_Object_And_Number_Test extends AbstractTest {
     assertThat(Values.compare(getValue(null, "-"), 1));
   }
 
+  /**
+   * This method tests the {@code compare} method for the numbers out of the range of {@code long} or of the precision
+   * of {@code double}.
+   */
+  @Test
+  public void test_compare_for_large_numbers() throws Exception {
+    BigInteger big = new BigInteger("123456789012345678901234567890");
+    assertThat(Values.compare(getValue(null, Long.MAX_VALUE), big)).isEqualTo(-1);
+    assertThat(Values.compare(getValue(null, Long.MIN_VALUE), big.negate())).isEqualTo(1);
+    assertThat(Values.compare(getValue(null, big), Long.MAX_VALUE)).isEqualTo(1);
+    assertThat(Values.compare(getValue(null, big.negate()), 1)).isEqualTo(-1);
+    assertThat(Values.compare(getValue(null, new BigInteger("9007199254740993")), 9007199254740992L)).isEqualTo(1);
+    assertThat(Values.compare(getValue(null, 9007199254740993L), 9007199254740992L)).isEqualTo(1);
+    assertThat(Values.compare(getValue(null, new BigDecimal("1.5")), 1)).isEqualTo(1);
+    assertThat(Values.compare(getValue(null, new BigDecimal("1.0")), 1)).isEqualTo(0);
+    assertThat(Values.compare(getValue(null, 1.5D), new BigDecimal("1.5"))).isEqualTo(0);
+  }
 }
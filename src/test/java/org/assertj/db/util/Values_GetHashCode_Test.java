@@ -0,0 +1,91 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * Copyright 2012-2016 the original author or authors.
+ */
+package org.assertj.db.util;
+
+import org.assertj.db.common.AbstractTest;
+import org.assertj.db.type.Value;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests on {@code getHashCode} method.
+ *
+ * @author Régis Pouiller
+ *
+ */
+public class Values_GetHashCode_Test extends AbstractTest {
+
+  /**
+   * This method tests the {@code getHashCode} method for the numbers.
+   */
+  @Test
+  public void test_get_hash_code_for_numbers() throws Exception {
+    int hashCode = Values.getHashCode(getValue(null, 1));
+    assertThat(Values.getHashCode(getValue(null, (byte) 1))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, (short) 1))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, 1L))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, 1F))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, 1D))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, new BigInteger("1")))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, new BigDecimal("1")))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, new BigDecimal("1.00")))).isEqualTo(hashCode);
+    assertThat(Values.getHashCode(getValue(null, 0))).isEqualTo(Values.getHashCode(getValue(null, new BigDecimal("0.00"))));
+    assertThat(Values.getHashCode(getValue(null, 123456789012L)))
+            .isEqualTo(Values.getHashCode(getValue(null, new BigDecimal("123456789012.0"))));
+    assertThat(Values.getHashCode(getValue(null, 5.6F)))
+            .isEqualTo(Values.getHashCode(getValue(null, new BigDecimal("5.60"))));
+    assertThat(Values.getHashCode(getValue(null, 0.1D))).isEqualTo(Values.getHashCode(getValue(null, 0.1F)));
+    assertThat(Values.getHashCode(getValue(null, new BigInteger("100000000000000000000"))))
+            .isEqualTo(Values.getHashCode(getValue(null, new BigDecimal("100000000000000000000"))));
+    assertThat(Values.getHashCode(getValue(null, 1))).isNotEqualTo(Values.getHashCode(getValue(null, 2L)));
+  }
+
+  /**
+   * This method tests the {@code getHashCode} method for the other types of values.
+   */
+  @Test
+  public void test_get_hash_code_for_other_values() throws Exception {
+    assertThat(Values.getHashCode(getValue(null, null))).isEqualTo(0);
+    assertThat(Values.getHashCode(getValue(null, "text"))).isEqualTo("text".hashCode());
+    assertThat(Values.getHashCode(getValue(null, true))).isEqualTo(Boolean.TRUE.hashCode());
+    assertThat(Values.getHashCode(getValue(null, new byte[] { 1, 2 })))
+            .isEqualTo(Values.getHashCode(getValue(null, new byte[] { 1, 2 })));
+    assertThat(Values.getHashCode(getValue(null, UUID.fromString("30B443AE-C0C9-4790-9BEC-CE1380808435"))))
+            .isEqualTo(Values.getHashCode(getValue(null, UUID.fromString("30b443ae-c0c9-4790-9bec-ce1380808435"))));
+    assertThat(Values.getHashCode(getValue(null, Date.valueOf("2014-05-24"))))
+            .isEqualTo(Values.getHashCode(getValue(null, Date.valueOf("2014-05-24"))));
+    assertThat(Values.getHashCode(getValue(null, Time.valueOf("09:46:30"))))
+            .isEqualTo(Values.getHashCode(getValue(null, Time.valueOf("09:46:30"))));
+    assertThat(Values.getHashCode(getValue(null, Timestamp.valueOf("2014-05-24 09:46:30"))))
+            .isEqualTo(Values.getHashCode(getValue(null, Timestamp.valueOf("2014-05-24 09:46:30"))));
+  }
+
+  /**
+   * This method tests the {@code getHashCode} method for an array of values.
+   */
+  @Test
+  public void test_get_hash_code_for_array_of_values() throws Exception {
+    assertThat(Values.getHashCode(new Value[] { getValue(null, 1), getValue(null, "text") }))
+            .isEqualTo(Values.getHashCode(new Value[] { getValue(null, 1L), getValue(null, "text") }));
+    assertThat(Values.getHashCode(new Value[] { getValue(null, 1), getValue(null, "text") }))
+            .isNotEqualTo(Values.getHashCode(new Value[] { getValue(null, "text"), getValue(null, 1) }));
+  }
+}